@@ -28,6 +28,19 @@ interface UpdateDatasourceTablesDto {
   tables?: string[];
 }
 
+export interface SchemaInitProgress {
+  datasourceId: number;
+  status: 'running' | 'success' | 'partial' | 'failed';
+  totalTables: number;
+  fetchedTables: number;
+  sampledTables: number;
+  storedTables: number;
+  failedTables: string[];
+  message?: string;
+  startTime: number;
+  endTime?: number;
+}
+
 const BASE_URL_FUNC = (agentId: string) => `/api/agent/${agentId}/datasources`;
 
 class AgentDatasourceService {
@@ -44,6 +57,21 @@ class AgentDatasourceService {
     }
   }
 
+  /**
+   * 获取最近一次Schema初始化的进度
+   * @param agentId 智能体ID
+   */
+  async getInitProgress(agentId: string): Promise<SchemaInitProgress | null> {
+    try {
+      const response = await axios.get<ApiResponse<SchemaInitProgress>>(
+        `${BASE_URL_FUNC(agentId)}/init/progress`,
+      );
+      return response.data.data ?? null;
+    } catch (error) {
+      throw new Error(`获取初始化进度失败: ${error}`);
+    }
+  }
+
   /**
    * 获取智能体的数据源列表
    * @param agentId 智能体ID
@@ -38,4 +38,9 @@ public class DbConfigBO {
 
 	private String dialectType;
 
+	/**
+	 * 连接池配置名称，为空时使用默认配置
+	 */
+	private String poolProfile;
+
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.bo.schema;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * 列式结果集。列头只保存一份，每一列按 JDBC 类型存储为原始类型数组或字符串数组， 对外以只读的
+ * {@code List<Map<String, String>>} 行视图暴露，避免为每一行创建 HashMap 和重复的列名 key。
+ *
+ * <p>
+ * 行视图与原有实现保持一致：NULL 值读取为空字符串，重复的列名只保留第一次出现的列。
+ */
+public final class ColumnarResultSet extends AbstractList<Map<String, String>> implements RandomAccess {
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private final String[] header;
+
+	/**
+	 * 去重后的列下标，行视图只遍历这些列
+	 */
+	private final int[] distinctColumns;
+
+	private final Map<String, Integer> headerIndex;
+
+	private final ColumnVector[] vectors;
+
+	private int rowCount;
+
+	public ColumnarResultSet(String[] header, int[] sqlTypes) {
+		this.header = header;
+		this.headerIndex = new HashMap<>(header.length * 2);
+		int[] distinct = new int[header.length];
+		int distinctCount = 0;
+		for (int i = 0; i < header.length; i++) {
+			if (headerIndex.putIfAbsent(header[i], i) == null) {
+				distinct[distinctCount++] = i;
+			}
+		}
+		this.distinctColumns = Arrays.copyOf(distinct, distinctCount);
+		this.vectors = new ColumnVector[header.length];
+		for (int i = 0; i < header.length; i++) {
+			vectors[i] = isIntegral(sqlTypes[i]) ? new LongVector() : new StringVector();
+		}
+	}
+
+	/**
+	 * 读取 ResultSet 当前行并追加到各列末尾
+	 * @param rs 已定位到某一行的 ResultSet
+	 */
+	public void appendRow(ResultSet rs) throws SQLException {
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i].append(rs, i + 1, rowCount);
+		}
+		rowCount++;
+	}
+
+	public List<String> getHeader() {
+		return List.of(header);
+	}
+
+	public String getValue(int row, int column) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("Row index " + row + " out of bounds for size " + rowCount);
+		}
+		return vectors[column].get(row);
+	}
+
+	/**
+	 * 将行视图复制为普通的 LinkedHashMap 列表，用于需要放入图状态等可被序列化/修改的场景
+	 */
+	public List<Map<String, String>> toRowMaps() {
+		List<Map<String, String>> rows = new ArrayList<>(rowCount);
+		for (int r = 0; r < rowCount; r++) {
+			Map<String, String> row = new LinkedHashMap<>(distinctColumns.length * 2);
+			for (int c : distinctColumns) {
+				row.put(header[c], vectors[c].get(r));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	@Override
+	public Map<String, String> get(int index) {
+		if (index < 0 || index >= rowCount) {
+			throw new IndexOutOfBoundsException("Row index " + index + " out of bounds for size " + rowCount);
+		}
+		return new RowView(index);
+	}
+
+	@Override
+	public int size() {
+		return rowCount;
+	}
+
+	private static boolean isIntegral(int sqlType) {
+		// BIGINT 可能是无符号类型，超出 long 范围，因此仍按字符串存储
+		return sqlType == Types.TINYINT || sqlType == Types.SMALLINT || sqlType == Types.INTEGER;
+	}
+
+	private final class RowView extends AbstractMap<String, String> {
+
+		private final int row;
+
+		private RowView(int row) {
+			this.row = row;
+		}
+
+		@Override
+		public String get(Object key) {
+			Integer column = headerIndex.get(key);
+			return column == null ? null : vectors[column].get(row);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return headerIndex.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return distinctColumns.length;
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<String, String>> iterator() {
+					return new Iterator<>() {
+						private int cursor = 0;
+
+						@Override
+						public boolean hasNext() {
+							return cursor < distinctColumns.length;
+						}
+
+						@Override
+						public Entry<String, String> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int column = distinctColumns[cursor++];
+							return new SimpleImmutableEntry<>(header[column], vectors[column].get(row));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return distinctColumns.length;
+				}
+			};
+		}
+
+	}
+
+	private interface ColumnVector {
+
+		void append(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+		String get(int row);
+
+	}
+
+	private static final class LongVector implements ColumnVector {
+
+		private long[] values = new long[DEFAULT_CAPACITY];
+
+		private final BitSet nulls = new BitSet();
+
+		@Override
+		public void append(ResultSet rs, int columnIndex, int row) throws SQLException {
+			if (row == values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+			values[row] = rs.getLong(columnIndex);
+			if (rs.wasNull()) {
+				nulls.set(row);
+			}
+		}
+
+		@Override
+		public String get(int row) {
+			return nulls.get(row) ? "" : Long.toString(values[row]);
+		}
+
+	}
+
+	private static final class StringVector implements ColumnVector {
+
+		private String[] values = new String[DEFAULT_CAPACITY];
+
+		@Override
+		public void append(ResultSet rs, int columnIndex, int row) throws SQLException {
+			if (row == values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+			values[row] = rs.getString(columnIndex);
+		}
+
+		@Override
+		public String get(int row) {
+			String value = values[row];
+			return value == null ? "" : value;
+		}
+
+	}
+
+}
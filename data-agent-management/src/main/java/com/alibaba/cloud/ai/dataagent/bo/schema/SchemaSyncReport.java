@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.bo.schema;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema初始化结果报告。增量模式下记录新增、变更、删除的表和列（列以 "表名.列名" 表示）， 全量模式下所有表和列均记为新增。
+ */
+@Data
+@NoArgsConstructor
+public class SchemaSyncReport {
+
+	private Integer datasourceId;
+
+	private boolean incremental;
+
+	private List<String> addedTables = new ArrayList<>();
+
+	private List<String> changedTables = new ArrayList<>();
+
+	private List<String> removedTables = new ArrayList<>();
+
+	private List<String> addedColumns = new ArrayList<>();
+
+	private List<String> changedColumns = new ArrayList<>();
+
+	private List<String> removedColumns = new ArrayList<>();
+
+	/**
+	 * 重试后仍处理失败的表，这些表的旧文档保持不变，可再次初始化补齐
+	 */
+	private List<String> failedTables = new ArrayList<>();
+
+	private int unchangedTables;
+
+	private int unchangedColumns;
+
+	public SchemaSyncReport(Integer datasourceId, boolean incremental) {
+		this.datasourceId = datasourceId;
+		this.incremental = incremental;
+	}
+
+	/**
+	 * 合并一个批次的结果，流水线各批次并发调用
+	 */
+	public synchronized void merge(SchemaSyncReport other) {
+		addedTables.addAll(other.addedTables);
+		changedTables.addAll(other.changedTables);
+		removedTables.addAll(other.removedTables);
+		addedColumns.addAll(other.addedColumns);
+		changedColumns.addAll(other.changedColumns);
+		removedColumns.addAll(other.removedColumns);
+		failedTables.addAll(other.failedTables);
+		unchangedTables += other.unchangedTables;
+		unchangedColumns += other.unchangedColumns;
+	}
+
+	public boolean hasChanges() {
+		return !addedTables.isEmpty() || !changedTables.isEmpty() || !removedTables.isEmpty()
+				|| !addedColumns.isEmpty() || !changedColumns.isEmpty() || !removedColumns.isEmpty();
+	}
+
+	public String summary() {
+		return String.format(
+				"tables[added=%d, changed=%d, removed=%d, unchanged=%d, failed=%d], columns[added=%d, changed=%d, removed=%d, unchanged=%d]",
+				addedTables.size(), changedTables.size(), removedTables.size(), unchangedTables, failedTables.size(),
+				addedColumns.size(), changedColumns.size(), removedColumns.size(), unchangedColumns);
+	}
+
+}
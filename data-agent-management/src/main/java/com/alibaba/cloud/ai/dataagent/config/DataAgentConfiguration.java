@@ -18,14 +18,21 @@ package com.alibaba.cloud.ai.dataagent.config;
 import com.alibaba.cloud.ai.dataagent.properties.CodeExecutorProperties;
 import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.cloud.ai.dataagent.properties.FileStorageProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.DocumentMetadataIndex;
 import com.alibaba.cloud.ai.dataagent.service.vectorstore.SimpleVectorStoreInitialization;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.ann.LocalAnnVectorStore;
 import com.alibaba.cloud.ai.dataagent.splitter.SentenceSplitter;
 import com.alibaba.cloud.ai.transformer.splitter.RecursiveCharacterTextSplitter;
 import com.alibaba.cloud.ai.dataagent.splitter.SemanticTextSplitter;
 import com.alibaba.cloud.ai.dataagent.splitter.ParagraphTextSplitter;
 import com.alibaba.cloud.ai.dataagent.util.McpServerToolUtil;
 import com.alibaba.cloud.ai.dataagent.util.NodeBeanUtil;
+import com.alibaba.cloud.ai.dataagent.util.VirtualThreadUtil;
 import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.AiModelRegistry;
+import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.CachingEmbeddingInterceptor;
+import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.EmbeddingCache;
+import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.InFlightEmbeddingInterceptor;
+import com.alibaba.cloud.ai.dataagent.service.knowledge.EmbeddingRateLimiter;
 import com.alibaba.cloud.ai.dataagent.strategy.EnhancedTokenCountBatchingStrategy;
 import com.alibaba.cloud.ai.dataagent.workflow.dispatcher.*;
 import com.alibaba.cloud.ai.dataagent.workflow.node.*;
@@ -51,6 +58,7 @@ import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -67,6 +75,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
@@ -130,6 +139,7 @@ public class DataAgentConfiguration implements DisposableBean {
 			keyStrategyHashMap.put(INTENT_RECOGNITION_NODE_OUTPUT, KeyStrategy.REPLACE);
 			// QUERY_ENHANCE_NODE节点输出
 			keyStrategyHashMap.put(QUERY_ENHANCE_NODE_OUTPUT, KeyStrategy.REPLACE);
+			keyStrategyHashMap.put(SEMANTIC_CACHE_HIT, KeyStrategy.REPLACE);
 			// Semantic model
 			keyStrategyHashMap.put(GENEGRATED_SEMANTIC_MODEL_PROMPT, KeyStrategy.REPLACE);
 			// EVIDENCE节点输出
@@ -149,6 +159,8 @@ public class DataAgentConfiguration implements DisposableBean {
 			keyStrategyHashMap.put(SQL_GENERATE_OUTPUT, KeyStrategy.REPLACE);
 			keyStrategyHashMap.put(SQL_GENERATE_COUNT, KeyStrategy.REPLACE);
 			keyStrategyHashMap.put(SQL_REGENERATE_REASON, KeyStrategy.REPLACE);
+			// SQL预校验节点输出
+			keyStrategyHashMap.put(SQL_VALIDATE_NODE_OUTPUT, KeyStrategy.REPLACE);
 			// Semantic consistence节点输出
 			keyStrategyHashMap.put(SEMANTIC_CONSISTENCY_NODE_OUTPUT, KeyStrategy.REPLACE);
 			// Planner 节点输出
@@ -196,6 +208,7 @@ public class DataAgentConfiguration implements DisposableBean {
 			.addNode(PYTHON_EXECUTE_NODE, nodeBeanUtil.getNodeBeanAsync(PythonExecuteNode.class))
 			.addNode(PYTHON_ANALYZE_NODE, nodeBeanUtil.getNodeBeanAsync(PythonAnalyzeNode.class))
 			.addNode(REPORT_GENERATOR_NODE, nodeBeanUtil.getNodeBeanAsync(ReportGeneratorNode.class))
+			.addNode(SQL_VALIDATE_NODE, nodeBeanUtil.getNodeBeanAsync(SqlValidateNode.class))
 			.addNode(SEMANTIC_CONSISTENCY_NODE, nodeBeanUtil.getNodeBeanAsync(SemanticConsistencyNode.class))
 			.addNode(HUMAN_FEEDBACK_NODE, nodeBeanUtil.getNodeBeanAsync(HumanFeedbackNode.class));
 
@@ -204,7 +217,7 @@ public class DataAgentConfiguration implements DisposableBean {
 					Map.of(EVIDENCE_RECALL_NODE, EVIDENCE_RECALL_NODE, END, END))
 			.addEdge(EVIDENCE_RECALL_NODE, QUERY_ENHANCE_NODE)
 			.addConditionalEdges(QUERY_ENHANCE_NODE, edge_async(new QueryEnhanceDispatcher()),
-					Map.of(SCHEMA_RECALL_NODE, SCHEMA_RECALL_NODE, END, END))
+					Map.of(SCHEMA_RECALL_NODE, SCHEMA_RECALL_NODE, SQL_EXECUTE_NODE, SQL_EXECUTE_NODE, END, END))
 			.addConditionalEdges(SCHEMA_RECALL_NODE, edge_async(new SchemaRecallDispatcher()),
 					Map.of(TABLE_RELATION_NODE, TABLE_RELATION_NODE, END, END))
 
@@ -245,12 +258,14 @@ public class DataAgentConfiguration implements DisposableBean {
 			.addEdge(REPORT_GENERATOR_NODE, END)
 			// sql generate and sql execute node
 			.addConditionalEdges(SQL_GENERATE_NODE, nodeBeanUtil.getEdgeBeanAsync(SqlGenerateDispatcher.class),
-					Map.of(SQL_GENERATE_NODE, SQL_GENERATE_NODE, END, END, SEMANTIC_CONSISTENCY_NODE,
-							SEMANTIC_CONSISTENCY_NODE))
+					Map.of(SQL_GENERATE_NODE, SQL_GENERATE_NODE, END, END, SQL_VALIDATE_NODE, SQL_VALIDATE_NODE))
+			.addConditionalEdges(SQL_VALIDATE_NODE, edge_async(new SqlValidateDispatcher()),
+					Map.of(SQL_GENERATE_NODE, SQL_GENERATE_NODE, SEMANTIC_CONSISTENCY_NODE, SEMANTIC_CONSISTENCY_NODE))
 			.addConditionalEdges(SEMANTIC_CONSISTENCY_NODE, edge_async(new SemanticConsistenceDispatcher()),
 					Map.of(SQL_GENERATE_NODE, SQL_GENERATE_NODE, SQL_EXECUTE_NODE, SQL_EXECUTE_NODE))
 			.addConditionalEdges(SQL_EXECUTE_NODE, edge_async(new SQLExecutorDispatcher()),
-					Map.of(SQL_GENERATE_NODE, SQL_GENERATE_NODE, PLAN_EXECUTOR_NODE, PLAN_EXECUTOR_NODE));
+					Map.of(SQL_GENERATE_NODE, SQL_GENERATE_NODE, PLAN_EXECUTOR_NODE, PLAN_EXECUTOR_NODE,
+							SCHEMA_RECALL_NODE, SCHEMA_RECALL_NODE));
 
 		GraphRepresentation graphRepresentation = stateGraph.getGraph(GraphRepresentation.Type.PLANTUML,
 				"workflow graph");
@@ -273,11 +288,25 @@ public class DataAgentConfiguration implements DisposableBean {
 		return SimpleVectorStore.builder(embeddingModel).build();
 	}
 
+	/**
+	 * 本地持久化的HNSW向量库：向量内存映射、写操作先落WAL，启动时无需整体反序列化。首次启用时导入SimpleVectorStore的序列化文件
+	 */
+	@Primary
+	@Bean
+	@ConditionalOnMissingBean(VectorStore.class)
+	@ConditionalOnProperty(name = "spring.ai.vectorstore.type", havingValue = "local-ann")
+	public LocalAnnVectorStore localAnnVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy,
+			DataAgentProperties properties) {
+		LocalAnnVectorStore vectorStore = new LocalAnnVectorStore(embeddingModel, batchingStrategy, properties);
+		vectorStore.importSimpleVectorStoreFile(Paths.get(properties.getVectorStore().getFilePath()));
+		return vectorStore;
+	}
+
 	@Bean
 	@ConditionalOnBean(SimpleVectorStore.class)
 	public SimpleVectorStoreInitialization simpleVectorStoreInitialization(SimpleVectorStore vectorStore,
-			DataAgentProperties properties) {
-		return new SimpleVectorStoreInitialization(vectorStore, properties);
+			DataAgentProperties properties, DocumentMetadataIndex metadataIndex) {
+		return new SimpleVectorStoreInitialization(vectorStore, properties, metadataIndex);
 	}
 
 	@Bean
@@ -325,7 +354,7 @@ public class DataAgentConfiguration implements DisposableBean {
 	 */
 	@Bean
 	@Primary
-	public EmbeddingModel embeddingModel(AiModelRegistry registry) {
+	public EmbeddingModel embeddingModel(AiModelRegistry registry, EmbeddingCache embeddingCache) {
 
 		// 1. 定义目标源 (TargetSource)
 		TargetSource targetSource = new TargetSource() {
@@ -357,38 +386,125 @@ public class DataAgentConfiguration implements DisposableBean {
 		proxyFactory.setTargetSource(targetSource);
 		// 代理接口
 		proxyFactory.addInterface(EmbeddingModel.class);
+		// 已计算过的文本直接返回缓存向量，批量调用只发送未命中的文本
+		proxyFactory.addAdvice(new CachingEmbeddingInterceptor(embeddingCache, registry));
+		// 并发的相同文本嵌入请求只调用一次模型
+		proxyFactory.addAdvice(new InFlightEmbeddingInterceptor());
 
 		// 3. 返回动态生成的代理对象
 		return (EmbeddingModel) proxyFactory.getProxy();
 	}
 
+	@Primary
 	@Bean(name = "dbOperationExecutor")
-	public ExecutorService dbOperationExecutor() {
+	public ExecutorService dbOperationExecutor(DataAgentProperties properties) {
+		if (useVirtualThreads(properties)) {
+			// 虚拟线程模式下每个任务一个虚拟线程，阻塞在IO上时不占用平台线程
+			log.info("Database operation executor initialized with virtual threads");
+			this.dbOperationExecutor = VirtualThreadUtil.newVirtualThreadExecutor("db-operation-");
+			return dbOperationExecutor;
+		}
+
 		// 初始化专用线程池，用于数据库操作
 		// 线程数量设置为CPU核心数的2倍，但不少于4个，不超过16个
 		int corePoolSize = Math.max(4, Math.min(Runtime.getRuntime().availableProcessors() * 2, 16));
 		log.info("Database operation executor initialized with {} threads", corePoolSize);
 
-		// 自定义线程工厂
-		ThreadFactory threadFactory = new ThreadFactory() {
-			private final AtomicInteger threadNumber = new AtomicInteger(1);
+		// 非守护线程，关闭时在 destroy 中等待已提交的任务完成
+		this.dbOperationExecutor = newThreadPool("db-operation-", corePoolSize, 500, false,
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		return dbOperationExecutor;
+	}
 
-			@Override
-			public Thread newThread(Runnable r) {
-				Thread t = new Thread(r, "db-operation-" + threadNumber.getAndIncrement());
-				t.setDaemon(false);
-				if (t.getPriority() != Thread.NORM_PRIORITY) {
-					t.setPriority(Thread.NORM_PRIORITY);
-				}
-				return t;
-			}
-		};
+	@Bean(name = "sqlExecutionExecutor")
+	public ExecutorService sqlExecutionExecutor(DataAgentProperties properties) {
+		// 业务库SQL执行专用的有界线程池，与其他数据库操作隔离，队列满时直接拒绝而不是占用调用线程
+		if (useVirtualThreads(properties)) {
+			// 虚拟线程模式下不再限制线程数，并发由智能体并发上限和连接池大小约束
+			log.info("SQL execution executor initialized with virtual threads");
+			return VirtualThreadUtil.newVirtualThreadExecutor("sql-execute-");
+		}
+		DataAgentProperties.SqlExecution config = properties.getSqlExecution();
+		int poolSize = Math.max(1, config.getPoolSize());
+		log.info("SQL execution executor initialized with {} threads, queue capacity {}", poolSize,
+				config.getQueueCapacity());
+		return newThreadPool("sql-execute-", poolSize, Math.max(1, config.getQueueCapacity()), true,
+				new ThreadPoolExecutor.AbortPolicy());
+	}
 
-		// 创建原生线程池
-		this.dbOperationExecutor = new ThreadPoolExecutor(corePoolSize, corePoolSize, 60L, TimeUnit.SECONDS,
-				new LinkedBlockingQueue<>(500), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+	@Bean(name = "retrievalExecutor")
+	public ExecutorService retrievalExecutor(DataAgentProperties properties) {
+		// 图节点内部并行检索专用的线程池。图节点本身运行在 dbOperationExecutor 上，在同一线程池中提交子任务再等待，
+		// 负载高时所有工作线程都在等待排队中永远得不到调度的子任务；检索任务本身不再等待其他任务，队列满时由调用线程执行
+		if (useVirtualThreads(properties)) {
+			log.info("Retrieval executor initialized with virtual threads");
+			return VirtualThreadUtil.newVirtualThreadExecutor("retrieval-");
+		}
+		int poolSize = Math.max(4, Math.min(Runtime.getRuntime().availableProcessors() * 2, 16));
+		log.info("Retrieval executor initialized with {} threads", poolSize);
+		return newThreadPool("retrieval-", poolSize, 200, true, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
 
-		return dbOperationExecutor;
+	@Bean(name = "schemaIngestionExecutor")
+	public ExecutorService schemaIngestionExecutor(DataAgentProperties properties) {
+		// Schema初始化流水线取列、采样阶段专用的线程池，调用方在 dbOperationExecutor 上阻塞等待流水线结束，不能共用同一线程池；
+		// 同时提交的阶段任务数不超过两个阶段的并行度之和
+		if (useVirtualThreads(properties)) {
+			log.info("Schema ingestion executor initialized with virtual threads");
+			return VirtualThreadUtil.newVirtualThreadExecutor("schema-ingestion-");
+		}
+		DataAgentProperties.SchemaIngestion config = properties.getSchemaIngestion();
+		int poolSize = Math.max(1, config.getMetadataParallelism()) + Math.max(1, config.getSamplingParallelism());
+		log.info("Schema ingestion executor initialized with {} threads", poolSize);
+		return newThreadPool("schema-ingestion-", poolSize, Integer.MAX_VALUE, true,
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Bean(name = "knowledgeEmbeddingExecutor")
+	public ExecutorService knowledgeEmbeddingExecutor(DataAgentProperties properties) {
+		// 知识向量化任务专用的线程池，同时执行的任务数由 KnowledgeEmbeddingScheduler 按全局和单个智能体的上限控制
+		if (useVirtualThreads(properties)) {
+			log.info("Knowledge embedding executor initialized with virtual threads");
+			return VirtualThreadUtil.newVirtualThreadExecutor("knowledge-embedding-");
+		}
+		int poolSize = Math.max(1, properties.getKnowledgeEmbedding().getMaxConcurrentJobs());
+		log.info("Knowledge embedding executor initialized with {} threads", poolSize);
+		return newThreadPool("knowledge-embedding-", poolSize, Integer.MAX_VALUE, true,
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * 创建固定大小的平台线程池，线程按前缀加序号命名
+	 * @param threadNamePrefix 线程名前缀
+	 * @param poolSize 核心线程数和最大线程数
+	 * @param queueCapacity 等待队列容量，{@link Integer#MAX_VALUE} 表示不限
+	 * @param daemon 是否为守护线程
+	 * @param rejectionPolicy 队列已满时的拒绝策略
+	 * @return 线程池
+	 */
+	private static ThreadPoolExecutor newThreadPool(String threadNamePrefix, int poolSize, int queueCapacity,
+			boolean daemon, RejectedExecutionHandler rejectionPolicy) {
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		ThreadFactory threadFactory = r -> {
+			Thread t = new Thread(r, threadNamePrefix + threadNumber.getAndIncrement());
+			t.setDaemon(daemon);
+			t.setPriority(Thread.NORM_PRIORITY);
+			return t;
+		};
+		return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(queueCapacity), threadFactory, rejectionPolicy);
+	}
+
+	private static boolean useVirtualThreads(DataAgentProperties properties) {
+		if (!properties.isEnableVirtualThreads()) {
+			return false;
+		}
+		if (!VirtualThreadUtil.isSupported()) {
+			log.warn("Virtual threads are enabled but not supported by JDK {}, falling back to platform threads",
+					Runtime.version().feature());
+			return false;
+		}
+		return true;
 	}
 
 	@Override
@@ -477,10 +593,13 @@ public class DataAgentConfiguration implements DisposableBean {
 	 * 语义分块器
 	 * @param properties 分块配置
 	 * @param embeddingModel Embedding 模型
+	 * @param embeddingRateLimiter 与知识向量化共享的嵌入请求限速器
 	 * @return SemanticTextSplitter实例
 	 */
 	@Bean(name = "semantic")
-	public TextSplitter semanticSplitter(DataAgentProperties properties, EmbeddingModel embeddingModel) {
+	public TextSplitter semanticSplitter(DataAgentProperties properties, EmbeddingModel embeddingModel,
+			@Qualifier("semanticSplitterExecutor") ExecutorService semanticSplitterExecutor,
+			EmbeddingRateLimiter embeddingRateLimiter) {
 		DataAgentProperties.TextSplitter textSplitterProps = properties.getTextSplitter();
 		DataAgentProperties.TextSplitter.SemanticTextSplitterConfig config = textSplitterProps.getSemantic();
 		return SemanticTextSplitter.builder()
@@ -488,9 +607,28 @@ public class DataAgentConfiguration implements DisposableBean {
 			.minChunkSize(config.getMinChunkSize())
 			.maxChunkSize(config.getMaxChunkSize())
 			.similarityThreshold(config.getSimilarityThreshold())
+			.embeddingBatchSize(config.getEmbeddingBatchSize())
+			.maxConcurrentBatches(config.getMaxConcurrentBatches())
+			.embeddingExecutor(semanticSplitterExecutor)
+			.embeddingRateLimiter(embeddingRateLimiter)
+			// 虚拟线程模式下执行器不限制线程数，由所有调用共享的许可限制在途批次总数
+			.inFlightPermits(new Semaphore(Math.max(1, config.getMaxConcurrentBatches()), true))
 			.build();
 	}
 
+	/**
+	 * 语义分块器并发发送 Embedding 批次使用的线程池，平台线程模式下线程数即在途请求上限
+	 */
+	@Bean(name = "semanticSplitterExecutor")
+	public ExecutorService semanticSplitterExecutor(DataAgentProperties properties) {
+		if (useVirtualThreads(properties)) {
+			return VirtualThreadUtil.newVirtualThreadExecutor("semantic-embed-");
+		}
+		int poolSize = Math.max(1, properties.getTextSplitter().getSemantic().getMaxConcurrentBatches());
+		return newThreadPool("semantic-embed-", poolSize, Integer.MAX_VALUE, true,
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
 	/**
 	 * 段落分块器
 	 * @param properties 分块配置
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 管理库的增量表结构升级。
+ *
+ * <p>
+ * schema.sql 只在建表时生效，且 {@code spring.sql.init.mode} 默认为 never，已有的库不会自动获得新增的列。
+ * 启动时逐列检查，缺失时执行 {@code ALTER TABLE ... ADD COLUMN}，可重复执行；表尚不存在时跳过，由建表脚本创建完整结构。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ManagementSchemaUpgrade implements InitializingBean {
+
+	/**
+	 * 需要补齐的列，按版本顺序追加
+	 */
+	static final List<ColumnUpgrade> UPGRADES = List.of(new ColumnUpgrade("datasource", "pool_profile",
+			"ALTER TABLE datasource ADD COLUMN pool_profile VARCHAR(64) COMMENT '连接池配置名称，为空时使用默认配置'"));
+
+	private final DataSource dataSource;
+
+	@Override
+	public void afterPropertiesSet() {
+		try (Connection connection = dataSource.getConnection()) {
+			for (ColumnUpgrade upgrade : UPGRADES) {
+				apply(connection, upgrade);
+			}
+		}
+		catch (SQLException e) {
+			log.error("Failed to upgrade management database schema", e);
+		}
+	}
+
+	private void apply(Connection connection, ColumnUpgrade upgrade) {
+		List<String> columns;
+		try {
+			columns = columnsOf(connection, upgrade.table());
+		}
+		catch (SQLException e) {
+			log.debug("Table {} does not exist yet, skip upgrade of column {}", upgrade.table(), upgrade.column());
+			return;
+		}
+		if (columns.stream().anyMatch(upgrade.column()::equalsIgnoreCase)) {
+			return;
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(upgrade.ddl());
+			log.info("Added column {}.{} to management database", upgrade.table(), upgrade.column());
+		}
+		catch (SQLException e) {
+			log.error("Failed to add column {}.{}, run manually: {}", upgrade.table(), upgrade.column(),
+					upgrade.ddl(), e);
+		}
+	}
+
+	private static List<String> columnsOf(Connection connection, String table) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+			ResultSetMetaData metaData = resultSet.getMetaData();
+			List<String> columns = new ArrayList<>(metaData.getColumnCount());
+			for (int i = 1; i <= metaData.getColumnCount(); i++) {
+				columns.add(metaData.getColumnName(i));
+			}
+			return columns;
+		}
+	}
+
+	record ColumnUpgrade(String table, String column, String ddl) {
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.config;
+
+import com.alibaba.cloud.ai.dataagent.connector.SqlResultCache;
+import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.EmbeddingCache;
+import com.alibaba.cloud.ai.dataagent.util.JsonParseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 缓存与JSON修复统计的统一出口。
+ *
+ * <p>
+ * 启动完成后将容器中全部 {@link MeterBinder} 统一绑定到 MeterRegistry（项目未引入 actuator 时为
+ * {@link Metrics#globalRegistry}，可自行添加后端）；同时按 stats-log-interval-millis 周期把统计输出到日志，
+ * 没有指标后端时也能观察命中率。
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfiguration implements SmartInitializingSingleton {
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final ObjectProvider<MeterBinder> meterBinders;
+
+	private final SqlResultCache sqlResultCache;
+
+	private final EmbeddingCache embeddingCache;
+
+	private final JsonParseUtil jsonParseUtil;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		// 同名同标签的指标重复注册时返回已有指标，actuator 自动绑定后再次绑定不会产生重复
+		meterBinders.orderedStream().forEach(binder -> binder.bindTo(registry));
+	}
+
+	@Scheduled(fixedDelayString = "${spring.ai.alibaba.data-agent.stats-log-interval-millis:300000}",
+			initialDelayString = "${spring.ai.alibaba.data-agent.stats-log-interval-millis:300000}")
+	public void logStats() {
+		SqlResultCache.CacheStats sqlStats = sqlResultCache.getStats();
+		EmbeddingCache.CacheStats embeddingStats = embeddingCache.getStats();
+		log.info("SQL result cache hit rate {}, {}", formatRate(sqlStats.hitRate()), sqlStats);
+		log.info("Embedding cache hit rate {}, {}", formatRate(embeddingStats.hitRate()), embeddingStats);
+		log.info("JSON parse {}", jsonParseUtil.getStats());
+	}
+
+	private static String formatRate(double rate) {
+		return String.format("%.2f%%", rate * 100);
+	}
+
+}
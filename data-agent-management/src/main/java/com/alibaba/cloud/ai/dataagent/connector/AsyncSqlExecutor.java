@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
+import com.alibaba.cloud.ai.dataagent.connector.pool.DataSourcePoolRegistry;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在专用线程池上异步执行业务库SQL。
+ *
+ * <p>
+ * 返回的 {@link Mono} 被取消（例如用户停止对话、SSE连接断开）时，通过 {@link StatementCanceller} 调用
+ * {@link java.sql.Statement#cancel()} 终止数据库上仍在运行的查询；尚未开始执行的任务直接跳过。
+ * 同时按智能体限制并发执行的SQL数量，避免单个智能体占满数据库资源。并发许可在提交到线程池之前获取：
+ * 拿不到许可的任务在该智能体的等待队列中排队，由前一个任务结束时转交许可后再提交，不占用线程池的工作线程，
+ * 等待超过 acquireTimeoutMillis 后直接失败。
+ */
+@Slf4j
+@Component
+public class AsyncSqlExecutor {
+
+	private final ExecutorService executor;
+
+	private final DataAgentProperties properties;
+
+	private final DataSourcePoolRegistry poolRegistry;
+
+	private final Map<Long, AgentPermits> agentPermits = new ConcurrentHashMap<>();
+
+	public AsyncSqlExecutor(@Qualifier("sqlExecutionExecutor") ExecutorService executor,
+			DataAgentProperties properties, DataSourcePoolRegistry poolRegistry) {
+		this.executor = executor;
+		this.properties = properties;
+		this.poolRegistry = poolRegistry;
+	}
+
+	/**
+	 * 异步执行SQL查询，订阅时提交任务，取消订阅时取消数据库上的查询
+	 * @param agentId 智能体ID，用于并发限制
+	 * @param accessor 数据源访问器
+	 * @param dbConfig 数据源配置
+	 * @param param 查询参数，未指定超时时间时依次使用数据源连接池配置和全局默认值
+	 * @return 查询结果
+	 */
+	public Mono<ResultSetBO> execute(Long agentId, Accessor accessor, DbConfigBO dbConfig, DbQueryParameter param) {
+		return Mono.create(sink -> {
+			StatementCanceller canceller = new StatementCanceller();
+			if (param.getQueryTimeout() == null) {
+				Integer profileTimeout = poolRegistry.getQueryTimeout(dbConfig);
+				param.setQueryTimeout(
+						profileTimeout != null ? profileTimeout : properties.getSqlExecution().getQueryTimeoutSeconds());
+			}
+			param.setCanceller(canceller);
+			SqlTask task = new SqlTask(agentId, accessor, dbConfig, param, canceller, sink, permitsOf(agentId));
+			sink.onCancel(() -> {
+				log.info("SQL execution for agent {} cancelled by subscriber", agentId);
+				canceller.cancel();
+				task.withdraw();
+			});
+			task.start();
+		});
+	}
+
+	private AgentPermits permitsOf(Long agentId) {
+		int limit = properties.getSqlExecution().getMaxConcurrentPerAgent();
+		if (limit <= 0 || agentId == null) {
+			return null;
+		}
+		return agentPermits.computeIfAbsent(agentId, id -> new AgentPermits(limit));
+	}
+
+	/**
+	 * 单个智能体的并发许可与等待队列
+	 */
+	private static final class AgentPermits {
+
+		private final int limit;
+
+		private int running;
+
+		private final Deque<SqlTask> waiting = new ArrayDeque<>();
+
+		private AgentPermits(int limit) {
+			this.limit = limit;
+		}
+
+		/**
+		 * 有空闲许可时占用并返回true，否则排队
+		 */
+		synchronized boolean enterOrQueue(SqlTask task) {
+			if (running < limit) {
+				running++;
+				return true;
+			}
+			waiting.addLast(task);
+			return false;
+		}
+
+		synchronized boolean dequeue(SqlTask task) {
+			return waiting.remove(task);
+		}
+
+		/**
+		 * 归还许可：有排队任务时直接转交给它并返回，否则释放许可
+		 */
+		synchronized SqlTask handOver() {
+			SqlTask next = waiting.pollFirst();
+			if (next == null) {
+				running--;
+			}
+			return next;
+		}
+
+	}
+
+	private final class SqlTask implements Runnable {
+
+		private final Long agentId;
+
+		private final Accessor accessor;
+
+		private final DbConfigBO dbConfig;
+
+		private final DbQueryParameter param;
+
+		private final StatementCanceller canceller;
+
+		private final MonoSink<ResultSetBO> sink;
+
+		private final AgentPermits permits;
+
+		private SqlTask(Long agentId, Accessor accessor, DbConfigBO dbConfig, DbQueryParameter param,
+				StatementCanceller canceller, MonoSink<ResultSetBO> sink, AgentPermits permits) {
+			this.agentId = agentId;
+			this.accessor = accessor;
+			this.dbConfig = dbConfig;
+			this.param = param;
+			this.canceller = canceller;
+			this.sink = sink;
+			this.permits = permits;
+		}
+
+		void start() {
+			if (permits == null || permits.enterOrQueue(this)) {
+				submit();
+				return;
+			}
+			long timeoutMillis = properties.getSqlExecution().getAcquireTimeoutMillis();
+			Schedulers.parallel().schedule(() -> {
+				if (permits.dequeue(this)) {
+					sink.error(new IllegalStateException("当前智能体并发执行的SQL数量已达上限，请稍后重试"));
+				}
+			}, timeoutMillis, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * 订阅取消时移出等待队列，已开始执行的任务由 canceller 终止
+		 */
+		void withdraw() {
+			if (permits != null) {
+				permits.dequeue(this);
+			}
+		}
+
+		private void submit() {
+			try {
+				executor.execute(this);
+			}
+			catch (RejectedExecutionException e) {
+				sink.error(new IllegalStateException("SQL执行队列已满，请稍后重试", e));
+				finish();
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (canceller.isCancelled()) {
+					return;
+				}
+				sink.success(accessor.executeSqlAndReturnObject(dbConfig, param));
+			}
+			catch (Exception e) {
+				if (canceller.isCancelled()) {
+					log.debug("Cancelled SQL execution for agent {} ended with: {}", agentId, e.getMessage());
+				}
+				else {
+					sink.error(e);
+				}
+			}
+			finally {
+				finish();
+			}
+		}
+
+		private void finish() {
+			if (permits == null) {
+				return;
+			}
+			SqlTask next = permits.handOver();
+			if (next != null) {
+				next.submit();
+			}
+		}
+
+	}
+
+}
@@ -47,6 +47,15 @@ public class DbQueryParameter {
 
 	private String sql;
 
+	private Integer fetchSize;
+
+	private Integer queryTimeout;
+
+	/**
+	 * 执行期间绑定Statement的取消句柄，不参与相等性比较
+	 */
+	private StatementCanceller canceller;
+
 	public DbQueryParameter() {
 	}
 
@@ -175,6 +184,33 @@ public class DbQueryParameter {
 		return this;
 	}
 
+	public Integer getFetchSize() {
+		return fetchSize;
+	}
+
+	public DbQueryParameter setFetchSize(Integer fetchSize) {
+		this.fetchSize = fetchSize;
+		return this;
+	}
+
+	public Integer getQueryTimeout() {
+		return queryTimeout;
+	}
+
+	public DbQueryParameter setQueryTimeout(Integer queryTimeout) {
+		this.queryTimeout = queryTimeout;
+		return this;
+	}
+
+	public StatementCanceller getCanceller() {
+		return canceller;
+	}
+
+	public DbQueryParameter setCanceller(StatementCanceller canceller) {
+		this.canceller = canceller;
+		return this;
+	}
+
 	public static DbQueryParameter from(DbConfigBO config) {
 		DbQueryParameter param = new DbQueryParameter();
 		BeanUtils.copyProperties(config, param);
@@ -187,7 +223,7 @@ public class DbQueryParameter {
 				+ region + '\'' + ", secretArn='" + secretArn + '\'' + ", dbInstanceId='" + dbInstanceId + '\''
 				+ ", database='" + database + '\'' + ", schema='" + schema + '\'' + ", table='" + table + '\''
 				+ ", tablePattern='" + tablePattern + '\'' + ", tables=" + tables + ", column='" + column + '\''
-				+ ", sql='" + sql + '\'' + '}';
+				+ ", sql='" + sql + '\'' + ", fetchSize=" + fetchSize + ", queryTimeout=" + queryTimeout + '}';
 	}
 
 	@Override
@@ -202,13 +238,14 @@ public class DbQueryParameter {
 				&& Objects.equals(dbInstanceId, that.dbInstanceId) && Objects.equals(database, that.database)
 				&& Objects.equals(schema, that.schema) && Objects.equals(table, that.table)
 				&& Objects.equals(tablePattern, that.tablePattern) && Objects.equals(tables, that.tables)
-				&& Objects.equals(column, that.column) && Objects.equals(sql, that.sql);
+				&& Objects.equals(column, that.column) && Objects.equals(sql, that.sql)
+				&& Objects.equals(fetchSize, that.fetchSize) && Objects.equals(queryTimeout, that.queryTimeout);
 	}
 
 	@Override
 	public int hashCode() {
 		return Objects.hash(aliuid, workspaceId, region, secretArn, dbInstanceId, database, schema, table, tablePattern,
-				tables, column, sql);
+				tables, column, sql, fetchSize, queryTimeout);
 	}
 
 }
@@ -15,66 +15,42 @@
  */
 package com.alibaba.cloud.ai.dataagent.connector;
 
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnarResultSet;
 import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
-import org.apache.commons.compress.utils.Lists;
 import org.apache.commons.lang3.StringUtils;
 
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 public class ResultSetBuilder {
 
 	public static ResultSetBO buildFrom(ResultSet rs, String schema) throws SQLException {
 		ResultSetMetaData data = rs.getMetaData();
 		int columnsCount = data.getColumnCount();
-		ResultSetBO resultSetBO = new ResultSetBO();
 		String[] rowHead = new String[columnsCount];
+		int[] columnTypes = new int[columnsCount];
 
 		for (int i = 1; i <= columnsCount; i++) {
-			rowHead[i - 1] = data.getColumnLabel(i);
+			// Clean column names once, rows share the header instead of carrying keys
+			rowHead[i - 1] = cleanColumnName(data.getColumnLabel(i));
+			columnTypes[i - 1] = data.getColumnType(i);
 		}
 
-		List<Map<String, String>> resultSetData = Lists.newArrayList();
+		// Read rows incrementally into typed column vectors
+		ColumnarResultSet columnar = new ColumnarResultSet(rowHead, columnTypes);
 		int count = 0;
-
-		while (rs.next() && count < SqlExecutor.RESULT_SET_LIMIT) {
-			Map<String, String> kv = new HashMap<>();
-			for (String h : rowHead) {
-				kv.put(h, rs.getString(h) == null ? "" : rs.getString(h));
-			}
-			resultSetData.add(kv);
+		while (count < SqlExecutor.RESULT_SET_LIMIT && rs.next()) {
+			columnar.appendRow(rs);
 			count++;
 		}
 
-		// Clean column names
-		List<String> cleanedHead = cleanColumnNames(Arrays.asList(rowHead));
-		List<Map<String, String>> cleanedData = cleanResultSet(resultSetData);
-
-		resultSetBO.setColumn(cleanedHead);
-		resultSetBO.setData(cleanedData);
-
-		return resultSetBO;
-	}
-
-	private static List<String> cleanColumnNames(List<String> columnNames) {
-		return columnNames.stream().map(name -> StringUtils.remove(StringUtils.remove(name, "`"), "\"")).toList();
+		return ResultSetBO.builder().column(Arrays.asList(rowHead)).data(columnar).build();
 	}
 
-	private static List<Map<String, String>> cleanResultSet(List<Map<String, String>> data) {
-		return data.stream().map(row -> {
-			Map<String, String> cleanedRow = new HashMap<>();
-			row.forEach((k, v) -> {
-				String cleanedKey = StringUtils.remove(k, "`");
-				cleanedKey = StringUtils.remove(cleanedKey, "\"");
-				cleanedRow.put(cleanedKey, v);
-			});
-			return cleanedRow;
-		}).toList();
+	private static String cleanColumnName(String name) {
+		return StringUtils.remove(StringUtils.remove(name, "`"), "\"");
 	}
 
 }
@@ -45,33 +45,82 @@ public class SqlExecutor {
 	 */
 	public static ResultSetBO executeSqlAndReturnObject(Connection connection, String schema, String sql)
 			throws SQLException {
-		try (Statement statement = connection.createStatement()) {
-			statement.setMaxRows(RESULT_SET_LIMIT);
-			statement.setQueryTimeout(STATEMENT_TIMEOUT);
+		return executeSqlAndReturnObject(connection, schema, sql, null);
+	}
 
-			DatabaseMetaData metaData = connection.getMetaData();
-			String dialect = metaData.getDatabaseProductName();
+	/**
+	 * Execute SQL query and return structured results (with column information)
+	 * @param connection database connection
+	 * @param sql SQL statement
+	 * @param fetchSize JDBC fetch size hint, driver default is used when null or not
+	 * positive
+	 * @return ResultSetBO structured result
+	 * @throws SQLException SQL execution exception
+	 */
+	public static ResultSetBO executeSqlAndReturnObject(Connection connection, String schema, String sql,
+			Integer fetchSize) throws SQLException {
+		return executeSqlAndReturnObject(connection, schema, sql, fetchSize, null, null);
+	}
 
-			if (dialect.equals(DatabaseDialectEnum.POSTGRESQL.code)) {
-				if (StringUtils.isNotEmpty(schema)) {
-					statement.execute("set search_path = '" + schema + "';");
-				}
+	/**
+	 * Execute SQL query and return structured results (with column information)
+	 * @param connection database connection
+	 * @param sql SQL statement
+	 * @param fetchSize JDBC fetch size hint, driver default is used when null or not
+	 * positive
+	 * @param queryTimeout query timeout in seconds, {@link #STATEMENT_TIMEOUT} is used
+	 * when null or not positive
+	 * @param canceller handle the statement is bound to while running, may be null
+	 * @return ResultSetBO structured result
+	 * @throws SQLException SQL execution exception, including cancellation
+	 */
+	public static ResultSetBO executeSqlAndReturnObject(Connection connection, String schema, String sql,
+			Integer fetchSize, Integer queryTimeout, StatementCanceller canceller) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			if (canceller != null) {
+				canceller.bind(statement);
 			}
-			else if (dialect.equals(DatabaseDialectEnum.H2.code)) {
-				if (StringUtils.isNotEmpty(schema)) {
-					statement.execute("use " + schema + ";");
-				}
+			try {
+				return executeStatement(connection, statement, schema, sql, fetchSize, queryTimeout);
 			}
-			else if (dialect.equals(DatabaseDialectEnum.ORACLE.code)) {
-				if (StringUtils.isNotEmpty(schema)) {
-					statement.execute("ALTER SESSION SET CURRENT_SCHEMA = " + schema);
+			finally {
+				if (canceller != null) {
+					canceller.unbind();
 				}
 			}
+		}
+	}
+
+	private static ResultSetBO executeStatement(Connection connection, Statement statement, String schema, String sql,
+			Integer fetchSize, Integer queryTimeout) throws SQLException {
+		statement.setMaxRows(RESULT_SET_LIMIT);
+		statement.setQueryTimeout(queryTimeout != null && queryTimeout > 0 ? queryTimeout : STATEMENT_TIMEOUT);
+		if (fetchSize != null && fetchSize > 0) {
+			statement.setFetchSize(Math.min(fetchSize, RESULT_SET_LIMIT));
+		}
+
+		DatabaseMetaData metaData = connection.getMetaData();
+		String dialect = metaData.getDatabaseProductName();
 
-			try (ResultSet rs = statement.executeQuery(sql)) {
-				return ResultSetBuilder.buildFrom(rs, schema);
+		if (dialect.equals(DatabaseDialectEnum.POSTGRESQL.code)) {
+			if (StringUtils.isNotEmpty(schema)) {
+				statement.execute("set search_path = '" + schema + "';");
+			}
+		}
+		else if (dialect.equals(DatabaseDialectEnum.H2.code)) {
+			if (StringUtils.isNotEmpty(schema)) {
+				statement.execute("use " + schema + ";");
 			}
 		}
+		else if (dialect.equals(DatabaseDialectEnum.ORACLE.code)) {
+			if (StringUtils.isNotEmpty(schema)) {
+				statement.execute("ALTER SESSION SET CURRENT_SCHEMA = " + schema);
+			}
+		}
+
+		try (ResultSet rs = statement.executeQuery(sql)) {
+			return ResultSetBuilder.buildFrom(rs, schema);
+		}
 	}
 
 	/**
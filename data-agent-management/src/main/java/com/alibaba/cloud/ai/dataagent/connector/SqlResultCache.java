@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnarResultSet;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 业务库SQL查询结果缓存。
+ *
+ * <p>
+ * 以 (智能体, 数据源连接, schema, SQL) 为key缓存 {@link ResultSetBO}，按LRU顺序淘汰，
+ * 同时受条目数、结果估算字节数和TTL约束。数据源或智能体配置变更时由 DatasourceService / AgentDatasourceService
+ * 调用失效方法清理对应条目。结果以只读形式缓存：列式结果集构建完成后不再修改，直接共享；
+ * 其他结果写入时复制一次为不可修改的行列表。读取时返回共享数据的只读视图，不再逐行复制。
+ * 命中、未命中、淘汰次数与命中率注册为 Micrometer 指标 {@code dataagent.sql.result.cache.*}。
+ */
+@Slf4j
+@Component
+public class SqlResultCache implements MeterBinder {
+
+	private static final String METRIC_PREFIX = "dataagent.sql.result.cache";
+
+	/**
+	 * 每个单元格的估算对象开销（String对象头、数组引用等）
+	 */
+	private static final int CELL_OVERHEAD_BYTES = 48;
+
+	private final DataAgentProperties.SqlResultCache config;
+
+	private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private long totalBytes = 0L;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public SqlResultCache(DataAgentProperties properties) {
+		this.config = properties.getSqlResultCache();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", hits, LongAdder::sum)
+			.tag("result", "hit")
+			.description("SQL result cache lookups that hit")
+			.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", misses, LongAdder::sum)
+			.tag("result", "miss")
+			.description("SQL result cache lookups that missed or expired")
+			.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, LongAdder::sum).register(registry);
+		Gauge.builder(METRIC_PREFIX + ".hit.rate", this, cache -> cache.getStats().hitRate())
+			.description("Share of SQL result lookups served from the cache")
+			.register(registry);
+		Gauge.builder(METRIC_PREFIX + ".size", this, cache -> cache.getStats().size()).register(registry);
+		Gauge.builder(METRIC_PREFIX + ".bytes", this, cache -> cache.getStats().bytes())
+			.baseUnit("bytes")
+			.register(registry);
+	}
+
+	public boolean isEnabled() {
+		return config.isEnabled();
+	}
+
+	/**
+	 * 查询缓存，未命中或已过期时返回null。返回结果的列名与行均为只读
+	 */
+	public ResultSetBO get(Long agentId, DbConfigBO dbConfig, String sql) {
+		if (!isEnabled() || !isCacheable(sql)) {
+			return null;
+		}
+		CacheKey key = CacheKey.of(agentId, dbConfig, sql);
+		ResultSetBO cached;
+		lock.lock();
+		try {
+			CacheEntry entry = entries.get(key);
+			if (entry != null && entry.isExpired(config.getTtlSeconds())) {
+				removeEntry(key);
+				evictions.increment();
+				entry = null;
+			}
+			if (entry == null) {
+				misses.increment();
+				return null;
+			}
+			hits.increment();
+			log.debug("SQL result cache hit for agent {}, sql: {}", agentId, sql);
+			cached = entry.result();
+		}
+		finally {
+			lock.unlock();
+		}
+		// 缓存中的结果只读，每次命中只创建新的外层对象，避免调用方替换字段影响缓存
+		return ResultSetBO.builder().column(cached.getColumn()).data(cached.getData()).build();
+	}
+
+	/**
+	 * 写入缓存，超过单条大小上限的结果不缓存
+	 */
+	public void put(Long agentId, DbConfigBO dbConfig, String sql, ResultSetBO result) {
+		if (!isEnabled() || !isCacheable(sql) || result == null || StringUtils.isNotBlank(result.getErrorMsg())) {
+			return;
+		}
+		long bytes = estimateBytes(result);
+		if (bytes > config.getMaxBytes()) {
+			log.debug("SQL result of {} bytes exceeds cache capacity, skip caching", bytes);
+			return;
+		}
+		CacheKey key = CacheKey.of(agentId, dbConfig, sql);
+		ResultSetBO snapshot = readOnlySnapshot(result);
+		lock.lock();
+		try {
+			removeEntry(key);
+			entries.put(key, new CacheEntry(snapshot, bytes, System.currentTimeMillis()));
+			totalBytes += bytes;
+			evictIfNecessary();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 清理某个智能体的全部缓存结果
+	 */
+	public void invalidateAgent(Long agentId) {
+		int removed = removeIf(key -> Objects.equals(key.agentId(), agentId));
+		if (removed > 0) {
+			log.info("Invalidated {} cached SQL results for agent {}", removed, agentId);
+		}
+	}
+
+	/**
+	 * 清理某个数据源连接（url + 用户名）下的全部缓存结果
+	 */
+	public void invalidateDatasource(DbConfigBO dbConfig) {
+		if (dbConfig == null) {
+			return;
+		}
+		int removed = removeIf(key -> Objects.equals(key.url(), dbConfig.getUrl())
+				&& Objects.equals(key.username(), dbConfig.getUsername()));
+		if (removed > 0) {
+			log.info("Invalidated {} cached SQL results for datasource {}", removed, dbConfig.getUrl());
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			entries.clear();
+			totalBytes = 0L;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public CacheStats getStats() {
+		lock.lock();
+		try {
+			return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), totalBytes);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private int removeIf(Predicate<CacheKey> predicate) {
+		lock.lock();
+		try {
+			int removed = 0;
+			Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<CacheKey, CacheEntry> entry = iterator.next();
+				if (predicate.test(entry.getKey())) {
+					totalBytes -= entry.getValue().bytes();
+					iterator.remove();
+					removed++;
+				}
+			}
+			return removed;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void removeEntry(CacheKey key) {
+		CacheEntry removed = entries.remove(key);
+		if (removed != null) {
+			totalBytes -= removed.bytes();
+		}
+	}
+
+	private void evictIfNecessary() {
+		Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext() && (entries.size() > config.getMaxEntries() || totalBytes > config.getMaxBytes())) {
+			Map.Entry<CacheKey, CacheEntry> eldest = iterator.next();
+			totalBytes -= eldest.getValue().bytes();
+			iterator.remove();
+			evictions.increment();
+		}
+	}
+
+	private static boolean isCacheable(String sql) {
+		if (StringUtils.isBlank(sql)) {
+			return false;
+		}
+		String head = StringUtils.stripStart(sql, null).toLowerCase();
+		return head.startsWith("select") || head.startsWith("with");
+	}
+
+	/**
+	 * 构造只读快照。{@link ColumnarResultSet} 本身只读且构建后不再追加行，直接共享；其他行列表复制一次并包装为不可修改
+	 */
+	private static ResultSetBO readOnlySnapshot(ResultSetBO result) {
+		List<Map<String, String>> data = result.getData();
+		List<Map<String, String>> rows;
+		if (data == null || data instanceof ColumnarResultSet) {
+			rows = data;
+		}
+		else {
+			List<Map<String, String>> copied = new ArrayList<>(data.size());
+			for (Map<String, String> row : data) {
+				copied.add(row == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(row)));
+			}
+			rows = Collections.unmodifiableList(copied);
+		}
+		List<String> columns = result.getColumn() == null ? null
+				: Collections.unmodifiableList(new ArrayList<>(result.getColumn()));
+		return ResultSetBO.builder().column(columns).data(rows).build();
+	}
+
+	static long estimateBytes(ResultSetBO result) {
+		long bytes = 0L;
+		if (result.getColumn() != null) {
+			for (String column : result.getColumn()) {
+				bytes += CELL_OVERHEAD_BYTES + 2L * StringUtils.length(column);
+			}
+		}
+		List<Map<String, String>> data = result.getData();
+		if (data != null) {
+			for (Map<String, String> row : data) {
+				for (String value : row.values()) {
+					bytes += CELL_OVERHEAD_BYTES + 2L * StringUtils.length(value);
+				}
+			}
+		}
+		return bytes;
+	}
+
+	private record CacheKey(Long agentId, String url, String username, String schema, String sql) {
+
+		static CacheKey of(Long agentId, DbConfigBO dbConfig, String sql) {
+			return new CacheKey(agentId, dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getSchema(),
+					normalize(sql));
+		}
+
+		/**
+		 * 只去除首尾空白与结尾分号，不改写SQL内部内容，避免字符串常量被误合并
+		 */
+		private static String normalize(String sql) {
+			return StringUtils.removeEnd(sql.trim(), ";").trim();
+		}
+
+	}
+
+	private record CacheEntry(ResultSetBO result, long bytes, long createdAt) {
+
+		boolean isExpired(long ttlSeconds) {
+			return ttlSeconds > 0 && System.currentTimeMillis() - createdAt > ttlSeconds * 1000L;
+		}
+
+	}
+
+	public record CacheStats(long hits, long misses, long evictions, int size, long bytes) {
+
+		public double hitRate() {
+			long total = hits + misses;
+			return total == 0 ? 0D : (double) hits / total;
+		}
+
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 正在执行的SQL语句的取消句柄。
+ *
+ * <p>
+ * 执行线程在创建 Statement 后绑定到句柄上，调用方（例如响应式流被取消时）通过 {@link #cancel()} 调用
+ * {@link Statement#cancel()} 让数据库侧终止查询；若在绑定前已被取消，绑定时直接抛出异常，不再向数据库发送SQL。
+ */
+@Slf4j
+public class StatementCanceller {
+
+	private Statement statement;
+
+	private boolean cancelled;
+
+	/**
+	 * 绑定当前执行的 Statement
+	 * @throws SQLException 句柄已被取消
+	 */
+	public synchronized void bind(Statement statement) throws SQLException {
+		if (cancelled) {
+			throw new SQLException("SQL execution was cancelled");
+		}
+		this.statement = statement;
+	}
+
+	public synchronized void unbind() {
+		this.statement = null;
+	}
+
+	public synchronized boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * 取消正在执行的SQL，可重复调用
+	 */
+	public void cancel() {
+		Statement current;
+		synchronized (this) {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			current = statement;
+		}
+		if (current == null) {
+			return;
+		}
+		try {
+			current.cancel();
+			log.info("Cancelled running SQL statement");
+		}
+		catch (SQLException e) {
+			log.warn("Failed to cancel running SQL statement: {}", e.getMessage());
+		}
+	}
+
+}
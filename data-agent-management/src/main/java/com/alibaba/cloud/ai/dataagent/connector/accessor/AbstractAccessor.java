@@ -32,6 +32,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author yuluo
@@ -62,6 +63,8 @@ public abstract class AbstractAccessor implements Accessor {
 					return (T) ddlExecutor.fetchTables(connection, param.getSchema(), param.getTables());
 				case "showColumns":
 					return (T) ddlExecutor.showColumns(connection, param.getSchema(), param.getTable());
+				case "showColumnsBatch":
+					return (T) ddlExecutor.showColumnsBatch(connection, param.getSchema(), param.getTables());
 				case "showForeignKeys":
 					return (T) ddlExecutor.showForeignKeys(connection, param.getSchema(), param.getTables());
 				case "sampleColumn":
@@ -70,7 +73,13 @@ public abstract class AbstractAccessor implements Accessor {
 				case "scanTable":
 					return (T) ddlExecutor.scanTable(connection, param.getSchema(), param.getTable());
 				case "executeSqlAndReturnObject":
-					return (T) SqlExecutor.executeSqlAndReturnObject(connection, param.getSchema(), param.getSql());
+					// 数据源连接池配置中的fetch size优先于全局配置；超时时间以调用方显式指定的为准（如采样的时间预算），未指定时才使用连接池配置
+					Integer profileFetchSize = dbConnectionPool.getFetchSize(dbConfig);
+					Integer queryTimeout = param.getQueryTimeout() != null && param.getQueryTimeout() > 0
+							? param.getQueryTimeout() : dbConnectionPool.getQueryTimeout(dbConfig);
+					return (T) SqlExecutor.executeSqlAndReturnObject(connection, param.getSchema(), param.getSql(),
+							profileFetchSize != null ? profileFetchSize : param.getFetchSize(), queryTimeout,
+							param.getCanceller());
 				default:
 					throw new UnsupportedOperationException("Unknown method: " + method);
 			}
@@ -102,6 +111,11 @@ public abstract class AbstractAccessor implements Accessor {
 		return accessDb(dbConfig, "showColumns", param);
 	}
 
+	public Map<String, List<ColumnInfoBO>> showColumnsBatch(DbConfigBO dbConfig, DbQueryParameter param)
+			throws Exception {
+		return accessDb(dbConfig, "showColumnsBatch", param);
+	}
+
 	public List<ForeignKeyInfoBO> showForeignKeys(DbConfigBO dbConfig, DbQueryParameter param) throws Exception {
 		return accessDb(dbConfig, "showForeignKeys", param);
 	}
@@ -26,6 +26,7 @@ import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
 import com.alibaba.cloud.ai.dataagent.enums.BizDataSourceTypeEnum;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data access interface definition.
@@ -65,6 +66,13 @@ public interface Accessor {
 
 	List<ColumnInfoBO> showColumns(DbConfigBO dbConfig, DbQueryParameter param) throws Exception;
 
+	/**
+	 * Fetch the columns of all tables in {@code param.getTables()} with set-based
+	 * metadata queries instead of one query per table.
+	 * @return table name to its columns, in the order of the requested tables
+	 */
+	Map<String, List<ColumnInfoBO>> showColumnsBatch(DbConfigBO dbConfig, DbQueryParameter param) throws Exception;
+
 	List<ForeignKeyInfoBO> showForeignKeys(DbConfigBO dbConfig, DbQueryParameter param) throws Exception;
 
 	List<String> sampleColumn(DbConfigBO dbConfig, DbQueryParameter param) throws Exception;
@@ -22,12 +22,26 @@ import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.SchemaInfoBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
 import com.alibaba.cloud.ai.dataagent.util.SqlUtil;
+import org.apache.commons.lang3.BooleanUtils;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.alibaba.cloud.ai.dataagent.util.ColumnTypeUtil.wrapType;
 
 public abstract class AbstractJdbcDdl implements Ddl {
 
+	/**
+	 * 批量查询元数据时单条SQL中 IN 列表包含的最大表数量（Oracle 限制 IN 列表不超过1000项）
+	 */
+	protected static final int BULK_METADATA_BATCH_SIZE = 500;
+
 	@Deprecated
 	public abstract List<DatabaseInfoBO> showDatabases(Connection connection);
 
@@ -39,6 +53,85 @@ public abstract class AbstractJdbcDdl implements Ddl {
 
 	public abstract List<ColumnInfoBO> showColumns(Connection connection, String schema, String table);
 
+	/**
+	 * 批量获取多个表的列信息（含主键、非空标识），按批次用集合查询代替逐表查询，减少元数据查询的往返次数
+	 * @param connection 数据库连接
+	 * @param schema schema
+	 * @param tables 表名列表
+	 * @return 表名（与入参一致）到列信息的映射，保持入参顺序，查不到列的表对应空列表
+	 */
+	public Map<String, List<ColumnInfoBO>> showColumnsBatch(Connection connection, String schema, List<String> tables) {
+		Map<String, List<ColumnInfoBO>> result = new LinkedHashMap<>();
+		if (tables == null || tables.isEmpty()) {
+			return result;
+		}
+		// 数据库返回的表名大小写可能与入参不同（如 Oracle 统一大写），按忽略大小写回填到入参表名
+		Map<String, String> requestedNames = new HashMap<>();
+		for (String table : tables) {
+			result.put(table, new ArrayList<>());
+			requestedNames.putIfAbsent(table.toLowerCase(Locale.ROOT), table);
+		}
+
+		int batchSize = getBulkMetadataBatchSize();
+		for (int i = 0; i < tables.size(); i += batchSize) {
+			List<String> batch = tables.subList(i, Math.min(i + batchSize, tables.size()));
+			fetchColumnsBatch(connection, schema, batch).forEach((table, columns) -> {
+				String requested = result.containsKey(table) ? table
+						: requestedNames.get(table.toLowerCase(Locale.ROOT));
+				if (requested != null) {
+					result.get(requested).addAll(columns);
+				}
+			});
+		}
+		return result;
+	}
+
+	/**
+	 * 查询一批表的列信息，默认逐表调用 {@link #showColumns}，支持集合查询的数据库应覆盖此方法
+	 * @return 表名到列信息的映射，表名可以是数据库返回的原始大小写
+	 */
+	protected Map<String, List<ColumnInfoBO>> fetchColumnsBatch(Connection connection, String schema,
+			List<String> tables) {
+		Map<String, List<ColumnInfoBO>> result = new LinkedHashMap<>();
+		for (String table : tables) {
+			result.put(table, showColumns(connection, schema, table));
+		}
+		return result;
+	}
+
+	protected int getBulkMetadataBatchSize() {
+		return BULK_METADATA_BATCH_SIZE;
+	}
+
+	/**
+	 * 将批量列查询结果按表分组，要求每行依次为：表名、列名、注释、类型、是否主键、是否非空
+	 * @param resultArr SqlExecutor 返回的二维数组，第一行为表头
+	 */
+	protected static Map<String, List<ColumnInfoBO>> groupColumnsByTable(String[][] resultArr) {
+		Map<String, List<ColumnInfoBO>> result = new LinkedHashMap<>();
+		for (int i = 1; i < resultArr.length; i++) {
+			if (resultArr[i].length < 6) {
+				continue;
+			}
+			result.computeIfAbsent(resultArr[i][0], k -> new ArrayList<>())
+				.add(ColumnInfoBO.builder()
+					.name(resultArr[i][1])
+					.description(resultArr[i][2])
+					.type(wrapType(resultArr[i][3]))
+					.primary(BooleanUtils.toBoolean(resultArr[i][4]))
+					.notnull(BooleanUtils.toBoolean(resultArr[i][5]))
+					.build());
+		}
+		return result;
+	}
+
+	/**
+	 * 拼接 SQL IN 列表中的表名字面量，转义单引号
+	 */
+	protected static String toInList(List<String> tables) {
+		return tables.stream().map(x -> "'" + x.replace("'", "''") + "'").collect(Collectors.joining(", "));
+	}
+
 	public abstract List<ForeignKeyInfoBO> showForeignKeys(Connection connection, String schema, List<String> tables);
 
 	public abstract List<String> sampleColumn(Connection connection, String schema, String table, String column);
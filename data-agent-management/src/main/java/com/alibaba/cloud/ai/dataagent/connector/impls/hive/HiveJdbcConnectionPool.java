@@ -19,8 +19,10 @@ import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
 import com.alibaba.cloud.ai.dataagent.connector.pool.AbstractDBConnectionPool;
 import com.alibaba.cloud.ai.dataagent.enums.BizDataSourceTypeEnum;
 import com.alibaba.cloud.ai.dataagent.enums.ErrorCodeEnum;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.druid.pool.DruidDataSourceFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
@@ -28,7 +30,6 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
 import java.util.Map;
 
 import static com.alibaba.cloud.ai.dataagent.enums.ErrorCodeEnum.DATABASE_NOT_EXIST_42000;
@@ -47,6 +48,8 @@ public class HiveJdbcConnectionPool extends AbstractDBConnectionPool {
 
 	private static final String DRIVER = "org.apache.hive.jdbc.HiveDriver";
 
+	private static final long HIVE_MIN_MAX_WAIT_MILLIS = 60000L;
+
 	@Override
 	public String getDriver() {
 		return DRIVER;
@@ -89,53 +92,16 @@ public class HiveJdbcConnectionPool extends AbstractDBConnectionPool {
 	}
 
 	@Override
-	public DataSource createdDataSource(String url, String username, String password) throws Exception {
+	public DataSource createdDataSource(DbConfigBO config, DataAgentProperties.PoolProfile profile) throws Exception {
 		log.info("Creating Hive DataSource with custom configuration");
-		String driver = getDriver();
-		Map<String, String> props = new HiveDruidProperties(driver, url, username, password, "stat").toMap();
-		return DruidDataSourceFactory.createDataSource(props);
-	}
-
-	private static final class HiveDruidProperties {
-
-		private final String driver;
-
-		private final String url;
-
-		private final String username;
-
-		private final String password;
-
-		private final String filters;
-
-		private HiveDruidProperties(String driver, String url, String username, String password, String filters) {
-			this.driver = driver;
-			this.url = url;
-			this.username = username;
-			this.password = password;
-			this.filters = filters;
-		}
-
-		private Map<String, String> toMap() {
-			Map<String, String> props = new HashMap<>();
-			props.put(DruidDataSourceFactory.PROP_DRIVERCLASSNAME, this.driver);
-			props.put(DruidDataSourceFactory.PROP_URL, this.url);
-			props.put(DruidDataSourceFactory.PROP_USERNAME, this.username);
-			props.put(DruidDataSourceFactory.PROP_PASSWORD, this.password);
-			props.put(DruidDataSourceFactory.PROP_FILTERS, this.filters);
-			props.put(DruidDataSourceFactory.PROP_INITIALSIZE, "5");
-			props.put(DruidDataSourceFactory.PROP_MINIDLE, "5");
-			props.put(DruidDataSourceFactory.PROP_MAXACTIVE, "20");
-			props.put(DruidDataSourceFactory.PROP_MAXWAIT, "60000");
-			props.put(DruidDataSourceFactory.PROP_TIMEBETWEENEVICTIONRUNSMILLIS, "60000");
-			props.put(DruidDataSourceFactory.PROP_MINEVICTABLEIDLETIMEMILLIS, "300000");
+		Map<String, String> props = buildDruidProperties(config, profile, "stat");
+		// Hive 获取连接较慢，且驱动不支持 isValid，需使用校验SQL
+		props.put(DruidDataSourceFactory.PROP_MAXWAIT,
+				String.valueOf(Math.max(profile.getMaxWaitMillis(), HIVE_MIN_MAX_WAIT_MILLIS)));
+		if (StringUtils.isBlank(profile.getValidationQuery())) {
 			props.put(DruidDataSourceFactory.PROP_VALIDATIONQUERY, "SELECT 1");
-			props.put(DruidDataSourceFactory.PROP_TESTWHILEIDLE, "true");
-			props.put(DruidDataSourceFactory.PROP_TESTONBORROW, "false");
-			props.put(DruidDataSourceFactory.PROP_TESTONRETURN, "false");
-			return props;
 		}
-
+		return DruidDataSourceFactory.createDataSource(props);
 	}
 
 	@Override
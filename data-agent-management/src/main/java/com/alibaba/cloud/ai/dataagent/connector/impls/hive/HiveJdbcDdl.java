@@ -29,9 +29,15 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -175,6 +181,85 @@ public class HiveJdbcDdl extends AbstractJdbcDdl {
 		return columnInfoList;
 	}
 
+	/**
+	 * Hive 没有 information_schema，通过 {@link DatabaseMetaData#getColumns} 读取列信息，代替逐表执行 DESCRIBE。
+	 * JDBC 的表名模式只能是单个 LIKE 模式，因此仍是每张表调用一次，并非一次取回多张表；每次调用限定在当前库和该表上，
+	 * 避免元数据服务扫描所有库的所有表
+	 */
+	@Override
+	protected Map<String, List<ColumnInfoBO>> fetchColumnsBatch(Connection connection, String schema,
+			List<String> tables) {
+		if (tables.size() == 1) {
+			return super.fetchColumnsBatch(connection, schema, tables);
+		}
+		Set<String> wanted = tables.stream()
+			.map(t -> t.toLowerCase(Locale.ROOT))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+		Map<String, List<ColumnInfoBO>> result = new LinkedHashMap<>();
+		try {
+			String catalog = StringUtils.trimToNull(connection.getCatalog());
+			String schemaPattern = StringUtils.isNotBlank(schema) ? schema : currentSchema(connection);
+			DatabaseMetaData metaData = connection.getMetaData();
+			String escape = metaData.getSearchStringEscape();
+			for (String table : wanted) {
+				try (ResultSet rs = metaData.getColumns(catalog, schemaPattern, escapePattern(table, escape), "%")) {
+					while (rs.next()) {
+						String tableName = rs.getString("TABLE_NAME");
+						String colName = rs.getString("COLUMN_NAME");
+						// 驱动不支持转义时 _ 仍是通配符，只保留当前表的列，避免名称相近的表的列被重复计入
+						if (!table.equalsIgnoreCase(tableName) || StringUtils.isBlank(colName)) {
+							continue;
+						}
+						String dataType = StringUtils.defaultString(rs.getString("TYPE_NAME"))
+							.toLowerCase(Locale.ROOT);
+						result.computeIfAbsent(tableName, k -> Lists.newArrayList())
+							.add(ColumnInfoBO.builder()
+								.name(colName)
+								.description(StringUtils.defaultString(rs.getString("REMARKS")))
+								.type(wrapType(dataType))
+								.primary(false) // Hive 不支持主键
+								.notnull(false) // Hive 不强制非空约束
+								.build());
+					}
+				}
+			}
+		}
+		catch (SQLException e) {
+			throw new RuntimeException(e);
+		}
+		return result;
+	}
+
+	/**
+	 * 转义表名中的 LIKE 通配符 _ 和 %，驱动未提供转义符时原样返回
+	 */
+	static String escapePattern(String name, String escape) {
+		if (StringUtils.isEmpty(escape)) {
+			return name;
+		}
+		StringBuilder sb = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '_' || c == '%' || escape.indexOf(c) >= 0) {
+				sb.append(escape);
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 未指定库时使用连接的当前库；驱动不支持时返回 null，由驱动按默认行为处理
+	 */
+	private static String currentSchema(Connection connection) {
+		try {
+			return StringUtils.trimToNull(connection.getSchema());
+		}
+		catch (SQLException | AbstractMethodError e) {
+			return null;
+		}
+	}
+
 	@Override
 	public List<ForeignKeyInfoBO> showForeignKeys(Connection connection, String schema, List<String> tables) {
 		return Collections.emptyList();
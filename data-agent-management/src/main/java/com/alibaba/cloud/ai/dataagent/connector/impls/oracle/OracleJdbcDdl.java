@@ -27,6 +27,7 @@ import org.springframework.stereotype.Service;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -222,6 +223,34 @@ public class OracleJdbcDdl extends AbstractJdbcDdl {
 		return columnInfoList;
 	}
 
+	@Override
+	protected Map<String, List<ColumnInfoBO>> fetchColumnsBatch(Connection connection, String schema,
+			List<String> tables) {
+		try {
+			String ownerSchema = getSchema(connection, schema);
+			List<String> upperTables = tables.stream().map(String::toUpperCase).toList();
+
+			// 主键列通过一次关联查询得到，避免逐列执行 EXISTS 子查询
+			String sql = String.format("SELECT " + "    c.TABLE_NAME, " + "    c.COLUMN_NAME, " + "    cc.COMMENTS, "
+					+ "    c.DATA_TYPE, " + "    CASE WHEN pk.COLUMN_NAME IS NOT NULL THEN 'true' ELSE 'false' END AS IS_PRIMARY, "
+					+ "    CASE WHEN c.NULLABLE = 'N' THEN 'true' ELSE 'false' END AS IS_NOT_NULL "
+					+ "FROM ALL_TAB_COLUMNS c " + "LEFT JOIN ALL_COL_COMMENTS cc ON c.TABLE_NAME = cc.TABLE_NAME "
+					+ "    AND c.OWNER = cc.OWNER AND c.COLUMN_NAME = cc.COLUMN_NAME " + "LEFT JOIN ( "
+					+ "    SELECT ucc.TABLE_NAME, ucc.COLUMN_NAME FROM ALL_CONSTRAINTS uc "
+					+ "    JOIN ALL_CONS_COLUMNS ucc ON uc.CONSTRAINT_NAME = ucc.CONSTRAINT_NAME AND uc.OWNER = ucc.OWNER "
+					+ "    WHERE uc.CONSTRAINT_TYPE = 'P' AND uc.OWNER = '%s' "
+					+ ") pk ON pk.TABLE_NAME = c.TABLE_NAME AND pk.COLUMN_NAME = c.COLUMN_NAME "
+					+ "WHERE c.OWNER = '%s' AND c.TABLE_NAME IN (%s) " + "ORDER BY c.TABLE_NAME, c.COLUMN_ID",
+					ownerSchema, ownerSchema, toInList(upperTables));
+
+			String[][] resultArr = SqlExecutor.executeSqlAndReturnArr(connection, null, sql);
+			return groupColumnsByTable(resultArr);
+		}
+		catch (SQLException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	@Override
 	public List<ForeignKeyInfoBO> showForeignKeys(Connection connection, String schema, List<String> tables) {
 		List<ForeignKeyInfoBO> foreignKeyInfoList = Lists.newArrayList();
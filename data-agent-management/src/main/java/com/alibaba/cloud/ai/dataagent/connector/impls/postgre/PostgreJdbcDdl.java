@@ -34,6 +34,7 @@ import org.springframework.stereotype.Service;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -207,6 +208,29 @@ public class PostgreJdbcDdl extends AbstractJdbcDdl {
 		return columnInfoList;
 	}
 
+	@Override
+	protected Map<String, List<ColumnInfoBO>> fetchColumnsBatch(Connection connection, String schema,
+			List<String> tables) {
+		String sql = "\n" + "SELECT\n" + "    c.relname as table_name,\n" + "    a.attname as column_name,\n"
+				+ "    col_description(a.attrelid, a.attnum) as column_description,\n"
+				+ "    pg_catalog.format_type(a.atttypid, a.atttypmod) as data_type,\n" + "    CASE\n"
+				+ "        WHEN a.attnum = ANY (ind.indkey) THEN true\n" + "        ELSE false\n" + "    END as 主键唯一,\n"
+				+ "     a.attnotnull as 非空\n" + "FROM\n" + "    pg_catalog.pg_attribute a\n" + "JOIN\n"
+				+ "    pg_catalog.pg_class c ON a.attrelid = c.oid\n" + "JOIN\n"
+				+ "    pg_catalog.pg_namespace n ON n.oid = c.relnamespace\n" + "LEFT JOIN\n"
+				+ "    pg_catalog.pg_index ind ON ind.indrelid = a.attrelid AND ind.indisprimary\n" + "WHERE\n"
+				+ "    c.relname IN (%s)\n" + "    AND a.attnum > 0\n" + "    AND NOT a.attisdropped\n"
+				+ "    AND n.nspname = '%s'\n" + "ORDER BY\n" + "    c.relname, a.attnum;";
+		try {
+			String[][] resultArr = SqlExecutor.executeSqlAndReturnArr(connection, null,
+					String.format(sql, toInList(tables), schema));
+			return groupColumnsByTable(resultArr);
+		}
+		catch (SQLException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	@Override
 	public List<ForeignKeyInfoBO> showForeignKeys(Connection connection, String schema, List<String> tables) {
 		String sql = "SELECT\n" + "    tc.table_name,\n" + "    kcu.column_name,\n" + "    tc.constraint_name,\n"
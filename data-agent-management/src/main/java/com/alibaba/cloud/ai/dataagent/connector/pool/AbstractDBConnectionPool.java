@@ -16,11 +16,14 @@
 package com.alibaba.cloud.ai.dataagent.connector.pool;
 
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.pool.DruidDataSourceFactory;
 import com.alibaba.cloud.ai.dataagent.enums.BizDataSourceTypeEnum;
 import com.alibaba.cloud.ai.dataagent.enums.ErrorCodeEnum;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
@@ -28,16 +31,17 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 
 	/**
-	 * DataSource cache to ensure that each configuration creates DataSource only once.
+	 * 所有类型的连接池共享同一个注册表，每个数据源配置只创建一次DataSource
 	 */
-	private static final ConcurrentHashMap<String, DataSource> DATA_SOURCE_CACHE = new ConcurrentHashMap<>();
+	@Autowired
+	private DataSourcePoolRegistry poolRegistry;
 
 	/**
 	 * Driver
@@ -86,32 +90,7 @@ public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 
 		for (int attempt = 1; attempt <= maxRetries; attempt++) {
 			try {
-				// Generate cache key based on connection parameters
-				String cacheKey = generateCacheKey(jdbcUrl, config.getUsername(), config.getPassword());
-
-				// Use computeIfAbsent to ensure thread safety and avoid duplicate
-				// DataSource
-				// creation
-				DataSource dataSource = DATA_SOURCE_CACHE.computeIfAbsent(cacheKey, key -> {
-					try {
-						log.debug("Creating new DataSource for key: {}", key);
-						return createdDataSource(jdbcUrl, config.getUsername(), config.getPassword());
-					}
-					catch (Exception e) {
-						log.error("Failed to create DataSource for key: {}", key, e);
-						throw new RuntimeException("Failed to create DataSource", e);
-					}
-				});
-
-				// 记录连接池状态
-				if (dataSource instanceof DruidDataSource druidDataSource) {
-					log.debug("Connection pool status - Active: {}, Idle: {}, Total: {}, WaitCount: {}",
-							druidDataSource.getActiveCount(), druidDataSource.getPoolingCount(),
-							druidDataSource.getActiveCount() + druidDataSource.getPoolingCount(),
-							druidDataSource.getWaitThreadCount());
-				}
-
-				return dataSource.getConnection();
+				return poolRegistry.getConnection(config, this::createdDataSource);
 			}
 			catch (Exception e) {
 				log.warn("Attempt {} to get database connection failed: {}", attempt, e.getMessage());
@@ -134,34 +113,30 @@ public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 		return null;
 	}
 
-	/**
-	 * Generate cache key based on connection parameters.
-	 * @param url the database URL
-	 * @param username the database username
-	 * @param password the database password
-	 * @return the cache key
-	 */
-	private String generateCacheKey(String url, String username, String password) {
-		return url + "|" + username + "|" + Objects.hashCode(password);
+	@Override
+	public Integer getFetchSize(DbConfigBO config) {
+		return poolRegistry.getFetchSize(config);
+	}
+
+	@Override
+	public Integer getQueryTimeout(DbConfigBO config) {
+		return poolRegistry.getQueryTimeout(config);
+	}
+
+	@Override
+	public void evict(DbConfigBO config) {
+		poolRegistry.evict(config.getUrl(), config.getUsername());
 	}
 
 	@Override
 	public void close() {
-		DATA_SOURCE_CACHE.values().forEach(dataSource -> {
-			if (dataSource instanceof DruidDataSource) {
-				((DruidDataSource) dataSource).close();
-			}
-		});
-		DATA_SOURCE_CACHE.clear();
-		log.info("DataSource cache cleared");
+		poolRegistry.closeAll();
 	}
 
 	/**
-	 * Clear DataSource cache and close all cached DataSource instances. This method is
-	 * useful for resource cleanup in special scenarios.
+	 * 根据连接池配置创建Druid数据源，子类可覆盖以调整特定数据库的参数
 	 */
-
-	public DataSource createdDataSource(String url, String username, String password) throws Exception {
+	public DataSource createdDataSource(DbConfigBO config, DataAgentProperties.PoolProfile profile) throws Exception {
 
 		String driver = getDriver();
 
@@ -170,27 +145,45 @@ public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 			filters = "stat";
 		}
 
-		java.util.Map<String, String> props = new java.util.HashMap<>();
-		props.put(DruidDataSourceFactory.PROP_DRIVERCLASSNAME, driver);
-		props.put(DruidDataSourceFactory.PROP_URL, url);
-		props.put(DruidDataSourceFactory.PROP_USERNAME, username);
-		props.put(DruidDataSourceFactory.PROP_PASSWORD, password);
-		props.put(DruidDataSourceFactory.PROP_INITIALSIZE, "5");
-		props.put(DruidDataSourceFactory.PROP_MINIDLE, "5");
-		props.put(DruidDataSourceFactory.PROP_MAXACTIVE, "20");
-		props.put(DruidDataSourceFactory.PROP_MAXWAIT, "10000");
-		props.put(DruidDataSourceFactory.PROP_TIMEBETWEENEVICTIONRUNSMILLIS, "60000");
-		props.put(DruidDataSourceFactory.PROP_FILTERS, filters);
-
+		Map<String, String> props = buildDruidProperties(config, profile, filters);
 		DruidDataSource dataSource = (DruidDataSource) DruidDataSourceFactory.createDataSource(props);
 		dataSource.setBreakAfterAcquireFailure(Boolean.TRUE);
 		dataSource.setConnectionErrorRetryAttempts(2);
 
 		// 记录数据源创建信息
-		log.info(
-				"Created new DataSource with optimized parameters - InitialSize: 5, MinIdle: 5, MaxActive: 20, MaxWait: 10000ms");
+		log.info("Created new DataSource - InitialSize: {}, MinIdle: {}, MaxActive: {}, MaxWait: {}ms",
+				profile.getInitialSize(), profile.getMinIdle(), profile.getMaxActive(), profile.getMaxWaitMillis());
 
 		return dataSource;
 	}
 
+	protected Map<String, String> buildDruidProperties(DbConfigBO config, DataAgentProperties.PoolProfile profile,
+			String filters) {
+		Map<String, String> props = new HashMap<>();
+		props.put(DruidDataSourceFactory.PROP_DRIVERCLASSNAME, getDriver());
+		props.put(DruidDataSourceFactory.PROP_URL, config.getUrl());
+		props.put(DruidDataSourceFactory.PROP_USERNAME, config.getUsername());
+		props.put(DruidDataSourceFactory.PROP_PASSWORD, config.getPassword());
+		props.put(DruidDataSourceFactory.PROP_INITIALSIZE, String.valueOf(profile.getInitialSize()));
+		props.put(DruidDataSourceFactory.PROP_MINIDLE, String.valueOf(profile.getMinIdle()));
+		props.put(DruidDataSourceFactory.PROP_MAXACTIVE, String.valueOf(profile.getMaxActive()));
+		props.put(DruidDataSourceFactory.PROP_MAXWAIT, String.valueOf(profile.getMaxWaitMillis()));
+		props.put(DruidDataSourceFactory.PROP_TIMEBETWEENEVICTIONRUNSMILLIS,
+				String.valueOf(profile.getTimeBetweenEvictionRunsMillis()));
+		props.put(DruidDataSourceFactory.PROP_MINEVICTABLEIDLETIMEMILLIS,
+				String.valueOf(profile.getMinEvictableIdleTimeMillis()));
+		props.put(DruidDataSourceFactory.PROP_TESTWHILEIDLE, String.valueOf(profile.isTestWhileIdle()));
+		props.put(DruidDataSourceFactory.PROP_TESTONBORROW, String.valueOf(profile.isTestOnBorrow()));
+		props.put(DruidDataSourceFactory.PROP_TESTONRETURN, "false");
+		if (StringUtils.isNotBlank(profile.getValidationQuery())) {
+			props.put(DruidDataSourceFactory.PROP_VALIDATIONQUERY, profile.getValidationQuery());
+		}
+		props.put(DruidDataSourceFactory.PROP_POOLPREPAREDSTATEMENTS,
+				String.valueOf(profile.isPoolPreparedStatements()));
+		props.put(DruidDataSourceFactory.PROP_MAXOPENPREPAREDSTATEMENTS,
+				String.valueOf(profile.getMaxPoolPreparedStatementPerConnectionSize()));
+		props.put(DruidDataSourceFactory.PROP_FILTERS, filters);
+		return props;
+	}
+
 }
@@ -41,6 +41,32 @@ public interface DBConnectionPool extends AutoCloseable {
 	 */
 	Connection getConnection(DbConfigBO config);
 
+	/**
+	 * Get the JDBC fetch size configured in the pool profile of the datasource.
+	 * @param config the database configuration
+	 * @return the fetch size, or null if the profile does not specify one
+	 */
+	default Integer getFetchSize(DbConfigBO config) {
+		return null;
+	}
+
+	/**
+	 * Get the query timeout configured in the pool profile of the datasource.
+	 * @param config the database configuration
+	 * @return the timeout in seconds, or null if the profile does not specify one
+	 */
+	default Integer getQueryTimeout(DbConfigBO config) {
+		return null;
+	}
+
+	/**
+	 * Close the pooled DataSource of the given connection, used when the datasource is
+	 * modified or deleted.
+	 * @param config the database configuration
+	 */
+	default void evict(DbConfigBO config) {
+	}
+
 	boolean supportedDataSourceType(String type);
 
 	String getConnectionPoolType();
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector.pool;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.druid.pool.DruidDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 业务数据源连接池注册表。
+ *
+ * <p>
+ * 每个 (url, 用户名, 密码, profile) 对应一个 Druid 连接池，按 {@link DataAgentProperties.PoolProfile}
+ * 创建。连接池使用引用计数记录正在获取连接的线程和已借出的连接，引用在连接 {@link Connection#close()} 时才释放。
+ * 空闲超过 idleTimeoutSeconds 且没有借出连接的连接池会被定时回收；数据源修改或删除时由 DatasourceService 主动回收。
+ * 回收只是让连接池不再借出新连接，仍有借出的连接时等最后一个连接归还后再关闭，不会中断正在执行的查询。
+ */
+@Slf4j
+@Component
+public class DataSourcePoolRegistry {
+
+	private final DataAgentProperties.ConnectionPool config;
+
+	private final ConcurrentHashMap<String, PooledDataSource> pools = new ConcurrentHashMap<>();
+
+	public DataSourcePoolRegistry(DataAgentProperties properties) {
+		this.config = properties.getConnectionPool();
+	}
+
+	/**
+	 * 根据名称获取连接池配置，名称为空或不存在时返回默认配置
+	 */
+	public DataAgentProperties.PoolProfile resolveProfile(String profileName) {
+		if (StringUtils.isNotBlank(profileName)) {
+			DataAgentProperties.PoolProfile profile = config.getProfiles().get(profileName);
+			if (profile != null) {
+				return profile;
+			}
+			log.warn("Connection pool profile '{}' not found, using default profile", profileName);
+		}
+		return config.getDefaultProfile();
+	}
+
+	/**
+	 * 从数据源对应的连接池中获取连接，连接池不存在时通过 factory 创建。返回的连接关闭前一直持有连接池的引用
+	 */
+	public Connection getConnection(DbConfigBO dbConfig, DataSourceFactory factory) throws SQLException {
+		String key = generateCacheKey(dbConfig);
+		while (true) {
+			PooledDataSource pooled = pools.computeIfAbsent(key, k -> {
+				try {
+					log.debug("Creating new DataSource for url: {}, profile: {}", dbConfig.getUrl(),
+							dbConfig.getPoolProfile());
+					return new PooledDataSource(dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getPoolProfile(),
+							factory.create(dbConfig, resolveProfile(dbConfig.getPoolProfile())));
+				}
+				catch (Exception e) {
+					log.error("Failed to create DataSource for url: {}", dbConfig.getUrl(), e);
+					throw new RuntimeException("Failed to create DataSource", e);
+				}
+			});
+			if (!pooled.retain()) {
+				// 该连接池恰好被回收，移除后重新创建
+				pools.remove(key, pooled);
+				continue;
+			}
+			try {
+				if (log.isDebugEnabled() && pooled.dataSource() instanceof DruidDataSource druid) {
+					log.debug("Connection pool status - Active: {}, Idle: {}, WaitCount: {}", druid.getActiveCount(),
+							druid.getPoolingCount(), druid.getWaitThreadCount());
+				}
+				return pooled.track(pooled.dataSource().getConnection());
+			}
+			catch (SQLException | RuntimeException e) {
+				pooled.release();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * 获取数据源对应连接池配置的fetch size，未配置时返回null
+	 */
+	public Integer getFetchSize(DbConfigBO dbConfig) {
+		return resolveProfile(dbConfig.getPoolProfile()).getFetchSize();
+	}
+
+	/**
+	 * 获取数据源对应连接池配置的SQL执行超时时间（秒），未配置时返回null
+	 */
+	public Integer getQueryTimeout(DbConfigBO dbConfig) {
+		return resolveProfile(dbConfig.getPoolProfile()).getQueryTimeoutSeconds();
+	}
+
+	/**
+	 * 回收某个数据源连接（url + 用户名）下的全部连接池，已借出的连接归还后关闭
+	 */
+	public void evict(String url, String username) {
+		pools.forEach((key, pooled) -> {
+			if (Objects.equals(pooled.url(), url) && Objects.equals(pooled.username(), username)
+					&& pools.remove(key, pooled)) {
+				pooled.retire();
+				log.info("Retired connection pool for datasource: {}", url);
+			}
+		});
+	}
+
+	/**
+	 * 定时关闭长时间空闲且没有借出连接的连接池
+	 */
+	@Scheduled(fixedDelayString = "${spring.ai.alibaba.data-agent.connection-pool.eviction-interval-millis:60000}")
+	public void evictIdlePools() {
+		long idleTimeoutMillis = config.getIdleTimeoutSeconds() * 1000L;
+		if (idleTimeoutMillis <= 0) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, PooledDataSource> entry : pools.entrySet()) {
+			PooledDataSource pooled = entry.getValue();
+			if (now - pooled.lastAccessMillis() > idleTimeoutMillis && pooled.references() == 0
+					&& pools.remove(entry.getKey(), pooled)) {
+				// 从注册表移除后仍可能有线程刚拿到该连接池，retire 保证它们借出的连接归还后才关闭
+				pooled.retire();
+				log.info("Closed idle connection pool for datasource: {}, idle {}s", pooled.url(),
+						(now - pooled.lastAccessMillis()) / 1000);
+			}
+		}
+	}
+
+	public List<PoolStats> getStats() {
+		long now = System.currentTimeMillis();
+		List<PoolStats> stats = new ArrayList<>(pools.size());
+		for (PooledDataSource pooled : pools.values()) {
+			if (pooled.dataSource() instanceof DruidDataSource druid) {
+				stats.add(new PoolStats(pooled.url(), pooled.username(), pooled.profile(), druid.getActiveCount(),
+						druid.getPoolingCount(), druid.getWaitThreadCount(), druid.getMaxActive(),
+						druid.getNotEmptyWaitCount(), (now - pooled.lastAccessMillis()) / 1000));
+			}
+		}
+		return stats;
+	}
+
+	@PreDestroy
+	public void closeAll() {
+		pools.values().forEach(PooledDataSource::forceClose);
+		pools.clear();
+		log.info("DataSource cache cleared");
+	}
+
+	private static String generateCacheKey(DbConfigBO dbConfig) {
+		return dbConfig.getUrl() + "|" + dbConfig.getUsername() + "|" + Objects.hashCode(dbConfig.getPassword()) + "|"
+				+ StringUtils.defaultString(dbConfig.getPoolProfile());
+	}
+
+	@FunctionalInterface
+	public interface DataSourceFactory {
+
+		DataSource create(DbConfigBO dbConfig, DataAgentProperties.PoolProfile profile) throws Exception;
+
+	}
+
+	/**
+	 * @param active 已借出的连接数
+	 * @param idle 池中空闲的连接数
+	 * @param waitThreads 正在等待获取连接的线程数
+	 * @param waitCount 累计等待获取连接的次数
+	 * @param idleSeconds 距离上次获取连接的秒数
+	 */
+	public record PoolStats(String url, String username, String profile, int active, int idle, int waitThreads,
+			int maxActive, long waitCount, long idleSeconds) {
+	}
+
+	private static final class PooledDataSource {
+
+		private final String url;
+
+		private final String username;
+
+		private final String profile;
+
+		private final DataSource dataSource;
+
+		/**
+		 * 正在获取连接的线程数与已借出未归还的连接数之和
+		 */
+		private final AtomicInteger refCount = new AtomicInteger();
+
+		/**
+		 * 已从注册表移除，不再借出新连接，引用归零后关闭
+		 */
+		private volatile boolean retired;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private volatile long lastAccessMillis = System.currentTimeMillis();
+
+		private PooledDataSource(String url, String username, String profile, DataSource dataSource) {
+			this.url = url;
+			this.username = username;
+			this.profile = profile;
+			this.dataSource = dataSource;
+		}
+
+		String url() {
+			return url;
+		}
+
+		String username() {
+			return username;
+		}
+
+		String profile() {
+			return profile;
+		}
+
+		DataSource dataSource() {
+			return dataSource;
+		}
+
+		long lastAccessMillis() {
+			return lastAccessMillis;
+		}
+
+		int references() {
+			return refCount.get();
+		}
+
+		boolean retain() {
+			if (retired) {
+				return false;
+			}
+			refCount.incrementAndGet();
+			// 与 retire 并发时以 retired 为准：先计数再检查，保证 retire 看到引用或这里看到回收标记
+			if (retired) {
+				release();
+				return false;
+			}
+			lastAccessMillis = System.currentTimeMillis();
+			return true;
+		}
+
+		void release() {
+			if (refCount.decrementAndGet() == 0 && retired) {
+				close();
+			}
+		}
+
+		/**
+		 * 包装借出的连接，连接关闭时释放引用（重复关闭只释放一次）
+		 */
+		Connection track(Connection connection) {
+			AtomicBoolean released = new AtomicBoolean();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+							try {
+								connection.close();
+							}
+							finally {
+								if (released.compareAndSet(false, true)) {
+									release();
+								}
+							}
+							return null;
+						}
+						try {
+							return method.invoke(connection, args);
+						}
+						catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					});
+		}
+
+		/**
+		 * 不再借出新连接，没有引用时立即关闭，否则由最后一次 release 关闭
+		 */
+		void retire() {
+			retired = true;
+			if (refCount.get() == 0) {
+				close();
+			}
+		}
+
+		void forceClose() {
+			retired = true;
+			close();
+		}
+
+		private void close() {
+			if (closed.compareAndSet(false, true) && dataSource instanceof DruidDataSource druid) {
+				druid.close();
+			}
+		}
+
+	}
+
+}
@@ -71,6 +71,9 @@ public final class Constant {
 
 	public static final String SEMANTIC_CONSISTENCY_NODE_OUTPUT = "SEMANTIC_CONSISTENCY_NODE_OUTPUT";
 
+	// SQL预校验是否通过
+	public static final String SQL_VALIDATE_NODE_OUTPUT = "SQL_VALIDATE_NODE_OUTPUT";
+
 	public static final String PLANNER_NODE_OUTPUT = "PLANNER_NODE_OUTPUT";
 
 	public static final String SQL_EXECUTE_NODE_OUTPUT = "SQL_EXECUTE_NODE_OUTPUT";
@@ -116,6 +119,8 @@ public final class Constant {
 
 	public static final String SEMANTIC_CONSISTENCY_NODE = "SEMANTIC_CONSISTENCY_NODE";
 
+	public static final String SQL_VALIDATE_NODE = "SQL_VALIDATE_NODE";
+
 	public static final String HUMAN_FEEDBACK_NODE = "HUMAN_FEEDBACK_NODE";
 
 	// Keys related to Python code execution
@@ -145,6 +150,9 @@ public final class Constant {
 	// nl2sql接口预留相关
 	public static final String IS_ONLY_NL2SQL = "IS_ONLY_NL2SQL";
 
+	// 语义答案缓存命中的条目id，存在时表示本轮跳过了召回与SQL生成
+	public static final String SEMANTIC_CACHE_HIT = "SEMANTIC_CACHE_HIT";
+
 	// 人类复核相关
 	public static final String HUMAN_REVIEW_ENABLED = "HUMAN_REVIEW_ENABLED";
 
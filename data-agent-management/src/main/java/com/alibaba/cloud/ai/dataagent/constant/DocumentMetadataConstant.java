@@ -37,6 +37,9 @@ public final class DocumentMetadataConstant {
 	// vectorType
 	public static final String VECTOR_TYPE = "vectorType";
 
+	// 表/列文档内容指纹，用于增量初始化时判断是否需要重新嵌入
+	public static final String FINGERPRINT = "fingerprint";
+
 	// knowledgeId
 	public static final String DB_AGENT_KNOWLEDGE_ID = "agentKnowledgeId";
 
@@ -52,4 +55,16 @@ public final class DocumentMetadataConstant {
 	// businessTermId
 	public static final String DB_BUSINESS_TERM_ID = "businessTermId";
 
+	// NL2SQL语义答案缓存
+	public static final String SEMANTIC_CACHE = "semanticCache";
+
+	// 语义缓存条目id
+	public static final String SEMANTIC_CACHE_ID = "semanticCacheId";
+
+	// 语义缓存中保存的SQL
+	public static final String CACHED_SQL = "cachedSql";
+
+	// 语义缓存中保存的执行计划
+	public static final String CACHED_PLAN = "cachedPlan";
+
 }
@@ -22,6 +22,7 @@ import com.alibaba.cloud.ai.dataagent.exception.InternalServerException;
 import com.alibaba.cloud.ai.dataagent.exception.InvalidInputException;
 import com.alibaba.cloud.ai.dataagent.service.datasource.AgentDatasourceService;
 import com.alibaba.cloud.ai.dataagent.vo.ApiResponse;
+import com.alibaba.cloud.ai.dataagent.vo.SchemaInitProgressVO;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -84,6 +85,18 @@ public class AgentDatasourceController {
 		}
 	}
 
+	/** Get progress of the latest schema initialization, polled by the frontend */
+	@GetMapping("/init/progress")
+	public ApiResponse<SchemaInitProgressVO> getInitProgress(@PathVariable Long agentId) {
+		try {
+			return ApiResponse.success("操作成功", agentDatasourceService.getSchemaInitProgress(agentId).orElse(null));
+		}
+		catch (Exception e) {
+			log.error("Failed to get schema init progress for agent: {}", agentId, e);
+			throw new InvalidInputException("获取初始化进度失败：%s".formatted(e.getMessage()), List.of());
+		}
+	}
+
 	/** Get list of data sources configured for agent */
 	@GetMapping
 	public ApiResponse<List<AgentDatasource>> getAgentDatasource(@PathVariable Long agentId) {
@@ -22,6 +22,7 @@ import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.CreateKnowled
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.UpdateKnowledgeDTO;
 import com.alibaba.cloud.ai.dataagent.service.knowledge.AgentKnowledgeService;
 import com.alibaba.cloud.ai.dataagent.vo.AgentKnowledgeVO;
+import com.alibaba.cloud.ai.dataagent.vo.KnowledgeIngestionProgressVO;
 import com.alibaba.cloud.ai.dataagent.vo.ApiResponse;
 import com.alibaba.cloud.ai.dataagent.vo.PageResponse;
 import jakarta.validation.Valid;
@@ -168,4 +169,16 @@ public class AgentKnowledgeController {
 		return ApiResponse.success("重试向量化操作成功，如果是文件解析需要花费点时间，请耐心等待...");
 	}
 
+	/**
+	 * Query streaming embedding progress of a document knowledge
+	 */
+	@GetMapping("/{id}/embedding-progress")
+	public ApiResponse<KnowledgeIngestionProgressVO> getEmbeddingProgress(@PathVariable("id") Integer id) {
+		KnowledgeIngestionProgressVO progress = agentKnowledgeService.getEmbeddingProgress(id);
+		if (progress == null) {
+			return ApiResponse.error("暂无向量化进度");
+		}
+		return ApiResponse.success("查询成功", progress);
+	}
+
 }
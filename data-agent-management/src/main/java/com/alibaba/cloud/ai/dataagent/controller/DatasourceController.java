@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.dataagent.controller;
 
+import com.alibaba.cloud.ai.dataagent.connector.pool.DataSourcePoolRegistry;
 import com.alibaba.cloud.ai.dataagent.dto.datasource.DatasourceTypeDTO;
 import com.alibaba.cloud.ai.dataagent.dto.schema.CreateLogicalRelationDTO;
 import com.alibaba.cloud.ai.dataagent.dto.schema.UpdateLogicalRelationDTO;
@@ -178,6 +179,14 @@ public class DatasourceController {
 		}
 	}
 
+	/**
+	 * 获取业务数据源连接池的活跃、空闲与等待状态
+	 */
+	@GetMapping("/pool-stats")
+	public ApiResponse<List<DataSourcePoolRegistry.PoolStats>> getConnectionPoolStats() {
+		return ApiResponse.success("获取连接池状态成功", datasourceService.getConnectionPoolStats());
+	}
+
 	/**
 	 * 获取数据源表的字段列表
 	 */
@@ -15,18 +15,25 @@
  */
 package com.alibaba.cloud.ai.dataagent.dto.datasource;
 
-public record SqlRetryDto(String reason, boolean semanticFail, boolean sqlExecuteFail) {
+public record SqlRetryDto(String reason, boolean semanticFail, boolean sqlExecuteFail, boolean validationFail) {
 
 	public static SqlRetryDto semantic(String reason) {
-		return new SqlRetryDto(reason, true, false);
+		return new SqlRetryDto(reason, true, false, false);
 	}
 
 	public static SqlRetryDto sqlExecute(String reason) {
-		return new SqlRetryDto(reason, false, true);
+		return new SqlRetryDto(reason, false, true, false);
+	}
+
+	/**
+	 * 执行前的本地SQL预校验（语法、语句类型、表/列是否存在于召回的Schema）未通过
+	 */
+	public static SqlRetryDto validation(String reason) {
+		return new SqlRetryDto(reason, false, false, true);
 	}
 
 	public static SqlRetryDto empty() {
-		return new SqlRetryDto("", false, false);
+		return new SqlRetryDto("", false, false, false);
 	}
 
 }
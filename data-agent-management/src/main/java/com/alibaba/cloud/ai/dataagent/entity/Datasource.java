@@ -57,6 +57,11 @@ public class Datasource {
 
 	private String description;
 
+	/**
+	 * 连接池配置名称，对应 spring.ai.alibaba.data-agent.connection-pool.profiles
+	 */
+	private String poolProfile;
+
 	private Long creatorId;
 
 	@JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
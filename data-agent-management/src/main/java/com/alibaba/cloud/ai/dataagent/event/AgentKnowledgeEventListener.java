@@ -15,10 +15,10 @@
  */
 package com.alibaba.cloud.ai.dataagent.event;
 
-import com.alibaba.cloud.ai.dataagent.enums.EmbeddingStatus;
 import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
 import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
 import com.alibaba.cloud.ai.dataagent.service.knowledge.AgentKnowledgeResourceManager;
+import com.alibaba.cloud.ai.dataagent.service.knowledge.KnowledgeEmbeddingScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -37,52 +37,25 @@ public class AgentKnowledgeEventListener {
 
 	private final AgentKnowledgeResourceManager agentKnowledgeResourceManager;
 
+	private final KnowledgeEmbeddingScheduler knowledgeEmbeddingScheduler;
+
 	/**
 	 * phase = TransactionPhase.AFTER_COMMIT 核心作用：只有当 Service 层的主事务提交成功后，才会执行这个方法。
+	 * 向量化交给独立的任务调度器排队执行，这里只负责入队，不占用数据库操作线程池。
 	 */
-	@Async("dbOperationExecutor")
 	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
 	public void handleEmbeddingEvent(AgentKnowledgeEmbeddingEvent event) {
 		log.info("Received AgentKnowledgeEmbeddingEvent. agentKnowledgeId: {}", event.getKnowledgeId());
 		Integer id = event.getKnowledgeId();
 
-		// 1. 查询数据
 		AgentKnowledge knowledge = agentKnowledgeMapper.selectById(id);
 		if (knowledge == null) {
-			log.error("Knowledge not found during async processing. Id: {}", id);
+			log.error("Knowledge not found when scheduling embedding. Id: {}", id);
 			return;
 		}
 
-		try {
-			// 2. 更新状态为 PROCESSING
-			updateStatus(knowledge, EmbeddingStatus.PROCESSING, null);
-
-			// 3. 执行核心向量化逻辑
-			agentKnowledgeResourceManager.doEmbedingToVectorStore(knowledge);
-
-			// 4. 更新状态为 COMPLETED
-			updateStatus(knowledge, EmbeddingStatus.COMPLETED, null);
-
-			log.info("Successfully embedded knowledge. Id: {}", id);
-
-		}
-		catch (Exception e) {
-			log.error("Failed to embed knowledge. Id: {}", id, e);
-			// 5. 失败处理
-			updateStatus(knowledge, EmbeddingStatus.FAILED, e.getMessage());
-		}
-		log.info("Finished processing AgentKnowledgeEmbeddingEvent. agentKnowledgeId: {}", event.getKnowledgeId());
-
-	}
-
-	private void updateStatus(AgentKnowledge knowledge, EmbeddingStatus status, String errorMsg) {
-		knowledge.setEmbeddingStatus(status);
-		knowledge.setUpdatedTime(LocalDateTime.now());
-		if (errorMsg != null) {
-			// 截断错误信息防止数据库报错
-			knowledge.setErrorMsg(errorMsg.length() > 250 ? errorMsg.substring(0, 250) : errorMsg);
-		}
-		agentKnowledgeMapper.update(knowledge);
+		// 队列已满时保持 PENDING，由调度器的补偿扫描稍后入队
+		knowledgeEmbeddingScheduler.submit(knowledge);
 	}
 
 	@Async("dbOperationExecutor")
@@ -90,6 +63,7 @@ public class AgentKnowledgeEventListener {
 	public void handleDeletionEvent(AgentKnowledgeDeletionEvent event) {
 		Integer id = event.getKnowledgeId();
 		log.info("Starting async resource cleanup for knowledgeId: {}", id);
+		knowledgeEmbeddingScheduler.cancel(id);
 
 		// 1. 重新查询
 		AgentKnowledge knowledge = agentKnowledgeMapper.selectByIdIncludeDeleted(id);
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Clock;
+
+/**
+ * 智能体知识或业务知识的召回集合发生变化（新增、删除、切换召回状态）时发布，用于清理召回ID缓存
+ */
+@Getter
+public class KnowledgeRecallChangedEvent extends ApplicationEvent {
+
+	private final String agentId;
+
+	/**
+	 * 发生变化的向量类型，取值为 DocumentMetadataConstant.AGENT_KNOWLEDGE 或 BUSINESS_TERM
+	 */
+	private final String vectorType;
+
+	public KnowledgeRecallChangedEvent(Object source, String agentId, String vectorType) {
+		super(source, Clock.systemDefaultZone());
+		this.agentId = agentId;
+		this.vectorType = vectorType;
+	}
+
+}
@@ -17,9 +17,11 @@ package com.alibaba.cloud.ai.dataagent.mapper;
 
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.AgentKnowledgeQueryDTO;
 import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
+import com.alibaba.cloud.ai.dataagent.enums.EmbeddingStatus;
 import org.apache.ibatis.annotations.*;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -125,4 +127,56 @@ public interface AgentKnowledgeMapper {
 			""")
 	List<AgentKnowledge> selectDirtyRecords(@Param("beforeTime") LocalDateTime beforeTime, @Param("limit") int limit);
 
+	/**
+	 * 查询指定向量化状态且最近更新时间早于 beforeTime 的知识，用于向量化任务的补偿入队
+	 */
+	@Select("""
+			    SELECT * FROM agent_knowledge
+			    WHERE embedding_status = #{status}
+			      AND is_deleted = 0
+			      AND updated_time < #{beforeTime}
+			    ORDER BY id
+			    LIMIT #{limit}
+			""")
+	List<AgentKnowledge> selectByEmbeddingStatus(@Param("status") EmbeddingStatus status,
+			@Param("beforeTime") LocalDateTime beforeTime, @Param("limit") int limit);
+
+	/**
+	 * 认领待处理的向量化任务，只有仍为 PENDING 的记录才会被更新为 PROCESSING，多个实例同时认领时只有一个成功
+	 * @return 更新行数，0 表示已被其他实例认领、已删除或状态已变化
+	 */
+	@Update("""
+			    UPDATE agent_knowledge
+			    SET embedding_status = 'PROCESSING', updated_time = NOW()
+			    WHERE id = #{id} AND embedding_status = 'PENDING' AND is_deleted = 0
+			""")
+	int claimPending(@Param("id") Integer id);
+
+	/**
+	 * 刷新执行中任务的更新时间，作为持有任务的心跳，避免被其他实例判定为中断
+	 */
+	@Update("""
+			<script>
+			    UPDATE agent_knowledge
+			    SET updated_time = NOW()
+			    WHERE embedding_status = 'PROCESSING'
+			      AND id IN
+			      <foreach item='id' collection='ids' open='(' separator=',' close=')'>
+			        #{id}
+			      </foreach>
+			</script>
+			""")
+	int touchProcessing(@Param("ids") Collection<Integer> ids);
+
+	/**
+	 * 心跳超时（最近更新时间早于 beforeTime）的 PROCESSING 任务视为执行它的实例已退出，重置为 PENDING 以便重新调度
+	 */
+	@Update("""
+			    UPDATE agent_knowledge
+			    SET embedding_status = 'PENDING', updated_time = NOW()
+			    WHERE embedding_status = 'PROCESSING' AND is_deleted = 0
+			      AND updated_time < #{beforeTime}
+			""")
+	int resetStaleProcessingToPending(@Param("beforeTime") LocalDateTime beforeTime);
+
 }
@@ -43,8 +43,8 @@ public interface DatasourceMapper {
 
 	@Insert("""
 			INSERT INTO datasource
-			    (name, type, host, port, database_name, username, password, connection_url, status, test_status, description, creator_id, create_time, update_time)
-			VALUES (#{name}, #{type}, #{host}, #{port}, #{databaseName}, #{username}, #{password}, #{connectionUrl}, #{status}, #{testStatus}, #{description}, #{creatorId}, NOW(), NOW())
+			    (name, type, host, port, database_name, username, password, connection_url, status, test_status, description, pool_profile, creator_id, create_time, update_time)
+			VALUES (#{name}, #{type}, #{host}, #{port}, #{databaseName}, #{username}, #{password}, #{connectionUrl}, #{status}, #{testStatus}, #{description}, #{poolProfile}, #{creatorId}, NOW(), NOW())
 			""")
 	@Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
 	int insert(Datasource datasource);
@@ -67,6 +67,7 @@ public interface DatasourceMapper {
 			    <if test="status != null">status = #{status},</if>
 			    <if test="testStatus != null">test_status = #{testStatus},</if>
 			    <if test="description != null">description = #{description},</if>
+			    <if test="poolProfile != null">pool_profile = #{poolProfile},</if>
 			    <if test="creatorId != null">creator_id = #{creatorId},</if>
 			    update_time = NOW()
 			</set>
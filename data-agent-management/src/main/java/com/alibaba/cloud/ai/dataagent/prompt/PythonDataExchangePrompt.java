@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.prompt;
+
+import java.util.Map;
+
+/**
+ * python-generator 提示词中与数据交换方式相关的片段。两种方式共用同一份提示词，只替换读写输入输出的规范和示例代码，避免维护两份几乎相同的提示词。
+ */
+public enum PythonDataExchangePrompt {
+
+	/**
+	 * SQL结果以JSON写入标准输入，值统一为字符串
+	 */
+	JSON_STDIN("""
+			2. **输入规范**：从`sys.stdin`读取JSON数据（List[Dict]），使用`json.load(sys.stdin)`。
+			3. **输出规范**：最终结果必须是JSON对象（Dict），通过`print(json.dumps(result, ensure_ascii=False))`输出，JSON字段可以自定义，但要满足用户需求。""",
+			"""
+					import sys
+					import json
+					import traceback
+					import pandas as pd""",
+			"    # 从stdin读取输入数据\n"
+					+ "    input_data = json.load(sys.stdin)\n\n"
+					+ "    # 将输入数据转换为DataFrame以便于分析\n" + "    df = pd.DataFrame(input_data)\n\n"
+					+ "    # 自动类型推断：将字符串形式的数值转换为实际数值类型（解决后端统一返回字符串的问题）\n"
+					+ "    for col in df.columns:\n" + "        df[col] = pd.to_numeric(df[col], errors='ignore')",
+			"    print(json.dumps(result, ensure_ascii=False))",
+			"2. **类型转换**：由于后端SQL查询结果统一转换为字符串格式，**必须在DataFrame创建后进行类型推断**，使用`pd.to_numeric()`将数值字符串转换为实际数值类型，以便进行数学运算和统计分析。"),
+
+	/**
+	 * SQL结果以带列类型的列式文件交给 dataagent_io.read_input()
+	 */
+	COLUMNAR("""
+			2. **输入规范**：SQL查询结果已按列类型准备好，使用`from dataagent_io import read_input, write_result`导入，通过`df = read_input()`读取为pandas DataFrame（整数列为int64，小数列为float64，日期时间列为datetime64，其余为字符串，数值/日期列中的空值为缺失值）。无法解析的日期时间值会变为缺失值，并在stderr中给出各列的数量，也可以通过`dataagent_io.parse_failures()`获取。**不要从`sys.stdin`读取数据**。
+			3. **输出规范**：最终结果必须是JSON对象（Dict），通过`write_result(result)`输出（自动处理numpy/pandas类型、时间和NaN），JSON字段可以自定义，但要满足用户需求。除此之外不要向标准输出打印其他内容。""",
+			"""
+					import sys
+					import traceback
+					import pandas as pd
+					from dataagent_io import read_input, write_result""",
+			"    # 读取输入数据，列已经是对应的类型，无需再做类型转换\n" + "    df = read_input()", "    write_result(result)",
+			"2. **类型使用**：各列类型见【输入列类型】，数值列可以直接进行数学运算和统计分析，**不要再使用`pd.to_numeric()`等方式重复转换**；带前导零的编码、超长整数等按字符串保留。");
+
+	private final String contract;
+
+	private final String imports;
+
+	private final String readInput;
+
+	private final String writeResult;
+
+	private final String typeNote;
+
+	PythonDataExchangePrompt(String contract, String imports, String readInput, String writeResult,
+			String typeNote) {
+		this.contract = contract;
+		this.imports = imports;
+		this.readInput = readInput;
+		this.writeResult = writeResult;
+		this.typeNote = typeNote;
+	}
+
+	public static PythonDataExchangePrompt of(Boolean columnar) {
+		return Boolean.TRUE.equals(columnar) ? COLUMNAR : JSON_STDIN;
+	}
+
+	/**
+	 * 生成 python-generator 提示词中的数据交换片段
+	 * @param inputSchema 输入列类型（JSON），仅列式交换时使用
+	 * @return 提示词参数
+	 */
+	public Map<String, Object> params(String inputSchema) {
+		String schemaSection = this == COLUMNAR ? "\n【输入列类型】\n\n```json\n" + inputSchema + "\n```\n" : "";
+		return Map.of("io_contract", contract, "io_imports", imports, "io_read_input", readInput, "io_write_result",
+				writeResult, "io_type_note", typeNote, "io_input_schema", schemaSection);
+	}
+
+}
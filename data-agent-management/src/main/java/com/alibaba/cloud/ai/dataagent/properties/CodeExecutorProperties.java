@@ -20,6 +20,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.nio.file.Paths;
+import java.util.List;
+
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.PROJECT_PROPERTIES_PREFIX;
 
 /**
@@ -124,4 +127,73 @@ public class CodeExecutorProperties {
 	 */
 	Integer pythonMaxTriesCount = 5;
 
+	/**
+	 * Whether the local executor runs code in warm, reusable Python worker processes
+	 * instead of spawning a fresh interpreter per task
+	 */
+	Boolean warmPoolEnabled = true;
+
+	/**
+	 * Maximum number of idle warm workers kept per Python environment
+	 */
+	Integer warmWorkersPerEnvironment = 2;
+
+	/**
+	 * Maximum number of Python environments that keep idle warm workers, the least
+	 * recently used environment's workers are closed first
+	 */
+	Integer maxWarmEnvironments = 4;
+
+	/**
+	 * Maximum number of warm workers executing tasks at the same time, further tasks wait
+	 * for a worker to be returned
+	 */
+	Integer maxActiveWorkers = 4;
+
+	/**
+	 * Maximum time a task waits for a warm worker when maxActiveWorkers are all busy, in
+	 * milliseconds
+	 */
+	Long workerAcquireTimeoutMillis = 30_000L;
+
+	/**
+	 * Modules imported by warm workers at startup so that tasks do not pay the import
+	 * cost, missing modules are ignored
+	 */
+	List<String> preloadModules = List.of("pandas", "numpy");
+
+	/**
+	 * Directory of the local virtualenvs built per requirement set (keyed by the hash of
+	 * the normalized requirements), reused across tasks and restarts
+	 */
+	String venvCacheDir = Paths.get(System.getProperty("java.io.tmpdir"), "data-agent-python-envs").toString();
+
+	/**
+	 * Local pip wheel/HTTP cache directory shared by all virtualenv builds
+	 */
+	String pipCacheDir = Paths.get(System.getProperty("java.io.tmpdir"), "data-agent-pip-cache").toString();
+
+	/**
+	 * Docker named volume holding the virtualenvs built per requirement set
+	 */
+	String dockerVenvVolume = "data-agent-python-envs";
+
+	/**
+	 * Docker named volume used as pip cache
+	 */
+	String dockerPipCacheVolume = "data-agent-pip-cache";
+
+	/**
+	 * Network mode of the short-lived container that installs requirements into the
+	 * virtualenv volume, code execution containers keep using networkMode and only see
+	 * the volume read-only
+	 */
+	String dockerInstallNetworkMode = "bridge";
+
+	/**
+	 * Whether SQL results are handed to Python as a typed columnar CSV file read through
+	 * the dataagent_io helper module, instead of a JSON list on stdin
+	 */
+	Boolean columnarDataExchange = true;
+
 }
@@ -21,6 +21,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @ConfigurationProperties(prefix = Constant.PROJECT_PROPERTIES_PREFIX)
@@ -80,6 +83,90 @@ public class DataAgentProperties {
 	 */
 	private Long enrichSqlResultTimeout = 3000L;
 
+	/**
+	 * 执行SQL时的JDBC fetch size，默认100，小于等于0时使用驱动默认值
+	 */
+	private int sqlResultFetchSize = 100;
+
+	/**
+	 * 是否使用虚拟线程执行图订阅、阻塞式大模型调用、业务库SQL与Schema初始化，需要JDK 21及以上，默认关闭
+	 */
+	private boolean enableVirtualThreads = false;
+
+	/**
+	 * 是否启用增量Schema初始化：按表/列指纹比对，仅删除并重新嵌入发生变化的文档，默认关闭（全量清空后重建）
+	 */
+	private boolean incrementalSchemaInit = false;
+
+	/**
+	 * SQL结果缓存、文本向量缓存与JSON修复统计输出到日志的间隔（毫秒）
+	 */
+	private long statsLogIntervalMillis = 300000;
+
+	/**
+	 * spring.ai.alibaba.data-agent.sql-result-cache.enabled=true
+	 */
+	private SqlResultCache sqlResultCache = new SqlResultCache();
+
+	/**
+	 * spring.ai.alibaba.data-agent.semantic-cache.enabled=true
+	 * spring.ai.alibaba.data-agent.semantic-cache.similarity-threshold=0.95
+	 */
+	private SemanticCache semanticCache = new SemanticCache();
+
+	/**
+	 * spring.ai.alibaba.data-agent.connection-pool.default-profile.max-active=20
+	 * spring.ai.alibaba.data-agent.connection-pool.profiles.reporting.max-active=50
+	 */
+	private ConnectionPool connectionPool = new ConnectionPool();
+
+	/**
+	 * spring.ai.alibaba.data-agent.sql-execution.query-timeout-seconds=30
+	 * spring.ai.alibaba.data-agent.sql-execution.max-concurrent-per-agent=4
+	 */
+	private SqlExecution sqlExecution = new SqlExecution();
+
+	/**
+	 * spring.ai.alibaba.data-agent.sql-validation.enabled=true
+	 * spring.ai.alibaba.data-agent.sql-validation.check-columns=true
+	 */
+	private SqlValidation sqlValidation = new SqlValidation();
+
+	/**
+	 * spring.ai.alibaba.data-agent.speculative-schema-recall.enabled=true
+	 */
+	private SpeculativeSchemaRecall speculativeSchemaRecall = new SpeculativeSchemaRecall();
+
+	/**
+	 * spring.ai.alibaba.data-agent.embedding-cache.max-entries=5000
+	 * spring.ai.alibaba.data-agent.embedding-cache.disk-enabled=true
+	 */
+	private EmbeddingCache embeddingCache = new EmbeddingCache();
+
+	/**
+	 * spring.ai.alibaba.data-agent.schema-ingestion.tables-per-batch=50
+	 * spring.ai.alibaba.data-agent.schema-ingestion.embedding-parallelism=2
+	 */
+	private SchemaIngestion schemaIngestion = new SchemaIngestion();
+
+	/**
+	 * spring.ai.alibaba.data-agent.column-sampling.native-sampling-enabled=true
+	 * spring.ai.alibaba.data-agent.column-sampling.time-budget-seconds=10
+	 */
+	private ColumnSampling columnSampling = new ColumnSampling();
+
+	/**
+	 * spring.ai.alibaba.data-agent.knowledge-ingestion.streaming-enabled=true
+	 * spring.ai.alibaba.data-agent.knowledge-ingestion.segment-chars=20000
+	 */
+	private KnowledgeIngestion knowledgeIngestion = new KnowledgeIngestion();
+
+	/**
+	 * spring.ai.alibaba.data-agent.knowledge-embedding.max-concurrent-jobs=2
+	 * spring.ai.alibaba.data-agent.knowledge-embedding.embedding-requests-per-second=5
+	 */
+	private KnowledgeEmbedding knowledgeEmbedding = new KnowledgeEmbedding();
+
 	@Getter
 	@Setter
 	public static class ReportTemplate {
@@ -92,6 +179,407 @@ public class DataAgentProperties {
 
 	}
 
+	@Getter
+	@Setter
+	public static class SqlResultCache {
+
+		/**
+		 * 是否缓存业务库SQL查询结果，默认关闭
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 最多缓存的结果条数
+		 */
+		private int maxEntries = 500;
+
+		/**
+		 * 缓存结果的估算总字节数上限，默认64MB
+		 */
+		private long maxBytes = 64L * 1024 * 1024;
+
+		/**
+		 * 缓存有效期（秒），小于等于0表示不过期
+		 */
+		private long ttlSeconds = 300;
+
+	}
+
+	@Getter
+	@Setter
+	public static class ConnectionPool {
+
+		/**
+		 * 连接池空闲多久（秒）后整体关闭并从缓存中移除，小于等于0表示不回收
+		 */
+		private long idleTimeoutSeconds = 1800;
+
+		/**
+		 * 空闲连接池回收任务的执行间隔（毫秒）
+		 */
+		private long evictionIntervalMillis = 60000;
+
+		/**
+		 * 数据源未指定或指定的profile不存在时使用的默认配置
+		 */
+		private PoolProfile defaultProfile = new PoolProfile();
+
+		/**
+		 * 命名的连接池配置，数据源通过 poolProfile 字段引用
+		 */
+		private Map<String, PoolProfile> profiles = new HashMap<>();
+
+	}
+
+	@Getter
+	@Setter
+	public static class PoolProfile {
+
+		private int initialSize = 1;
+
+		private int minIdle = 1;
+
+		private int maxActive = 20;
+
+		private long maxWaitMillis = 10000;
+
+		/**
+		 * 连接校验SQL，为空时使用驱动的isValid
+		 */
+		private String validationQuery;
+
+		private boolean testWhileIdle = true;
+
+		private boolean testOnBorrow = false;
+
+		private long timeBetweenEvictionRunsMillis = 60000;
+
+		private long minEvictableIdleTimeMillis = 300000;
+
+		/**
+		 * 是否开启PreparedStatement缓存
+		 */
+		private boolean poolPreparedStatements = false;
+
+		private int maxPoolPreparedStatementPerConnectionSize = 20;
+
+		/**
+		 * 执行SQL时的JDBC fetch size，为空时使用 sqlResultFetchSize
+		 */
+		private Integer fetchSize;
+
+		/**
+		 * 执行SQL的超时时间（秒），为空时使用 sql-execution.query-timeout-seconds
+		 */
+		private Integer queryTimeoutSeconds;
+
+	}
+
+	@Getter
+	@Setter
+	public static class SqlExecution {
+
+		/**
+		 * 执行业务库SQL的专用线程数
+		 */
+		private int poolSize = 16;
+
+		/**
+		 * 等待执行的SQL队列长度，队列满时直接拒绝
+		 */
+		private int queueCapacity = 200;
+
+		/**
+		 * 默认的SQL执行超时时间（秒），数据源的连接池配置可单独覆盖
+		 */
+		private int queryTimeoutSeconds = 30;
+
+		/**
+		 * 单个智能体同时执行的SQL数量上限，小于等于0表示不限制
+		 */
+		private int maxConcurrentPerAgent = 4;
+
+		/**
+		 * 等待智能体并发许可的最长时间（毫秒）
+		 */
+		private long acquireTimeoutMillis = 30000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class SqlValidation {
+
+		/**
+		 * 是否在执行前用Druid解析生成的SQL，并按召回的Schema校验表和列，未通过时直接带着错误信息重新生成，不访问数据库
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * 是否校验列名，关闭后只校验语法、语句类型和表名
+		 */
+		private boolean checkColumns = true;
+
+	}
+
+	@Getter
+	@Setter
+	public static class SpeculativeSchemaRecall {
+
+		/**
+		 * 是否在证据召回的同时以原始问题推测召回Schema，默认关闭
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Schema召回节点等待推测结果的最长时间（毫秒），超时后按原流程召回
+		 */
+		private long waitTimeoutMillis = 3000;
+
+		/**
+		 * 未被消费的推测结果的保留时间（秒），从发起推测召回开始计算
+		 */
+		private long expireAfterWriteSeconds = 300;
+
+		/**
+		 * 最多保留的未消费推测结果数，超出时淘汰最早发起的推测召回
+		 */
+		private int maxEntries = 1000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class EmbeddingCache {
+
+		/**
+		 * 是否缓存文本向量，相同嵌入模型配置下的相同文本只调用一次模型
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * 内存中最多缓存的向量条数，按LRU淘汰（1536维向量约6KB/条）
+		 */
+		private int maxEntries = 5000;
+
+		/**
+		 * 是否启用磁盘持久化缓存，重启后仍可复用已计算的向量
+		 */
+		private boolean diskEnabled = false;
+
+		/**
+		 * 磁盘缓存目录，按嵌入模型配置分子目录存放
+		 */
+		private String diskPath = "./embedding-cache";
+
+		/**
+		 * 磁盘缓存的总字节数上限，超出后按LRU删除最久未使用的向量文件，默认1GB
+		 */
+		private long diskMaxBytes = 1024L * 1024 * 1024;
+
+	}
+
+	@Getter
+	@Setter
+	public static class SchemaIngestion {
+
+		/**
+		 * 是否以流水线方式初始化Schema：按批次依次取列、采样、构建文档、嵌入写入，各阶段并行重叠执行，默认启用
+		 */
+		private boolean pipelineEnabled = true;
+
+		/**
+		 * 每个流水线批次包含的表数量
+		 */
+		private int tablesPerBatch = 50;
+
+		/**
+		 * 取列信息阶段的并行批次数
+		 */
+		private int metadataParallelism = 2;
+
+		/**
+		 * 样本数据采集阶段的并行批次数
+		 */
+		private int samplingParallelism = 4;
+
+		/**
+		 * 嵌入并写入向量库阶段的并行批次数，受嵌入模型限速约束，不宜过大
+		 */
+		private int embeddingParallelism = 2;
+
+		/**
+		 * 相邻阶段之间最多缓冲的批次数，下游处理不过来时上游暂停取数
+		 */
+		private int queueCapacity = 4;
+
+		/**
+		 * 单个批次在某一阶段失败后的最大重试次数，仍失败时跳过该批次并在结果中报告
+		 */
+		private int maxBatchRetries = 2;
+
+		/**
+		 * 批次重试的初始退避时间（毫秒），之后按指数增长
+		 */
+		private long retryBackoffMillis = 500;
+
+		/**
+		 * 初始化结束后保留最终进度供前端查询的时间（秒），之后移除
+		 */
+		private long progressRetentionSeconds = 600;
+
+	}
+
+	@Getter
+	@Setter
+	public static class KnowledgeIngestion {
+
+		/**
+		 * 是否以流式方式处理文档类知识：边解析边分块，按token限制分批嵌入并写入向量库，默认启用
+		 */
+		private boolean streamingEnabled = true;
+
+		/**
+		 * 解析时每段文本的目标字符数，攒够后在最近的换行处截断并交给分块器，决定单次驻留内存的文本量
+		 */
+		private int segmentChars = 20000;
+
+		/**
+		 * 自上次写入后新增分块数的上限，达到后按批处理策略切分并写入向量库，最后一个未满的批次留待与后续分块合并
+		 */
+		private int flushChunkCount = 64;
+
+		/**
+		 * 向量化结束后保留最终进度供前端查询的时间（秒），之后移除
+		 */
+		private long progressRetentionSeconds = 600;
+
+	}
+
+	@Getter
+	@Setter
+	public static class KnowledgeEmbedding {
+
+		/**
+		 * 同时执行的知识向量化任务数，使用独立线程池，不占用数据库操作线程池
+		 */
+		private int maxConcurrentJobs = 2;
+
+		/**
+		 * 单个智能体同时执行的向量化任务数，多个智能体之间轮转调度，避免批量上传独占任务槽
+		 */
+		private int maxConcurrentJobsPerAgent = 1;
+
+		/**
+		 * 内存中排队任务上限，超出时任务保持PENDING状态，由定时补偿扫描稍后重新入队
+		 */
+		private int maxQueuedJobs = 1000;
+
+		/**
+		 * 单个任务的最大执行次数（含首次），用尽后标记为FAILED
+		 */
+		private int maxAttempts = 3;
+
+		/**
+		 * 失败重试的初始退避时间（毫秒），之后按指数增长
+		 */
+		private long retryBackoffMillis = 5000;
+
+		/**
+		 * 知识向量化对嵌入模型每秒发起的最大请求数，小于等于0表示不限制
+		 */
+		private double embeddingRequestsPerSecond = 5;
+
+		/**
+		 * 补偿扫描只处理PENDING状态超过该时长（秒）的知识，避免与刚提交的事件重复入队
+		 */
+		private int pendingRecoverySeconds = 60;
+
+		/**
+		 * 单次补偿扫描最多入队的知识数量
+		 */
+		private int recoveryScanLimit = 100;
+
+		/**
+		 * 补偿扫描的执行间隔（毫秒），执行中任务的心跳也按该间隔刷新
+		 */
+		private long recoveryIntervalMillis = 60000;
+
+		/**
+		 * 执行中任务的心跳超时（秒）。执行实例在每次补偿扫描时刷新心跳，超时未刷新的 PROCESSING 任务视为实例已退出并重新调度，
+		 * 因此该值应明显大于补偿扫描间隔
+		 */
+		private int processingLeaseSeconds = 300;
+
+	}
+
+	@Getter
+	@Setter
+	public static class ColumnSampling {
+
+		/**
+		 * 每张表读取的样本行数
+		 */
+		private int sampleRows = 5;
+
+		/**
+		 * 是否优先使用数据库原生采样（PostgreSQL/SQL Server TABLESAMPLE、Oracle SAMPLE BLOCK），样本不足时再按行数限制读取
+		 */
+		private boolean nativeSamplingEnabled = true;
+
+		/**
+		 * 原生采样的数据块百分比
+		 */
+		private double samplePercent = 1.0;
+
+		/**
+		 * Hive分区表只读取最新分区，避免全表扫描
+		 */
+		private boolean hivePartitionPruning = true;
+
+		/**
+		 * 每张表最多采样的列数，超宽表只采样前面的列
+		 */
+		private int maxColumns = 100;
+
+		/**
+		 * 单表采样的时间预算（秒），同时作为采样SQL的查询超时
+		 */
+		private int timeBudgetSeconds = 10;
+
+		/**
+		 * 样本缓存有效期（秒），表结构未变化时重复初始化直接复用，小于等于0表示不缓存
+		 */
+		private long cacheTtlSeconds = 86400;
+
+		/**
+		 * 最多缓存样本的表数量
+		 */
+		private int cacheMaxTables = 5000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class SemanticCache {
+
+		/**
+		 * 是否启用NL2SQL语义答案缓存，命中时跳过召回、规划与SQL生成，默认关闭
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 命中所需的最低相似度
+		 */
+		private double similarityThreshold = 0.95;
+
+		/**
+		 * 每次查找召回的候选条数，用于过滤掉其他数据源下的缓存答案
+		 */
+		private int topK = 3;
+
+	}
+
 	@Getter
 	@Setter
 	public static class TextSplitter {
@@ -210,6 +698,16 @@ public class DataAgentProperties {
 			 */
 			private double similarityThreshold = 0.5;
 
+			/**
+			 * 每次 Embedding 请求包含的句子数 默认值：10（DashScope text-embedding-v4 的上限）
+			 */
+			private int embeddingBatchSize = 10;
+
+			/**
+			 * 同时在途的 Embedding 请求数 默认值：4，设置为1时逐批串行
+			 */
+			private int maxConcurrentBatches = 4;
+
 		}
 
 		/**
@@ -290,11 +788,78 @@ public class DataAgentProperties {
 		 */
 		private double elasticsearchMinScore = 0.5;
 
+		/**
+		 * 进程内向量库（simple、local-ann）启用混合搜索时，是否维护BM25关键词索引作为关键词召回。
+		 * 外部向量库可能被其他实例修改，进程内索引无法保持一致，不启用
+		 */
+		private boolean enableKeywordIndex = true;
+
+		/**
+		 * BM25词频饱和参数k1
+		 */
+		private double bm25K1 = 1.2;
+
+		/**
+		 * BM25文档长度归一化参数b
+		 */
+		private double bm25B = 0.75;
+
+		/**
+		 * 元数据索引不可用时，关键词索引分区（agentId + vectorType）首次检索从向量库加载文档的首批数量，
+		 * 返回数量达到请求数量时按倍数扩大继续加载，直到取完分区内全部文档
+		 */
+		private int keywordIndexBootstrapPageSize = 10000;
+
+		/**
+		 * 进程内向量库（simple、local-ann）是否维护元数据二级索引，按元数据删除和查询时直接查索引，不再嵌入查询并扫描向量
+		 */
+		private boolean enableMetadataIndex = true;
+
 		/**
 		 * SimpleVectorStore本地序列化文件地址
 		 */
 		private String filePath = "./vectorstore/vectorstore.json";
 
+		/**
+		 * 本地ANN向量库（spring.ai.vectorstore.type=local-ann）的数据目录，存放内存映射向量文件、WAL和HNSW图快照
+		 */
+		private String localAnnPath = "./vectorstore/ann";
+
+		/**
+		 * HNSW每个节点在上层的最大邻居数，第0层为其两倍
+		 */
+		private int localAnnM = 16;
+
+		/**
+		 * HNSW构建时的候选队列大小，越大图质量越高、写入越慢
+		 */
+		private int localAnnEfConstruction = 100;
+
+		/**
+		 * HNSW检索时的候选队列大小（不小于topK），越大召回率越高、检索越慢
+		 */
+		private int localAnnEfSearch = 100;
+
+		/**
+		 * 候选文档（元数据过滤后）不超过此数量时直接精确计算相似度，不走图检索
+		 */
+		private int localAnnExactSearchThreshold = 2000;
+
+		/**
+		 * 每新增多少个向量写一次HNSW图快照，缩短崩溃后启动时补建图的时间
+		 */
+		private int localAnnSnapshotInterval = 5000;
+
+		/**
+		 * 召回ID集合（is_recall = 1 的知识ID）的本地缓存有效期，单位秒。知识变更时会主动失效，此值仅作兜底，小于等于0表示不缓存
+		 */
+		private long recalledIdCacheTtlSeconds = 300;
+
+		/**
+		 * 召回ID中连续ID段的长度达到此值时，过滤表达式使用区间条件代替逐个列举
+		 */
+		private int recalledIdRangeMinLength = 4;
+
 	}
 
 }
@@ -38,11 +38,16 @@ public class AiModelRegistry {
 
 	private final ModelConfigDataService modelConfigDataService;
 
+	private final EmbeddingCache embeddingCache;
+
 	// 缓存对象 (volatile 保证可见性)
 	private volatile ChatClient currentChatClient;
 
 	private volatile EmbeddingModel currentEmbeddingModel;
 
+	// 当前嵌入模型对应的向量缓存命名空间，与模型实例绑定，保证读取时两者一致
+	private volatile EmbeddingCacheNamespace currentEmbeddingCacheNamespace;
+
 	// =========================================================
 	// 1. 获取 ChatClient (懒加载 + 缓存)
 	// =========================================================
@@ -85,7 +90,10 @@ public class AiModelRegistry {
 					try {
 						ModelConfigDTO config = modelConfigDataService.getActiveConfigByType(ModelType.EMBEDDING);
 						if (config != null) {
-							currentEmbeddingModel = modelFactory.createEmbeddingModel(config);
+							EmbeddingModel embeddingModel = modelFactory.createEmbeddingModel(config);
+							currentEmbeddingCacheNamespace = new EmbeddingCacheNamespace(embeddingModel,
+									buildEmbeddingCacheNamespace(config));
+							currentEmbeddingModel = embeddingModel;
 						}
 					}
 					catch (Exception e) {
@@ -114,10 +122,39 @@ public class AiModelRegistry {
 	}
 
 	public void refreshEmbedding() {
-		this.currentEmbeddingModel = null;
+		EmbeddingCacheNamespace previous;
+		synchronized (this) {
+			previous = this.currentEmbeddingCacheNamespace;
+			this.currentEmbeddingCacheNamespace = null;
+			this.currentEmbeddingModel = null;
+		}
+		// 模型配置可能被原地修改，旧命名空间下的向量不再可信
+		if (previous != null) {
+			embeddingCache.invalidate(previous.namespace());
+		}
 		log.info("Embedding cache cleared.");
 	}
 
+	/**
+	 * 获取某个嵌入模型实例对应的向量缓存命名空间，只有当前激活的模型返回非null，哑巴模型或已被替换的旧模型不缓存
+	 */
+	public String getEmbeddingCacheNamespace(Object embeddingModel) {
+		EmbeddingCacheNamespace current = this.currentEmbeddingCacheNamespace;
+		return current != null && current.model() == embeddingModel ? current.namespace() : null;
+	}
+
+	/**
+	 * 配置ID + 影响向量结果的配置项摘要，配置被修改后即使ID相同也不会复用旧向量
+	 */
+	private static String buildEmbeddingCacheNamespace(ModelConfigDTO config) {
+		String fingerprint = String.join("|", String.valueOf(config.getProvider()), String.valueOf(config.getBaseUrl()),
+				String.valueOf(config.getModelName()), String.valueOf(config.getEmbeddingsPath()));
+		return config.getId() + "-" + EmbeddingCache.hash(fingerprint).substring(0, 12);
+	}
+
+	private record EmbeddingCacheNamespace(EmbeddingModel model, String namespace) {
+	}
+
 	// =========================================================
 	// 4. 内部类：哑巴嵌入模型 (仅用于启动时防崩)
 	// =========================================================
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.aimodelconfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 嵌入模型代理上的向量缓存拦截器。
+ *
+ * <p>
+ * 拦截 {@code embed(String)}、{@code embed(List<String>)}、{@code embedForResponse(List<String>)} 以及向量库写入时使用的
+ * {@code embed(List<Document>, EmbeddingOptions, BatchingStrategy)}，命中 {@link EmbeddingCache} 的文本直接返回，
+ * 批量调用只把未命中的文本发送给模型。当前模型不是 {@link AiModelRegistry} 中激活的模型时直接放行。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CachingEmbeddingInterceptor implements MethodInterceptor {
+
+	private final EmbeddingCache embeddingCache;
+
+	private final AiModelRegistry aiModelRegistry;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		if (!embeddingCache.isEnabled()) {
+			return invocation.proceed();
+		}
+		String namespace = aiModelRegistry.getEmbeddingCacheNamespace(invocation.getThis());
+		if (namespace == null) {
+			return invocation.proceed();
+		}
+
+		String methodName = invocation.getMethod().getName();
+		Object[] arguments = invocation.getArguments();
+		EmbeddingModel target = (EmbeddingModel) invocation.getThis();
+
+		if ("embed".equals(methodName) && arguments.length == 1 && arguments[0] instanceof String text) {
+			float[] cached = embeddingCache.get(namespace, text);
+			if (cached != null) {
+				return cached.clone();
+			}
+			float[] embedding = (float[]) invocation.proceed();
+			embeddingCache.put(namespace, text, embedding);
+			return embedding;
+		}
+		if ("embed".equals(methodName) && arguments.length == 1 && arguments[0] instanceof List<?>) {
+			List<String> texts = (List<String>) arguments[0];
+			return embedAll(namespace, texts, Function.identity(), target::embed);
+		}
+		if ("embedForResponse".equals(methodName) && arguments.length == 1 && arguments[0] instanceof List<?>) {
+			List<String> texts = (List<String>) arguments[0];
+			List<float[]> embeddings = embedAll(namespace, texts, Function.identity(), target::embed);
+			List<Embedding> results = new ArrayList<>(embeddings.size());
+			for (int i = 0; i < embeddings.size(); i++) {
+				results.add(new Embedding(embeddings.get(i), i));
+			}
+			return new EmbeddingResponse(results);
+		}
+		if ("embed".equals(methodName) && arguments.length == 3 && arguments[0] instanceof List<?>
+				&& arguments[2] instanceof BatchingStrategy batchingStrategy
+				&& isDefaultOptions((EmbeddingOptions) arguments[1])) {
+			List<Document> documents = (List<Document>) arguments[0];
+			EmbeddingOptions options = (EmbeddingOptions) arguments[1];
+			return embedAll(namespace, documents, document -> document.getFormattedContent(MetadataMode.EMBED),
+					missing -> target.embed(missing, options, batchingStrategy));
+		}
+		return invocation.proceed();
+	}
+
+	/**
+	 * 先查缓存，只对未命中的输入（去重后）调用一次批量嵌入，再按原顺序组装结果
+	 */
+	private <T> List<float[]> embedAll(String namespace, List<T> inputs, Function<T, String> keyExtractor,
+			Function<List<T>, List<float[]>> batchEmbedder) {
+		List<float[]> results = new ArrayList<>(inputs.size());
+		Map<String, T> missing = new LinkedHashMap<>();
+		for (T input : inputs) {
+			String key = keyExtractor.apply(input);
+			float[] cached = embeddingCache.get(namespace, key);
+			results.add(cached == null ? null : cached.clone());
+			if (cached == null) {
+				missing.putIfAbsent(key, input);
+			}
+		}
+		if (missing.isEmpty()) {
+			return results;
+		}
+
+		List<T> missingInputs = new ArrayList<>(missing.values());
+		List<float[]> embeddings = batchEmbedder.apply(missingInputs);
+		if (embeddings.size() != missingInputs.size()) {
+			throw new IllegalStateException("Embedding result size " + embeddings.size()
+					+ " does not match input size " + missingInputs.size());
+		}
+		Map<String, float[]> computed = new LinkedHashMap<>();
+		int i = 0;
+		for (String key : missing.keySet()) {
+			float[] embedding = embeddings.get(i++);
+			computed.put(key, embedding);
+			embeddingCache.put(namespace, key, embedding);
+		}
+		log.debug("Embedding cache: {} of {} inputs sent to model", missingInputs.size(), inputs.size());
+
+		for (int j = 0; j < inputs.size(); j++) {
+			if (results.get(j) == null) {
+				results.set(j, computed.get(keyExtractor.apply(inputs.get(j))));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * 只缓存不指定模型和维度的请求，否则同一文本可能得到不同的向量
+	 */
+	private static boolean isDefaultOptions(EmbeddingOptions options) {
+		return options == null || (options.getModel() == null && options.getDimensions() == null);
+	}
+
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.aimodelconfig;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 文本向量缓存。
+ *
+ * <p>
+ * 以 (嵌入模型命名空间, 文本SHA-256) 为key缓存向量。命名空间由 {@link AiModelRegistry} 根据当前激活的嵌入模型配置生成，
+ * 模型热切换时整体失效。内存层按LRU淘汰；启用磁盘层时每条向量存为一个文件，内存未命中时回查磁盘并回填内存，
+ * 磁盘层按LRU控制总字节数。命中、未命中、淘汰次数与命中率注册为 Micrometer 指标 {@code dataagent.embedding.cache.*}。
+ */
+@Slf4j
+@Component
+public class EmbeddingCache implements MeterBinder {
+
+	private static final String FILE_SUFFIX = ".vec";
+
+	private static final String METRIC_PREFIX = "dataagent.embedding.cache";
+
+	private final DataAgentProperties.EmbeddingCache config;
+
+	private final LinkedHashMap<CacheKey, float[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder diskHits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * 磁盘层条目索引（按访问顺序）-> 文件字节数，首次访问磁盘层时扫描目录建立
+	 */
+	private final LinkedHashMap<CacheKey, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ReentrantLock diskLock = new ReentrantLock();
+
+	private boolean diskIndexLoaded = false;
+
+	private long diskBytes = 0L;
+
+	private final LongAdder diskEvictions = new LongAdder();
+
+	public EmbeddingCache(DataAgentProperties properties) {
+		this.config = properties.getEmbeddingCache();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", hits, LongAdder::sum)
+			.tag("result", "hit")
+			.description("Embedding cache lookups served from memory")
+			.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", diskHits, LongAdder::sum)
+			.tag("result", "disk_hit")
+			.description("Embedding cache lookups served from disk")
+			.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".requests", misses, LongAdder::sum)
+			.tag("result", "miss")
+			.description("Embedding cache lookups that missed both tiers")
+			.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".evictions", evictions, LongAdder::sum)
+			.tag("tier", "memory")
+			.register(registry);
+		FunctionCounter.builder(METRIC_PREFIX + ".evictions", diskEvictions, LongAdder::sum)
+			.tag("tier", "disk")
+			.register(registry);
+		Gauge.builder(METRIC_PREFIX + ".hit.rate", this, cache -> cache.getStats().hitRate())
+			.description("Share of embedding lookups served from either cache tier")
+			.register(registry);
+		Gauge.builder(METRIC_PREFIX + ".size", this, cache -> cache.getStats().size())
+			.tag("tier", "memory")
+			.register(registry);
+		Gauge.builder(METRIC_PREFIX + ".size", this, cache -> cache.getStats().diskSize())
+			.tag("tier", "disk")
+			.register(registry);
+		Gauge.builder(METRIC_PREFIX + ".disk.bytes", this, cache -> cache.getStats().diskBytes())
+			.baseUnit("bytes")
+			.register(registry);
+	}
+
+	public boolean isEnabled() {
+		return config.isEnabled();
+	}
+
+	/**
+	 * 查询缓存，未命中返回null。返回的数组为缓存内部对象，调用方不得修改
+	 */
+	public float[] get(String namespace, String text) {
+		if (!isEnabled() || namespace == null || text == null) {
+			return null;
+		}
+		CacheKey key = new CacheKey(namespace, hash(text));
+		lock.lock();
+		try {
+			float[] embedding = entries.get(key);
+			if (embedding != null) {
+				hits.increment();
+				return embedding;
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		float[] embedding = readFromDisk(key);
+		if (embedding == null) {
+			misses.increment();
+			return null;
+		}
+		diskHits.increment();
+		touchDiskEntry(key);
+		putInMemory(key, embedding);
+		return embedding;
+	}
+
+	public void put(String namespace, String text, float[] embedding) {
+		if (!isEnabled() || namespace == null || text == null || embedding == null || embedding.length == 0) {
+			return;
+		}
+		CacheKey key = new CacheKey(namespace, hash(text));
+		// 复制一份，避免调用方修改返回的数组污染缓存
+		float[] copy = embedding.clone();
+		putInMemory(key, copy);
+		writeToDisk(key, copy);
+	}
+
+	/**
+	 * 清理某个嵌入模型命名空间下的内存与磁盘缓存
+	 */
+	public void invalidate(String namespace) {
+		if (namespace == null) {
+			return;
+		}
+		int removed = 0;
+		lock.lock();
+		try {
+			Iterator<CacheKey> iterator = entries.keySet().iterator();
+			while (iterator.hasNext()) {
+				if (Objects.equals(iterator.next().namespace(), namespace)) {
+					iterator.remove();
+					removed++;
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		if (config.isDiskEnabled()) {
+			diskLock.lock();
+			try {
+				Iterator<Map.Entry<CacheKey, Long>> iterator = diskEntries.entrySet().iterator();
+				while (iterator.hasNext()) {
+					Map.Entry<CacheKey, Long> entry = iterator.next();
+					if (Objects.equals(entry.getKey().namespace(), namespace)) {
+						diskBytes -= entry.getValue();
+						iterator.remove();
+					}
+				}
+			}
+			finally {
+				diskLock.unlock();
+			}
+			try {
+				FileSystemUtils.deleteRecursively(namespaceDir(namespace));
+			}
+			catch (IOException e) {
+				log.warn("Failed to delete embedding disk cache for namespace {}: {}", namespace, e.getMessage());
+			}
+		}
+		log.info("Invalidated {} cached embeddings for namespace {}", removed, namespace);
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			entries.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public CacheStats getStats() {
+		int size;
+		lock.lock();
+		try {
+			size = entries.size();
+		}
+		finally {
+			lock.unlock();
+		}
+		diskLock.lock();
+		try {
+			return new CacheStats(hits.sum(), diskHits.sum(), misses.sum(), evictions.sum(), size,
+					diskEvictions.sum(), diskEntries.size(), diskBytes);
+		}
+		finally {
+			diskLock.unlock();
+		}
+	}
+
+	private void putInMemory(CacheKey key, float[] embedding) {
+		lock.lock();
+		try {
+			entries.put(key, embedding);
+			Iterator<CacheKey> iterator = entries.keySet().iterator();
+			while (entries.size() > config.getMaxEntries() && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+				evictions.increment();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private float[] readFromDisk(CacheKey key) {
+		if (!config.isDiskEnabled()) {
+			return null;
+		}
+		Path file = entryFile(key);
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+			int dimensions = buffer.getInt();
+			if (dimensions <= 0 || buffer.remaining() != dimensions * Float.BYTES) {
+				log.warn("Corrupted embedding cache file {}, ignore it", file);
+				Files.deleteIfExists(file);
+				return null;
+			}
+			float[] embedding = new float[dimensions];
+			buffer.asFloatBuffer().get(embedding);
+			return embedding;
+		}
+		catch (NoSuchFileException e) {
+			return null;
+		}
+		catch (IOException e) {
+			log.warn("Failed to read embedding cache file {}: {}", file, e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeToDisk(CacheKey key, float[] embedding) {
+		if (!config.isDiskEnabled()) {
+			return;
+		}
+		Path file = entryFile(key);
+		long bytes = Integer.BYTES + (long) embedding.length * Float.BYTES;
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate((int) bytes);
+			buffer.putInt(embedding.length);
+			buffer.asFloatBuffer().put(embedding);
+			Files.createDirectories(file.getParent());
+			// 先写临时文件再原子替换，避免并发读到写了一半的文件
+			Path tmp = Files.createTempFile(file.getParent(), key.textHash(), ".tmp");
+			Files.write(tmp, buffer.array());
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			log.warn("Failed to write embedding cache file {}: {}", file, e.getMessage());
+			return;
+		}
+		List<CacheKey> victims = new ArrayList<>();
+		diskLock.lock();
+		try {
+			loadDiskIndex();
+			Long previous = diskEntries.put(key, bytes);
+			diskBytes += bytes - (previous == null ? 0L : previous);
+			Iterator<Map.Entry<CacheKey, Long>> iterator = diskEntries.entrySet().iterator();
+			while (diskBytes > config.getDiskMaxBytes() && iterator.hasNext()) {
+				Map.Entry<CacheKey, Long> eldest = iterator.next();
+				if (eldest.getKey().equals(key)) {
+					continue;
+				}
+				diskBytes -= eldest.getValue();
+				iterator.remove();
+				victims.add(eldest.getKey());
+				diskEvictions.increment();
+			}
+		}
+		finally {
+			diskLock.unlock();
+		}
+		for (CacheKey victim : victims) {
+			try {
+				Files.deleteIfExists(entryFile(victim));
+			}
+			catch (IOException e) {
+				log.warn("Failed to evict embedding cache file {}: {}", entryFile(victim), e.getMessage());
+			}
+		}
+	}
+
+	private void touchDiskEntry(CacheKey key) {
+		diskLock.lock();
+		try {
+			loadDiskIndex();
+			diskEntries.get(key);
+		}
+		finally {
+			diskLock.unlock();
+		}
+	}
+
+	/**
+	 * 扫描磁盘缓存目录建立LRU索引，按文件修改时间确定初始顺序。调用方需持有 diskLock
+	 */
+	private void loadDiskIndex() {
+		if (diskIndexLoaded) {
+			return;
+		}
+		diskIndexLoaded = true;
+		Path root = Paths.get(config.getDiskPath());
+		if (!Files.isDirectory(root)) {
+			return;
+		}
+		record DiskFile(CacheKey key, long bytes, FileTime modified) {
+		}
+		List<DiskFile> files = new ArrayList<>();
+		try (Stream<Path> paths = Files.walk(root, 3)) {
+			paths.filter(path -> root.relativize(path).getNameCount() == 3)
+				.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+				.forEach(path -> {
+					String name = path.getFileName().toString();
+					String namespace = root.relativize(path).getName(0).toString();
+					try {
+						files.add(new DiskFile(
+								new CacheKey(namespace, name.substring(0, name.length() - FILE_SUFFIX.length())),
+								Files.size(path), Files.getLastModifiedTime(path)));
+					}
+					catch (IOException e) {
+						log.debug("Skip unreadable embedding cache file {}", path);
+					}
+				});
+		}
+		catch (IOException e) {
+			log.warn("Failed to scan embedding disk cache {}: {}", root, e.getMessage());
+			return;
+		}
+		files.sort(Comparator.comparing(DiskFile::modified));
+		for (DiskFile file : files) {
+			diskEntries.put(file.key(), file.bytes());
+			diskBytes += file.bytes();
+		}
+	}
+
+	private Path namespaceDir(String namespace) {
+		return Paths.get(config.getDiskPath(), namespace);
+	}
+
+	private Path entryFile(CacheKey key) {
+		// 按hash前两位分目录，避免单目录文件过多
+		return namespaceDir(key.namespace()).resolve(key.textHash().substring(0, 2))
+			.resolve(key.textHash() + FILE_SUFFIX);
+	}
+
+	static String hash(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not supported", e);
+		}
+	}
+
+	private record CacheKey(String namespace, String textHash) {
+	}
+
+	public record CacheStats(long hits, long diskHits, long misses, long evictions, int size, long diskEvictions,
+			int diskSize, long diskBytes) {
+
+		public double hitRate() {
+			long total = hits + diskHits + misses;
+			return total == 0 ? 0D : (double) (hits + diskHits) / total;
+		}
+
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.aimodelconfig;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 合并并发的相同文本嵌入请求。
+ *
+ * <p>
+ * 同一个问题经常被多个向量检索同时嵌入（例如证据召回并行检索业务知识和智能体知识），
+ * 拦截 {@code EmbeddingModel#embed(String)}，同一模型实例上相同文本的并发调用只请求一次模型，其余调用等待并复用结果。
+ * 调用结束后立即移除，不做结果缓存。
+ */
+@Slf4j
+public class InFlightEmbeddingInterceptor implements MethodInterceptor {
+
+	private final Map<InFlightKey, CompletableFuture<float[]>> inFlight = new ConcurrentHashMap<>();
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		Object[] arguments = invocation.getArguments();
+		if (!"embed".equals(invocation.getMethod().getName()) || arguments.length != 1
+				|| !(arguments[0] instanceof String text)) {
+			return invocation.proceed();
+		}
+
+		InFlightKey key = new InFlightKey(invocation.getThis(), text);
+		CompletableFuture<float[]> future = new CompletableFuture<>();
+		CompletableFuture<float[]> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			log.debug("Reusing in-flight embedding request for identical text");
+			try {
+				return existing.join();
+			}
+			catch (CompletionException e) {
+				throw e.getCause() != null ? e.getCause() : e;
+			}
+		}
+
+		try {
+			float[] embedding = (float[]) invocation.proceed();
+			future.complete(embedding);
+			return embedding;
+		}
+		catch (Throwable e) {
+			future.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	private record InFlightKey(Object target, String text) {
+	}
+
+}
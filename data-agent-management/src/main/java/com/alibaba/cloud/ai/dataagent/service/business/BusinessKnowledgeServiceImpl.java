@@ -23,12 +23,14 @@ import com.alibaba.cloud.ai.dataagent.converter.BusinessKnowledgeConverter;
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.businessknowledge.CreateBusinessKnowledgeDTO;
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.businessknowledge.UpdateBusinessKnowledgeDTO;
 import com.alibaba.cloud.ai.dataagent.entity.BusinessKnowledge;
+import com.alibaba.cloud.ai.dataagent.event.KnowledgeRecallChangedEvent;
 import com.alibaba.cloud.ai.dataagent.mapper.BusinessKnowledgeMapper;
 import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
 import com.alibaba.cloud.ai.dataagent.vo.BusinessKnowledgeVO;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -50,6 +52,8 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 
 	private final BusinessKnowledgeConverter businessKnowledgeConverter;
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Override
 	public List<BusinessKnowledgeVO> getKnowledge(Long agentId) {
 		List<BusinessKnowledge> businessKnowledges = businessKnowledgeMapper.selectByAgentId(agentId);
@@ -95,6 +99,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 		if (businessKnowledgeMapper.insert(entity) <= 0) {
 			throw new RuntimeException("Failed to add knowledge to database");
 		}
+		publishRecallChanged(entity);
 
 		try {
 			Document document = DocumentConverterUtil.convertBusinessKnowledgeToDocument(entity);
@@ -185,6 +190,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 					List.of(DocumentConverterUtil.convertBusinessKnowledgeToDocument(knowledge)));
 			throw new RuntimeException("Failed to logically delete knowledge from database");
 		}
+		publishRecallChanged(knowledge);
 	}
 
 	private void doDelVector(BusinessKnowledge knowledge) {
@@ -207,7 +213,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 		// 更新数据库即可，不需要更新向量库，混合检索的的时候DynamicFilterService会根据 isRecall 字段过滤了
 		knowledge.setIsRecall(isRecall ? 1 : 0);
 		businessKnowledgeMapper.updateById(knowledge);
-
+		publishRecallChanged(knowledge);
 	}
 
 	@Override
@@ -263,4 +269,9 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 
 	}
 
+	private void publishRecallChanged(BusinessKnowledge knowledge) {
+		eventPublisher.publishEvent(new KnowledgeRecallChangedEvent(this, knowledge.getAgentId().toString(),
+				DocumentMetadataConstant.BUSINESS_TERM));
+	}
+
 }
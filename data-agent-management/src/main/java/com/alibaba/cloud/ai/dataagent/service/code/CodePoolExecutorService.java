@@ -15,6 +15,9 @@
  */
 package com.alibaba.cloud.ai.dataagent.service.code;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 运行Python任务的容器池接口
  *
@@ -25,8 +28,21 @@ public interface CodePoolExecutorService {
 
 	TaskResponse runTask(TaskRequest request);
 
-	record TaskRequest(String code, String input, String requirement) {
+	/**
+	 * @param table SQL查询结果，不为null时以列式文件（见 {@link ColumnarInputWriter}）交给Python代码，而不是写入标准输入
+	 */
+	record TaskRequest(String code, String input, String requirement, List<Map<String, String>> table) {
+
+		public TaskRequest(String code, String input, String requirement) {
+			this(code, input, requirement, null);
+		}
 
+		// 查询结果可能较大，日志中只输出行数
+		@Override
+		public String toString() {
+			return "TaskRequest{" + "code='" + code + '\'' + ", input='" + input + '\'' + ", requirement='"
+					+ requirement + '\'' + ", tableRows=" + (table == null ? null : table.size()) + '}';
+		}
 	}
 
 	record TaskResponse(boolean isSuccess, boolean executionSuccessButResultFailed, String stdOut, String stdErr,
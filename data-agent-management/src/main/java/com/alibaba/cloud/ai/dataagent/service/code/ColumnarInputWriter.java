@@ -0,0 +1,216 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.code;
+
+import com.alibaba.cloud.ai.dataagent.util.JsonUtil;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 将 SQL 查询结果以列式 CSV 交给 Python 代码。
+ *
+ * <p>
+ * 与写入标准输入的 {@code List<Map>} JSON 相比，列名只写一次，数据直接从行列表流式写入文件，不再拼接整段 JSON 字符串；
+ * 每列的类型（int64 / float64 / datetime / string）在 Java 侧一次推断后写入 {@link #SCHEMA_FILE}， Python 侧通过
+ * {@code dataagent_io.read_input()} 直接得到带类型的 DataFrame，无需再解析 JSON 和逐列 {@code pd.to_numeric}。
+ */
+public final class ColumnarInputWriter {
+
+	public static final String DATA_FILE = "input_data.csv";
+
+	public static final String SCHEMA_FILE = "input_schema.json";
+
+	public static final String HELPER_MODULE = "dataagent_io.py";
+
+	/**
+	 * 执行目录中需要准备的全部文件
+	 */
+	public static final List<String> FILES = List.of(DATA_FILE, SCHEMA_FILE, HELPER_MODULE);
+
+	public static final String TYPE_INT = "int64";
+
+	public static final String TYPE_FLOAT = "float64";
+
+	public static final String TYPE_DATETIME = "datetime";
+
+	public static final String TYPE_STRING = "string";
+
+	private static final Pattern DECIMAL = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+	private static final Pattern DATETIME = Pattern
+		.compile("\\d{4}-\\d{2}-\\d{2}([ T]\\d{2}:\\d{2}(:\\d{2}(\\.\\d{1,6})?)?)?");
+
+	private static final byte[] HELPER_SOURCE = loadHelperSource();
+
+	public record ColumnSpec(String name, String type) {
+
+	}
+
+	/**
+	 * 推断每一列的类型。空字符串视为空值，不参与推断；全部为空的列按字符串处理。
+	 * <p>
+	 * 带前导零的数字（如编码、邮编）和超出 long 范围的整数（如无符号 BIGINT 主键）按字符串处理，避免丢失原值。
+	 * @param rows SQL 查询结果
+	 * @return 按列首次出现顺序排列的列类型
+	 */
+	public static List<ColumnSpec> inferSchema(List<Map<String, String>> rows) {
+		Set<String> names = new LinkedHashSet<>();
+		for (Map<String, String> row : rows) {
+			names.addAll(row.keySet());
+		}
+		List<ColumnSpec> columns = new ArrayList<>(names.size());
+		for (String name : names) {
+			columns.add(new ColumnSpec(name, inferType(rows, name)));
+		}
+		return columns;
+	}
+
+	/**
+	 * 将查询结果、列类型和 Python 辅助模块写入执行目录
+	 * @param rows SQL 查询结果，为 null 时写入空数据
+	 * @param dir 执行目录（与 script.py 同级）
+	 */
+	public static void write(List<Map<String, String>> rows, Path dir) throws IOException {
+		List<Map<String, String>> data = rows == null ? List.of() : rows;
+		List<ColumnSpec> columns = inferSchema(data);
+
+		// 直接覆盖写入而不是替换文件，Docker 以文件为单位绑定挂载时仍指向同一个 inode
+		try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve(DATA_FILE), StandardCharsets.UTF_8)) {
+			if (!columns.isEmpty()) {
+				for (int i = 0; i < columns.size(); i++) {
+					writeCell(writer, i, columns.get(i).name());
+				}
+				writer.write('\n');
+				for (Map<String, String> row : data) {
+					for (int i = 0; i < columns.size(); i++) {
+						writeCell(writer, i, row.get(columns.get(i).name()));
+					}
+					writer.write('\n');
+				}
+			}
+		}
+
+		Map<String, Object> schema = new LinkedHashMap<>();
+		schema.put("columns", columns);
+		schema.put("rows", data.size());
+		Files.write(dir.resolve(SCHEMA_FILE), JsonUtil.getObjectMapper().writeValueAsBytes(schema));
+		Files.write(dir.resolve(HELPER_MODULE), HELPER_SOURCE);
+	}
+
+	private static String inferType(List<Map<String, String>> rows, String name) {
+		boolean allLong = true;
+		boolean allDecimal = true;
+		boolean allDatetime = true;
+		boolean hasValue = false;
+		boolean hugeInteger = false;
+		for (Map<String, String> row : rows) {
+			String value = row.get(name);
+			if (value == null || value.isEmpty()) {
+				continue;
+			}
+			hasValue = true;
+			if (allDecimal && DECIMAL.matcher(value).matches() && !hasLeadingZero(value)) {
+				boolean isLong = isLong(value);
+				allLong = allLong && isLong;
+				hugeInteger = hugeInteger || !isLong && value.indexOf('.') < 0 && value.indexOf('e') < 0
+						&& value.indexOf('E') < 0;
+			}
+			else {
+				allDecimal = false;
+				allLong = false;
+			}
+			allDatetime = allDatetime && DATETIME.matcher(value).matches();
+			if (!allDecimal && !allDatetime) {
+				return TYPE_STRING;
+			}
+		}
+		if (!hasValue) {
+			return TYPE_STRING;
+		}
+		if (allLong) {
+			return TYPE_INT;
+		}
+		if (allDecimal) {
+			// 超出 long 范围的整数转成浮点数会丢失精度
+			return hugeInteger ? TYPE_STRING : TYPE_FLOAT;
+		}
+		return TYPE_DATETIME;
+	}
+
+	private static boolean isLong(String value) {
+		try {
+			Long.parseLong(value);
+			return true;
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static boolean hasLeadingZero(String value) {
+		int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+		return value.length() > start + 1 && value.charAt(start) == '0' && Character.isDigit(value.charAt(start + 1));
+	}
+
+	private static void writeCell(BufferedWriter writer, int index, String value) throws IOException {
+		if (index > 0) {
+			writer.write(',');
+		}
+		if (value == null || value.isEmpty()) {
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	private static byte[] loadHelperSource() {
+		try (InputStream in = new ClassPathResource("python/" + HELPER_MODULE).getInputStream()) {
+			return in.readAllBytes();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to load python helper module " + HELPER_MODULE, e);
+		}
+	}
+
+	private ColumnarInputWriter() {
+		throw new AssertionError("Cannot instantiate utility class");
+	}
+
+}
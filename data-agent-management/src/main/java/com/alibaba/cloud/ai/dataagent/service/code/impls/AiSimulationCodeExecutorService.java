@@ -17,6 +17,8 @@ package com.alibaba.cloud.ai.dataagent.service.code.impls;
 
 import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService;
 import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
+import com.alibaba.cloud.ai.dataagent.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -53,7 +55,7 @@ public class AiSimulationCodeExecutorService implements CodePoolExecutorService
 				```json
 				%s
 				```
-				""", request.code(), request.input());
+				""", request.code(), request.table() != null ? toJson(request.table()) : request.input());
 		String output = llmService.toStringFlux(llmService.call(SYSTEM_PROMPT, userPrompt))
 			.collect(StringBuilder::new, StringBuilder::append)
 			.map(StringBuilder::toString)
@@ -61,4 +63,14 @@ public class AiSimulationCodeExecutorService implements CodePoolExecutorService
 		return TaskResponse.success(output);
 	}
 
+	// 模拟运行时没有真实的列式输入文件，直接把查询结果作为输入数据交给模型
+	private String toJson(Object table) {
+		try {
+			return JsonUtil.getObjectMapper().writeValueAsString(table);
+		}
+		catch (JsonProcessingException e) {
+			return String.valueOf(table);
+		}
+	}
+
 }
@@ -17,6 +17,8 @@ package com.alibaba.cloud.ai.dataagent.service.code.impls;
 
 import com.alibaba.cloud.ai.dataagent.properties.CodeExecutorProperties;
 import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService;
+import com.alibaba.cloud.ai.dataagent.service.code.ColumnarInputWriter;
+import com.alibaba.cloud.ai.dataagent.service.code.worker.PythonEnvironmentManager;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.command.CreateContainerResponse;
 import com.github.dockerjava.api.command.InspectContainerResponse;
@@ -46,6 +48,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
@@ -60,12 +63,23 @@ import static com.github.dockerjava.api.model.HostConfig.newHostConfig;
 @Slf4j
 public class DockerCodePoolExecutorService extends AbstractCodePoolExecutorService implements CodePoolExecutorService {
 
+	private static final String VENV_DIR = "/opt/venvs";
+
+	private static final String PIP_CACHE_DIR = "/opt/pip-cache";
+
 	private final DockerClient dockerClient;
 
 	private final boolean isRemote;
 
 	private final ConcurrentHashMap<String, Path> containerTempPath;
 
+	/**
+	 * 本实例已确认安装完成的依赖环境标识
+	 */
+	private final Set<String> readyEnvironments = ConcurrentHashMap.newKeySet();
+
+	private final ConcurrentHashMap<String, Object> environmentLocks = new ConcurrentHashMap<>();
+
 	public DockerCodePoolExecutorService(CodeExecutorProperties properties) {
 		super(properties);
 		// Initialize DockerClient
@@ -254,19 +268,52 @@ public class DockerCodePoolExecutorService extends AbstractCodePoolExecutorServi
 			.withTmpFs(Map.of("/tmp", ""))
 			.withNetworkMode(this.properties.getNetworkMode());
 
+		List<Bind> binds = new ArrayList<>();
 		if (!this.isRemote) {
-			List<Bind> binds = new ArrayList<>();
 			binds.add(new Bind(tempDir.resolve("script.py").toAbsolutePath().toString(), new Volume("/app/script.py"),
 					AccessMode.ro));
 			binds.add(new Bind(tempDir.resolve("requirements.txt").toAbsolutePath().toString(),
 					new Volume("/app/requirements.txt"), AccessMode.ro));
 			binds.add(new Bind(tempDir.resolve("input_data.txt").toAbsolutePath().toString(),
 					new Volume("/app/input_data.txt"), AccessMode.ro));
+			for (String file : ColumnarInputWriter.FILES) {
+				binds.add(new Bind(tempDir.resolve(file).toAbsolutePath().toString(), new Volume("/app/" + file),
+						AccessMode.ro));
+			}
+		}
+		// 按依赖集合缓存的virtualenv放在命名卷中，执行用户代码的容器只读挂载，环境只由安装容器写入
+		if (StringUtils.hasText(this.properties.getDockerVenvVolume())) {
+			binds.add(new Bind(this.properties.getDockerVenvVolume(), new Volume(VENV_DIR), AccessMode.ro));
+		}
+		if (!binds.isEmpty()) {
 			config.withBinds(binds.toArray(new Bind[0]));
 		}
 		return config;
 	}
 
+	/**
+	 * 安装依赖容器的HostConfig：只挂载requirements.txt以及可写的virtualenv卷和pip缓存卷，不包含用户代码
+	 */
+	private HostConfig createInstallerHostConfig(Path tempDir) {
+		HostConfig config = newHostConfig().withMemory(this.properties.getLimitMemory() * 1024L * 1024L)
+			.withCpuCount(this.properties.getCpuCore())
+			.withCapDrop(Capability.ALL)
+			.withAutoRemove(false)
+			.withTmpFs(Map.of("/tmp", ""))
+			.withNetworkMode(this.properties.getDockerInstallNetworkMode());
+
+		List<Bind> binds = new ArrayList<>();
+		if (!this.isRemote) {
+			binds.add(new Bind(tempDir.resolve("requirements.txt").toAbsolutePath().toString(),
+					new Volume("/app/requirements.txt"), AccessMode.ro));
+		}
+		binds.add(new Bind(this.properties.getDockerVenvVolume(), new Volume(VENV_DIR)));
+		if (StringUtils.hasText(this.properties.getDockerPipCacheVolume())) {
+			binds.add(new Bind(this.properties.getDockerPipCacheVolume(), new Volume(PIP_CACHE_DIR)));
+		}
+		return config.withBinds(binds.toArray(new Bind[0]));
+	}
+
 	/**
 	 * Clean up existing container with same name
 	 */
@@ -292,6 +339,7 @@ public class DockerCodePoolExecutorService extends AbstractCodePoolExecutorServi
 		Files.createFile(tempDir.resolve("requirements.txt"));
 		Files.createFile(tempDir.resolve("script.py"));
 		Files.createFile(tempDir.resolve("input_data.txt"));
+		ColumnarInputWriter.write(null, tempDir);
 
 		// Create container
 		HostConfig hostConfig = this.createHostConfig(tempDir);
@@ -321,6 +369,7 @@ public class DockerCodePoolExecutorService extends AbstractCodePoolExecutorServi
 		try {
 			// 1. Prepare files
 			this.writeContextFiles(tempDir, request);
+			this.ensureEnvironment(tempDir);
 			this.uploadFilesIfRemote(containerId, tempDir);
 
 			// 2. Start container and wait
@@ -352,26 +401,108 @@ public class DockerCodePoolExecutorService extends AbstractCodePoolExecutorServi
 
 	// --- Helper Methods ---
 
+	/**
+	 * 依赖环境由 {@link #ensureEnvironment(Path)} 预先安装到只读挂载的 VENV_DIR 下，按 requirements.txt（已规范化）
+	 * 的哈希选择；环境不存在（安装失败或未配置卷）时用基础解释器运行。
+	 */
 	private String buildExecutionCommand(Path tempDir) {
-		return String.format(
-				"if [ -s requirements.txt ]; then pip3 install --no-cache-dir -r requirements.txt > /dev/null; fi && timeout -s SIGKILL %s python3 -u script.py < input_data.txt",
-				properties.getCodeTimeout());
+		return String.format("PY=python3; if [ -s requirements.txt ]; then "
+				+ "V=%1$s/$(sha256sum requirements.txt | cut -c1-16); "
+				+ "if [ -f $V/.ready ]; then PY=$V/bin/python; fi; fi; "
+				+ "timeout -s SIGKILL %2$s $PY -u script.py < input_data.txt", VENV_DIR, properties.getCodeTimeout());
+	}
+
+	/**
+	 * 在执行用户代码之前，用一个只挂载 requirements.txt 和可写virtualenv卷的一次性容器安装依赖，用户代码始终只能读取环境。
+	 * 同一依赖集合在本实例内串行安装、成功后不再检查；先在临时目录构建再移动，避免多个实例并发构建同一环境时互相覆盖。
+	 */
+	private void ensureEnvironment(Path tempDir) throws IOException, InterruptedException {
+		if (!StringUtils.hasText(this.properties.getDockerVenvVolume())) {
+			return;
+		}
+		String requirements = Files.readString(tempDir.resolve("requirements.txt"));
+		if (requirements.isBlank()) {
+			return;
+		}
+		String key = PythonEnvironmentManager.environmentKey(requirements);
+		if (this.readyEnvironments.contains(key)) {
+			return;
+		}
+		synchronized (this.environmentLocks.computeIfAbsent(key, k -> new Object())) {
+			if (this.readyEnvironments.contains(key)) {
+				return;
+			}
+			if (this.installEnvironment(tempDir, key)) {
+				this.readyEnvironments.add(key);
+			}
+		}
+	}
+
+	private boolean installEnvironment(Path tempDir, String key) throws InterruptedException {
+		String cmd = String.format("V=%1$s/%2$s; if [ ! -f $V/.ready ]; then "
+				+ "T=$(mktemp -d $V.build-XXXXXX) && python3 -m venv --system-site-packages $T "
+				+ "&& $T/bin/python -m pip install --disable-pip-version-check --cache-dir %3$s -r requirements.txt "
+				+ "&& touch $T/.ready && { [ -e $V ] || mv $T $V; }; rm -rf $T; fi; test -f $V/.ready", VENV_DIR, key,
+				PIP_CACHE_DIR);
+		String containerId = dockerClient.createContainerCmd(properties.getImageName())
+			.withWorkingDir("/app")
+			.withHostConfig(this.createInstallerHostConfig(tempDir))
+			.withCmd("sh", "-c", cmd)
+			.exec()
+			.getId();
+		try {
+			if (this.isRemote) {
+				dockerClient.copyArchiveToContainerCmd(containerId)
+					.withHostResource(tempDir.resolve("requirements.txt").toString())
+					.withRemotePath("/app/")
+					.exec();
+			}
+			dockerClient.startContainerCmd(containerId).exec();
+			dockerClient.waitContainerCmd(containerId)
+				.start()
+				.awaitCompletion(this.properties.getContainerTimeout(), TimeUnit.SECONDS);
+			Long exitCode = dockerClient.inspectContainerCmd(containerId).exec().getState().getExitCodeLong();
+			if (exitCode == null || exitCode != 0) {
+				log.warn("Failed to install python environment {}, falling back to base interpreter: {}", key,
+						this.fetchExecutionLogs(containerId, tempDir).stderr);
+				return false;
+			}
+			log.info("Installed python environment {}", key);
+			return true;
+		}
+		catch (InterruptedException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			log.warn("Failed to install python environment {}: {}", key, e.getMessage());
+			return false;
+		}
+		finally {
+			try {
+				dockerClient.removeContainerCmd(containerId).withForce(true).exec();
+			}
+			catch (Exception e) {
+				log.warn("Failed to remove installer container: {}, message: {}", containerId, e.getMessage());
+			}
+		}
 	}
 
 	private void writeContextFiles(Path tempDir, TaskRequest request) throws IOException {
 		Files.write(tempDir.resolve("script.py"),
 				StringUtils.hasText(request.code()) ? request.code().getBytes() : "".getBytes());
 		Files.write(tempDir.resolve("requirements.txt"),
-				StringUtils.hasText(request.requirement()) ? request.requirement().getBytes() : "".getBytes());
+				PythonEnvironmentManager.normalizeRequirements(request.requirement()).getBytes());
 		Files.write(tempDir.resolve("input_data.txt"),
 				StringUtils.hasText(request.input()) ? request.input().getBytes() : "".getBytes());
+		ColumnarInputWriter.write(request.table(), tempDir);
 	}
 
 	private void uploadFilesIfRemote(String containerId, Path tempDir) {
 		if (!this.isRemote) {
 			return;
 		}
-		String[] files = { "script.py", "requirements.txt", "input_data.txt" };
+		List<String> files = new ArrayList<>(List.of("script.py", "requirements.txt", "input_data.txt"));
+		files.addAll(ColumnarInputWriter.FILES);
 		for (String file : files) {
 			dockerClient.copyArchiveToContainerCmd(containerId)
 				.withHostResource(tempDir.resolve(file).toString())
@@ -17,6 +17,9 @@ package com.alibaba.cloud.ai.dataagent.service.code.impls;
 
 import com.alibaba.cloud.ai.dataagent.properties.CodeExecutorProperties;
 import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService;
+import com.alibaba.cloud.ai.dataagent.service.code.ColumnarInputWriter;
+import com.alibaba.cloud.ai.dataagent.service.code.worker.PythonEnvironmentManager;
+import com.alibaba.cloud.ai.dataagent.service.code.worker.PythonWorkerPool;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
@@ -50,14 +53,34 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 
 	private static final String[] pipNames = new String[] { "pip3", "pip" };
 
+	// 常驻worker池与按依赖集合缓存的virtualenv，未启用warm pool时为null，沿用每次启动新解释器的方式
+	private final PythonWorkerPool workerPool;
+
+	private final PythonEnvironmentManager environmentManager;
+
 	// 对于本地运行这个实现类，“容器”为临时文件夹
 	public LocalCodePoolExecutorService(CodeExecutorProperties properties) {
 		super(properties);
 		this.containers = new ConcurrentHashMap<>();
-		if (this.checkProgramExists(pythonNames) == null) {
+		String python = this.checkProgramExists(pythonNames);
+		if (python == null) {
 			throw new IllegalStateException(
 					"No valid Python interpreter was found for the current system environment variables. Please install Python3 into the system environment variables first.");
 		}
+		if (Boolean.TRUE.equals(properties.getWarmPoolEnabled())) {
+			try {
+				this.workerPool = new PythonWorkerPool(properties);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Failed to initialize python worker pool: " + e.getMessage(), e);
+			}
+			this.environmentManager = new PythonEnvironmentManager(properties, python);
+			this.workerPool.prewarm(python);
+		}
+		else {
+			this.workerPool = null;
+			this.environmentManager = null;
+		}
 	}
 
 	@Override
@@ -72,6 +95,22 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 	protected TaskResponse execTaskInContainer(TaskRequest request, String containerId) {
 		Path container = this.containers.get(containerId);
 
+		// 查询结果以列式文件放在脚本同级目录，容器复用时同时覆盖掉上一个任务的数据
+		try {
+			ColumnarInputWriter.write(request.table(), container);
+		}
+		catch (Exception e) {
+			log.error("Write columnar input failed: {}", e.getMessage(), e);
+			return TaskResponse.exception(e.getMessage());
+		}
+
+		if (this.workerPool != null) {
+			// 依赖集合对应的virtualenv只在首次使用时构建，之后由常驻worker直接执行
+			String python = this.environmentManager.resolveInterpreter(request.requirement());
+			return this.workerPool.execute(python, request, container,
+					this.parseToMilliseconds(this.properties.getCodeTimeout()));
+		}
+
 		// 写入Py代码和标准输入
 		Path scriptFile = container.resolve("script.py");
 		Path stdinFile = container.resolve("stdin.txt");
@@ -194,6 +233,14 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 		this.clearTempDir(container);
 	}
 
+	@Override
+	protected void shutdownPool() throws Exception {
+		super.shutdownPool();
+		if (this.workerPool != null) {
+			this.workerPool.close();
+		}
+	}
+
 	/**
 	 * 按顺序检查多个程序是否存在
 	 * @param programNames 程序名称，按优先级顺序
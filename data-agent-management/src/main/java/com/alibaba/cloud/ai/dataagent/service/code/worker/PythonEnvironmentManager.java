@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.code.worker;
+
+import com.alibaba.cloud.ai.dataagent.properties.CodeExecutorProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 按依赖集合管理本地 virtualenv：对规范化后的 requirements 计算哈希作为环境标识，同一依赖集合只安装一次， 之后的任务（以及重启后的任务）直接复用。
+ * 环境以 --system-site-packages 创建以复用基础解释器中的 pandas 等库，pip 使用共享的 wheel 缓存目录。
+ */
+@Slf4j
+public class PythonEnvironmentManager {
+
+	private static final String READY_MARKER = ".ready";
+
+	private final CodeExecutorProperties properties;
+
+	private final String basePython;
+
+	private final Path venvCacheDir;
+
+	private final ConcurrentHashMap<String, Object> buildLocks = new ConcurrentHashMap<>();
+
+	public PythonEnvironmentManager(CodeExecutorProperties properties, String basePython) {
+		this.properties = properties;
+		this.basePython = basePython;
+		this.venvCacheDir = Paths.get(properties.getVenvCacheDir());
+	}
+
+	public String getBasePython() {
+		return basePython;
+	}
+
+	/**
+	 * 获取运行指定依赖集合的解释器，首次使用时创建 virtualenv 并安装依赖
+	 * @param requirement requirements.txt 内容
+	 * @return 解释器路径；没有依赖或环境创建失败时返回基础解释器
+	 */
+	public String resolveInterpreter(String requirement) {
+		String normalized = normalizeRequirements(requirement);
+		if (normalized.isEmpty()) {
+			return basePython;
+		}
+		String key = environmentKey(normalized);
+		Path venvDir = venvCacheDir.resolve(key);
+		if (Files.exists(venvDir.resolve(READY_MARKER))) {
+			return interpreterOf(venvDir).toString();
+		}
+		synchronized (buildLocks.computeIfAbsent(key, k -> new Object())) {
+			if (Files.exists(venvDir.resolve(READY_MARKER))) {
+				return interpreterOf(venvDir).toString();
+			}
+			try {
+				buildEnvironment(venvDir, normalized);
+				return interpreterOf(venvDir).toString();
+			}
+			catch (Exception e) {
+				// 与原先 pip 安装失败时的处理一致：仍然使用基础解释器尝试运行代码
+				log.warn("Failed to build python environment {} for requirements [{}]: {}", key,
+						normalized.replace('\n', ','), e.getMessage(), e);
+				return basePython;
+			}
+		}
+	}
+
+	private void buildEnvironment(Path venvDir, String requirements) throws Exception {
+		long start = System.currentTimeMillis();
+		Files.createDirectories(venvCacheDir);
+		// 先在临时目录构建，完成后整体移动，避免并发或中断留下半成品环境
+		Path buildDir = venvCacheDir.resolve(venvDir.getFileName() + ".build-" + UUID.randomUUID());
+		try {
+			runCommand(List.of(basePython, "-m", "venv", "--system-site-packages", buildDir.toString()));
+			Path requirementFile = buildDir.resolve("requirements.txt");
+			Files.writeString(requirementFile, requirements, StandardCharsets.UTF_8);
+			runCommand(List.of(interpreterOf(buildDir).toString(), "-m", "pip", "install", "--disable-pip-version-check",
+					"--cache-dir", properties.getPipCacheDir(), "-r", requirementFile.toString()));
+			Files.createFile(buildDir.resolve(READY_MARKER));
+			try {
+				Files.move(buildDir, venvDir, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException e) {
+				// 其他进程已构建完成同一环境
+				if (!Files.exists(venvDir.resolve(READY_MARKER))) {
+					throw e;
+				}
+			}
+			log.info("Python environment {} built in {} ms", venvDir.getFileName(), System.currentTimeMillis() - start);
+		}
+		finally {
+			deleteQuietly(buildDir);
+		}
+	}
+
+	private void runCommand(List<String> command) throws Exception {
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+			.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+			.start();
+		try {
+			if (!process.waitFor(properties.getContainerTimeout(), TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Command timed out: " + String.join(" ", command));
+			}
+			if (process.exitValue() != 0) {
+				throw new IllegalStateException(
+						"Command exited with code " + process.exitValue() + ": " + String.join(" ", command));
+			}
+		}
+		finally {
+			if (process.isAlive()) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private static Path interpreterOf(Path venvDir) {
+		boolean isWindows = System.getProperty("os.name").toLowerCase().contains("win");
+		return isWindows ? venvDir.resolve("Scripts").resolve("python.exe") : venvDir.resolve("bin").resolve("python");
+	}
+
+	private static void deleteQuietly(Path dir) {
+		if (!Files.exists(dir)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(dir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+		catch (IOException e) {
+			log.warn("Failed to delete directory {}: {}", dir, e.getMessage());
+		}
+	}
+
+	/**
+	 * 规范化 requirements：去掉空行和注释，去重后排序，使书写顺序不同的同一依赖集合得到同一个环境
+	 */
+	public static String normalizeRequirements(String requirement) {
+		if (requirement == null || requirement.isBlank()) {
+			return "";
+		}
+		return Arrays.stream(requirement.split("\\R"))
+			.map(line -> {
+				int comment = line.indexOf('#');
+				return (comment >= 0 ? line.substring(0, comment) : line).trim();
+			})
+			.filter(line -> !line.isEmpty())
+			.distinct()
+			.sorted()
+			.collect(Collectors.joining("\n"));
+	}
+
+	/**
+	 * 依赖集合的环境标识：规范化内容的 SHA-256 前16位
+	 */
+	public static String environmentKey(String normalizedRequirements) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of()
+				.formatHex(digest.digest(normalizedRequirements.getBytes(StandardCharsets.UTF_8)))
+				.substring(0, 16);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not supported", e);
+		}
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.code.worker;
+
+import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService.TaskRequest;
+import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService.TaskResponse;
+import com.alibaba.cloud.ai.dataagent.util.JsonUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个常驻的 Python 执行进程（warm_worker.py），通过标准输入输出按行交换 JSON 任务和结果。 同一时刻只执行一个任务，由 {@link PythonWorkerPool}
+ * 负责借出和归还。
+ */
+@Slf4j
+public class PythonWorker implements AutoCloseable {
+
+	/**
+	 * 读取结果时在任务超时之外额外等待的时间，覆盖 fork、输出回传等开销
+	 */
+	private static final long RESPONSE_GRACE_MILLIS = 5000;
+
+	private static final String EOF = "\u0000EOF";
+
+	private final String python;
+
+	private final Process process;
+
+	private final BufferedWriter stdin;
+
+	private final BlockingQueue<String> stdoutLines = new LinkedBlockingQueue<>();
+
+	private PythonWorker(String python, Process process) {
+		this.python = python;
+		this.process = process;
+		this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+		Thread reader = new Thread(this::pumpStdout, "python-worker-stdout-" + process.pid());
+		reader.setDaemon(true);
+		reader.start();
+		Thread errReader = new Thread(this::pumpStderr, "python-worker-stderr-" + process.pid());
+		errReader.setDaemon(true);
+		errReader.start();
+	}
+
+	/**
+	 * 启动 worker 进程，等待其完成预加载并报告就绪
+	 */
+	public static PythonWorker start(String python, Path workerScript, List<String> preloadModules,
+			long startupTimeoutMillis) throws IOException {
+		List<String> command = new ArrayList<>(List.of(python, "-u", workerScript.toString()));
+		command.add(String.join(",", Optional.ofNullable(preloadModules).orElse(List.of())));
+		ProcessBuilder pb = new ProcessBuilder(command);
+		pb.environment().put("PYTHONIOENCODING", "utf-8");
+		PythonWorker worker = new PythonWorker(python, pb.start());
+		try {
+			String line = worker.stdoutLines.poll(startupTimeoutMillis, TimeUnit.MILLISECONDS);
+			if (line == null || EOF.equals(line)
+					|| !JsonUtil.getObjectMapper().readTree(line).path("ready").asBoolean()) {
+				throw new IOException("Python worker did not become ready: " + line);
+			}
+		}
+		catch (IOException e) {
+			worker.close();
+			throw e;
+		}
+		catch (InterruptedException e) {
+			worker.close();
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while starting python worker", e);
+		}
+		log.debug("Python worker {} started with {}", worker.process.pid(), python);
+		return worker;
+	}
+
+	public String getPython() {
+		return python;
+	}
+
+	public boolean isAlive() {
+		return process.isAlive();
+	}
+
+	/**
+	 * 执行一个任务；协议异常或结果超时时 worker 会被关闭，不可再复用
+	 * @param request 任务
+	 * @param workDir 任务工作目录
+	 * @param timeoutMillis 代码执行超时
+	 */
+	public TaskResponse execute(TaskRequest request, Path workDir, long timeoutMillis) {
+		try {
+			ObjectNode task = JsonUtil.getObjectMapper().createObjectNode();
+			task.put("code", Optional.ofNullable(request.code()).orElse(""));
+			task.put("input", Optional.ofNullable(request.input()).orElse(""));
+			task.put("cwd", workDir == null ? null : workDir.toAbsolutePath().toString());
+			task.put("timeout_ms", timeoutMillis);
+			stdin.write(JsonUtil.getObjectMapper().writeValueAsString(task));
+			stdin.newLine();
+			stdin.flush();
+
+			String line = stdoutLines.poll(timeoutMillis + RESPONSE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+			if (line == null || EOF.equals(line)) {
+				close();
+				return TaskResponse.exception("Python worker did not respond" + (line == null ? " in time" : ""));
+			}
+			JsonNode result = JsonUtil.getObjectMapper().readTree(line);
+			if (result.hasNonNull("error")) {
+				return TaskResponse.exception(result.get("error").asText());
+			}
+			if (result.path("timed_out").asBoolean()) {
+				return TaskResponse.failure("", "python code timeout, Killed.");
+			}
+			String stdout = result.path("stdout").asText("");
+			if (result.path("exit_code").asInt(-1) != 0) {
+				return TaskResponse.failure(stdout, result.path("stderr").asText(""));
+			}
+			return TaskResponse.success(stdout);
+		}
+		catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			return TaskResponse.exception("Interrupted while waiting for python worker");
+		}
+		catch (Exception e) {
+			log.error("Python worker execution failed: {}", e.getMessage(), e);
+			close();
+			return TaskResponse.exception(e.getMessage());
+		}
+	}
+
+	private void pumpStdout() {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				stdoutLines.add(line);
+			}
+		}
+		catch (IOException ignored) {
+			// 进程被关闭
+		}
+		stdoutLines.add(EOF);
+	}
+
+	private void pumpStderr() {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				log.debug("[python-worker-{}] {}", process.pid(), line);
+			}
+		}
+		catch (IOException ignored) {
+			// 进程被关闭
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			stdin.close();
+		}
+		catch (IOException ignored) {
+		}
+		process.destroy();
+		try {
+			if (!process.waitFor(1, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+		catch (InterruptedException e) {
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
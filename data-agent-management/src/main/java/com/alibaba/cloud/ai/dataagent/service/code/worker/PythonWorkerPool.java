@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.code.worker;
+
+import com.alibaba.cloud.ai.dataagent.properties.CodeExecutorProperties;
+import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService.TaskRequest;
+import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService.TaskResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按解释器（即按 virtualenv）分组的常驻 Python worker 池。任务借出一个空闲 worker 执行，结束后归还；
+ * 每个环境最多保留 warmWorkersPerEnvironment 个空闲 worker，保留空闲 worker 的环境数超过 maxWarmEnvironments 时关闭最久未用环境的 worker；
+ * 同时借出的 worker 不超过 maxActiveWorkers 个，其余任务最多等待 workerAcquireTimeoutMillis。
+ */
+@Slf4j
+public class PythonWorkerPool implements AutoCloseable {
+
+	private static final String WORKER_SCRIPT = "python/warm_worker.py";
+
+	private static final long STARTUP_TIMEOUT_MILLIS = 60_000;
+
+	private final CodeExecutorProperties properties;
+
+	private final Path workerScript;
+
+	/**
+	 * 解释器 -> 空闲 worker，按访问顺序排列用于淘汰最久未用的环境
+	 */
+	private final LinkedHashMap<String, Deque<PythonWorker>> idleWorkers = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * 借出 worker 的许可，限制同时运行的 Python 进程数
+	 */
+	private final Semaphore activePermits;
+
+	public PythonWorkerPool(CodeExecutorProperties properties) throws IOException {
+		this.properties = properties;
+		this.activePermits = new Semaphore(Math.max(1, properties.getMaxActiveWorkers()), true);
+		this.workerScript = Files.createTempFile("data-agent-warm-worker-", ".py");
+		this.workerScript.toFile().deleteOnExit();
+		try (InputStream in = new ClassPathResource(WORKER_SCRIPT).getInputStream()) {
+			Files.copy(in, workerScript, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * 在后台为指定解释器预热一个 worker，使第一个任务也不必等待解释器启动和预加载
+	 */
+	public void prewarm(String python) {
+		Thread thread = new Thread(() -> {
+			try {
+				release(PythonWorker.start(python, workerScript, properties.getPreloadModules(),
+						STARTUP_TIMEOUT_MILLIS));
+			}
+			catch (Exception e) {
+				log.warn("Failed to prewarm python worker for {}: {}", python, e.getMessage());
+			}
+		}, "python-worker-prewarm");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * 借用指定解释器的 worker 执行任务
+	 */
+	public TaskResponse execute(String python, TaskRequest request, Path workDir, long timeoutMillis) {
+		try {
+			if (!activePermits.tryAcquire(properties.getWorkerAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+				log.warn("No python worker available within {}ms", properties.getWorkerAcquireTimeoutMillis());
+				return TaskResponse.exception("All python workers are busy, please retry later");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return TaskResponse.exception("Interrupted while waiting for a python worker");
+		}
+		try {
+			PythonWorker worker;
+			try {
+				worker = borrow(python);
+			}
+			catch (Exception e) {
+				log.error("Failed to start python worker for {}: {}", python, e.getMessage(), e);
+				return TaskResponse.exception("Failed to start python worker: " + e.getMessage());
+			}
+			TaskResponse response = worker.execute(request, workDir, timeoutMillis);
+			release(worker);
+			return response;
+		}
+		finally {
+			activePermits.release();
+		}
+	}
+
+	/**
+	 * 当前借出的 worker 数
+	 */
+	int activeWorkers() {
+		return Math.max(1, properties.getMaxActiveWorkers()) - activePermits.availablePermits();
+	}
+
+	private PythonWorker borrow(String python) throws IOException {
+		List<PythonWorker> dead = new ArrayList<>();
+		PythonWorker worker = null;
+		lock.lock();
+		try {
+			Deque<PythonWorker> idle = idleWorkers.get(python);
+			while (idle != null && !idle.isEmpty() && worker == null) {
+				PythonWorker candidate = idle.pollFirst();
+				if (candidate.isAlive()) {
+					worker = candidate;
+				}
+				else {
+					dead.add(candidate);
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		dead.forEach(PythonWorker::close);
+		return worker != null ? worker
+				: PythonWorker.start(python, workerScript, properties.getPreloadModules(), STARTUP_TIMEOUT_MILLIS);
+	}
+
+	private void release(PythonWorker worker) {
+		if (!worker.isAlive()) {
+			worker.close();
+			return;
+		}
+		List<PythonWorker> evicted = new ArrayList<>();
+		lock.lock();
+		try {
+			Deque<PythonWorker> idle = idleWorkers.computeIfAbsent(worker.getPython(), k -> new ArrayDeque<>());
+			if (idle.size() < Math.max(0, properties.getWarmWorkersPerEnvironment())) {
+				idle.addLast(worker);
+			}
+			else {
+				evicted.add(worker);
+			}
+			Iterator<Map.Entry<String, Deque<PythonWorker>>> iterator = idleWorkers.entrySet().iterator();
+			while (idleWorkers.size() > Math.max(1, properties.getMaxWarmEnvironments()) && iterator.hasNext()) {
+				evicted.addAll(iterator.next().getValue());
+				iterator.remove();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		evicted.forEach(PythonWorker::close);
+	}
+
+	@Override
+	public void close() {
+		List<PythonWorker> all = new ArrayList<>();
+		lock.lock();
+		try {
+			idleWorkers.values().forEach(all::addAll);
+			idleWorkers.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+		all.forEach(PythonWorker::close);
+		try {
+			Files.deleteIfExists(workerScript);
+		}
+		catch (IOException ignored) {
+		}
+	}
+
+}
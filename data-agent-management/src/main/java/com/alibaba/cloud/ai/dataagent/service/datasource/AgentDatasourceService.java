@@ -16,13 +16,18 @@
 package com.alibaba.cloud.ai.dataagent.service.datasource;
 
 import com.alibaba.cloud.ai.dataagent.entity.AgentDatasource;
+import com.alibaba.cloud.ai.dataagent.vo.SchemaInitProgressVO;
 import java.util.List;
+import java.util.Optional;
 
 public interface AgentDatasourceService {
 
 	/** Initialize agent's database schema using datasource */
 	Boolean initializeSchemaForAgentWithDatasource(Long agentId, Integer datasourceId, List<String> tables);
 
+	/** Progress of the latest schema initialization of agent's active datasource */
+	Optional<SchemaInitProgressVO> getSchemaInitProgress(Long agentId);
+
 	List<AgentDatasource> getAgentDatasource(Long agentId);
 
 	default AgentDatasource getCurrentAgentDatasource(Long agentId) {
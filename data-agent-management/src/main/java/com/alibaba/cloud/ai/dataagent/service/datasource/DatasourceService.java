@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.dataagent.service.datasource;
 
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.connector.pool.DataSourcePoolRegistry;
 import com.alibaba.cloud.ai.dataagent.entity.AgentDatasource;
 import com.alibaba.cloud.ai.dataagent.entity.Datasource;
 import com.alibaba.cloud.ai.dataagent.entity.LogicalRelation;
@@ -84,6 +85,11 @@ public interface DatasourceService {
 
 	DbConfigBO getDbConfig(Datasource datasource);
 
+	/**
+	 * 获取当前已创建的业务数据源连接池状态
+	 */
+	List<DataSourcePoolRegistry.PoolStats> getConnectionPoolStats();
+
 	/**
 	 * 获取数据源的逻辑外键列表
 	 */
@@ -64,6 +64,7 @@ public interface DatasourceTypeHandler {
 		config.setConnectionType(connectionType());
 		config.setDialectType(dialectType());
 		config.setSchema(extractSchemaName(datasource));
+		config.setPoolProfile(datasource.getPoolProfile());
 		return config;
 	}
 
@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.dataagent.service.datasource.impl;
 
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.connector.SqlResultCache;
 import com.alibaba.cloud.ai.dataagent.dto.datasource.SchemaInitRequest;
 import com.alibaba.cloud.ai.dataagent.entity.AgentDatasource;
 import com.alibaba.cloud.ai.dataagent.entity.Datasource;
@@ -23,7 +24,9 @@ import com.alibaba.cloud.ai.dataagent.mapper.AgentDatasourceMapper;
 import com.alibaba.cloud.ai.dataagent.mapper.AgentDatasourceTablesMapper;
 import com.alibaba.cloud.ai.dataagent.service.datasource.AgentDatasourceService;
 import com.alibaba.cloud.ai.dataagent.service.datasource.DatasourceService;
+import com.alibaba.cloud.ai.dataagent.service.schema.SchemaInitProgressTracker;
 import com.alibaba.cloud.ai.dataagent.service.schema.SchemaService;
+import com.alibaba.cloud.ai.dataagent.vo.SchemaInitProgressVO;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -45,6 +48,10 @@ public class AgentDatasourceServiceImpl implements AgentDatasourceService {
 
 	private final AgentDatasourceTablesMapper tablesMapper;
 
+	private final SqlResultCache sqlResultCache;
+
+	private final SchemaInitProgressTracker schemaInitProgressTracker;
+
 	@Override
 	public Boolean initializeSchemaForAgentWithDatasource(Long agentId, Integer datasourceId, List<String> tables) {
 		Assert.notNull(agentId, "Agent ID cannot be null");
@@ -71,6 +78,9 @@ public class AgentDatasourceServiceImpl implements AgentDatasourceService {
 
 			log.info("Created SchemaInitRequest for agent: {}, dbConfig: {}, tables: {}", agentIdStr, dbConfig, tables);
 
+			// Schema refresh means cached query results may no longer be trustworthy
+			sqlResultCache.invalidateAgent(agentId);
+
 			// Call the original initialization method
 			return schemaService.schema(datasourceId, schemaInitRequest);
 
@@ -81,6 +91,13 @@ public class AgentDatasourceServiceImpl implements AgentDatasourceService {
 		}
 	}
 
+	@Override
+	public Optional<SchemaInitProgressVO> getSchemaInitProgress(Long agentId) {
+		Assert.notNull(agentId, "Agent ID cannot be null");
+		Integer datasourceId = getCurrentAgentDatasource(agentId).getDatasourceId();
+		return datasourceId == null ? Optional.empty() : schemaInitProgressTracker.getProgress(datasourceId);
+	}
+
 	@Override
 	public List<AgentDatasource> getAgentDatasource(Long agentId) {
 		Assert.notNull(agentId, "Agent ID cannot be null");
@@ -108,6 +125,7 @@ public class AgentDatasourceServiceImpl implements AgentDatasourceService {
 		// First, disable other data sources for this agent (an agent can only have one
 		// enabled data source)
 		agentDatasourceMapper.disableAllByAgentId(agentId);
+		sqlResultCache.invalidateAgent(agentId);
 
 		// Check if an association already exists
 		AgentDatasource existing = agentDatasourceMapper.selectByAgentIdAndDatasourceId(agentId, datasourceId);
@@ -137,6 +155,7 @@ public class AgentDatasourceServiceImpl implements AgentDatasourceService {
 	@Override
 	public void removeDatasourceFromAgent(Long agentId, Integer datasourceId) {
 		agentDatasourceMapper.removeRelation(agentId, datasourceId);
+		sqlResultCache.invalidateAgent(agentId);
 	}
 
 	@Override
@@ -155,6 +174,7 @@ public class AgentDatasourceServiceImpl implements AgentDatasourceService {
 		if (updated == 0) {
 			throw new RuntimeException("未找到相关的数据源关联记录");
 		}
+		sqlResultCache.invalidateAgent(agentId);
 
 		// Return the updated association record
 		return agentDatasourceMapper.selectByAgentIdAndDatasourceId(agentId, datasourceId);
@@ -19,10 +19,12 @@ import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
 import com.alibaba.cloud.ai.dataagent.connector.DbQueryParameter;
+import com.alibaba.cloud.ai.dataagent.connector.SqlResultCache;
 import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
 import com.alibaba.cloud.ai.dataagent.connector.accessor.AccessorFactory;
 import com.alibaba.cloud.ai.dataagent.connector.pool.DBConnectionPool;
 import com.alibaba.cloud.ai.dataagent.connector.pool.DBConnectionPoolFactory;
+import com.alibaba.cloud.ai.dataagent.connector.pool.DataSourcePoolRegistry;
 import com.alibaba.cloud.ai.dataagent.entity.AgentDatasource;
 import com.alibaba.cloud.ai.dataagent.entity.Datasource;
 import com.alibaba.cloud.ai.dataagent.entity.LogicalRelation;
@@ -64,6 +66,10 @@ public class DatasourceServiceImpl implements DatasourceService {
 
 	private final DatasourceTypeHandlerRegistry datasourceTypeHandlerRegistry;
 
+	private final SqlResultCache sqlResultCache;
+
+	private final DataSourcePoolRegistry dataSourcePoolRegistry;
+
 	@Override
 	public List<Datasource> getAllDatasource() {
 		return datasourceMapper.selectAll();
@@ -115,6 +121,9 @@ public class DatasourceServiceImpl implements DatasourceService {
 
 	@Override
 	public Datasource updateDatasource(Integer id, Datasource datasource) {
+		Datasource existing = datasourceMapper.selectById(id);
+		invalidateCachedResults(existing);
+
 		// Regenerate connection URL
 		DatasourceTypeHandler handler = datasourceTypeHandlerRegistry.getRequired(datasource.getType());
 		String connectionUrl = handler.resolveConnectionUrl(datasource);
@@ -132,17 +141,44 @@ public class DatasourceServiceImpl implements DatasourceService {
 		}
 
 		datasourceMapper.updateById(datasource);
+		// 更新期间仍在执行的查询可能用旧连接信息重新写入缓存或重建连接池，更新后再清理一次
+		invalidateCachedResults(existing);
 		return datasource;
 	}
 
 	@Override
 	@Transactional
 	public void deleteDatasource(Integer id) {
+		Datasource existing = datasourceMapper.selectById(id);
+		invalidateCachedResults(existing);
+
 		// First, delete the associations
 		agentDatasourceMapper.deleteAllByDatasourceId(id);
 
 		// Then, delete the data source
 		datasourceMapper.deleteById(id);
+		// 删除期间仍在执行的查询可能重新写入缓存或重建连接池，删除后再清理一次
+		invalidateCachedResults(existing);
+	}
+
+	/**
+	 * 数据源连接信息变更或删除时，按变更前的连接信息清理该数据源下缓存的SQL查询结果并关闭其连接池
+	 */
+	private void invalidateCachedResults(Datasource existing) {
+		if (existing == null) {
+			return;
+		}
+		try {
+			DbConfigBO dbConfig = getDbConfig(existing);
+			sqlResultCache.invalidateDatasource(dbConfig);
+			DBConnectionPool pool = poolFactory.getPoolByType(existing.getType());
+			if (pool != null) {
+				pool.evict(dbConfig);
+			}
+		}
+		catch (Exception e) {
+			log.warn("Failed to invalidate cached SQL results for datasource {}: {}", existing.getId(), e.getMessage());
+		}
 	}
 
 	@Override
@@ -257,6 +293,11 @@ public class DatasourceServiceImpl implements DatasourceService {
 		return handler.toDbConfig(datasource);
 	}
 
+	@Override
+	public List<DataSourcePoolRegistry.PoolStats> getConnectionPoolStats() {
+		return dataSourcePoolRegistry.getStats();
+	}
+
 	@Override
 	public List<String> getTableColumns(Integer datasourceId, String tableName) throws Exception {
 		log.info("Getting columns for table: {} in datasource: {}", tableName, datasourceId);
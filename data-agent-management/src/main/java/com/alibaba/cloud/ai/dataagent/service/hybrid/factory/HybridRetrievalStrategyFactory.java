@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.dataagent.service.hybrid.factory;
 
 import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.fusion.FusionStrategy;
+import com.alibaba.cloud.ai.dataagent.service.hybrid.keyword.Bm25KeywordIndex;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.retrieval.HybridRetrievalStrategy;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.retrieval.impl.DefaultHybridRetrievalStrategy;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.retrieval.impl.ElasticsearchHybridRetrievalStrategy;
@@ -56,6 +57,9 @@ public class HybridRetrievalStrategyFactory implements FactoryBean<HybridRetriev
 	@Autowired
 	private DataAgentProperties dataAgentProperties;
 
+	@Autowired
+	private Bm25KeywordIndex keywordIndex;
+
 	@Override
 	public HybridRetrievalStrategy getObject() throws Exception {
 
@@ -74,9 +78,14 @@ public class HybridRetrievalStrategyFactory implements FactoryBean<HybridRetriev
 			return strategy;
 		}
 		else {
-			log.warn(
-					"Creating DefaultHybridRetrievalStrategy (default) without keyword-search ability,maybe you should implement interface -> HybridRetrievalStrategy ");
-			return new DefaultHybridRetrievalStrategy(executorService, vectorStore, fusionStrategy);
+			if (keywordIndex.isEnabled()) {
+				log.info("Creating DefaultHybridRetrievalStrategy with in-process BM25 keyword index");
+			}
+			else {
+				log.warn(
+						"Creating DefaultHybridRetrievalStrategy (default) without keyword-search ability, enable spring.ai.alibaba.data-agent.vector-store.enable-keyword-index or implement interface -> HybridRetrievalStrategy ");
+			}
+			return new DefaultHybridRetrievalStrategy(executorService, vectorStore, fusionStrategy, keywordIndex);
 		}
 	}
 
@@ -0,0 +1,475 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.hybrid.keyword;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.DocumentMetadataIndex;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.ann.LocalAnnVectorStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * 进程内 BM25 关键词索引，为进程内向量库（SimpleVectorStore、LocalAnnVectorStore）提供混合检索中的关键词召回。
+ * 与 {@code DocumentMetadataIndex} 相同，只有全部写入都经过本进程的向量库才能保证索引与向量库一致；PGVector、Milvus
+ * 等外部向量库可能被其他实例修改，不启用。
+ *
+ * <p>
+ * 索引按 agentId + vectorType 分区，与 {@code DynamicFilterService} 生成的检索条件一一对应；检索时先根据过滤条件中的
+ * agentId/vectorType 等值条件定位分区，再对候选文档求值完整的过滤表达式，保证与向量检索召回范围一致。 每个分区的倒排表以
+ * int 数组保存文档序号和词频，删除时只做标记，标记数量超过存活文档数时整体压缩。
+ *
+ * <p>
+ * 文档的增删由 {@code AgentVectorStoreService} 同步；服务重启后分区在首次检索时加载一次已有文档：元数据索引可用时直接从中读取，
+ * 否则从向量库分批扩大 topK 读取，直到取完分区内全部文档。
+ */
+@Slf4j
+@Component
+public class Bm25KeywordIndex {
+
+	private static final String BOOTSTRAP_QUERY = "default";
+
+	private static final int MIN_COMPACT_SIZE = 64;
+
+	private final VectorStore vectorStore;
+
+	private final DataAgentProperties properties;
+
+	private final DocumentMetadataIndex metadataIndex;
+
+	private final boolean enabled;
+
+	private final ConcurrentHashMap<PartitionKey, Partition> partitions = new ConcurrentHashMap<>();
+
+	public Bm25KeywordIndex(VectorStore vectorStore, DataAgentProperties properties,
+			DocumentMetadataIndex metadataIndex) {
+		this.vectorStore = vectorStore;
+		this.properties = properties;
+		this.metadataIndex = metadataIndex;
+		DataAgentProperties.VectorStoreProperties config = properties.getVectorStore();
+		// Elasticsearch 使用服务端的全文检索；其他外部向量库无法保证进程内索引与之一致
+		this.enabled = config.isEnableHybridSearch() && config.isEnableKeywordIndex()
+				&& (vectorStore instanceof SimpleVectorStore || vectorStore instanceof LocalAnnVectorStore);
+		log.info("BM25 keyword index enabled: {}", enabled);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 将文档加入索引，已存在的同 ID 文档会被替换。没有 agentId 的文档（如表、列）不参与混合检索，不建立索引
+	 */
+	public void addDocuments(Collection<Document> documents) {
+		if (!enabled || documents == null) {
+			return;
+		}
+		Map<PartitionKey, List<Document>> grouped = new HashMap<>();
+		for (Document document : documents) {
+			PartitionKey key = PartitionKey.of(document.getMetadata());
+			if (key != null && StringUtils.hasText(document.getText())) {
+				grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(document);
+			}
+		}
+		grouped.forEach((key, docs) -> partitions.computeIfAbsent(key, k -> new Partition()).addAll(docs));
+	}
+
+	public void removeByIds(Collection<String> ids) {
+		if (!enabled || ids == null || ids.isEmpty()) {
+			return;
+		}
+		Set<String> idSet = new HashSet<>(ids);
+		for (Partition partition : partitions.values()) {
+			partition.removeIf(document -> idSet.contains(document.getId()));
+		}
+	}
+
+	/**
+	 * 删除元数据与给定键值全部相等的文档，与按元数据删除向量的语义一致
+	 */
+	public void removeByMetadata(Map<String, Object> metadata) {
+		if (!enabled || metadata == null || metadata.isEmpty()) {
+			return;
+		}
+		Object agentId = metadata.get(Constant.AGENT_ID);
+		Object vectorType = metadata.get(DocumentMetadataConstant.VECTOR_TYPE);
+		partitions.forEach((key, partition) -> {
+			if ((agentId == null || key.agentId().equals(String.valueOf(agentId)))
+					&& (vectorType == null || key.vectorType().equals(String.valueOf(vectorType)))) {
+				partition.removeIf(document -> metadata.entrySet()
+					.stream()
+					.allMatch(e -> String.valueOf(e.getValue())
+						.equals(String.valueOf(document.getMetadata().get(e.getKey())))));
+			}
+		});
+	}
+
+	/**
+	 * BM25 检索
+	 * @param query 查询文本
+	 * @param topK 返回的最大文档数量
+	 * @param filter 与向量检索相同的过滤条件
+	 * @return 按 BM25 得分降序排列的文档，得分写入 {@link Document#getScore()}
+	 */
+	public List<Document> search(String query, int topK, Filter.Expression filter) {
+		if (!enabled || !StringUtils.hasText(query) || topK <= 0) {
+			return List.of();
+		}
+		List<String> terms = KeywordTokenizer.tokenize(query).stream().distinct().toList();
+		if (terms.isEmpty()) {
+			return List.of();
+		}
+
+		String agentId = findEquality(filter, Constant.AGENT_ID);
+		String vectorType = findEquality(filter, DocumentMetadataConstant.VECTOR_TYPE);
+		if (agentId != null && vectorType != null) {
+			PartitionKey key = new PartitionKey(agentId, vectorType);
+			Partition partition = partitions.computeIfAbsent(key, k -> new Partition());
+			partition.ensureLoaded(key);
+			return partition.search(terms, topK, filter);
+		}
+
+		// 无法定位到单个分区时，在所有匹配的分区中检索后合并
+		List<Document> merged = new ArrayList<>();
+		partitions.forEach((key, partition) -> {
+			if ((agentId == null || key.agentId().equals(agentId))
+					&& (vectorType == null || key.vectorType().equals(vectorType))) {
+				merged.addAll(partition.search(terms, topK, filter));
+			}
+		});
+		merged.sort(Comparator.comparingDouble((Document d) -> d.getScore() == null ? 0 : d.getScore()).reversed());
+		return merged.size() > topK ? new ArrayList<>(merged.subList(0, topK)) : merged;
+	}
+
+	/**
+	 * 在 AND 连接的条件中查找 key == value 形式的等值条件
+	 */
+	static String findEquality(Filter.Operand operand, String key) {
+		if (operand instanceof Filter.Group group) {
+			return findEquality(group.content(), key);
+		}
+		if (!(operand instanceof Filter.Expression expression)) {
+			return null;
+		}
+		if (expression.type() == Filter.ExpressionType.AND) {
+			String left = findEquality(expression.left(), key);
+			return left != null ? left : findEquality(expression.right(), key);
+		}
+		if (expression.type() == Filter.ExpressionType.EQ && expression.left() instanceof Filter.Key k
+				&& key.equals(k.key()) && expression.right() instanceof Filter.Value v && v.value() != null) {
+			return String.valueOf(v.value());
+		}
+		return null;
+	}
+
+	record PartitionKey(String agentId, String vectorType) {
+
+		static PartitionKey of(Map<String, Object> metadata) {
+			if (metadata == null) {
+				return null;
+			}
+			Object agentId = metadata.get(Constant.AGENT_ID);
+			Object vectorType = metadata.get(DocumentMetadataConstant.VECTOR_TYPE);
+			if (agentId == null || vectorType == null) {
+				return null;
+			}
+			return new PartitionKey(String.valueOf(agentId), String.valueOf(vectorType));
+		}
+
+	}
+
+	/**
+	 * 单个分区的倒排索引，读写锁保护，检索之间可以并发
+	 */
+	private final class Partition {
+
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private final Map<String, Postings> postings = new HashMap<>();
+
+		private final Map<String, Integer> ordinalById = new HashMap<>();
+
+		/**
+		 * 文档序号 -> 文档，已删除的位置为 null
+		 */
+		private final List<Document> documents = new ArrayList<>();
+
+		private int[] lengths = new int[16];
+
+		private long totalLength;
+
+		private int deleted;
+
+		private volatile boolean loaded;
+
+		void ensureLoaded(PartitionKey key) {
+			if (loaded) {
+				return;
+			}
+			lock.writeLock().lock();
+			try {
+				if (loaded) {
+					return;
+				}
+				FilterExpressionBuilder b = new FilterExpressionBuilder();
+				Filter.Expression filter = b
+					.and(b.eq(Constant.AGENT_ID, key.agentId()),
+							b.eq(DocumentMetadataConstant.VECTOR_TYPE, key.vectorType()))
+					.build();
+				int added;
+				if (metadataIndex != null && metadataIndex.isReady()) {
+					added = addUnseen(metadataIndex.find(filter, Integer.MAX_VALUE));
+				}
+				else {
+					added = bootstrapFromVectorStore(filter);
+				}
+				loaded = true;
+				log.info("Loaded {} documents into keyword index partition {}", added, key);
+			}
+			catch (Exception e) {
+				// 加载失败时本次只使用已有的索引内容，下次检索时重试
+				log.warn("Failed to load keyword index partition {}: {}", key, e.getMessage());
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		/**
+		 * 向量库没有分页接口，按倍数扩大 topK 重新检索，直到返回数量少于请求数量，即已取完分区内全部文档
+		 */
+		private int bootstrapFromVectorStore(Filter.Expression filter) {
+			int topK = Math.max(1, properties.getVectorStore().getKeywordIndexBootstrapPageSize());
+			int added = 0;
+			while (true) {
+				List<Document> page = vectorStore.similaritySearch(SearchRequest.builder()
+					.query(BOOTSTRAP_QUERY)
+					.topK(topK)
+					.similarityThreshold(0.0)
+					.filterExpression(filter)
+					.build());
+				added += addUnseen(page);
+				if (page.size() < topK || topK == Integer.MAX_VALUE) {
+					return added;
+				}
+				topK = topK > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : topK * 2;
+			}
+		}
+
+		private int addUnseen(List<Document> existing) {
+			int added = 0;
+			for (Document document : existing) {
+				// 已加载的文档和加载期间通过 addDocuments 写入的更新不覆盖
+				if (!ordinalById.containsKey(document.getId()) && StringUtils.hasText(document.getText())) {
+					addLocked(document);
+					added++;
+				}
+			}
+			return added;
+		}
+
+		void addAll(List<Document> docs) {
+			lock.writeLock().lock();
+			try {
+				for (Document document : docs) {
+					Integer existing = ordinalById.get(document.getId());
+					if (existing != null) {
+						removeLocked(existing);
+					}
+					addLocked(document);
+				}
+				compactIfNeeded();
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		void removeIf(Predicate<Document> predicate) {
+			lock.writeLock().lock();
+			try {
+				int before = deleted;
+				for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+					Document document = documents.get(ordinal);
+					if (document != null && predicate.test(document)) {
+						removeLocked(ordinal);
+					}
+				}
+				if (deleted != before) {
+					compactIfNeeded();
+				}
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		List<Document> search(List<String> terms, int topK, Filter.Expression filter) {
+			lock.readLock().lock();
+			try {
+				int live = documents.size() - deleted;
+				if (live == 0) {
+					return List.of();
+				}
+				double k1 = properties.getVectorStore().getBm25K1();
+				double b = properties.getVectorStore().getBm25B();
+				double avgLength = (double) totalLength / live;
+				float[] scores = new float[documents.size()];
+				boolean[] touched = new boolean[documents.size()];
+				List<Integer> candidates = new ArrayList<>();
+				for (String term : terms) {
+					Postings list = postings.get(term);
+					if (list == null) {
+						continue;
+					}
+					double idf = Math.log(1 + (live - list.size + 0.5) / (list.size + 0.5));
+					for (int p = 0; p < list.size; p++) {
+						int ordinal = list.ordinals[p];
+						if (documents.get(ordinal) == null) {
+							continue;
+						}
+						int tf = list.frequencies[p];
+						double norm = k1 * (1 - b + b * lengths[ordinal] / avgLength);
+						scores[ordinal] += (float) (idf * tf * (k1 + 1) / (tf + norm));
+						if (!touched[ordinal]) {
+							touched[ordinal] = true;
+							candidates.add(ordinal);
+						}
+					}
+				}
+
+				PriorityQueue<Integer> top = new PriorityQueue<>(Comparator.comparingDouble(o -> scores[o]));
+				for (int ordinal : candidates) {
+					if (!MetadataFilterEvaluator.matches(filter, documents.get(ordinal).getMetadata())) {
+						continue;
+					}
+					top.offer(ordinal);
+					if (top.size() > topK) {
+						top.poll();
+					}
+				}
+				Document[] result = new Document[top.size()];
+				for (int i = result.length - 1; i >= 0; i--) {
+					int ordinal = top.poll();
+					Document document = documents.get(ordinal);
+					result[i] = Document.builder()
+						.id(document.getId())
+						.text(document.getText())
+						.metadata(document.getMetadata())
+						.score((double) scores[ordinal])
+						.build();
+				}
+				return Arrays.asList(result);
+			}
+			finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		private void addLocked(Document document) {
+			int ordinal = documents.size();
+			documents.add(document);
+			ordinalById.put(document.getId(), ordinal);
+			Map<String, Integer> frequencies = new LinkedHashMap<>();
+			int length = 0;
+			for (String token : KeywordTokenizer.tokenize(document.getText())) {
+				frequencies.merge(token, 1, Integer::sum);
+				length++;
+			}
+			if (ordinal == lengths.length) {
+				lengths = Arrays.copyOf(lengths, lengths.length * 2);
+			}
+			lengths[ordinal] = length;
+			totalLength += length;
+			frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, tf));
+		}
+
+		private void removeLocked(int ordinal) {
+			Document document = documents.set(ordinal, null);
+			if (document != null) {
+				ordinalById.remove(document.getId());
+				totalLength -= lengths[ordinal];
+				deleted++;
+			}
+		}
+
+		/**
+		 * 已删除的文档多于存活文档时重建分区，回收倒排表中的失效条目
+		 */
+		private void compactIfNeeded() {
+			if (deleted < MIN_COMPACT_SIZE || deleted <= documents.size() - deleted) {
+				return;
+			}
+			List<Document> live = documents.stream().filter(Objects::nonNull).toList();
+			postings.clear();
+			ordinalById.clear();
+			documents.clear();
+			lengths = new int[Math.max(16, live.size())];
+			totalLength = 0;
+			deleted = 0;
+			live.forEach(this::addLocked);
+		}
+
+	}
+
+	/**
+	 * 单个词的倒排表：按文档序号递增排列的 (序号, 词频)
+	 */
+	private static final class Postings {
+
+		private int[] ordinals = new int[4];
+
+		private int[] frequencies = new int[4];
+
+		private int size;
+
+		void add(int ordinal, int frequency) {
+			if (size == ordinals.length) {
+				ordinals = Arrays.copyOf(ordinals, size * 2);
+				frequencies = Arrays.copyOf(frequencies, size * 2);
+			}
+			ordinals[size] = ordinal;
+			frequencies[size] = frequency;
+			size++;
+		}
+
+	}
+
+}
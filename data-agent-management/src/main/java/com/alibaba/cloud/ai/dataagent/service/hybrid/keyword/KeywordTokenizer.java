@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.hybrid.keyword;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 关键词索引使用的分词器，不依赖词典：
+ * <ul>
+ * <li>英文/数字按非字母数字字符切分，保留完整标识符（如 {@code order_status}），同时拆出下划线与驼峰的各部分</li>
+ * <li>中日韩文字输出单字与相邻二字组合（bigram），兼顾短词召回与词序精度</li>
+ * </ul>
+ * 索引与查询使用同一分词规则。
+ */
+public final class KeywordTokenizer {
+
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return tokens;
+		}
+		int i = 0;
+		int length = text.length();
+		while (i < length) {
+			int cp = text.codePointAt(i);
+			if (isCjk(cp)) {
+				int end = i;
+				while (end < length && isCjk(text.codePointAt(end))) {
+					end += Character.charCount(text.codePointAt(end));
+				}
+				addCjkTokens(text.substring(i, end), tokens);
+				i = end;
+			}
+			else if (isWordChar(cp)) {
+				int end = i;
+				while (end < length && isWordChar(text.codePointAt(end)) && !isCjk(text.codePointAt(end))) {
+					end += Character.charCount(text.codePointAt(end));
+				}
+				addWordTokens(text.substring(i, end), tokens);
+				i = end;
+			}
+			else {
+				i += Character.charCount(cp);
+			}
+		}
+		return tokens;
+	}
+
+	private static void addCjkTokens(String run, List<String> tokens) {
+		int[] cps = run.codePoints().toArray();
+		for (int k = 0; k < cps.length; k++) {
+			tokens.add(new String(cps, k, 1));
+			if (k + 1 < cps.length) {
+				tokens.add(new String(cps, k, 2));
+			}
+		}
+	}
+
+	private static void addWordTokens(String word, List<String> tokens) {
+		String lower = word.toLowerCase(Locale.ROOT);
+		String trimmed = trimUnderscores(lower);
+		if (trimmed.isEmpty()) {
+			return;
+		}
+		tokens.add(trimmed);
+		// 拆分 snake_case 与 camelCase，只有一个部分时不重复添加
+		List<String> parts = new ArrayList<>();
+		StringBuilder part = new StringBuilder();
+		for (int k = 0; k < word.length(); k++) {
+			char c = word.charAt(k);
+			boolean camelBoundary = k > 0 && Character.isUpperCase(c) && Character.isLowerCase(word.charAt(k - 1));
+			if (c == '_' || camelBoundary) {
+				if (!part.isEmpty()) {
+					parts.add(part.toString().toLowerCase(Locale.ROOT));
+					part.setLength(0);
+				}
+				if (c == '_') {
+					continue;
+				}
+			}
+			part.append(c);
+		}
+		if (!part.isEmpty()) {
+			parts.add(part.toString().toLowerCase(Locale.ROOT));
+		}
+		if (parts.size() > 1) {
+			tokens.addAll(parts);
+		}
+	}
+
+	private static String trimUnderscores(String word) {
+		int start = 0;
+		int end = word.length();
+		while (start < end && word.charAt(start) == '_') {
+			start++;
+		}
+		while (end > start && word.charAt(end - 1) == '_') {
+			end--;
+		}
+		return word.substring(start, end);
+	}
+
+	private static boolean isWordChar(int cp) {
+		return Character.isLetterOrDigit(cp) || cp == '_';
+	}
+
+	private static boolean isCjk(int cp) {
+		Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+		return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+				|| script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+	}
+
+	private KeywordTokenizer() {
+		throw new AssertionError("Cannot instantiate utility class");
+	}
+
+}
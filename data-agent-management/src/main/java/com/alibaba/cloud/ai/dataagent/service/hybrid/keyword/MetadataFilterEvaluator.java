@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.hybrid.keyword;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * 在内存中对文档元数据求值 {@link Filter.Expression}，使关键词检索与向量检索使用完全相同的过滤条件。
+ *
+ * <p>
+ * 数值之间按数值比较（元数据中的 Integer 与过滤条件中的 Long 视为相等），其余按字符串比较。
+ */
+@Slf4j
+public final class MetadataFilterEvaluator {
+
+	public static boolean matches(Filter.Operand operand, Map<String, Object> metadata) {
+		if (operand == null) {
+			return true;
+		}
+		if (operand instanceof Filter.Group group) {
+			return matches(group.content(), metadata);
+		}
+		if (!(operand instanceof Filter.Expression expression)) {
+			log.warn("Unsupported filter operand: {}", operand);
+			return false;
+		}
+		return switch (expression.type()) {
+			case AND -> matches(expression.left(), metadata) && matches(expression.right(), metadata);
+			case OR -> matches(expression.left(), metadata) || matches(expression.right(), metadata);
+			case NOT -> !matches(expression.left(), metadata);
+			case EQ -> equalsValue(metadataValue(expression, metadata), filterValue(expression));
+			case NE -> !equalsValue(metadataValue(expression, metadata), filterValue(expression));
+			case GT -> compare(metadataValue(expression, metadata), filterValue(expression), c -> c > 0);
+			case GTE -> compare(metadataValue(expression, metadata), filterValue(expression), c -> c >= 0);
+			case LT -> compare(metadataValue(expression, metadata), filterValue(expression), c -> c < 0);
+			case LTE -> compare(metadataValue(expression, metadata), filterValue(expression), c -> c <= 0);
+			case IN -> in(metadataValue(expression, metadata), filterValue(expression));
+			case NIN -> !in(metadataValue(expression, metadata), filterValue(expression));
+			default -> switch (expression.type().name()) {
+				case "ISNULL" -> metadataValue(expression, metadata) == null;
+				case "ISNOTNULL" -> metadataValue(expression, metadata) != null;
+				default -> {
+					log.warn("Unsupported filter expression type: {}", expression.type());
+					yield false;
+				}
+			};
+		};
+	}
+
+	private static Object metadataValue(Filter.Expression expression, Map<String, Object> metadata) {
+		if (!(expression.left() instanceof Filter.Key key)) {
+			return null;
+		}
+		String name = key.key();
+		// 过滤表达式中的 key 可能带引号
+		if (name.length() > 1 && (name.startsWith("\"") && name.endsWith("\"")
+				|| name.startsWith("'") && name.endsWith("'"))) {
+			name = name.substring(1, name.length() - 1);
+		}
+		return metadata.get(name);
+	}
+
+	private static Object filterValue(Filter.Expression expression) {
+		return expression.right() instanceof Filter.Value value ? value.value() : null;
+	}
+
+	private static boolean in(Object actual, Object expected) {
+		if (actual == null) {
+			return false;
+		}
+		if (expected instanceof Collection<?> values) {
+			for (Object value : values) {
+				if (equalsValue(actual, value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (expected instanceof Object[] values) {
+			for (Object value : values) {
+				if (equalsValue(actual, value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		return equalsValue(actual, expected);
+	}
+
+	private static boolean equalsValue(Object actual, Object expected) {
+		if (actual == null || expected == null) {
+			return actual == expected;
+		}
+		if (actual instanceof Number a && expected instanceof Number e) {
+			return Double.compare(a.doubleValue(), e.doubleValue()) == 0;
+		}
+		return Objects.equals(String.valueOf(actual), String.valueOf(expected));
+	}
+
+	/**
+	 * 范围比较，缺失的值不满足任何范围条件
+	 */
+	private static boolean compare(Object actual, Object expected, IntPredicate predicate) {
+		if (actual == null || expected == null) {
+			return false;
+		}
+		Double a = toDouble(actual);
+		Double e = toDouble(expected);
+		if (a != null && e != null) {
+			return predicate.test(Double.compare(a, e));
+		}
+		return predicate.test(String.valueOf(actual).compareTo(String.valueOf(expected)));
+	}
+
+	private static Double toDouble(Object value) {
+		if (value instanceof Number number) {
+			return number.doubleValue();
+		}
+		try {
+			return Double.parseDouble(String.valueOf(value));
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private MetadataFilterEvaluator() {
+		throw new AssertionError("Cannot instantiate utility class");
+	}
+
+}
@@ -62,13 +62,10 @@ public abstract class AbstractHybridRetrievalStrategy implements HybridRetrieval
 			return vectorResults;
 		}, executorService);
 
-		// 异步执行关键词搜索
-		CompletableFuture<List<Document>> keywordSearchFuture = CompletableFuture.supplyAsync(() -> {
-			List<Document> results = getDocumentsByKeywords(request);
-			log.debug("Keyword Search completed. Found {} documents, with query: {}", results.size(),
-					request.getQuery());
-			return results;
-		}, executorService);
+		// 关键词搜索：进程内索引直接在当前线程执行，远程检索（如ES）异步执行
+		CompletableFuture<List<Document>> keywordSearchFuture = isKeywordSearchLocal()
+				? CompletableFuture.completedFuture(searchByKeywords(request))
+				: CompletableFuture.supplyAsync(() -> searchByKeywords(request), executorService);
 
 		try {
 			List<Document> vectorResults = vectorSearchFuture.get();
@@ -92,6 +89,19 @@ public abstract class AbstractHybridRetrievalStrategy implements HybridRetrieval
 
 	}
 
+	private List<Document> searchByKeywords(HybridSearchRequest request) {
+		List<Document> results = getDocumentsByKeywords(request);
+		log.debug("Keyword Search completed. Found {} documents, with query: {}", results.size(), request.getQuery());
+		return results;
+	}
+
+	/**
+	 * 关键词搜索是否为进程内的内存操作，是则不再切换到线程池执行
+	 */
+	protected boolean isKeywordSearchLocal() {
+		return false;
+	}
+
 	public abstract List<Document> getDocumentsByKeywords(HybridSearchRequest request);
 
 }
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.dataagent.service.hybrid.retrieval.impl;
 
 import com.alibaba.cloud.ai.dataagent.dto.search.HybridSearchRequest;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.fusion.FusionStrategy;
+import com.alibaba.cloud.ai.dataagent.service.hybrid.keyword.Bm25KeywordIndex;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.retrieval.AbstractHybridRetrievalStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
@@ -27,20 +28,32 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 /**
- * 适合测试以及没有继承实现AbstractHybridRetrievalStrategy的向量库（如Pg,milvus）使用，无关键词搜索能力
+ * 适合没有继承实现AbstractHybridRetrievalStrategy的向量库（如SimpleVectorStore、Pg、Milvus）使用，
+ * 关键词搜索由进程内的BM25索引提供；索引未启用时只有向量搜索结果
  */
 @Slf4j
 public class DefaultHybridRetrievalStrategy extends AbstractHybridRetrievalStrategy {
 
+	private final Bm25KeywordIndex keywordIndex;
+
 	public DefaultHybridRetrievalStrategy(ExecutorService executorService, VectorStore vectorStore,
-			FusionStrategy fusionStrategy) {
+			FusionStrategy fusionStrategy, Bm25KeywordIndex keywordIndex) {
 		super(executorService, vectorStore, fusionStrategy);
+		this.keywordIndex = keywordIndex;
+	}
+
+	@Override
+	public List<Document> getDocumentsByKeywords(HybridSearchRequest request) {
+		if (keywordIndex == null || !keywordIndex.isEnabled()) {
+			return Collections.emptyList();
+		}
+		// 与ES实现一致，多召回一倍供融合使用
+		return keywordIndex.search(request.getQuery(), request.getTopK() * 2, request.getFilterExpression());
 	}
 
 	@Override
-	public List<Document> getDocumentsByKeywords(HybridSearchRequest agentSearchRequest) {
-		// keyword默认不操作
-		return Collections.emptyList();
+	protected boolean isKeywordSearchLocal() {
+		return true;
 	}
 
 }
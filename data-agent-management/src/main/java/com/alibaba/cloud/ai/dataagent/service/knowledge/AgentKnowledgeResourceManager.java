@@ -20,16 +20,19 @@ import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
 import com.alibaba.cloud.ai.dataagent.enums.KnowledgeType;
 import com.alibaba.cloud.ai.dataagent.util.DocumentConverterUtil;
 import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.cloud.ai.dataagent.service.file.FileStorageService;
 import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
 import org.springframework.ai.transformer.splitter.TextSplitter;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,11 +48,25 @@ public class AgentKnowledgeResourceManager {
 
 	private final AgentVectorStoreService agentVectorStoreService;
 
+	private final KnowledgeIngestionPipeline knowledgeIngestionPipeline;
+
+	private final DataAgentProperties dataAgentProperties;
+
+	private final EmbeddingRateLimiter embeddingRateLimiter;
+
+	private final BatchingStrategy batchingStrategy;
+
 	public AgentKnowledgeResourceManager(TextSplitterFactory textSplitterFactory, FileStorageService fileStorageService,
-			AgentVectorStoreService agentVectorStoreService) {
+			AgentVectorStoreService agentVectorStoreService, KnowledgeIngestionPipeline knowledgeIngestionPipeline,
+			DataAgentProperties dataAgentProperties, EmbeddingRateLimiter embeddingRateLimiter,
+			BatchingStrategy batchingStrategy) {
 		this.textSplitterFactory = textSplitterFactory;
 		this.fileStorageService = fileStorageService;
 		this.agentVectorStoreService = agentVectorStoreService;
+		this.knowledgeIngestionPipeline = knowledgeIngestionPipeline;
+		this.dataAgentProperties = dataAgentProperties;
+		this.embeddingRateLimiter = embeddingRateLimiter;
+		this.batchingStrategy = batchingStrategy;
 	}
 
 	public void doEmbedingToVectorStore(AgentKnowledge agentKnowledge) throws Exception {
@@ -69,11 +86,20 @@ public class AgentKnowledgeResourceManager {
 
 	private void processQaKnowledge(AgentKnowledge knowledge) {
 		Document document = DocumentConverterUtil.convertQaFaqKnowledgeToDocument(knowledge);
+		embeddingRateLimiter.acquire();
 		agentVectorStoreService.addDocuments(knowledge.getAgentId().toString(), List.of(document));
 		log.info("Successfully vectorized AgentKnowledge: id={}, type={}", knowledge.getId(), knowledge.getType());
 	}
 
-	private void processDocumentKnowledge(AgentKnowledge knowledge) {
+	private void processDocumentKnowledge(AgentKnowledge knowledge) throws Exception {
+		if (dataAgentProperties.getKnowledgeIngestion().isStreamingEnabled()) {
+			// 流式解析、分块并分批写入，避免大文件整篇驻留内存和单次超大嵌入请求
+			Resource resource = fileStorageService.getFileResource(knowledge.getFilePath());
+			int chunkCount = knowledgeIngestionPipeline.ingest(knowledge, resource);
+			log.info("Successfully vectorized DOCUMENT knowledge: id={}, filePath={}, documentCount={}, splitterType={}",
+					knowledge.getId(), knowledge.getFilePath(), chunkCount, knowledge.getSplitterType());
+			return;
+		}
 
 		// 处理文档
 		List<Document> documents = getAndSplitDocument(knowledge.getFilePath(), knowledge.getSplitterType());
@@ -87,8 +113,11 @@ public class AgentKnowledgeResourceManager {
 		List<Document> documentsWithMetadata = DocumentConverterUtil
 			.convertAgentKnowledgeDocumentsWithMetadata(documents, knowledge);
 
-		// 添加到向量存储
-		agentVectorStoreService.addDocuments(knowledge.getAgentId().toString(), documentsWithMetadata);
+		// 按批处理策略分批写入向量存储，每批对应一次嵌入请求，各占用一个限速许可
+		for (List<Document> batch : batchingStrategy.batch(documentsWithMetadata)) {
+			embeddingRateLimiter.acquire();
+			agentVectorStoreService.addDocuments(knowledge.getAgentId().toString(), new ArrayList<>(batch));
+		}
 		log.info("Successfully vectorized DOCUMENT knowledge: id={}, filePath={}, documentCount={}, splitterType={}",
 				knowledge.getId(), knowledge.getFilePath(), documentsWithMetadata.size(), knowledge.getSplitterType());
 
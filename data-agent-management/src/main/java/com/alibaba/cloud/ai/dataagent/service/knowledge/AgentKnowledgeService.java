@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.AgentKnowledg
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.CreateKnowledgeDTO;
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.UpdateKnowledgeDTO;
 import com.alibaba.cloud.ai.dataagent.vo.AgentKnowledgeVO;
+import com.alibaba.cloud.ai.dataagent.vo.KnowledgeIngestionProgressVO;
 
 public interface AgentKnowledgeService {
 
@@ -37,4 +38,9 @@ public interface AgentKnowledgeService {
 
 	void retryEmbedding(Integer id);
 
+	/**
+	 * 查询文档类知识最近一次向量化的进度，服务重启后或从未处理过时返回 null
+	 */
+	KnowledgeIngestionProgressVO getEmbeddingProgress(Integer id);
+
 }
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.dataagent.service.knowledge;
 
 import com.alibaba.cloud.ai.dataagent.enums.EmbeddingStatus;
 import com.alibaba.cloud.ai.dataagent.enums.KnowledgeType;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
 import com.alibaba.cloud.ai.dataagent.converter.AgentKnowledgeConverter;
 import com.alibaba.cloud.ai.dataagent.vo.PageResult;
 import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.AgentKnowledgeQueryDTO;
@@ -25,9 +26,11 @@ import com.alibaba.cloud.ai.dataagent.dto.knowledge.agentknowledge.UpdateKnowled
 import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
 import com.alibaba.cloud.ai.dataagent.event.AgentKnowledgeDeletionEvent;
 import com.alibaba.cloud.ai.dataagent.event.AgentKnowledgeEmbeddingEvent;
+import com.alibaba.cloud.ai.dataagent.event.KnowledgeRecallChangedEvent;
 import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
 import com.alibaba.cloud.ai.dataagent.service.file.FileStorageService;
 import com.alibaba.cloud.ai.dataagent.vo.AgentKnowledgeVO;
+import com.alibaba.cloud.ai.dataagent.vo.KnowledgeIngestionProgressVO;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -53,6 +56,8 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 
 	private final ApplicationEventPublisher eventPublisher;
 
+	private final KnowledgeIngestionProgressTracker knowledgeIngestionProgressTracker;
+
 	@Override
 	public AgentKnowledgeVO getKnowledgeById(Integer id) {
 		AgentKnowledge agentKnowledge = agentKnowledgeMapper.selectById(id);
@@ -87,6 +92,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 
 		eventPublisher
 			.publishEvent(new AgentKnowledgeEmbeddingEvent(this, knowledge.getId(), knowledge.getSplitterType()));
+		publishRecallChanged(knowledge);
 		log.info("Knowledge created and event published. Id: {}, splitterType: {}", knowledge.getId(),
 				knowledge.getSplitterType());
 
@@ -154,6 +160,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 
 		if (agentKnowledgeMapper.update(knowledge) > 0) {
 			eventPublisher.publishEvent(new AgentKnowledgeDeletionEvent(this, id));
+			publishRecallChanged(knowledge);
 			return true;
 		}
 		return false;
@@ -195,6 +202,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 			log.error("Failed to update knowledge with id: {}", knowledge.getId());
 			throw new RuntimeException("Failed to update knowledge in database.");
 		}
+		publishRecallChanged(knowledge);
 		return agentKnowledgeConverter.toVo(knowledge);
 	}
 
@@ -221,4 +229,14 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 		log.info("Retry embedding for knowledgeId: {}, splitterType: {}", id, knowledge.getSplitterType());
 	}
 
+	@Override
+	public KnowledgeIngestionProgressVO getEmbeddingProgress(Integer id) {
+		return knowledgeIngestionProgressTracker.getProgress(id).orElse(null);
+	}
+
+	private void publishRecallChanged(AgentKnowledge knowledge) {
+		eventPublisher.publishEvent(new KnowledgeRecallChangedEvent(this, String.valueOf(knowledge.getAgentId()),
+				DocumentMetadataConstant.AGENT_KNOWLEDGE));
+	}
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 知识向量化对嵌入模型的请求限速器，按固定间隔平滑放行请求，所有向量化任务共享同一配额
+ */
+@Component
+public class EmbeddingRateLimiter {
+
+	private final long intervalNanos;
+
+	private long nextFreeNanos = System.nanoTime();
+
+	public EmbeddingRateLimiter(DataAgentProperties properties) {
+		double permitsPerSecond = properties.getKnowledgeEmbedding().getEmbeddingRequestsPerSecond();
+		this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0L;
+	}
+
+	/**
+	 * 获取一次嵌入请求的许可，配额不足时阻塞当前线程直到轮到自己
+	 */
+	public void acquire() {
+		if (intervalNanos <= 0) {
+			return;
+		}
+		long waitNanos;
+		synchronized (this) {
+			long now = System.nanoTime();
+			long slot = Math.max(now, nextFreeNanos);
+			nextFreeNanos = slot + intervalNanos;
+			waitNanos = slot - now;
+		}
+		if (waitNanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(waitNanos);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for embedding rate limit", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
+import com.alibaba.cloud.ai.dataagent.enums.EmbeddingStatus;
+import com.alibaba.cloud.ai.dataagent.enums.KnowledgeType;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 智能体知识向量化任务调度器，替代原先直接投递到数据库操作线程池的异步监听。
+ * <ul>
+ * <li>任务状态持久化在 agent_knowledge.embedding_status：排队和等待重试期间为 PENDING，执行前以条件更新原子地认领为
+ * PROCESSING，多实例部署时同一任务只会被一个实例执行；执行中定期刷新心跳，心跳超时的任务和内存队列已满时滞留的任务由补偿扫描重新入队</li>
+ * <li>在独立的 knowledgeEmbeddingExecutor 上执行，全局和单个智能体分别限制并发，多个智能体之间轮转出队保证公平</li>
+ * <li>同一智能体内 QA/FAQ 优先于文档，文档按文件大小从小到大执行</li>
+ * <li>失败后按指数退避重试，次数用尽才标记为 FAILED</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class KnowledgeEmbeddingScheduler implements DisposableBean {
+
+	private static final Comparator<EmbeddingJob> JOB_ORDER = Comparator.comparingInt(EmbeddingJob::priority)
+		.thenComparingLong(EmbeddingJob::fileSize)
+		.thenComparingLong(EmbeddingJob::sequence);
+
+	private final AgentKnowledgeMapper agentKnowledgeMapper;
+
+	private final AgentKnowledgeResourceManager agentKnowledgeResourceManager;
+
+	private final DataAgentProperties.KnowledgeEmbedding config;
+
+	private final ExecutorService workers;
+
+	private final ScheduledExecutorService retryTimer;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * 每个智能体的待执行任务，仅包含非空队列
+	 */
+	private final Map<Integer, PriorityQueue<EmbeddingJob>> queuesByAgent = new HashMap<>();
+
+	/**
+	 * 有待执行任务的智能体的轮转顺序
+	 */
+	private final Deque<Integer> agentOrder = new ArrayDeque<>();
+
+	private final Map<Integer, Integer> runningByAgent = new HashMap<>();
+
+	/**
+	 * 已被调度器接管的任务（排队、执行中、等待重试），用于去重和取消
+	 */
+	private final Map<Integer, EmbeddingJob> trackedJobs = new HashMap<>();
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private int queuedJobs;
+
+	private int runningJobs;
+
+	public KnowledgeEmbeddingScheduler(AgentKnowledgeMapper agentKnowledgeMapper,
+			AgentKnowledgeResourceManager agentKnowledgeResourceManager, DataAgentProperties properties,
+			@Qualifier("knowledgeEmbeddingExecutor") ExecutorService workers) {
+		this.agentKnowledgeMapper = agentKnowledgeMapper;
+		this.agentKnowledgeResourceManager = agentKnowledgeResourceManager;
+		this.config = properties.getKnowledgeEmbedding();
+		this.workers = workers;
+		this.retryTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "knowledge-embedding-retry");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * 提交知识向量化任务
+	 * @param knowledge 知识对象，状态应已为 PENDING
+	 * @return 是否进入内存队列；已在调度中视为成功，队列已满时返回 false，任务保持 PENDING 等待补偿扫描
+	 */
+	public boolean submit(AgentKnowledge knowledge) {
+		EmbeddingJob job = new EmbeddingJob(knowledge.getId(), knowledge.getAgentId(), priorityOf(knowledge),
+				knowledge.getFileSize() == null ? 0L : knowledge.getFileSize(), sequence.incrementAndGet(),
+				new AtomicInteger(), new AtomicBoolean(), new AtomicReference<>());
+		lock.lock();
+		try {
+			if (trackedJobs.containsKey(job.knowledgeId())) {
+				log.info("Embedding job already scheduled, knowledgeId: {}", job.knowledgeId());
+				return true;
+			}
+			if (queuedJobs >= config.getMaxQueuedJobs()) {
+				log.warn("Embedding queue is full ({} jobs), knowledgeId {} stays PENDING for recovery scan",
+						queuedJobs, job.knowledgeId());
+				return false;
+			}
+			trackedJobs.put(job.knowledgeId(), job);
+			enqueue(job);
+		}
+		finally {
+			lock.unlock();
+		}
+		dispatch();
+		return true;
+	}
+
+	/**
+	 * 取消任务，例如知识已被删除：排队中的任务直接移除，等待重试的任务不再入队，执行中的任务中断其工作线程
+	 */
+	public void cancel(Integer knowledgeId) {
+		lock.lock();
+		try {
+			EmbeddingJob job = trackedJobs.get(knowledgeId);
+			if (job == null) {
+				return;
+			}
+			job.cancelled().set(true);
+			PriorityQueue<EmbeddingJob> queue = queuesByAgent.get(job.agentId());
+			if (queue != null && queue.remove(job)) {
+				queuedJobs--;
+				trackedJobs.remove(knowledgeId);
+				if (queue.isEmpty()) {
+					queuesByAgent.remove(job.agentId());
+					agentOrder.remove(job.agentId());
+				}
+				log.info("Cancelled queued embedding job, knowledgeId: {}", knowledgeId);
+				return;
+			}
+			// 在锁内中断，保证工作线程仍在执行该任务而不是已转去执行其他任务
+			Thread runner = job.runner().get();
+			if (runner != null) {
+				runner.interrupt();
+				log.info("Interrupted running embedding job, knowledgeId: {}", knowledgeId);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 启动时把心跳已超时的中断任务和滞留的 PENDING 任务重新入队。其他实例仍在执行的任务心跳未超时，不会被重置
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void recoverOnStartup() {
+		resetStaleProcessing();
+		enqueuePending(LocalDateTime.now().plusSeconds(1));
+	}
+
+	/**
+	 * 补偿扫描：刷新本实例执行中任务的心跳，重置心跳超时的任务，并重新入队因队列已满或事件丢失而滞留在 PENDING 的知识
+	 */
+	@Scheduled(fixedDelayString = "${spring.ai.alibaba.data-agent.knowledge-embedding.recovery-interval-millis:60000}",
+			initialDelayString = "${spring.ai.alibaba.data-agent.knowledge-embedding.recovery-interval-millis:60000}")
+	public void recoverPendingJobs() {
+		heartbeat();
+		resetStaleProcessing();
+		enqueuePending(LocalDateTime.now().minusSeconds(config.getPendingRecoverySeconds()));
+	}
+
+	private void heartbeat() {
+		List<Integer> runningIds;
+		lock.lock();
+		try {
+			runningIds = trackedJobs.values()
+				.stream()
+				.filter(job -> job.runner().get() != null)
+				.map(EmbeddingJob::knowledgeId)
+				.toList();
+		}
+		finally {
+			lock.unlock();
+		}
+		if (runningIds.isEmpty()) {
+			return;
+		}
+		try {
+			agentKnowledgeMapper.touchProcessing(runningIds);
+		}
+		catch (Exception e) {
+			log.error("Failed to refresh heartbeat of running embedding jobs {}", runningIds, e);
+		}
+	}
+
+	private void resetStaleProcessing() {
+		try {
+			int reset = agentKnowledgeMapper
+				.resetStaleProcessingToPending(LocalDateTime.now().minusSeconds(config.getProcessingLeaseSeconds()));
+			if (reset > 0) {
+				log.info("Reset {} interrupted embedding jobs to PENDING", reset);
+			}
+		}
+		catch (Exception e) {
+			log.error("Failed to reset interrupted embedding jobs", e);
+		}
+	}
+
+	private void enqueuePending(LocalDateTime beforeTime) {
+		try {
+			List<AgentKnowledge> pending = agentKnowledgeMapper.selectByEmbeddingStatus(EmbeddingStatus.PENDING,
+					beforeTime, config.getRecoveryScanLimit());
+			int submitted = 0;
+			for (AgentKnowledge knowledge : pending) {
+				if (!submit(knowledge)) {
+					break;
+				}
+				submitted++;
+			}
+			if (submitted > 0) {
+				log.info("Recovered {} pending embedding jobs", submitted);
+			}
+		}
+		catch (Exception e) {
+			log.error("Failed to recover pending embedding jobs", e);
+		}
+	}
+
+	private void enqueue(EmbeddingJob job) {
+		PriorityQueue<EmbeddingJob> queue = queuesByAgent.get(job.agentId());
+		if (queue == null) {
+			queue = new PriorityQueue<>(JOB_ORDER);
+			queuesByAgent.put(job.agentId(), queue);
+			agentOrder.addLast(job.agentId());
+		}
+		queue.add(job);
+		queuedJobs++;
+	}
+
+	/**
+	 * 在并发限制内按智能体轮转取出任务交给工作线程
+	 */
+	private void dispatch() {
+		List<EmbeddingJob> toRun = new ArrayList<>();
+		lock.lock();
+		try {
+			int maxRunning = Math.max(1, config.getMaxConcurrentJobs());
+			int maxPerAgent = Math.max(1, config.getMaxConcurrentJobsPerAgent());
+			boolean dispatched = true;
+			while (dispatched && runningJobs < maxRunning) {
+				dispatched = false;
+				int agents = agentOrder.size();
+				for (int i = 0; i < agents && runningJobs < maxRunning; i++) {
+					Integer agentId = agentOrder.pollFirst();
+					PriorityQueue<EmbeddingJob> queue = queuesByAgent.get(agentId);
+					if (runningByAgent.getOrDefault(agentId, 0) < maxPerAgent) {
+						toRun.add(queue.poll());
+						queuedJobs--;
+						runningJobs++;
+						runningByAgent.merge(agentId, 1, Integer::sum);
+						dispatched = true;
+					}
+					if (queue.isEmpty()) {
+						queuesByAgent.remove(agentId);
+					}
+					else {
+						agentOrder.addLast(agentId);
+					}
+				}
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		toRun.forEach(job -> workers.execute(() -> run(job)));
+	}
+
+	private void run(EmbeddingJob job) {
+		boolean finished = true;
+		try {
+			lock.lock();
+			try {
+				if (job.cancelled().get()) {
+					// 出队后、开始执行前被取消
+					return;
+				}
+				job.runner().set(Thread.currentThread());
+			}
+			finally {
+				lock.unlock();
+			}
+			finished = execute(job);
+		}
+		catch (Exception e) {
+			// execute 内部已处理向量化异常，这里兜底状态更新等意外失败，未到终态的任务在重启恢复时重新调度
+			log.error("Unexpected error while running embedding job, knowledgeId: {}", job.knowledgeId(), e);
+		}
+		finally {
+			lock.lock();
+			try {
+				runningJobs--;
+				runningByAgent.computeIfPresent(job.agentId(), (agentId, count) -> count > 1 ? count - 1 : null);
+				job.runner().set(null);
+				// 清除取消时可能留下的中断标记，避免影响工作线程执行后续任务
+				Thread.interrupted();
+				if (finished || job.cancelled().get()) {
+					trackedJobs.remove(job.knowledgeId());
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+			dispatch();
+		}
+	}
+
+	/**
+	 * 执行一次向量化
+	 * @return 任务是否已结束；false 表示已安排重试
+	 */
+	private boolean execute(EmbeddingJob job) {
+		AgentKnowledge knowledge = agentKnowledgeMapper.selectById(job.knowledgeId());
+		if (knowledge == null) {
+			log.warn("Knowledge not found or deleted before embedding, knowledgeId: {}", job.knowledgeId());
+			return true;
+		}
+		if (agentKnowledgeMapper.claimPending(job.knowledgeId()) == 0) {
+			log.info("Embedding job already claimed elsewhere or no longer pending, knowledgeId: {}",
+					job.knowledgeId());
+			return true;
+		}
+		knowledge.setEmbeddingStatus(EmbeddingStatus.PROCESSING);
+		int attempt = job.attempts().incrementAndGet();
+		try {
+			agentKnowledgeResourceManager.doEmbedingToVectorStore(knowledge);
+			if (job.cancelled().get()) {
+				// 执行期间知识已被删除，向量化没有响应中断而正常结束时也不能再写回 COMPLETED
+				log.info("Embedding job cancelled, knowledgeId: {}", job.knowledgeId());
+				return true;
+			}
+			updateStatus(knowledge, EmbeddingStatus.COMPLETED, attempt > 1 ? "" : null);
+			log.info("Successfully embedded knowledge. Id: {}, attempt: {}", job.knowledgeId(), attempt);
+			return true;
+		}
+		catch (Exception e) {
+			if (job.cancelled().get()) {
+				// 知识已删除，不再更新状态或重试
+				log.info("Embedding job cancelled, knowledgeId: {}", job.knowledgeId());
+				return true;
+			}
+			if (attempt < config.getMaxAttempts()) {
+				long backoffMillis = config.getRetryBackoffMillis() << Math.min(attempt - 1, 10);
+				log.warn("Failed to embed knowledge. Id: {}, attempt: {}, retrying in {} ms", job.knowledgeId(),
+						attempt, backoffMillis, e);
+				updateStatus(knowledge, EmbeddingStatus.PENDING,
+						"第" + attempt + "次向量化失败，等待重试：" + e.getMessage());
+				retryTimer.schedule(() -> requeue(job), backoffMillis, TimeUnit.MILLISECONDS);
+				return false;
+			}
+			log.error("Failed to embed knowledge. Id: {}, attempts exhausted: {}", job.knowledgeId(), attempt, e);
+			updateStatus(knowledge, EmbeddingStatus.FAILED, e.getMessage());
+			return true;
+		}
+	}
+
+	private void requeue(EmbeddingJob job) {
+		lock.lock();
+		try {
+			if (job.cancelled().get()) {
+				trackedJobs.remove(job.knowledgeId());
+				return;
+			}
+			enqueue(job);
+		}
+		finally {
+			lock.unlock();
+		}
+		dispatch();
+	}
+
+	private void updateStatus(AgentKnowledge knowledge, EmbeddingStatus status, String errorMsg) {
+		knowledge.setEmbeddingStatus(status);
+		knowledge.setUpdatedTime(LocalDateTime.now());
+		if (errorMsg != null) {
+			// 截断错误信息防止数据库报错
+			knowledge.setErrorMsg(errorMsg.length() > 250 ? errorMsg.substring(0, 250) : errorMsg);
+		}
+		agentKnowledgeMapper.update(knowledge);
+	}
+
+	private static int priorityOf(AgentKnowledge knowledge) {
+		return KnowledgeType.DOCUMENT.equals(knowledge.getType()) ? 1 : 0;
+	}
+
+	@Override
+	public void destroy() {
+		retryTimer.shutdownNow();
+		workers.shutdown();
+		try {
+			if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+				// 未完成的任务保持 PROCESSING，心跳超时后由补偿扫描重置并重新入队
+				workers.shutdownNow();
+			}
+		}
+		catch (InterruptedException e) {
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @param cancelled 是否已取消
+	 * @param runner 正在执行该任务的工作线程，用于取消时中断
+	 */
+	private record EmbeddingJob(Integer knowledgeId, Integer agentId, int priority, long fileSize, long sequence,
+			AtomicInteger attempts, AtomicBoolean cancelled, AtomicReference<Thread> runner) {
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
+import com.alibaba.cloud.ai.dataagent.util.DocumentConverterUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.transformer.splitter.TextSplitter;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 文档类知识的流式向量化流水线：流式解析 -> 逐段分块 -> 按 {@link BatchingStrategy} 的token上限分批嵌入写入。
+ * 任意时刻内存中只保留一个解析段和尚未写入的分块，每次写入对应一次大小受限的嵌入请求。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KnowledgeIngestionPipeline {
+
+	private static final String SOURCE_METADATA_KEY = "source";
+
+	private final TextSplitterFactory textSplitterFactory;
+
+	private final AgentVectorStoreService agentVectorStoreService;
+
+	private final BatchingStrategy batchingStrategy;
+
+	private final DataAgentProperties dataAgentProperties;
+
+	private final KnowledgeIngestionProgressTracker progressTracker;
+
+	private final EmbeddingRateLimiter embeddingRateLimiter;
+
+	/**
+	 * 流式处理一个文档类知识文件，调用前需已删除该知识的旧向量
+	 * @param knowledge 知识对象
+	 * @param resource 文件资源
+	 * @return 写入向量库的分块数量
+	 */
+	public int ingest(AgentKnowledge knowledge, Resource resource) throws Exception {
+		DataAgentProperties.KnowledgeIngestion config = dataAgentProperties.getKnowledgeIngestion();
+		KnowledgeIngestionProgressTracker.Progress progress = progressTracker.start(knowledge.getId());
+		TextSplitter splitter = textSplitterFactory.getSplitter(knowledge.getSplitterType());
+		String agentId = knowledge.getAgentId().toString();
+		int flushChunkCount = Math.max(config.getFlushChunkCount(), 1);
+
+		Map<String, Object> sourceMetadata = new HashMap<>();
+		if (StringUtils.hasText(resource.getFilename())) {
+			sourceMetadata.put(SOURCE_METADATA_KEY, resource.getFilename());
+		}
+
+		List<Document> pending = new ArrayList<>();
+		// 自上次写入后新增的分块数；上次留下的未满批次不计入，否则它本身较大时每个解析段都会触发一次重新分批
+		AtomicInteger added = new AtomicInteger();
+		try {
+			new StreamingTikaTextReader(config.getSegmentChars()).read(resource, segment -> {
+				progress.segmentParsed(segment.length());
+				List<Document> chunks = splitter.apply(List.of(new Document(segment, sourceMetadata)));
+				progress.chunksSplit(chunks.size());
+				pending.addAll(DocumentConverterUtil.convertAgentKnowledgeDocumentsWithMetadata(chunks, knowledge));
+				if (added.addAndGet(chunks.size()) >= flushChunkCount) {
+					flush(agentId, pending, false, progress);
+					added.set(0);
+				}
+			});
+			flush(agentId, pending, true, progress);
+
+			if (progress.getStoredChunks() == 0) {
+				throw new RuntimeException("No documents extracted from file");
+			}
+			progress.complete();
+			log.info("Streamed DOCUMENT knowledge into vector store: id={}, progress={}", knowledge.getId(),
+					progress.snapshot());
+			return progress.getStoredChunks();
+		}
+		catch (Exception e) {
+			// 召回不按向量化状态过滤，失败前已写入的分块必须删除，否则失败的知识仍会以不完整的内容参与召回
+			deleteStoredChunks(knowledge, agentId);
+			progress.fail(e.getMessage());
+			throw e;
+		}
+	}
+
+	private void deleteStoredChunks(AgentKnowledge knowledge, String agentId) {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put(Constant.AGENT_ID, agentId);
+		metadata.put(DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID, knowledge.getId());
+		try {
+			agentVectorStoreService.deleteDocumentsByMetedata(agentId, metadata);
+		}
+		catch (Exception e) {
+			// 删除失败不掩盖原始异常，残留分块在重试或重新向量化前按知识ID删除
+			log.error("Failed to delete partially stored chunks, knowledgeId: {}", knowledge.getId(), e);
+		}
+	}
+
+	/**
+	 * 按批处理策略切分积压的分块并写入向量库
+	 * @param drain true时写完全部批次；false时保留最后一个批次，留待与后续分块合并成更满的批次
+	 */
+	private void flush(String agentId, List<Document> pending, boolean drain,
+			KnowledgeIngestionProgressTracker.Progress progress) {
+		if (pending.isEmpty()) {
+			return;
+		}
+		List<List<Document>> batches = batchingStrategy.batch(pending);
+		int writeCount = drain ? batches.size() : batches.size() - 1;
+		for (int i = 0; i < writeCount; i++) {
+			List<Document> batch = batches.get(i);
+			embeddingRateLimiter.acquire();
+			agentVectorStoreService.addDocuments(agentId, new ArrayList<>(batch));
+			progress.batchStored(batch.size());
+		}
+		List<Document> remainder = new ArrayList<>();
+		for (int i = writeCount; i < batches.size(); i++) {
+			remainder.addAll(batches.get(i));
+		}
+		pending.clear();
+		pending.addAll(remainder);
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.vo.KnowledgeIngestionProgressVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 记录每条文档类知识最近一次向量化的进度，结束后保留最终状态 progressRetentionSeconds 秒供前端查询，之后移除
+ */
+@Component
+public class KnowledgeIngestionProgressTracker {
+
+	private final Map<Integer, Progress> progresses = new ConcurrentHashMap<>();
+
+	/**
+	 * 延迟移除已结束进度的执行器
+	 */
+	private final Executor evictionExecutor;
+
+	@Autowired
+	public KnowledgeIngestionProgressTracker(DataAgentProperties properties) {
+		this(CompletableFuture.delayedExecutor(
+				Math.max(0, properties.getKnowledgeIngestion().getProgressRetentionSeconds()), TimeUnit.SECONDS));
+	}
+
+	KnowledgeIngestionProgressTracker(Executor evictionExecutor) {
+		this.evictionExecutor = evictionExecutor;
+	}
+
+	public Progress start(Integer knowledgeId) {
+		Progress progress = new Progress(knowledgeId, this::finished);
+		progresses.put(knowledgeId, progress);
+		return progress;
+	}
+
+	public Optional<KnowledgeIngestionProgressVO> getProgress(Integer knowledgeId) {
+		return Optional.ofNullable(progresses.get(knowledgeId)).map(Progress::snapshot);
+	}
+
+	public void remove(Integer knowledgeId) {
+		progresses.remove(knowledgeId);
+	}
+
+	private void finished(Progress progress) {
+		// 只移除本次进度，期间重新开始的向量化不受影响
+		evictionExecutor.execute(() -> progresses.remove(progress.knowledgeId, progress));
+	}
+
+	public static final class Progress {
+
+		private final Integer knowledgeId;
+
+		private final long startTime = System.currentTimeMillis();
+
+		private final AtomicInteger parsedSegments = new AtomicInteger();
+
+		private final AtomicLong parsedChars = new AtomicLong();
+
+		private final AtomicInteger splitChunks = new AtomicInteger();
+
+		private final AtomicInteger storedChunks = new AtomicInteger();
+
+		private final AtomicInteger storedBatches = new AtomicInteger();
+
+		private volatile String status = KnowledgeIngestionProgressVO.STATUS_RUNNING;
+
+		private volatile String message;
+
+		private volatile Long endTime;
+
+		private final Consumer<Progress> onFinished;
+
+		private Progress(Integer knowledgeId, Consumer<Progress> onFinished) {
+			this.knowledgeId = knowledgeId;
+			this.onFinished = onFinished;
+		}
+
+		public void segmentParsed(int chars) {
+			parsedSegments.incrementAndGet();
+			parsedChars.addAndGet(chars);
+		}
+
+		public void chunksSplit(int count) {
+			splitChunks.addAndGet(count);
+		}
+
+		public void batchStored(int chunkCount) {
+			storedBatches.incrementAndGet();
+			storedChunks.addAndGet(chunkCount);
+		}
+
+		public void complete() {
+			endTime = System.currentTimeMillis();
+			status = KnowledgeIngestionProgressVO.STATUS_SUCCESS;
+			onFinished.accept(this);
+		}
+
+		public void fail(String reason) {
+			endTime = System.currentTimeMillis();
+			message = reason;
+			status = KnowledgeIngestionProgressVO.STATUS_FAILED;
+			onFinished.accept(this);
+		}
+
+		public int getStoredChunks() {
+			return storedChunks.get();
+		}
+
+		public KnowledgeIngestionProgressVO snapshot() {
+			return KnowledgeIngestionProgressVO.builder()
+				.knowledgeId(knowledgeId)
+				.status(status)
+				.parsedSegments(parsedSegments.get())
+				.parsedChars(parsedChars.get())
+				.splitChunks(splitChunks.get())
+				.storedChunks(storedChunks.get())
+				.storedBatches(storedBatches.get())
+				.message(message)
+				.startTime(startTime)
+				.endTime(endTime)
+				.build();
+		}
+
+	}
+
+}
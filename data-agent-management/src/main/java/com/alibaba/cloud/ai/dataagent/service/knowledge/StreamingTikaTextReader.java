@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.springframework.ai.reader.ExtractedTextFormatter;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * 基于Tika SAX事件的流式文本读取器。与 {@code TikaDocumentReader} 一次性把全文读入内存不同，
+ * 这里边解析边累积文本，攒够约 segmentChars 个字符就在最近的换行处截断并交给回调， 单次驻留内存的文本量与文件大小无关。
+ */
+public class StreamingTikaTextReader {
+
+	private static final String HEAD_ELEMENT = "head";
+
+	private final Parser parser = new AutoDetectParser();
+
+	private final ExtractedTextFormatter textFormatter = ExtractedTextFormatter.defaults();
+
+	private final int segmentChars;
+
+	public StreamingTikaTextReader(int segmentChars) {
+		this.segmentChars = Math.max(segmentChars, 1000);
+	}
+
+	/**
+	 * 解析资源并按段回调，回调在解析线程中同步执行，回调返回前解析暂停，天然形成背压
+	 * @param resource 文件资源
+	 * @param segmentConsumer 文本段回调，空白段不会回调
+	 */
+	public void read(Resource resource, Consumer<String> segmentConsumer) throws Exception {
+		Metadata metadata = new Metadata();
+		if (StringUtils.hasText(resource.getFilename())) {
+			metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, resource.getFilename());
+		}
+		SegmentingHandler handler = new SegmentingHandler(segmentConsumer);
+		try (InputStream inputStream = resource.getInputStream()) {
+			parser.parse(inputStream, handler, metadata, new ParseContext());
+		}
+		catch (Exception e) {
+			// 回调异常会被Tika包装，这里还原为原始异常
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof SegmentConsumerException consumerException) {
+					throw consumerException.failure;
+				}
+			}
+			throw e;
+		}
+		handler.flush();
+	}
+
+	private final class SegmentingHandler extends DefaultHandler {
+
+		private final Consumer<String> segmentConsumer;
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		/**
+		 * 当前所在的 head 元素层数，head 中的 title、meta 等不属于正文
+		 */
+		private int headDepth;
+
+		private SegmentingHandler(Consumer<String> segmentConsumer) {
+			this.segmentConsumer = segmentConsumer;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			if (isHead(localName, qName)) {
+				headDepth++;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			if (isHead(localName, qName) && headDepth > 0) {
+				headDepth--;
+			}
+		}
+
+		private static boolean isHead(String localName, String qName) {
+			return HEAD_ELEMENT.equalsIgnoreCase(StringUtils.hasText(localName) ? localName : qName);
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException {
+			if (headDepth > 0) {
+				return;
+			}
+			buffer.append(ch, start, length);
+			if (buffer.length() >= segmentChars) {
+				emitSegment();
+			}
+		}
+
+		@Override
+		public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+			characters(ch, start, length);
+		}
+
+		private void emitSegment() throws SAXException {
+			// 优先在后半段最近的换行处截断，避免把段落切开；找不到时退而求其次在空白处截断
+			int cut = buffer.lastIndexOf("\n");
+			if (cut < segmentChars / 2) {
+				cut = lastWhitespace(segmentChars / 2);
+			}
+			if (cut < segmentChars / 2) {
+				cut = buffer.length() - 1;
+			}
+			String segment = buffer.substring(0, cut + 1);
+			buffer.delete(0, cut + 1);
+			try {
+				accept(segment);
+			}
+			catch (RuntimeException e) {
+				throw new SegmentConsumerException(e);
+			}
+		}
+
+		private int lastWhitespace(int from) {
+			for (int i = buffer.length() - 1; i >= from; i--) {
+				if (Character.isWhitespace(buffer.charAt(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void flush() {
+			if (!buffer.isEmpty()) {
+				String segment = buffer.toString();
+				buffer.setLength(0);
+				accept(segment);
+			}
+		}
+
+		private void accept(String segment) {
+			String text = textFormatter.format(segment);
+			if (StringUtils.hasText(text)) {
+				segmentConsumer.accept(text);
+			}
+		}
+
+	}
+
+	private static final class SegmentConsumerException extends SAXException {
+
+		private final RuntimeException failure;
+
+		private SegmentConsumerException(RuntimeException failure) {
+			super(failure);
+			this.failure = failure;
+		}
+
+	}
+
+}
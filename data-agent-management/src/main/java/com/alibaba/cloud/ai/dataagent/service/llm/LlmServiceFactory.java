@@ -19,31 +19,76 @@ import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.AiModelRegistry;
 import com.alibaba.cloud.ai.dataagent.service.llm.impls.BlockLlmService;
 import com.alibaba.cloud.ai.dataagent.service.llm.impls.StreamLlmService;
-import lombok.AllArgsConstructor;
+import com.alibaba.cloud.ai.dataagent.util.VirtualThreadUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Component
-@AllArgsConstructor
-public class LlmServiceFactory implements FactoryBean<LlmService> {
+@RequiredArgsConstructor
+public class LlmServiceFactory implements FactoryBean<LlmService>, DisposableBean {
 
 	private final DataAgentProperties properties;
 
 	private final AiModelRegistry aiModelRegistry;
 
+	/**
+	 * 虚拟线程模式下执行阻塞式调用的执行器，随本Bean销毁而关闭
+	 */
+	private ExecutorService blockingCallExecutor;
+
 	@Override
 	public LlmService getObject() {
 		if (LlmServiceEnum.BLOCK.equals(properties.getLlmServiceType())) {
-			return new BlockLlmService(aiModelRegistry);
+			return new BlockLlmService(aiModelRegistry, blockingCallScheduler());
 		}
 		else {
 			return new StreamLlmService(aiModelRegistry);
 		}
 	}
 
+	/**
+	 * 虚拟线程模式下阻塞式调用在虚拟线程上执行，否则保持在订阅线程上执行
+	 */
+	private Scheduler blockingCallScheduler() {
+		if (properties.isEnableVirtualThreads() && VirtualThreadUtil.isSupported()) {
+			log.info("Blocking LLM calls will run on virtual threads");
+			this.blockingCallExecutor = VirtualThreadUtil.newVirtualThreadExecutor("llm-call-");
+			return Schedulers.fromExecutorService(blockingCallExecutor, "llm-call");
+		}
+		return Schedulers.immediate();
+	}
+
 	@Override
 	public Class<?> getObjectType() {
 		return LlmService.class;
 	}
 
+	@Override
+	public void destroy() {
+		if (blockingCallExecutor == null || blockingCallExecutor.isShutdown()) {
+			return;
+		}
+		log.info("Shutting down blocking LLM call executor...");
+		blockingCallExecutor.shutdown();
+		try {
+			if (!blockingCallExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+				log.warn("Blocking LLM call executor did not terminate in 30s. Forcing shutdown...");
+				blockingCallExecutor.shutdownNow();
+			}
+		}
+		catch (InterruptedException e) {
+			blockingCallExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
 }
@@ -21,27 +21,38 @@ import lombok.AllArgsConstructor;
 import org.springframework.ai.chat.model.ChatResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @AllArgsConstructor
 public class BlockLlmService implements LlmService {
 
 	private final AiModelRegistry registry;
 
+	/**
+	 * 执行阻塞式调用的调度器，默认在订阅线程上直接执行
+	 */
+	private final Scheduler scheduler;
+
 	@Override
 	public Flux<ChatResponse> call(String system, String user) {
 		return Mono
 			.fromCallable(() -> registry.getChatClient().prompt().system(system).user(user).call().chatResponse())
+			.subscribeOn(scheduler)
 			.flux();
 	}
 
 	@Override
 	public Flux<ChatResponse> callSystem(String system) {
-		return Mono.fromCallable(() -> registry.getChatClient().prompt().system(system).call().chatResponse()).flux();
+		return Mono.fromCallable(() -> registry.getChatClient().prompt().system(system).call().chatResponse())
+			.subscribeOn(scheduler)
+			.flux();
 	}
 
 	@Override
 	public Flux<ChatResponse> callUser(String user) {
-		return Mono.fromCallable(() -> registry.getChatClient().prompt().user(user).call().chatResponse()).flux();
+		return Mono.fromCallable(() -> registry.getChatClient().prompt().user(user).call().chatResponse())
+			.subscribeOn(scheduler)
+			.flux();
 	}
 
 }
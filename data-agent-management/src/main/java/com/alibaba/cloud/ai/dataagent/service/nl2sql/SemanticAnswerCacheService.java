@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.nl2sql;
+
+import com.alibaba.cloud.ai.dataagent.dto.planner.ExecutionStep;
+import com.alibaba.cloud.ai.dataagent.dto.planner.Plan;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.REPORT_GENERATOR_NODE;
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_GENERATE_NODE;
+
+/**
+ * NL2SQL语义答案缓存。以规范化问题的向量为key，缓存智能体在当前激活数据源上最终执行成功的SQL和执行计划，
+ * 相似问题命中后可直接跳到SQL执行节点。数据源重新初始化时整体失效。
+ */
+public interface SemanticAnswerCacheService {
+
+	boolean isEnabled();
+
+	/**
+	 * 按规范化问题查找缓存答案，只返回属于智能体当前激活数据源且相似度达到阈值的条目
+	 */
+	Optional<CachedAnswer> lookup(String agentId, String canonicalQuery);
+
+	/**
+	 * 缓存执行成功的SQL和执行计划，相同问题重复写入时覆盖原条目
+	 */
+	void store(String agentId, String canonicalQuery, String sql, String plan);
+
+	/**
+	 * 删除某个缓存条目，用于命中的SQL执行失败时
+	 */
+	void evict(String agentId, String entryId);
+
+	/**
+	 * 清理某个数据源下的全部缓存答案
+	 */
+	void invalidateDatasource(Integer datasourceId);
+
+	/**
+	 * 只有单条SQL（可带报告）的计划才能缓存，包含Python分析等步骤的计划命中后无法跳过对应节点
+	 */
+	default boolean isCacheablePlan(Plan plan) {
+		if (plan == null || plan.getExecutionPlan() == null) {
+			return false;
+		}
+		List<ExecutionStep> steps = plan.getExecutionPlan();
+		long sqlSteps = steps.stream().filter(step -> SQL_GENERATE_NODE.equals(step.getToolToUse())).count();
+		boolean othersAreReport = steps.stream()
+			.allMatch(step -> SQL_GENERATE_NODE.equals(step.getToolToUse())
+					|| REPORT_GENERATOR_NODE.equals(step.getToolToUse()));
+		return sqlSteps == 1 && othersAreReport && SQL_GENERATE_NODE.equals(steps.get(0).getToolToUse());
+	}
+
+	record CachedAnswer(String id, String sql, String plan) {
+	}
+
+}
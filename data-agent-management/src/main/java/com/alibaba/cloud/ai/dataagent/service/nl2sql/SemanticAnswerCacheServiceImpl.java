@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.nl2sql;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.dto.search.AgentSearchRequest;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentDatasourceMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.ai.document.Document;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class SemanticAnswerCacheServiceImpl implements SemanticAnswerCacheService {
+
+	/**
+	 * 问题中的字面量：引号内的文本、数字和日期，以及英文单词（通常是实体名或代码）
+	 */
+	private static final Pattern QUERY_LITERAL = Pattern.compile(
+			"'([^']*)'|\"([^\"]*)\"|“([^”]*)”|‘([^’]*)’|「([^」]*)」|(\\d+(?:[.\\-/:]\\d+)*%?)|([A-Za-z][A-Za-z0-9_]*)");
+
+	/**
+	 * SQL中的字符串字面量，支持 '' 转义
+	 */
+	private static final Pattern SQL_STRING_LITERAL = Pattern.compile("'((?:[^']|'')*)'");
+
+	private final AgentVectorStoreService agentVectorStoreService;
+
+	private final AgentDatasourceMapper agentDatasourceMapper;
+
+	private final DataAgentProperties dataAgentProperties;
+
+	@Override
+	public boolean isEnabled() {
+		return dataAgentProperties.getSemanticCache().isEnabled();
+	}
+
+	@Override
+	public Optional<CachedAnswer> lookup(String agentId, String canonicalQuery) {
+		if (!isEnabled() || StringUtils.isAnyBlank(agentId, canonicalQuery)) {
+			return Optional.empty();
+		}
+		try {
+			Integer datasourceId = agentDatasourceMapper.selectActiveDatasourceIdByAgentId(Long.valueOf(agentId));
+			if (datasourceId == null) {
+				return Optional.empty();
+			}
+			DataAgentProperties.SemanticCache config = dataAgentProperties.getSemanticCache();
+			AgentSearchRequest searchRequest = AgentSearchRequest.builder()
+				.agentId(agentId)
+				.docVectorType(DocumentMetadataConstant.SEMANTIC_CACHE)
+				.query(canonicalQuery)
+				.topK(config.getTopK())
+				.similarityThreshold(config.getSimilarityThreshold())
+				.build();
+			List<Document> candidates = agentVectorStoreService.vectorSearch(searchRequest);
+			for (Document document : candidates) {
+				Map<String, Object> metadata = document.getMetadata();
+				if (!datasourceId.toString().equals(metadata.get(Constant.DATASOURCE_ID))) {
+					continue;
+				}
+				String sql = (String) metadata.get(DocumentMetadataConstant.CACHED_SQL);
+				String plan = (String) metadata.get(DocumentMetadataConstant.CACHED_PLAN);
+				if (StringUtils.isAnyBlank(sql, plan)) {
+					continue;
+				}
+				// 向量相似只说明问题意图相近，字面量不同（如不同城市、年份）时SQL不能复用
+				if (!literalsMatch(canonicalQuery, document.getText(), sql)) {
+					log.debug("Semantic cache candidate {} skipped for agent {}: literals differ", document.getId(),
+							agentId);
+					continue;
+				}
+				log.info("Semantic cache hit for agent {}, query: {}, score: {}", agentId, canonicalQuery,
+						document.getScore());
+				return Optional.of(new CachedAnswer(document.getId(), sql, plan));
+			}
+		}
+		catch (Exception e) {
+			// 缓存不可用时按未命中处理，不影响正常流程
+			log.warn("Failed to lookup semantic cache for agent {}", agentId, e);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * 判断缓存的SQL能否用于新问题：两个问题中的字面量须按顺序完全一致，且缓存SQL中的字符串字面量都出现在新问题中，
+	 * 后者用于识别没有引号的中文实体（如城市、商品名）
+	 * @param query 新问题
+	 * @param cachedQuery 缓存条目对应的问题
+	 * @param cachedSql 缓存的SQL
+	 * @return 字面量一致时返回true
+	 */
+	static boolean literalsMatch(String query, String cachedQuery, String cachedSql) {
+		if (cachedQuery == null || !extractLiterals(query).equals(extractLiterals(cachedQuery))) {
+			return false;
+		}
+		String normalizedQuery = query.toLowerCase(Locale.ROOT);
+		Matcher matcher = SQL_STRING_LITERAL.matcher(cachedSql);
+		while (matcher.find()) {
+			String literal = matcher.group(1).replace("''", "'").trim().toLowerCase(Locale.ROOT);
+			if (!literal.isEmpty() && !normalizedQuery.contains(literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static List<String> extractLiterals(String query) {
+		List<String> literals = new ArrayList<>();
+		Matcher matcher = QUERY_LITERAL.matcher(query);
+		while (matcher.find()) {
+			for (int i = 1; i <= matcher.groupCount(); i++) {
+				if (matcher.group(i) != null) {
+					literals.add(matcher.group(i).trim().toLowerCase(Locale.ROOT));
+					break;
+				}
+			}
+		}
+		return literals;
+	}
+
+	@Async("dbOperationExecutor")
+	@Override
+	public void store(String agentId, String canonicalQuery, String sql, String plan) {
+		if (!isEnabled() || StringUtils.isAnyBlank(agentId, canonicalQuery, sql, plan)) {
+			return;
+		}
+		try {
+			Integer datasourceId = agentDatasourceMapper.selectActiveDatasourceIdByAgentId(Long.valueOf(agentId));
+			if (datasourceId == null) {
+				return;
+			}
+			// 相同智能体、数据源和问题生成固定id，重复写入时覆盖
+			String id = UUID
+				.nameUUIDFromBytes(String.join(":", DocumentMetadataConstant.SEMANTIC_CACHE, agentId,
+						datasourceId.toString(), canonicalQuery)
+					.getBytes(StandardCharsets.UTF_8))
+				.toString();
+			Map<String, Object> metadata = new HashMap<>();
+			metadata.put(Constant.AGENT_ID, agentId);
+			metadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
+			metadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.SEMANTIC_CACHE);
+			metadata.put(DocumentMetadataConstant.SEMANTIC_CACHE_ID, id);
+			metadata.put(DocumentMetadataConstant.CACHED_SQL, sql);
+			metadata.put(DocumentMetadataConstant.CACHED_PLAN, plan);
+			agentVectorStoreService.addDocuments(agentId, List.of(new Document(id, canonicalQuery, metadata)));
+			log.debug("Stored semantic cache entry {} for agent {}", id, agentId);
+		}
+		catch (Exception e) {
+			log.warn("Failed to store semantic cache for agent {}", agentId, e);
+		}
+	}
+
+	@Override
+	public void evict(String agentId, String entryId) {
+		if (StringUtils.isAnyBlank(agentId, entryId)) {
+			return;
+		}
+		try {
+			Map<String, Object> metadata = new HashMap<>();
+			metadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.SEMANTIC_CACHE);
+			metadata.put(DocumentMetadataConstant.SEMANTIC_CACHE_ID, entryId);
+			agentVectorStoreService.deleteDocumentsByMetedata(agentId, metadata);
+			log.info("Evicted semantic cache entry {} for agent {}", entryId, agentId);
+		}
+		catch (Exception e) {
+			log.warn("Failed to evict semantic cache entry {} for agent {}", entryId, agentId, e);
+		}
+	}
+
+	@Override
+	public void invalidateDatasource(Integer datasourceId) {
+		if (datasourceId == null) {
+			return;
+		}
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.SEMANTIC_CACHE);
+		metadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
+		agentVectorStoreService.deleteDocumentsByMetadata(metadata);
+		log.info("Invalidated semantic cache for datasource {}", datasourceId);
+	}
+
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.connector.DbQueryParameter;
+import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
+import com.alibaba.cloud.ai.dataagent.enums.BizDataSourceTypeEnum;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.util.SqlUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 按数据源方言采集列样本数据。
+ *
+ * <p>
+ * 只投影需要采样的列（跳过二进制、空间等类型，超宽表只取前 maxColumns 列）；优先使用原生块采样，
+ * 样本不足时再按行数限制读取；Hive分区表只读取最新分区。单表采样受时间预算约束，结果按表结构缓存， 重复初始化时直接复用。
+ */
+@Slf4j
+@Component
+public class ColumnSampler {
+
+	/**
+	 * Hive 为分区列取值为 NULL 的数据使用的默认分区名
+	 */
+	private static final String HIVE_DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+
+	/**
+	 * 分区值中常见的日期格式，月、日、时、分允许不补零
+	 */
+	private static final DateTimeFormatter PARTITION_DATE_FORMAT = DateTimeFormatter
+		.ofPattern("uuuu-M-d[ H:m[:s]]", Locale.ROOT);
+
+	/**
+	 * 样本对理解列含义没有帮助、读取代价又高的列类型
+	 */
+	private static final List<String> UNSAMPLED_TYPE_KEYWORDS = List.of("blob", "binary", "bytea", "image", "raw",
+			"bfile", "geometry", "geography", "varbit");
+
+	/**
+	 * 每列最多保留的样本数
+	 */
+	private static final int MAX_SAMPLES_PER_COLUMN = 3;
+
+	/**
+	 * 单个样本值的最大长度，超长的值不作为样本
+	 */
+	private static final int MAX_SAMPLE_LENGTH = 100;
+
+	private final DataAgentProperties.ColumnSampling config;
+
+	private final LinkedHashMap<CacheKey, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	public ColumnSampler(DataAgentProperties properties) {
+		this.config = properties.getColumnSampling();
+	}
+
+	/**
+	 * 采集一张表的列样本数据
+	 * @param dbConfig 数据库配置
+	 * @param accessor 数据库访问器
+	 * @param tableName 表名
+	 * @param columns 表的列信息
+	 * @return 列名到样本值的映射，采样失败时返回空映射
+	 */
+	public Map<String, List<String>> sample(DbConfigBO dbConfig, Accessor accessor, String tableName,
+			List<ColumnInfoBO> columns) {
+		List<ColumnInfoBO> profiledColumns = selectProfiledColumns(columns);
+		if (profiledColumns.isEmpty()) {
+			return new HashMap<>();
+		}
+
+		CacheKey key = CacheKey.of(dbConfig, tableName, profiledColumns, config.getSampleRows());
+		Map<String, List<String>> cached = getCached(key);
+		if (cached != null) {
+			log.debug("Column sample cache hit for table: {}", tableName);
+			return cached;
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(1, config.getTimeBudgetSeconds()));
+		String typeName = dbConfig.getDialectType();
+		String columnNames = profiledColumns.stream().map(ColumnInfoBO::getName).collect(Collectors.joining(", "));
+		try {
+			String partitionFilter = null;
+			if (config.isHivePartitionPruning() && BizDataSourceTypeEnum.isHiveDialect(typeName)) {
+				partitionFilter = latestPartitionFilter(dbConfig, accessor, tableName, deadline);
+			}
+
+			List<Map<String, String>> rows = List.of();
+			String sampleSql = null;
+			if (config.isNativeSamplingEnabled() && partitionFilter == null) {
+				sampleSql = SqlUtil.buildSampleSql(typeName, tableName, columnNames, config.getSampleRows(),
+						config.getSamplePercent());
+			}
+			if (sampleSql != null) {
+				try {
+					rows = query(dbConfig, accessor, sampleSql, deadline);
+				}
+				catch (Exception e) {
+					// 视图等对象不支持原生采样，回退为按行数限制读取
+					log.debug("Native sampling failed for table: {}, fall back to limited read: {}", tableName,
+							e.getMessage());
+				}
+			}
+			// 小表的块采样可能取不到足够的行
+			if (rows.size() < config.getSampleRows() && remainingSeconds(deadline) > 0) {
+				rows = query(dbConfig, accessor, SqlUtil.buildSelectSql(typeName, tableName, columnNames,
+						partitionFilter, config.getSampleRows()), deadline);
+			}
+			log.info("Sampled table: {}, result size: {}", tableName, rows.size());
+
+			Map<String, List<String>> samples = toColumnSamples(rows, profiledColumns);
+			putCached(key, samples);
+			return samples;
+		}
+		catch (Exception e) {
+			log.error("Failed to fetch sample data for table: {},use empty map as default value", tableName, e);
+			return new HashMap<>();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			cache.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private List<ColumnInfoBO> selectProfiledColumns(List<ColumnInfoBO> columns) {
+		return columns.stream()
+			.filter(column -> StringUtils.isNotBlank(column.getName()))
+			.filter(column -> !isUnsampledType(column.getType()))
+			.limit(Math.max(1, config.getMaxColumns()))
+			.toList();
+	}
+
+	static boolean isUnsampledType(String type) {
+		if (type == null) {
+			return false;
+		}
+		String lowerType = type.toLowerCase(Locale.ROOT);
+		return UNSAMPLED_TYPE_KEYWORDS.stream().anyMatch(lowerType::contains);
+	}
+
+	/**
+	 * 查询Hive表的最新分区并生成过滤条件，非分区表返回null
+	 */
+	private String latestPartitionFilter(DbConfigBO dbConfig, Accessor accessor, String tableName, long deadline) {
+		List<Map<String, String>> partitions;
+		try {
+			partitions = query(dbConfig, accessor, "SHOW PARTITIONS " + tableName, deadline);
+		}
+		catch (Exception e) {
+			log.debug("Table {} is not partitioned or partitions are not accessible: {}", tableName, e.getMessage());
+			return null;
+		}
+		return partitions.stream()
+			.map(row -> row.values().stream().filter(StringUtils::isNotBlank).findFirst().orElse(null))
+			.filter(Objects::nonNull)
+			.max(ColumnSampler::comparePartitionSpecs)
+			.map(ColumnSampler::toPartitionFilter)
+			.orElse(null);
+	}
+
+	/**
+	 * 按分区层级依次比较两个分区规格，数值和日期按类型比较（如 hr=8 早于 hr=10），默认分区最早
+	 */
+	static int comparePartitionSpecs(String left, String right) {
+		String[] leftParts = left.split("/");
+		String[] rightParts = right.split("/");
+		for (int i = 0; i < Math.min(leftParts.length, rightParts.length); i++) {
+			int result = comparePartitionValues(partitionValue(leftParts[i]), partitionValue(rightParts[i]));
+			if (result != 0) {
+				return result;
+			}
+		}
+		return Integer.compare(leftParts.length, rightParts.length);
+	}
+
+	private static String partitionValue(String part) {
+		return unescapePartitionValue(part.substring(part.indexOf('=') + 1));
+	}
+
+	private static int comparePartitionValues(String left, String right) {
+		boolean leftDefault = HIVE_DEFAULT_PARTITION.equals(left);
+		boolean rightDefault = HIVE_DEFAULT_PARTITION.equals(right);
+		if (leftDefault || rightDefault) {
+			return Boolean.compare(rightDefault, leftDefault);
+		}
+		BigDecimal leftNumber = toNumber(left);
+		BigDecimal rightNumber = toNumber(right);
+		if (leftNumber != null && rightNumber != null) {
+			return leftNumber.compareTo(rightNumber);
+		}
+		LocalDateTime leftTime = toDateTime(left);
+		LocalDateTime rightTime = toDateTime(right);
+		if (leftTime != null && rightTime != null) {
+			return leftTime.compareTo(rightTime);
+		}
+		return left.compareTo(right);
+	}
+
+	private static BigDecimal toNumber(String value) {
+		try {
+			return new BigDecimal(value.trim());
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static LocalDateTime toDateTime(String value) {
+		try {
+			TemporalAccessor parsed = PARTITION_DATE_FORMAT.parseBest(value.trim(), LocalDateTime::from,
+					LocalDate::from);
+			return parsed instanceof LocalDate date ? date.atStartOfDay() : (LocalDateTime) parsed;
+		}
+		catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 将 SHOW PARTITIONS 返回的分区规格（如 dt=2024-01-01/hr=08）转换为过滤条件
+	 */
+	static String toPartitionFilter(String partitionSpec) {
+		List<String> conditions = new ArrayList<>();
+		for (String part : partitionSpec.split("/")) {
+			int index = part.indexOf('=');
+			if (index <= 0) {
+				return null;
+			}
+			String value = unescapePartitionValue(part.substring(index + 1)).replace("'", "''");
+			conditions.add(part.substring(0, index) + "='" + value + "'");
+		}
+		return conditions.isEmpty() ? null : String.join(" AND ", conditions);
+	}
+
+	/**
+	 * Hive在分区路径中以 %XX 转义特殊字符
+	 */
+	private static String unescapePartitionValue(String value) {
+		if (value.indexOf('%') < 0) {
+			return value;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '%' && i + 2 < value.length() && isHex(value.charAt(i + 1)) && isHex(value.charAt(i + 2))) {
+				bytes.write(Integer.parseInt(value.substring(i + 1, i + 3), 16));
+				i += 2;
+			}
+			else {
+				int codePoint = value.codePointAt(i);
+				byte[] encoded = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+				bytes.write(encoded, 0, encoded.length);
+				i += Character.charCount(codePoint) - 1;
+			}
+		}
+		return bytes.toString(StandardCharsets.UTF_8);
+	}
+
+	private static boolean isHex(char c) {
+		return Character.digit(c, 16) >= 0;
+	}
+
+	private List<Map<String, String>> query(DbConfigBO dbConfig, Accessor accessor, String sql, long deadline)
+			throws Exception {
+		DbQueryParameter param = new DbQueryParameter();
+		param.setSchema(dbConfig.getSchema());
+		param.setSql(sql);
+		param.setQueryTimeout(Math.max(1, remainingSeconds(deadline)));
+		ResultSetBO resultSet = accessor.executeSqlAndReturnObject(dbConfig, param);
+		return resultSet == null || resultSet.getData() == null ? List.of() : resultSet.getData();
+	}
+
+	private static int remainingSeconds(long deadline) {
+		long remaining = deadline - System.nanoTime();
+		return remaining <= 0 ? 0 : (int) Math.ceil(remaining / 1_000_000_000D);
+	}
+
+	/**
+	 * 提取每列的样本值：去重，每列最多保留3个，超长的值丢弃
+	 */
+	private static Map<String, List<String>> toColumnSamples(List<Map<String, String>> rows,
+			List<ColumnInfoBO> columns) {
+		Map<String, List<String>> samples = new HashMap<>();
+		for (Map<String, String> row : rows) {
+			for (ColumnInfoBO column : columns) {
+				String value = row.get(column.getName());
+				if (value != null) {
+					samples.computeIfAbsent(column.getName(), k -> new ArrayList<>()).add(value);
+				}
+			}
+		}
+		samples.replaceAll((column, values) -> values.stream()
+			.distinct()
+			.limit(MAX_SAMPLES_PER_COLUMN)
+			.filter(value -> value.length() <= MAX_SAMPLE_LENGTH)
+			.toList());
+		return samples;
+	}
+
+	private Map<String, List<String>> getCached(CacheKey key) {
+		if (config.getCacheTtlSeconds() <= 0) {
+			return null;
+		}
+		lock.lock();
+		try {
+			CacheEntry entry = cache.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (System.currentTimeMillis() - entry.createdAt() > config.getCacheTtlSeconds() * 1000L) {
+				cache.remove(key);
+				return null;
+			}
+			return entry.samples();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void putCached(CacheKey key, Map<String, List<String>> samples) {
+		if (config.getCacheTtlSeconds() <= 0) {
+			return;
+		}
+		lock.lock();
+		try {
+			cache.put(key, new CacheEntry(Map.copyOf(samples), System.currentTimeMillis()));
+			while (cache.size() > Math.max(1, config.getCacheMaxTables())) {
+				cache.remove(cache.keySet().iterator().next());
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 表结构（列名与类型）变化后自然失效
+	 */
+	private record CacheKey(String url, String username, String schema, String table, String columnSignature,
+			int sampleRows) {
+
+		static CacheKey of(DbConfigBO dbConfig, String table, List<ColumnInfoBO> columns, int sampleRows) {
+			String signature = columns.stream()
+				.map(column -> column.getName() + ":" + column.getType())
+				.collect(Collectors.joining(","));
+			return new CacheKey(dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getSchema(), table, signature,
+					sampleRows);
+		}
+
+	}
+
+	private record CacheEntry(Map<String, List<String>> samples, long createdAt) {
+
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import static com.alibaba.cloud.ai.dataagent.util.DocumentConverterUtil.convertColumnsToDocuments;
+import static com.alibaba.cloud.ai.dataagent.util.DocumentConverterUtil.convertTablesToDocuments;
+
+/**
+ * Schema初始化流水线。
+ *
+ * <p>
+ * 将表按批次依次经过 取列信息 → 采集样本数据并构建文档 → 嵌入并写入向量库 三个阶段，各阶段按配置的并行度同时处理不同批次，
+ * 使业务库I/O与嵌入调用相互重叠。相邻阶段之间最多缓冲 queueCapacity 个批次，下游处理不过来时上游不再拉取新批次。
+ * 单个批次在某一阶段失败时按指数退避重试，仍失败则跳过该批次，已完成的批次不受影响，失败的表名返回给调用方。
+ */
+@Slf4j
+@Component
+public class SchemaIngestionPipeline {
+
+	private final TableMetadataService tableMetadataService;
+
+	private final DataAgentProperties dataAgentProperties;
+
+	/**
+	 * 基于Schema初始化专用的线程池。调用方通常运行在 dbOperationExecutor 上并阻塞等待流水线结束，
+	 * 若各阶段也提交到该线程池，负载高时会因所有线程都在等待而无法调度阶段任务
+	 */
+	private final Scheduler dbScheduler;
+
+	public SchemaIngestionPipeline(TableMetadataService tableMetadataService, DataAgentProperties dataAgentProperties,
+			@Qualifier("schemaIngestionExecutor") ExecutorService schemaIngestionExecutor) {
+		this.tableMetadataService = tableMetadataService;
+		this.dataAgentProperties = dataAgentProperties;
+		this.dbScheduler = Schedulers.fromExecutorService(schemaIngestionExecutor, "schema-ingestion-db");
+	}
+
+	/**
+	 * 写入一个批次的文档，由调用方决定全量写入或增量比对后写入
+	 */
+	@FunctionalInterface
+	public interface BatchWriter {
+
+		void write(List<TableInfoBO> tables, List<Document> columnDocuments, List<Document> tableDocuments)
+				throws Exception;
+
+	}
+
+	/**
+	 * 以流水线方式处理全部表，阻塞直到所有批次完成
+	 * @param datasourceId 数据源ID
+	 * @param tables 待处理的表
+	 * @param dbConfig 数据库配置
+	 * @param foreignKeyMap 外键映射
+	 * @param writer 批次文档写入方式
+	 * @param progress 进度记录
+	 * @return 重试后仍处理失败的表名
+	 */
+	public List<String> run(Integer datasourceId, List<TableInfoBO> tables, DbConfigBO dbConfig,
+			Map<String, List<String>> foreignKeyMap, BatchWriter writer, SchemaInitProgressTracker.Progress progress) {
+		DataAgentProperties.SchemaIngestion config = dataAgentProperties.getSchemaIngestion();
+		int prefetch = Math.max(1, config.getQueueCapacity());
+		List<List<TableInfoBO>> batches = partition(tables, Math.max(1, config.getTablesPerBatch()));
+		List<String> failedTables = Collections.synchronizedList(new ArrayList<>());
+		log.info("Ingesting {} tables of datasource {} in {} batches", tables.size(), datasourceId, batches.size());
+
+		Flux.fromIterable(batches)
+			.flatMap(batch -> runStage("fetch columns", batch, dbScheduler, failedTables, progress,
+					() -> new ColumnBatch(batch, tableMetadataService.fetchTableColumns(batch, dbConfig)))
+				.doOnNext(b -> progress.tablesFetched(batch.size())), Math.max(1, config.getMetadataParallelism()),
+					prefetch)
+			.flatMap(batch -> runStage("sample data", batch.tables(), dbScheduler, failedTables, progress, () -> {
+				tableMetadataService.enrichTablesWithSamples(batch.tables(), dbConfig, batch.columns(), foreignKeyMap);
+				return new DocumentBatch(batch.tables(), convertColumnsToDocuments(datasourceId, batch.tables()),
+						convertTablesToDocuments(datasourceId, batch.tables()));
+			}).doOnNext(b -> progress.tablesSampled(batch.tables().size())),
+					Math.max(1, config.getSamplingParallelism()), prefetch)
+			// 重试时写入的是同一批Document对象（ID不变），向量库按ID覆盖，不会产生重复文档
+			.flatMap(batch -> runStage("store documents", batch.tables(), Schedulers.boundedElastic(), failedTables,
+					progress, () -> {
+						writer.write(batch.tables(), batch.columnDocuments(), batch.tableDocuments());
+						return batch;
+					})
+				.doOnNext(b -> progress.tablesStored(batch.tables().size())),
+					Math.max(1, config.getEmbeddingParallelism()), prefetch)
+			.then()
+			// 调用方可能位于非阻塞线程，使用 toFuture().join() 等待而不是 block()
+			.toFuture()
+			.join();
+
+		return List.copyOf(failedTables);
+	}
+
+	private <T> Mono<T> runStage(String stage, List<TableInfoBO> batch, Scheduler scheduler,
+			List<String> failedTables, SchemaInitProgressTracker.Progress progress, Callable<T> task) {
+		DataAgentProperties.SchemaIngestion config = dataAgentProperties.getSchemaIngestion();
+		List<String> tableNames = batch.stream().map(TableInfoBO::getName).toList();
+		return Mono.fromCallable(task)
+			.subscribeOn(scheduler)
+			.retryWhen(Retry
+				.backoff(Math.max(0, config.getMaxBatchRetries()), Duration.ofMillis(config.getRetryBackoffMillis()))
+				.doBeforeRetry(signal -> log.warn("Stage '{}' failed for tables {}, retry #{}: {}", stage, tableNames,
+						signal.totalRetries() + 1, signal.failure().getMessage())))
+			.onErrorResume(e -> {
+				Throwable cause = Exceptions.isRetryExhausted(e) && e.getCause() != null ? e.getCause() : e;
+				log.error("Stage '{}' failed for tables {}, skip this batch", stage, tableNames, cause);
+				failedTables.addAll(tableNames);
+				progress.tablesFailed(tableNames, "%s failed: %s".formatted(stage, cause.getMessage()));
+				return Mono.empty();
+			});
+	}
+
+	private static <T> List<List<T>> partition(List<T> list, int batchSize) {
+		List<List<T>> partitions = new ArrayList<>();
+		for (int i = 0; i < list.size(); i += batchSize) {
+			partitions.add(list.subList(i, Math.min(i + batchSize, list.size())));
+		}
+		return partitions;
+	}
+
+	private record ColumnBatch(List<TableInfoBO> tables, Map<String, List<ColumnInfoBO>> columns) {
+	}
+
+	private record DocumentBatch(List<TableInfoBO> tables, List<Document> columnDocuments,
+			List<Document> tableDocuments) {
+	}
+
+}
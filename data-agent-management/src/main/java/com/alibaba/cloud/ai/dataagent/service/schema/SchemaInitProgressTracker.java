@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.schema.SchemaSyncReport;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.vo.SchemaInitProgressVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 记录每个数据源最近一次Schema初始化的进度，初始化结束后保留最终状态 progressRetentionSeconds 秒供前端查询，之后移除。
+ * 另外记录全量初始化中失败的表，使重新初始化时只需补全这些表
+ */
+@Component
+public class SchemaInitProgressTracker {
+
+	private final Map<Integer, Progress> progresses = new ConcurrentHashMap<>();
+
+	private final Map<Integer, ResumePoint> resumePoints = new ConcurrentHashMap<>();
+
+	/**
+	 * 延迟移除已结束进度的执行器
+	 */
+	private final Executor evictionExecutor;
+
+	@Autowired
+	public SchemaInitProgressTracker(DataAgentProperties properties) {
+		this(CompletableFuture.delayedExecutor(
+				Math.max(0, properties.getSchemaIngestion().getProgressRetentionSeconds()), TimeUnit.SECONDS));
+	}
+
+	SchemaInitProgressTracker(Executor evictionExecutor) {
+		this.evictionExecutor = evictionExecutor;
+	}
+
+	public Progress start(Integer datasourceId) {
+		Progress progress = new Progress(datasourceId, this::finished);
+		progresses.put(datasourceId, progress);
+		return progress;
+	}
+
+	public Optional<SchemaInitProgressVO> getProgress(Integer datasourceId) {
+		return Optional.ofNullable(progresses.get(datasourceId)).map(Progress::snapshot);
+	}
+
+	/**
+	 * 记录一次全量初始化的结果，仍有失败的表时下次以相同表范围初始化可从这些表继续
+	 * @param datasourceId 数据源ID
+	 * @param requestedTables 本次请求的表范围，null 表示全部表
+	 * @param failedTables 处理失败的表，为空时清除记录
+	 */
+	public void recordFailedTables(Integer datasourceId, List<String> requestedTables, Collection<String> failedTables) {
+		if (failedTables.isEmpty()) {
+			resumePoints.remove(datasourceId);
+		}
+		else {
+			resumePoints.put(datasourceId, new ResumePoint(scope(requestedTables), Set.copyOf(failedTables)));
+		}
+	}
+
+	/**
+	 * 上一次以相同表范围全量初始化时失败、需要补全的表；没有可继续的初始化时返回空集合。
+	 * 续传记录只保存在内存中，应用重启后丢失，届时重新初始化会回退为全量重建
+	 */
+	public Set<String> resumableTables(Integer datasourceId, List<String> requestedTables) {
+		ResumePoint resumePoint = resumePoints.get(datasourceId);
+		if (resumePoint == null || !resumePoint.requestedTables().equals(scope(requestedTables))) {
+			return Set.of();
+		}
+		return resumePoint.failedTables();
+	}
+
+	private void finished(Progress progress) {
+		// 只移除本次进度，期间重新开始的初始化不受影响
+		evictionExecutor.execute(() -> progresses.remove(progress.datasourceId, progress));
+	}
+
+	private static Set<String> scope(List<String> requestedTables) {
+		return requestedTables == null ? Set.of() : new HashSet<>(requestedTables);
+	}
+
+	private record ResumePoint(Set<String> requestedTables, Set<String> failedTables) {
+	}
+
+	public static final class Progress {
+
+		private final Integer datasourceId;
+
+		private volatile int totalTables;
+
+		private final long startTime = System.currentTimeMillis();
+
+		private final AtomicInteger fetchedTables = new AtomicInteger();
+
+		private final AtomicInteger sampledTables = new AtomicInteger();
+
+		private final AtomicInteger storedTables = new AtomicInteger();
+
+		private final List<String> failedTables = new ArrayList<>();
+
+		private volatile String status = SchemaInitProgressVO.STATUS_RUNNING;
+
+		private volatile String message;
+
+		private volatile Long endTime;
+
+		private final Consumer<Progress> onFinished;
+
+		private Progress(Integer datasourceId, Consumer<Progress> onFinished) {
+			this.datasourceId = datasourceId;
+			this.onFinished = onFinished;
+		}
+
+		public void setTotalTables(int totalTables) {
+			this.totalTables = totalTables;
+		}
+
+		public void tablesFetched(int count) {
+			fetchedTables.addAndGet(count);
+		}
+
+		public void tablesSampled(int count) {
+			sampledTables.addAndGet(count);
+		}
+
+		public void tablesStored(int count) {
+			storedTables.addAndGet(count);
+		}
+
+		public synchronized void tablesFailed(Collection<String> tableNames, String reason) {
+			failedTables.addAll(tableNames);
+			message = reason;
+		}
+
+		public void complete(SchemaSyncReport report) {
+			endTime = System.currentTimeMillis();
+			message = report.summary();
+			status = report.getFailedTables().isEmpty() ? SchemaInitProgressVO.STATUS_SUCCESS
+					: SchemaInitProgressVO.STATUS_PARTIAL;
+			onFinished.accept(this);
+		}
+
+		public void fail(String reason) {
+			endTime = System.currentTimeMillis();
+			message = reason;
+			status = SchemaInitProgressVO.STATUS_FAILED;
+			onFinished.accept(this);
+		}
+
+		public synchronized SchemaInitProgressVO snapshot() {
+			return SchemaInitProgressVO.builder()
+				.datasourceId(datasourceId)
+				.status(status)
+				.totalTables(totalTables)
+				.fetchedTables(fetchedTables.get())
+				.sampledTables(sampledTables.get())
+				.storedTables(storedTables.get())
+				.failedTables(List.copyOf(failedTables))
+				.message(message)
+				.startTime(startTime)
+				.endTime(endTime)
+				.build();
+		}
+
+	}
+
+}
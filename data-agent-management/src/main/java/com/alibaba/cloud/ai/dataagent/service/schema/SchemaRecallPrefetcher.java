@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentDatasourceMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 推测式Schema召回。
+ *
+ * <p>
+ * 证据召回节点开始时，以用户原始问题异步召回表和列文档，与证据召回、查询增强并行执行；Schema召回节点直接使用推测结果，
+ * 从而把表召回和列召回移出关键路径。推测结果按发起时间过期，且数量有上限，未被消费的结果不会一直占用内存。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaRecallPrefetcher {
+
+	private final SchemaService schemaService;
+
+	private final AgentDatasourceMapper agentDatasourceMapper;
+
+	private final DataAgentProperties properties;
+
+	@Qualifier("retrievalExecutor")
+	private final ExecutorService executorService;
+
+	/**
+	 * 按发起顺序排列的推测召回，读写均在自身锁内完成
+	 */
+	private final LinkedHashMap<String, Prefetch> prefetches = new LinkedHashMap<>();
+
+	public boolean isEnabled() {
+		return properties.getSpeculativeSchemaRecall().isEnabled();
+	}
+
+	/**
+	 * 以原始问题异步召回Schema，同一问题重复调用时复用已有的召回任务
+	 */
+	public void prefetch(String agentId, String rawQuery) {
+		if (!isEnabled() || StringUtils.isAnyBlank(agentId, rawQuery)) {
+			return;
+		}
+		String key = key(agentId, rawQuery);
+		synchronized (prefetches) {
+			removeExpired();
+			if (prefetches.containsKey(key)) {
+				return;
+			}
+			evictOverflow(properties.getSpeculativeSchemaRecall().getMaxEntries() - 1);
+			prefetches.put(key, new Prefetch(
+					CompletableFuture.supplyAsync(() -> recall(agentId, rawQuery), executorService),
+					System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * 取出推测召回结果，结果只能被消费一次；未完成时最多等待配置的时间，数据源已切换或召回失败时返回空
+	 */
+	public Optional<RecallResult> take(String agentId, String rawQuery, Integer datasourceId) {
+		if (!isEnabled() || StringUtils.isAnyBlank(agentId, rawQuery)) {
+			return Optional.empty();
+		}
+		Prefetch prefetch;
+		synchronized (prefetches) {
+			removeExpired();
+			prefetch = prefetches.remove(key(agentId, rawQuery));
+		}
+		if (prefetch == null) {
+			return Optional.empty();
+		}
+		try {
+			RecallResult result = prefetch.future()
+				.get(properties.getSpeculativeSchemaRecall().getWaitTimeoutMillis(), TimeUnit.MILLISECONDS);
+			if (result == null || !Objects.equals(result.datasourceId(), datasourceId)) {
+				return Optional.empty();
+			}
+			return Optional.of(result);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Optional.empty();
+		}
+		catch (Exception e) {
+			log.warn("Speculative schema recall for agent {} is unavailable: {}", agentId, e.getMessage());
+			prefetch.future().cancel(false);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * 用增强后问题召回的表修正推测结果：增强问题召回的表排在前面，其余位置由推测结果补齐，
+	 * 只为推测结果中没有的表补查列文档
+	 * @param speculative 推测召回结果
+	 * @param refinedTableDocuments 增强后问题召回的表文档
+	 * @return 修正后的召回结果
+	 */
+	public RecallResult refine(RecallResult speculative, List<Document> refinedTableDocuments) {
+		int limit = Math.max(properties.getVectorStore().getTableTopkLimit(), refinedTableDocuments.size());
+		Map<String, Document> tables = new LinkedHashMap<>();
+		for (Document document : refinedTableDocuments) {
+			tables.putIfAbsent(tableName(document), document);
+		}
+		for (Document document : speculative.tableDocuments()) {
+			if (tables.size() >= limit) {
+				break;
+			}
+			tables.putIfAbsent(tableName(document), document);
+		}
+		tables.remove(null);
+
+		Set<String> prefetchedTables = speculative.tableDocuments()
+			.stream()
+			.map(SchemaRecallPrefetcher::tableName)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toSet());
+		List<String> missingTables = tables.keySet().stream().filter(name -> !prefetchedTables.contains(name)).toList();
+
+		List<Document> columnDocuments = new ArrayList<>(speculative.columnDocuments()
+			.stream()
+			.filter(document -> tables.containsKey(
+					(String) document.getMetadata().get(DocumentMetadataConstant.TABLE_NAME)))
+			.toList());
+		if (!missingTables.isEmpty()) {
+			columnDocuments
+				.addAll(schemaService.getColumnDocumentsByTableName(speculative.datasourceId(), missingTables));
+		}
+		log.debug("Refined speculative schema recall, tables: {}, newly fetched: {}", tables.keySet(), missingTables);
+		return new RecallResult(speculative.datasourceId(), new ArrayList<>(tables.values()), columnDocuments);
+	}
+
+	private RecallResult recall(String agentId, String rawQuery) {
+		Integer datasourceId = agentDatasourceMapper.selectActiveDatasourceIdByAgentId(Long.valueOf(agentId));
+		if (datasourceId == null) {
+			return null;
+		}
+		List<Document> tableDocuments = new ArrayList<>(
+				schemaService.getTableDocumentsByDatasource(datasourceId, rawQuery));
+		List<String> tableNames = tableDocuments.stream()
+			.map(SchemaRecallPrefetcher::tableName)
+			.filter(StringUtils::isNotEmpty)
+			.toList();
+		List<Document> columnDocuments = tableNames.isEmpty() ? List.of()
+				: schemaService.getColumnDocumentsByTableName(datasourceId, tableNames);
+		log.debug("Speculative schema recall for agent {} found tables: {}", agentId, tableNames);
+		return new RecallResult(datasourceId, tableDocuments, columnDocuments);
+	}
+
+	/**
+	 * 当前保留的未消费推测结果数
+	 */
+	public int size() {
+		synchronized (prefetches) {
+			removeExpired();
+			return prefetches.size();
+		}
+	}
+
+	/**
+	 * 移除超过保留时间的推测结果，调用方需持有 prefetches 的锁
+	 */
+	private void removeExpired() {
+		long expireMillis = TimeUnit.SECONDS
+			.toMillis(properties.getSpeculativeSchemaRecall().getExpireAfterWriteSeconds());
+		long now = System.currentTimeMillis();
+		Iterator<Prefetch> iterator = prefetches.values().iterator();
+		while (iterator.hasNext()) {
+			Prefetch prefetch = iterator.next();
+			if (now - prefetch.createdAt() < expireMillis) {
+				// 按发起顺序排列，遇到未过期的即可停止
+				break;
+			}
+			iterator.remove();
+			prefetch.future().cancel(false);
+		}
+	}
+
+	/**
+	 * 淘汰最早发起的推测结果直到数量不超过上限，调用方需持有 prefetches 的锁
+	 */
+	private void evictOverflow(int maxEntries) {
+		Iterator<Prefetch> iterator = prefetches.values().iterator();
+		while (prefetches.size() > Math.max(maxEntries, 0) && iterator.hasNext()) {
+			Prefetch prefetch = iterator.next();
+			iterator.remove();
+			prefetch.future().cancel(false);
+		}
+	}
+
+	private static String tableName(Document tableDocument) {
+		return (String) tableDocument.getMetadata().get("name");
+	}
+
+	private static String key(String agentId, String rawQuery) {
+		return agentId + ":" + rawQuery;
+	}
+
+	private record Prefetch(CompletableFuture<RecallResult> future, long createdAt) {
+	}
+
+	public record RecallResult(Integer datasourceId, List<Document> tableDocuments, List<Document> columnDocuments) {
+	}
+
+}
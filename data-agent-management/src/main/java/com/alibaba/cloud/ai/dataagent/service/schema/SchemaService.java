@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.dataagent.service.schema;
 
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.SchemaSyncReport;
 import com.alibaba.cloud.ai.dataagent.dto.datasource.SchemaInitRequest;
 import com.alibaba.cloud.ai.dataagent.dto.schema.SchemaDTO;
 import org.springframework.ai.document.Document;
@@ -26,6 +27,11 @@ public interface SchemaService {
 
 	Boolean schema(Integer datasourceId, SchemaInitRequest schemaInitRequest) throws Exception;
 
+	/**
+	 * 初始化数据源Schema并返回新增/变更/删除的表和列报告。开启增量初始化时只重新嵌入指纹发生变化的文档
+	 */
+	SchemaSyncReport syncSchema(Integer datasourceId, SchemaInitRequest schemaInitRequest) throws Exception;
+
 	List<Document> getTableDocumentsByDatasource(Integer datasourceId, String query);
 
 	void extractDatabaseName(SchemaDTO schemaDTO, DbConfigBO dbConfig);
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.dataagent.service.schema;
 
 import com.alibaba.cloud.ai.dataagent.connector.DbQueryParameter;
 import com.alibaba.cloud.ai.dataagent.bo.schema.ForeignKeyInfoBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.SchemaSyncReport;
 import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
 import com.alibaba.cloud.ai.dataagent.constant.Constant;
 import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
@@ -30,6 +31,7 @@ import com.alibaba.cloud.ai.dataagent.dto.datasource.SchemaInitRequest;
 import com.alibaba.cloud.ai.dataagent.dto.schema.ColumnDTO;
 import com.alibaba.cloud.ai.dataagent.dto.schema.SchemaDTO;
 import com.alibaba.cloud.ai.dataagent.dto.schema.TableDTO;
+import com.alibaba.cloud.ai.dataagent.service.nl2sql.SemanticAnswerCacheService;
 import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
 import com.alibaba.cloud.ai.dataagent.service.vectorstore.DynamicFilterService;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -49,6 +51,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -64,6 +67,11 @@ import static com.alibaba.cloud.ai.dataagent.util.DocumentConverterUtil.convertT
 @AllArgsConstructor
 public class SchemaServiceImpl implements SchemaService {
 
+	/**
+	 * 增量初始化时每次按表名查询已有列文档的表数量
+	 */
+	private static final int SCHEMA_DIFF_TABLE_BATCH_SIZE = 50;
+
 	private final ExecutorService dbOperationExecutor;
 
 	private final AccessorFactory accessorFactory;
@@ -81,6 +89,12 @@ public class SchemaServiceImpl implements SchemaService {
 	 */
 	private final AgentVectorStoreService agentVectorStoreService;
 
+	private final SemanticAnswerCacheService semanticAnswerCacheService;
+
+	private final SchemaIngestionPipeline schemaIngestionPipeline;
+
+	private final SchemaInitProgressTracker schemaInitProgressTracker;
+
 	@Override
 	public void buildSchemaFromDocuments(String agentId, List<Document> currentColumnDocuments,
 			List<Document> tableDocuments, SchemaDTO schemaDTO) {
@@ -128,64 +142,345 @@ public class SchemaServiceImpl implements SchemaService {
 
 	@Override
 	public Boolean schema(Integer datasourceId, SchemaInitRequest schemaInitRequest) throws Exception {
+		try {
+			SchemaSyncReport report = syncSchema(datasourceId, schemaInitRequest);
+			log.info("Schema initialization finished for datasource: {}, incremental: {}, {}", datasourceId,
+					report.isIncremental(), report.summary());
+			if (!report.getFailedTables().isEmpty()) {
+				log.warn("Schema initialization of datasource {} skipped failed tables {}, re-run to resume",
+						datasourceId, report.getFailedTables());
+				return false;
+			}
+			return true;
+		}
+		catch (Exception e) {
+			log.error("Failed to process schema for datasource: {}", datasourceId, e);
+			return false;
+		}
+	}
+
+	@Override
+	public SchemaSyncReport syncSchema(Integer datasourceId, SchemaInitRequest schemaInitRequest) throws Exception {
 		log.info("Starting schema initialization for datasource: {}", datasourceId);
+		SchemaInitProgressTracker.Progress progress = schemaInitProgressTracker.start(datasourceId);
+		try {
+			SchemaSyncReport report = doSyncSchema(datasourceId, schemaInitRequest, progress);
+			// 只有全量初始化可以从失败的表继续，增量初始化每次都会重新比对全部表
+			schemaInitProgressTracker.recordFailedTables(datasourceId, schemaInitRequest.getTables(),
+					report.isIncremental() ? List.of() : report.getFailedTables());
+			progress.complete(report);
+			return report;
+		}
+		catch (Exception e) {
+			schemaInitProgressTracker.recordFailedTables(datasourceId, schemaInitRequest.getTables(), List.of());
+			progress.fail(e.getMessage());
+			throw e;
+		}
+	}
+
+	private SchemaSyncReport doSyncSchema(Integer datasourceId, SchemaInitRequest schemaInitRequest,
+			SchemaInitProgressTracker.Progress progress) throws Exception {
 		DbConfigBO config = schemaInitRequest.getDbConfig();
 		DbQueryParameter dqp = DbQueryParameter.from(config)
 			.setSchema(config.getSchema())
 			.setTables(schemaInitRequest.getTables());
 
-		try {
-			// 根据当前DbConfig获取Accessor
-			Accessor dbAccessor = accessorFactory.getAccessorByDbConfig(config);
-
-			// 清理旧数据
-			log.info("Clearing existing schema data for datasource: {}", datasourceId);
-			clearSchemaDataForDatasource(datasourceId);
-			log.debug("Successfully cleared existing schema data for datasource: {}", datasourceId);
-
-			// 处理外键
-			log.debug("Fetching foreign keys for datasource: {}", datasourceId);
-			List<ForeignKeyInfoBO> foreignKeys = dbAccessor.showForeignKeys(config, dqp);
-			log.info("Found {} foreign keys for datasource: {}", foreignKeys.size(), datasourceId);
-
-			Map<String, List<String>> foreignKeyMap = buildForeignKeyMap(foreignKeys);
-			log.debug("Built foreign key map with {} entries for datasource: {}", foreignKeyMap.size(), datasourceId);
-
-			// 处理表和列
-			log.debug("Fetching tables for datasource: {}", datasourceId);
-			List<TableInfoBO> tables = dbAccessor.fetchTables(config, dqp);
-			log.info("Found  tables for datasource: {}", tables.size(), datasourceId);
-
-			if (tables.size() > 5) {
-				// 对于大量表，使用并行处理
-				log.info("Processing {} tables in parallel mode for datasource: {}", tables.size(), datasourceId);
-				processTablesInParallel(tables, config, foreignKeyMap);
+		// 根据当前DbConfig获取Accessor
+		Accessor dbAccessor = accessorFactory.getAccessorByDbConfig(config);
+
+		// 处理外键
+		log.debug("Fetching foreign keys for datasource: {}", datasourceId);
+		List<ForeignKeyInfoBO> foreignKeys = dbAccessor.showForeignKeys(config, dqp);
+		log.info("Found {} foreign keys for datasource: {}", foreignKeys.size(), datasourceId);
+
+		Map<String, List<String>> foreignKeyMap = buildForeignKeyMap(foreignKeys);
+		log.debug("Built foreign key map with {} entries for datasource: {}", foreignKeyMap.size(), datasourceId);
+
+		// 处理表和列
+		log.debug("Fetching tables for datasource: {}", datasourceId);
+		List<TableInfoBO> tables = dbAccessor.fetchTables(config, dqp);
+		log.info("Found {} tables for datasource: {}", tables.size(), datasourceId);
+		progress.setTotalTables(tables.size());
+
+		IncrementalSchemaState incrementalState = null;
+		if (dataAgentProperties.isIncrementalSchemaInit()) {
+			incrementalState = loadIncrementalSchemaState(datasourceId, tables);
+			if (incrementalState == null) {
+				log.warn("Existing schema documents of datasource {} exceed the query limit, fall back to full rebuild",
+						datasourceId);
+			}
+		}
+
+		SchemaSyncReport report = new SchemaSyncReport(datasourceId, incrementalState != null);
+		SchemaIngestionPipeline.BatchWriter writer;
+		if (incrementalState != null) {
+			IncrementalSchemaState state = incrementalState;
+			writer = (batchTables, columnDocs, tableDocs) -> report
+				.merge(storeChangedSchemaDocuments(datasourceId, state, columnDocs, tableDocs));
+		}
+		else {
+			Set<String> resumableTables = schemaInitProgressTracker.resumableTables(datasourceId,
+					schemaInitRequest.getTables());
+			if (!resumableTables.isEmpty()) {
+				// 上次全量初始化只有部分表失败，保留成功表的文档，只补全失败的表
+				tables = tables.stream().filter(table -> resumableTables.contains(table.getName())).toList();
+				progress.setTotalTables(tables.size());
+				log.info("Resuming schema initialization of datasource {} with {} previously failed tables",
+						datasourceId, tables.size());
+				// 失败的表可能已写入部分文档，文档ID随机生成，重新写入前先删除，避免重复
+				clearSchemaDataForTables(datasourceId, resumableTables);
 			}
 			else {
-				// 对于少量表，使用批量处理
-				log.info("Processing {} tables in batch mode for datasource: {}", tables.size(), datasourceId);
-				tableMetadataService.batchEnrichTableMetadata(tables, config, foreignKeyMap);
+				// 清理旧数据
+				log.info("Clearing existing schema data for datasource: {}", datasourceId);
+				clearSchemaDataForDatasource(datasourceId);
+				log.debug("Successfully cleared existing schema data for datasource: {}", datasourceId);
 			}
+			// 表结构可能已变化，基于旧结构缓存的SQL答案一并失效
+			semanticAnswerCacheService.invalidateDatasource(datasourceId);
+
+			writer = (batchTables, columnDocs, tableDocs) -> {
+				storeSchemaDocuments(datasourceId, columnDocs, tableDocs);
+				SchemaSyncReport batchReport = new SchemaSyncReport(datasourceId, false);
+				tableDocs.forEach(doc -> batchReport.getAddedTables().add(tableKey(doc)));
+				columnDocs.forEach(doc -> batchReport.getAddedColumns().add(columnKey(doc)));
+				report.merge(batchReport);
+			};
+		}
 
-			log.info("Successfully processed all tables for datasource: {}", datasourceId);
+		if (dataAgentProperties.getSchemaIngestion().isPipelineEnabled()) {
+			List<String> failedTables = schemaIngestionPipeline.run(datasourceId, tables, config, foreignKeyMap,
+					writer, progress);
+			report.getFailedTables().addAll(failedTables);
+		}
+		else {
+			enrichTables(datasourceId, tables, config, foreignKeyMap);
+			progress.tablesFetched(tables.size());
+			progress.tablesSampled(tables.size());
 
-			// 转换为文档
+			// 转换为文档并存储
 			List<Document> columnDocs = convertColumnsToDocuments(datasourceId, tables);
 			List<Document> tableDocs = convertTablesToDocuments(datasourceId, tables);
-
-			// 存储文档
-			log.info("Storing  columns and {} tables for datasource: {}", columnDocs.size(), tableDocs.size(),
+			log.info("Storing {} columns and {} tables for datasource: {}", columnDocs.size(), tableDocs.size(),
 					datasourceId);
-			storeSchemaDocuments(datasourceId, columnDocs, tableDocs);
-			log.info("Successfully stored all documents for datasource: {}", datasourceId);
-			return true;
+			writer.write(tables, columnDocs, tableDocs);
+			progress.tablesStored(tables.size());
 		}
-		catch (Exception e) {
-			log.error("Failed to process schema for datasource: {}", datasourceId, e);
-			return false;
+
+		if (incrementalState != null) {
+			removeDroppedSchemaDocuments(datasourceId, incrementalState, report);
+			if (report.hasChanges()) {
+				semanticAnswerCacheService.invalidateDatasource(datasourceId);
+			}
+		}
+		log.info("Successfully stored all documents for datasource: {}", datasourceId);
+		return report;
+	}
+
+	private void enrichTables(Integer datasourceId, List<TableInfoBO> tables, DbConfigBO config,
+			Map<String, List<String>> foreignKeyMap) throws Exception {
+		if (tables.size() > 5) {
+			// 对于大量表，使用并行处理
+			log.info("Processing {} tables in parallel mode for datasource: {}", tables.size(), datasourceId);
+			processTablesInParallel(tables, config, foreignKeyMap);
+		}
+		else {
+			// 对于少量表，使用批量处理
+			log.info("Processing {} tables in batch mode for datasource: {}", tables.size(), datasourceId);
+			tableMetadataService.batchEnrichTableMetadata(tables, config, foreignKeyMap);
+		}
+		log.info("Successfully processed all tables for datasource: {}", datasourceId);
+	}
+
+	/**
+	 * 读取数据源已有的表文档，以及旧表和本次表下的列文档，用于增量比对
+	 * @return 已有文档；数量超过单次查询上限、无法完整比对时返回null，由调用方回退为全量重建
+	 */
+	private IncrementalSchemaState loadIncrementalSchemaState(Integer datasourceId, List<TableInfoBO> tables) {
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+		Filter.Expression tableFilter = DynamicFilterService
+			.combineWithAnd(List.of(b.eq(Constant.DATASOURCE_ID, datasourceId.toString()).build(),
+					b.eq(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.TABLE).build()));
+		List<Document> existingTables = loadExistingSchemaDocuments(tableFilter);
+		if (existingTables == null) {
+			return null;
+		}
+
+		Set<String> currentTableNames = tables.stream().map(TableInfoBO::getName).collect(Collectors.toSet());
+		// 旧表和新表的列都需要参与比对，否则已删除表下的列无法被清理
+		Set<String> tableNames = new LinkedHashSet<>();
+		existingTables.forEach(doc -> tableNames.add(tableKey(doc)));
+		tableNames.addAll(currentTableNames);
+		tableNames.remove(null);
+		List<Document> existingColumns = new ArrayList<>();
+		for (List<String> batch : partitionList(new ArrayList<>(tableNames), SCHEMA_DIFF_TABLE_BATCH_SIZE)) {
+			List<Document> columns = loadExistingSchemaDocuments(
+					dynamicFilterService.buildFilterExpressionForSearchColumns(datasourceId, batch));
+			if (columns == null) {
+				return null;
+			}
+			existingColumns.addAll(columns);
+		}
+
+		return new IncrementalSchemaState(groupByTableName(existingTables, SchemaServiceImpl::tableKey),
+				groupByTableName(existingColumns,
+						doc -> (String) doc.getMetadata().get(DocumentMetadataConstant.TABLE_NAME)),
+				currentTableNames);
+	}
+
+	/**
+	 * 比对一个批次的表与其已有文档，仅删除并重新嵌入新增、变更的文档。只读取已有文档状态，批次重试时结果一致
+	 * @return 该批次的同步结果
+	 */
+	private SchemaSyncReport storeChangedSchemaDocuments(Integer datasourceId, IncrementalSchemaState state,
+			List<Document> columnDocs, List<Document> tableDocs) {
+		List<Document> existingTables = new ArrayList<>();
+		List<Document> existingColumns = new ArrayList<>();
+		for (Document tableDoc : tableDocs) {
+			existingTables.addAll(state.tablesByName().getOrDefault(tableKey(tableDoc), List.of()));
+			existingColumns.addAll(state.columnsByTable().getOrDefault(tableKey(tableDoc), List.of()));
+		}
+
+		SchemaSyncReport batchReport = new SchemaSyncReport(datasourceId, true);
+		List<String> idsToDelete = new ArrayList<>();
+		List<Document> tablesToAdd = diffSchemaDocuments(existingTables, tableDocs, SchemaServiceImpl::tableKey,
+				idsToDelete, batchReport.getAddedTables(), batchReport.getChangedTables(),
+				batchReport.getRemovedTables());
+		List<Document> columnsToAdd = diffSchemaDocuments(existingColumns, columnDocs, SchemaServiceImpl::columnKey,
+				idsToDelete, batchReport.getAddedColumns(), batchReport.getChangedColumns(),
+				batchReport.getRemovedColumns());
+		batchReport.setUnchangedTables(tableDocs.size() - tablesToAdd.size());
+		batchReport.setUnchangedColumns(columnDocs.size() - columnsToAdd.size());
+
+		if (!idsToDelete.isEmpty() || !tablesToAdd.isEmpty() || !columnsToAdd.isEmpty()) {
+			log.info("Deleting {} stale schema documents and storing {} columns and {} tables for datasource: {}",
+					idsToDelete.size(), columnsToAdd.size(), tablesToAdd.size(), datasourceId);
+			agentVectorStoreService.deleteDocumentsByIds(idsToDelete);
+			storeSchemaDocuments(datasourceId, columnsToAdd, tablesToAdd);
+		}
+		return batchReport;
+	}
+
+	/**
+	 * 删除本次已不在初始化范围内的表及其列文档。处理失败的表仍在范围内，其旧文档保持不变
+	 */
+	private void removeDroppedSchemaDocuments(Integer datasourceId, IncrementalSchemaState state,
+			SchemaSyncReport report) {
+		SchemaSyncReport removedReport = new SchemaSyncReport(datasourceId, true);
+		List<String> idsToDelete = new ArrayList<>();
+		state.tablesByName().forEach((tableName, documents) -> {
+			if (!state.currentTableNames().contains(tableName)) {
+				removedReport.getRemovedTables().add(tableName);
+				documents.forEach(doc -> idsToDelete.add(doc.getId()));
+			}
+		});
+		state.columnsByTable().forEach((tableName, documents) -> {
+			if (!state.currentTableNames().contains(tableName)) {
+				documents.forEach(doc -> {
+					removedReport.getRemovedColumns().add(columnKey(doc));
+					idsToDelete.add(doc.getId());
+				});
+			}
+		});
+		if (!idsToDelete.isEmpty()) {
+			log.info("Deleting {} schema documents of dropped tables {} for datasource: {}", idsToDelete.size(),
+					removedReport.getRemovedTables(), datasourceId);
+			agentVectorStoreService.deleteDocumentsByIds(idsToDelete);
+			report.merge(removedReport);
 		}
 	}
 
+	/**
+	 * 按过滤条件读取已有的Schema文档，结果数量达到单次查询上限时认为可能被截断，返回null
+	 */
+	private List<Document> loadExistingSchemaDocuments(Filter.Expression filterExpression) {
+		int limit = dataAgentProperties.getVectorStore().getBatchDelTopkLimit();
+		List<Document> documents = agentVectorStoreService.getDocumentsOnlyByFilter(filterExpression, limit);
+		return documents.size() >= limit ? null : documents;
+	}
+
+	/**
+	 * 比对已有文档与新生成的文档。
+	 * <p>
+	 * key相同且指纹一致的文档保持不动；指纹不一致（或旧文档没有指纹）时删除旧文档并写入新文档；
+	 * 新文档中不存在的key对应的旧文档全部删除。同一key存在多份旧文档时，只保留一份指纹一致的文档。
+	 * @param existing 向量库中已有的文档
+	 * @param fresh 本次根据数据库元数据生成的文档
+	 * @param keyFunction 文档key（表名或 表名.列名）
+	 * @param idsToDelete 输出：需要删除的旧文档ID
+	 * @param added 输出：新增的key
+	 * @param changed 输出：变更的key
+	 * @param removed 输出：删除的key
+	 * @return 需要写入（重新嵌入）的新文档
+	 */
+	static List<Document> diffSchemaDocuments(List<Document> existing, List<Document> fresh,
+			Function<Document, String> keyFunction, List<String> idsToDelete, List<String> added, List<String> changed,
+			List<String> removed) {
+		Map<String, List<Document>> existingByKey = new LinkedHashMap<>();
+		for (Document document : existing) {
+			existingByKey.computeIfAbsent(keyFunction.apply(document), k -> new ArrayList<>()).add(document);
+		}
+
+		List<Document> toAdd = new ArrayList<>();
+		for (Document document : fresh) {
+			String key = keyFunction.apply(document);
+			List<Document> previous = existingByKey.remove(key);
+			if (previous == null) {
+				added.add(key);
+				toAdd.add(document);
+				continue;
+			}
+			Object fingerprint = document.getMetadata().get(DocumentMetadataConstant.FINGERPRINT);
+			Document kept = previous.stream()
+				.filter(doc -> fingerprint != null
+						&& fingerprint.equals(doc.getMetadata().get(DocumentMetadataConstant.FINGERPRINT)))
+				.findFirst()
+				.orElse(null);
+			previous.stream().filter(doc -> doc != kept).forEach(doc -> idsToDelete.add(doc.getId()));
+			if (kept == null) {
+				changed.add(key);
+				toAdd.add(document);
+			}
+		}
+
+		existingByKey.forEach((key, documents) -> {
+			removed.add(key);
+			documents.forEach(doc -> idsToDelete.add(doc.getId()));
+		});
+		return toAdd;
+	}
+
+	private static Map<String, List<Document>> groupByTableName(List<Document> documents,
+			Function<Document, String> tableNameFunction) {
+		Map<String, List<Document>> grouped = new HashMap<>();
+		for (Document document : documents) {
+			String tableName = tableNameFunction.apply(document);
+			if (tableName != null) {
+				grouped.computeIfAbsent(tableName, k -> new ArrayList<>()).add(document);
+			}
+		}
+		return grouped;
+	}
+
+	private static String tableKey(Document document) {
+		return (String) document.getMetadata().get(DocumentMetadataConstant.NAME);
+	}
+
+	private static String columnKey(Document document) {
+		return document.getMetadata().get(DocumentMetadataConstant.TABLE_NAME) + "."
+				+ document.getMetadata().get(DocumentMetadataConstant.NAME);
+	}
+
+	/**
+	 * 增量初始化开始前读取的已有文档
+	 * @param tablesByName 表名到已有表文档
+	 * @param columnsByTable 表名到已有列文档
+	 * @param currentTableNames 本次初始化范围内的表名
+	 */
+	private record IncrementalSchemaState(Map<String, List<Document>> tablesByName,
+			Map<String, List<Document>> columnsByTable, Set<String> currentTableNames) {
+	}
+
 	/**
 	 * 并行处理表元数据，提高大量表时的处理性能
 	 * @param tables 表列表
@@ -283,6 +578,24 @@ public class SchemaServiceImpl implements SchemaService {
 		agentVectorStoreService.deleteDocumentsByMetadata(metadata);
 	}
 
+	/**
+	 * 按数据源和表名删除指定表的表文档及其列文档
+	 */
+	private void clearSchemaDataForTables(Integer datasourceId, Collection<String> tableNames) {
+		for (String tableName : tableNames) {
+			Map<String, Object> metadata = new HashMap<>();
+			metadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
+			metadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.COLUMN);
+			metadata.put(DocumentMetadataConstant.TABLE_NAME, tableName);
+			agentVectorStoreService.deleteDocumentsByMetadata(metadata);
+
+			metadata.remove(DocumentMetadataConstant.TABLE_NAME);
+			metadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.TABLE);
+			metadata.put(DocumentMetadataConstant.NAME, tableName);
+			agentVectorStoreService.deleteDocumentsByMetadata(metadata);
+		}
+	}
+
 	@Override
 	public List<Document> getTableDocumentsByDatasource(Integer datasourceId, String query) {
 		Assert.notNull(datasourceId, "datasourceId cannot be null");
@@ -492,7 +805,7 @@ public class SchemaServiceImpl implements SchemaService {
 		Assert.notNull(datasourceId, "DatasourceId cannot be null.");
 		if (tableNames.isEmpty())
 			return Collections.emptyList();
-		// 通过元数据过滤查找目标表
+		// 通过元数据过滤查找目标表，进程内向量库由元数据索引直接应答
 		Filter.Expression filterExpression = DynamicFilterService.buildFilterExpressionForSearchTables(datasourceId,
 				tableNames);
 		if (filterExpression == null) {
@@ -17,9 +17,7 @@ package com.alibaba.cloud.ai.dataagent.service.schema;
 
 import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
 import com.alibaba.cloud.ai.dataagent.connector.DbQueryParameter;
-import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
-import com.alibaba.cloud.ai.dataagent.util.SqlUtil;
 import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
 import com.alibaba.cloud.ai.dataagent.connector.accessor.AccessorFactory;
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
@@ -45,6 +43,8 @@ public class TableMetadataService {
 
 	private final ObjectMapper objectMapper;
 
+	private final ColumnSampler columnSampler;
+
 	/**
 	 * 批量处理多个表的元数据，提高性能
 	 * @param tables 表列表
@@ -58,11 +58,24 @@ public class TableMetadataService {
 		// 1. 批量获取所有表的列信息
 		Map<String, List<ColumnInfoBO>> tableColumnsMap = fetchTableColumns(tables, dbConfig);
 
-		// 2. 批量获取所有表的列样本数据
+		// 2. 获取样本数据并补全表的元数据
+		enrichTablesWithSamples(tables, dbConfig, tableColumnsMap, foreignKeyMap);
+	}
+
+	/**
+	 * 获取列样本数据，并为表补全列、主键、外键信息
+	 * @param tables 表列表
+	 * @param dbConfig 数据库配置
+	 * @param tableColumnsMap 表名到列信息的映射，由 {@link #fetchTableColumns} 获取
+	 * @param foreignKeyMap 外键映射
+	 */
+	public void enrichTablesWithSamples(List<TableInfoBO> tables, DbConfigBO dbConfig,
+			Map<String, List<ColumnInfoBO>> tableColumnsMap, Map<String, List<String>> foreignKeyMap) {
+		// 批量获取所有表的列样本数据
 		Map<String, Map<String, List<String>>> allTablesSampleData = batchGetSampleDataForTables(dbConfig,
 				tableColumnsMap);
 
-		// 3. 处理每个表的元数据
+		// 处理每个表的元数据
 		enrichTablesWithMetadata(tables, tableColumnsMap, allTablesSampleData, foreignKeyMap);
 	}
 
@@ -73,17 +86,18 @@ public class TableMetadataService {
 	 * @return 表名到列信息的映射
 	 * @throws Exception 获取列信息失败时抛出异常
 	 */
-	private Map<String, List<ColumnInfoBO>> fetchTableColumns(List<TableInfoBO> tables, DbConfigBO dbConfig)
+	public Map<String, List<ColumnInfoBO>> fetchTableColumns(List<TableInfoBO> tables, DbConfigBO dbConfig)
 			throws Exception {
-		Map<String, List<ColumnInfoBO>> tableColumnsMap = new HashMap<>();
 		Accessor accessor = accessorFactory.getAccessorByDbConfig(dbConfig);
 
-		for (TableInfoBO table : tables) {
-			DbQueryParameter tableDqp = DbQueryParameter.from(dbConfig)
-				.setSchema(dbConfig.getSchema())
-				.setTable(table.getName());
-			List<ColumnInfoBO> columnInfoBOS = accessor.showColumns(dbConfig, tableDqp);
-			tableColumnsMap.put(table.getName(), columnInfoBOS);
+		// 一次（按批）集合查询取回所有表的列，代替逐表查询
+		List<String> tableNames = tables.stream().map(TableInfoBO::getName).distinct().toList();
+		DbQueryParameter tablesDqp = DbQueryParameter.from(dbConfig)
+			.setSchema(dbConfig.getSchema())
+			.setTables(tableNames);
+		Map<String, List<ColumnInfoBO>> tableColumnsMap = new HashMap<>(accessor.showColumnsBatch(dbConfig, tablesDqp));
+		for (String tableName : tableNames) {
+			tableColumnsMap.computeIfAbsent(tableName, k -> new ArrayList<>());
 		}
 
 		return tableColumnsMap;
@@ -213,97 +227,11 @@ public class TableMetadataService {
 				continue;
 			}
 
-			Map<String, List<String>> tableSampleData = fetchTableSampleData(dbConfig, accessor, tableName, columns);
+			Map<String, List<String>> tableSampleData = columnSampler.sample(dbConfig, accessor, tableName, columns);
 			result.put(tableName, tableSampleData);
 		}
 
 		return result;
 	}
 
-	/**
-	 * 获取单个表的样本数据
-	 * @param dbConfig 数据库配置
-	 * @param accessor 数据库访问器
-	 * @param tableName 表名
-	 * @param columns 列信息列表
-	 * @return 表的样本数据映射
-	 */
-	private Map<String, List<String>> fetchTableSampleData(DbConfigBO dbConfig, Accessor accessor, String tableName,
-			List<ColumnInfoBO> columns) {
-
-		try {
-			// 构建批量查询SQL，一次查询多个列的样本数据
-			String columnNames = columns.stream().map(ColumnInfoBO::getName).collect(Collectors.joining(", "));
-			String sql = SqlUtil.buildSelectSql(dbConfig.getDialectType(), tableName, columnNames, 5);
-
-			DbQueryParameter batchParam = new DbQueryParameter();
-			batchParam.setSchema(dbConfig.getSchema());
-			batchParam.setSql(sql);
-
-			ResultSetBO resultSet = accessor.executeSqlAndReturnObject(dbConfig, batchParam);
-			log.info("Embedding for table: {}, result size: {}", tableName, resultSet.getData().size());
-
-			return processResultSet(resultSet, columns);
-		}
-		catch (Exception e) {
-			log.error("Failed to fetch sample data for table: {},use empty map as default value", tableName, e);
-			return new HashMap<>();
-		}
-	}
-
-	/**
-	 * 处理查询结果集，提取并格式化样本数据
-	 * @param resultSet 查询结果集
-	 * @param columns 列信息列表
-	 * @return 处理后的样本数据
-	 */
-	private Map<String, List<String>> processResultSet(ResultSetBO resultSet, List<ColumnInfoBO> columns) {
-		Map<String, List<String>> tableSampleData = new HashMap<>();
-
-		if (resultSet == null || resultSet.getData() == null) {
-			return tableSampleData;
-		}
-
-		// 提取原始样本数据
-		for (Map<String, String> row : resultSet.getData()) {
-			extractSampleDataFromRow(row, columns, tableSampleData);
-		}
-
-		// 过滤和限制样本数据
-		return filterAndLimitSampleData(tableSampleData);
-	}
-
-	/**
-	 * 从单行数据中提取样本数据
-	 * @param row 数据行
-	 * @param columns 列信息列表
-	 * @param tableSampleData 存储样本数据的映射
-	 */
-	private void extractSampleDataFromRow(Map<String, String> row, List<ColumnInfoBO> columns,
-			Map<String, List<String>> tableSampleData) {
-		for (ColumnInfoBO column : columns) {
-			String columnName = column.getName();
-			Object value = row.get(columnName);
-			if (value != null) {
-				tableSampleData.computeIfAbsent(columnName, k -> new ArrayList<>()).add(String.valueOf(value));
-			}
-		}
-	}
-
-	/**
-	 * 过滤和限制样本数据，确保每列最多3个样本，并去重
-	 * @param tableSampleData 原始样本数据
-	 * @return 过滤后的样本数据
-	 */
-	private Map<String, List<String>> filterAndLimitSampleData(Map<String, List<String>> tableSampleData) {
-		tableSampleData.replaceAll((col, samples) -> samples.stream()
-			.filter(Objects::nonNull)
-			.distinct()
-			.limit(3)
-			.filter(s -> s.length() <= 100)
-			.collect(Collectors.toList()));
-
-		return tableSampleData;
-	}
-
 }
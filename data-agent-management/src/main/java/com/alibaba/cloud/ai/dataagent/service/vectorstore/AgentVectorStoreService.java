@@ -29,12 +29,22 @@ public interface AgentVectorStoreService {
 	 */
 	List<Document> search(AgentSearchRequest searchRequest);
 
+	/**
+	 * 仅按向量相似度检索，不走混合检索，返回结果均满足请求中的相似度阈值
+	 */
+	List<Document> vectorSearch(AgentSearchRequest searchRequest);
+
 	Boolean deleteDocumentsByVectorType(String agentId, String vectorType) throws Exception;
 
 	Boolean deleteDocumentsByMetedata(String agentId, Map<String, Object> metadata);
 
 	Boolean deleteDocumentsByMetadata(Map<String, Object> metadata);
 
+	/**
+	 * 按文档ID删除
+	 */
+	void deleteDocumentsByIds(List<String> ids);
+
 	/**
 	 * Get documents for specified agent
 	 */
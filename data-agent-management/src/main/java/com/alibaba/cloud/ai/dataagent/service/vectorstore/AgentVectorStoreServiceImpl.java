@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
 import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.cloud.ai.dataagent.dto.search.AgentSearchRequest;
 import com.alibaba.cloud.ai.dataagent.dto.search.HybridSearchRequest;
+import com.alibaba.cloud.ai.dataagent.service.hybrid.keyword.Bm25KeywordIndex;
 import com.alibaba.cloud.ai.dataagent.service.hybrid.retrieval.HybridRetrievalStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
@@ -27,6 +28,8 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -48,13 +51,20 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 
 	private final DynamicFilterService dynamicFilterService;
 
+	private final Bm25KeywordIndex keywordIndex;
+
+	private final DocumentMetadataIndex metadataIndex;
+
 	public AgentVectorStoreServiceImpl(VectorStore vectorStore,
 			Optional<HybridRetrievalStrategy> hybridRetrievalStrategy, DataAgentProperties dataAgentProperties,
-			DynamicFilterService dynamicFilterService) {
+			DynamicFilterService dynamicFilterService, Bm25KeywordIndex keywordIndex,
+			DocumentMetadataIndex metadataIndex) {
 		this.vectorStore = vectorStore;
 		this.hybridRetrievalStrategy = hybridRetrievalStrategy;
 		this.dataAgentProperties = dataAgentProperties;
 		this.dynamicFilterService = dynamicFilterService;
+		this.keywordIndex = keywordIndex;
+		this.metadataIndex = metadataIndex;
 		log.info("VectorStore type: {}", vectorStore.getClass().getSimpleName());
 	}
 
@@ -91,6 +101,25 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 
 	}
 
+	@Override
+	public List<Document> vectorSearch(AgentSearchRequest searchRequest) {
+		Assert.hasText(searchRequest.getAgentId(), "AgentId cannot be empty");
+		Assert.hasText(searchRequest.getDocVectorType(), "DocVectorType cannot be empty");
+
+		Filter.Expression filter = dynamicFilterService.buildDynamicFilter(searchRequest.getAgentId(),
+				searchRequest.getDocVectorType());
+		if (filter == null) {
+			return Collections.emptyList();
+		}
+		SearchRequest request = SearchRequest.builder()
+			.query(searchRequest.getQuery())
+			.topK(searchRequest.getTopK())
+			.similarityThreshold(searchRequest.getSimilarityThreshold())
+			.filterExpression(filter)
+			.build();
+		return vectorStore.similaritySearch(request);
+	}
+
 	@Override
 	public Boolean deleteDocumentsByVectorType(String agentId, String vectorType) throws Exception {
 		Assert.notNull(agentId, "AgentId cannot be null.");
@@ -129,21 +158,29 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 			}
 		}
 		vectorStore.add(documents);
+		// 同步进程内关键词索引和元数据索引（未启用时为空操作）
+		keywordIndex.addDocuments(documents);
+		metadataIndex.addDocuments(documents);
 	}
 
 	@Override
 	public Boolean deleteDocumentsByMetadata(Map<String, Object> metadata) {
 		Assert.notNull(metadata, "Metadata cannot be null.");
-		String filterExpression = buildFilterExpressionString(metadata);
+		deleteDocumentsWithMetadataFilter(metadata);
+		return true;
+	}
 
-		if (vectorStore instanceof SimpleVectorStore) {
-			batchDelDocumentsWithFilter(filterExpression);
+	@Override
+	public void deleteDocumentsByIds(List<String> ids) {
+		if (ids == null || ids.isEmpty()) {
+			return;
 		}
-		else {
-			vectorStore.delete(filterExpression);
+		int batchSize = dataAgentProperties.getVectorStore().getBatchDelTopkLimit();
+		for (int i = 0; i < ids.size(); i += batchSize) {
+			vectorStore.delete(ids.subList(i, Math.min(i + batchSize, ids.size())));
 		}
-
-		return true;
+		keywordIndex.removeByIds(ids);
+		metadataIndex.removeByIds(ids);
 	}
 
 	@Override
@@ -152,8 +189,21 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 		Assert.notNull(metadata, "Metadata cannot be null.");
 		// 添加agentId元数据过滤条件, 用于删除指定agentId下的所有数据，因为metadata中用户调用可能忘记添加agentId
 		metadata.put(Constant.AGENT_ID, agentId);
+		deleteDocumentsWithMetadataFilter(metadata);
+		return true;
+	}
+
+	private void deleteDocumentsWithMetadataFilter(Map<String, Object> metadata) {
 		String filterExpression = buildFilterExpressionString(metadata);
 
+		if (metadataIndex.isReady()) {
+			// 进程内向量库：由元数据索引直接定位文档id后按id删除，无需嵌入查询和向量扫描
+			List<String> ids = metadataIndex.findIds(parseFilter(filterExpression));
+			deleteDocumentsByIds(ids);
+			log.info("Deleted {} documents with filter expression: {}", ids.size(), filterExpression);
+			return;
+		}
+
 		// es的可以直接元数据删除
 		if (vectorStore instanceof SimpleVectorStore) {
 			// 目前SimpleVectorStore不支持通过元数据删除，使用会抛出UnsupportedOperationException,现在是通过id删除
@@ -162,8 +212,13 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 		else {
 			vectorStore.delete(filterExpression);
 		}
+		keywordIndex.removeByMetadata(metadata);
+		// 元数据索引尚未就绪时也要同步删除，避免重建后恢复已删除的文档
+		metadataIndex.removeByFilter(parseFilter(filterExpression));
+	}
 
-		return true;
+	private static Filter.Expression parseFilter(String filterExpression) {
+		return filterExpression == null ? null : new FilterExpressionTextParser().parse(filterExpression);
 	}
 
 	private void batchDelDocumentsWithFilter(String filterExpression) {
@@ -232,6 +287,9 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 		Assert.notNull(filterExpression, "filterExpression cannot be null.");
 		if (topK == null)
 			topK = dataAgentProperties.getVectorStore().getDefaultTopkLimit();
+		if (metadataIndex.isReady()) {
+			return metadataIndex.find(filterExpression, topK);
+		}
 		SearchRequest searchRequest = SearchRequest.builder()
 			.query(DEFAULT)
 			.topK(topK)
@@ -243,6 +301,10 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 
 	@Override
 	public boolean hasDocuments(String agentId) {
+		if (metadataIndex.isReady()) {
+			Filter.Expression filter = new FilterExpressionBuilder().eq(Constant.AGENT_ID, agentId).build();
+			return !metadataIndex.find(filter, 1).isEmpty();
+		}
 		// 类似 MySQL 的 LIMIT 1,只检查是否存在文档
 		List<Document> docs = vectorStore.similaritySearch(org.springframework.ai.vectorstore.SearchRequest.builder()
 			.query(DEFAULT)// 使用默认的查询字符串，因为有的嵌入模型不支持空字符串
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.hybrid.keyword.MetadataFilterEvaluator;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.ann.LocalAnnVectorStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 向量库文档的进程内元数据二级索引：对 agentId、vectorType、datasourceId 及知识 id 等字段维护 值 -> 文档id 的倒排表，
+ * 使按元数据删除、判断智能体是否已有文档、按条件读取文档都变为索引查找，不再需要嵌入查询字符串并扫描全部向量。
+ *
+ * <p>
+ * 只对进程内向量库（SimpleVectorStore、LocalAnnVectorStore）启用：它们的全部写入都经过 {@code AgentVectorStoreService}，
+ * 索引可以与向量库保持一致；外部向量库可能被其他实例修改，仍走原有检索路径。 SimpleVectorStore 在反序列化本地文件后由
+ * {@link SimpleVectorStoreInitialization} 重建索引，在此之前 {@link #isReady()} 为 false，调用方应回退到原有实现。
+ *
+ * <p>
+ * 倒排表只用于缩小候选范围，候选文档最终仍按完整的过滤表达式求值，结果与向量库的过滤语义一致。
+ */
+@Slf4j
+@Component
+public class DocumentMetadataIndex {
+
+	/**
+	 * 建立倒排表的元数据字段
+	 */
+	private static final Set<String> INDEXED_KEYS = Set.of(Constant.AGENT_ID, DocumentMetadataConstant.VECTOR_TYPE,
+			Constant.DATASOURCE_ID, DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID,
+			DocumentMetadataConstant.DB_BUSINESS_TERM_ID, DocumentMetadataConstant.SEMANTIC_CACHE_ID);
+
+	private final boolean enabled;
+
+	private volatile boolean ready;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * 文档id -> 文档（不含向量），保持写入顺序
+	 */
+	private final Map<String, Document> documents = new LinkedHashMap<>();
+
+	/**
+	 * 字段 -> 归一化后的值 -> 文档id
+	 */
+	private final Map<String, Map<String, Set<String>>> postings = new HashMap<>();
+
+	/**
+	 * 索引就绪前已从向量库删除的文档id和删除条件，重建时不再从向量库快照中恢复这些文档
+	 */
+	private final Set<String> removedBeforeReady = new HashSet<>();
+
+	private final List<Filter.Expression> filtersRemovedBeforeReady = new ArrayList<>();
+
+	public DocumentMetadataIndex(VectorStore vectorStore, DataAgentProperties properties) {
+		this.enabled = properties.getVectorStore().isEnableMetadataIndex()
+				&& (vectorStore instanceof SimpleVectorStore || vectorStore instanceof LocalAnnVectorStore);
+		if (enabled && vectorStore instanceof LocalAnnVectorStore localAnnVectorStore) {
+			// 本地ANN向量库在构造时已从WAL恢复，可以立即建立索引
+			rebuild(localAnnVectorStore.listDocuments());
+		}
+		log.info("Vector store metadata index enabled: {}", enabled);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 索引是否已完整覆盖向量库中的文档，只有为 true 时查询结果才可信
+	 */
+	public boolean isReady() {
+		return enabled && ready;
+	}
+
+	/**
+	 * 用向量库的全部文档重建索引，之后索引进入可用状态。重建前通过 {@link #addDocuments} 写入的文档比快照更新，会被保留；
+	 * 重建前已删除的文档不会从快照中恢复
+	 */
+	public void rebuild(Collection<Document> existing) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			addDocuments(existing.stream()
+				.filter(document -> !documents.containsKey(document.getId())
+						&& !removedBeforeReady.contains(document.getId()) && filtersRemovedBeforeReady.stream()
+							.noneMatch(filter -> MetadataFilterEvaluator.matches(filter, document.getMetadata())))
+				.toList());
+			removedBeforeReady.clear();
+			filtersRemovedBeforeReady.clear();
+			ready = true;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		log.info("Vector store metadata index ready with {} documents", size());
+	}
+
+	public void addDocuments(Collection<Document> added) {
+		if (!enabled || added == null || added.isEmpty()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			for (Document document : added) {
+				remove(document.getId());
+				Document copy = copy(document);
+				Map<String, Object> metadata = copy.getMetadata();
+				documents.put(copy.getId(), copy);
+				for (String key : INDEXED_KEYS) {
+					Object value = metadata.get(key);
+					if (value != null) {
+						postings.computeIfAbsent(key, k -> new HashMap<>())
+							.computeIfAbsent(normalize(value), v -> new HashSet<>())
+							.add(document.getId());
+					}
+				}
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void removeByIds(Collection<String> ids) {
+		if (!enabled || ids == null || ids.isEmpty()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			for (String id : ids) {
+				remove(id);
+			}
+			if (!ready) {
+				removedBeforeReady.addAll(ids);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 移除满足过滤条件的文档，用于索引未就绪时按过滤表达式直接在向量库中删除的情况
+	 */
+	public void removeByFilter(Filter.Expression filter) {
+		if (!enabled || filter == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			documents.values()
+				.stream()
+				.filter(document -> MetadataFilterEvaluator.matches(filter, document.getMetadata()))
+				.map(Document::getId)
+				.toList()
+				.forEach(this::remove);
+			if (!ready) {
+				filtersRemovedBeforeReady.add(filter);
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 查找满足过滤条件的文档id，filter 为 null 时返回全部文档id
+	 */
+	public List<String> findIds(Filter.Expression filter) {
+		return find(filter, Integer.MAX_VALUE).stream().map(Document::getId).toList();
+	}
+
+	/**
+	 * 查找满足过滤条件的文档，最多返回 limit 个；返回的是副本，调用方可以修改其元数据
+	 */
+	public List<Document> find(Filter.Expression filter, int limit) {
+		if (!isReady() || limit <= 0) {
+			return List.of();
+		}
+		lock.readLock().lock();
+		try {
+			Set<String> candidates = filter == null ? null : candidates(filter);
+			Collection<String> scan = candidates == null ? documents.keySet() : candidates;
+			List<Document> results = new ArrayList<>();
+			for (String id : scan) {
+				Document document = documents.get(id);
+				if (document == null
+						|| filter != null && !MetadataFilterEvaluator.matches(filter, document.getMetadata())) {
+					continue;
+				}
+				results.add(copy(document));
+				if (results.size() >= limit) {
+					break;
+				}
+			}
+			return results;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static Document copy(Document document) {
+		Map<String, Object> metadata = document.getMetadata() == null ? Map.of() : document.getMetadata();
+		return new Document(document.getId(), document.getText(), new HashMap<>(metadata));
+	}
+
+	private void remove(String id) {
+		Document removed = documents.remove(id);
+		if (removed == null) {
+			return;
+		}
+		for (String key : INDEXED_KEYS) {
+			Object value = removed.getMetadata().get(key);
+			if (value == null) {
+				continue;
+			}
+			Map<String, Set<String>> values = postings.get(key);
+			String normalized = normalize(value);
+			Set<String> ids = values == null ? null : values.get(normalized);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty()) {
+					values.remove(normalized);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 根据过滤表达式中的等值/IN 条件从倒排表得到候选文档id（超集）；无法利用倒排表时返回 null，表示需要扫描全部文档
+	 */
+	private Set<String> candidates(Filter.Operand operand) {
+		if (operand instanceof Filter.Group group) {
+			return candidates(group.content());
+		}
+		if (!(operand instanceof Filter.Expression expression)) {
+			return null;
+		}
+		switch (expression.type()) {
+			case AND -> {
+				Set<String> left = candidates(expression.left());
+				Set<String> right = candidates(expression.right());
+				if (left == null || right == null) {
+					return left == null ? right : left;
+				}
+				Set<String> smaller = left.size() <= right.size() ? left : right;
+				Set<String> larger = smaller == left ? right : left;
+				Set<String> intersection = new LinkedHashSet<>();
+				for (String id : smaller) {
+					if (larger.contains(id)) {
+						intersection.add(id);
+					}
+				}
+				return intersection;
+			}
+			case OR -> {
+				Set<String> left = candidates(expression.left());
+				Set<String> right = candidates(expression.right());
+				if (left == null || right == null) {
+					return null;
+				}
+				Set<String> union = new LinkedHashSet<>(left);
+				union.addAll(right);
+				return union;
+			}
+			case EQ, IN -> {
+				String key = indexedKey(expression.left());
+				if (key == null || !(expression.right() instanceof Filter.Value value) || value.value() == null) {
+					return null;
+				}
+				Map<String, Set<String>> values = postings.getOrDefault(key, Map.of());
+				Set<String> ids = new LinkedHashSet<>();
+				for (Object expected : expectedValues(value.value())) {
+					ids.addAll(values.getOrDefault(normalize(expected), Set.of()));
+				}
+				return ids;
+			}
+			default -> {
+				return null;
+			}
+		}
+	}
+
+	private static String indexedKey(Filter.Operand operand) {
+		if (!(operand instanceof Filter.Key key)) {
+			return null;
+		}
+		String name = key.key();
+		if (name.length() > 1 && (name.startsWith("\"") && name.endsWith("\"")
+				|| name.startsWith("'") && name.endsWith("'"))) {
+			name = name.substring(1, name.length() - 1);
+		}
+		return INDEXED_KEYS.contains(name) ? name : null;
+	}
+
+	private static List<?> expectedValues(Object value) {
+		if (value instanceof Collection<?> values) {
+			return new ArrayList<>(values);
+		}
+		if (value instanceof Object[] values) {
+			return List.of(values);
+		}
+		return List.of(value);
+	}
+
+	/**
+	 * 与 {@link MetadataFilterEvaluator} 的相等语义保持一致：数值按数值相等（1、1L、"1" 归一为同一个键），其余按字符串
+	 */
+	static String normalize(Object value) {
+		Double number = null;
+		if (value instanceof Number n) {
+			number = n.doubleValue();
+		}
+		else if (value instanceof String s && !s.isEmpty() && s.length() < 32) {
+			try {
+				number = Double.parseDouble(s);
+			}
+			catch (NumberFormatException e) {
+				// 非数值字符串
+			}
+		}
+		if (number == null) {
+			return String.valueOf(value);
+		}
+		if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+			return Long.toString(number.longValue());
+		}
+		return Double.toString(number);
+	}
+
+}
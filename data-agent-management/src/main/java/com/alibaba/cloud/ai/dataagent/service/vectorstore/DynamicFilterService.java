@@ -17,8 +17,7 @@ package com.alibaba.cloud.ai.dataagent.service.vectorstore;
 
 import com.alibaba.cloud.ai.dataagent.constant.Constant;
 import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
-import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
-import com.alibaba.cloud.ai.dataagent.mapper.BusinessKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.vectorstore.filter.Filter;
@@ -28,6 +27,7 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,48 +35,49 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class DynamicFilterService {
 
-	private final AgentKnowledgeMapper agentKnowledgeMapper;
+	private final RecalledKnowledgeIdCache recalledKnowledgeIdCache;
 
-	private final BusinessKnowledgeMapper businessKnowledgeMapper;
+	private final DataAgentProperties dataAgentProperties;
 
 	public Filter.Expression buildDynamicFilter(String agentId, String vectorType) {
 		FilterExpressionBuilder b = new FilterExpressionBuilder();
 		List<Filter.Expression> conditions = new ArrayList<>();
+		Filter.Operand idFilter = null;
 
 		// 必须条件
 		conditions.add(b.eq(Constant.AGENT_ID, agentId).build());
 		conditions.add(b.eq(DocumentMetadataConstant.VECTOR_TYPE, vectorType).build());
 
+		int rangeMinLength = dataAgentProperties.getVectorStore().getRecalledIdRangeMinLength();
 		switch (vectorType) {
 
 			case DocumentMetadataConstant.AGENT_KNOWLEDGE:
-				// 场景 A: 知识库文档 -> 需要查 MySQL 获取启用状态
-				List<Integer> validIds = agentKnowledgeMapper.selectRecalledKnowledgeIds(Integer.valueOf(agentId));
+				// 场景 A: 知识库文档 -> 需要查 MySQL 获取启用状态（带本地缓存）
+				long[] validIds = recalledKnowledgeIdCache.getRecalledIds(agentId, vectorType);
 
-				if (validIds.isEmpty()) {
+				if (validIds.length == 0) {
 					log.warn("Agent {} has no recalled knowledge documents. Returning empty filter signal.", agentId);
 					return null;
 				}
 				else {
-					// 加入 ID 过滤
-					conditions.add(b.in(DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID, validIds.toArray()).build());
+					// 加入 ID 过滤，元数据中的知识ID为 Integer
+					idFilter = buildIdFilter(DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID, validIds, rangeMinLength,
+							id -> (int) id);
 				}
 				break;
 
 			case DocumentMetadataConstant.BUSINESS_TERM:
-				// 场景 B: 业务知识 -> 查 business_knowledge 表的需要召回的
-				List<Long> recalledBusinessKnowledgeIds = businessKnowledgeMapper
-					.selectRecalledKnowledgeIds(Long.valueOf(agentId));
+				// 场景 B: 业务知识 -> 查 business_knowledge 表的需要召回的（带本地缓存）
+				long[] recalledBusinessKnowledgeIds = recalledKnowledgeIdCache.getRecalledIds(agentId, vectorType);
 
-				if (recalledBusinessKnowledgeIds.isEmpty()) {
+				if (recalledBusinessKnowledgeIds.length == 0) {
 					log.warn("Agent {} has no recalled business terms. Returning empty filter signal.", agentId);
 					return null;
 				}
 				else {
 					// 添加 ID 过滤
-					conditions
-						.add(b.in(DocumentMetadataConstant.DB_BUSINESS_TERM_ID, recalledBusinessKnowledgeIds.toArray())
-							.build());
+					idFilter = buildIdFilter(DocumentMetadataConstant.DB_BUSINESS_TERM_ID, recalledBusinessKnowledgeIds,
+							rangeMinLength, id -> id);
 				}
 				break;
 
@@ -87,7 +88,59 @@ public class DynamicFilterService {
 		}
 
 		// 组合所有条件
-		return combineWithAnd(conditions);
+		Filter.Expression filter = combineWithAnd(conditions);
+		return idFilter == null ? filter : new Filter.Expression(Filter.ExpressionType.AND, filter, idFilter);
+	}
+
+	/**
+	 * 根据升序ID数组构建紧凑的ID过滤条件：连续ID段长度达到 rangeMinLength 时使用 {@code key >= start AND key <= end}
+	 * 区间条件，其余离散ID合并为一个 IN 条件，多个部分之间用 OR 连接，避免大量ID使过滤表达式膨胀。
+	 * @param key 元数据字段名
+	 * @param sortedIds 升序且去重的ID
+	 * @param rangeMinLength 使用区间条件的最小连续长度，小于等于1时视为不压缩
+	 * @param boxer 将ID转换为与元数据中存储一致的类型
+	 * @return 过滤条件，多个部分时以 Group 包裹，可直接作为 AND 的操作数
+	 */
+	public static Filter.Operand buildIdFilter(String key, long[] sortedIds, int rangeMinLength,
+			LongFunction<Object> boxer) {
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+		int minLength = rangeMinLength <= 1 ? Integer.MAX_VALUE : rangeMinLength;
+		List<Object> discreteIds = new ArrayList<>();
+		List<Filter.Operand> ranges = new ArrayList<>();
+
+		int i = 0;
+		while (i < sortedIds.length) {
+			int j = i;
+			while (j + 1 < sortedIds.length && sortedIds[j + 1] == sortedIds[j] + 1) {
+				j++;
+			}
+			if (j - i + 1 >= minLength) {
+				ranges.add(new Filter.Group(new Filter.Expression(Filter.ExpressionType.AND,
+						b.gte(key, boxer.apply(sortedIds[i])).build(), b.lte(key, boxer.apply(sortedIds[j])).build())));
+			}
+			else {
+				for (int k = i; k <= j; k++) {
+					discreteIds.add(boxer.apply(sortedIds[k]));
+				}
+			}
+			i = j + 1;
+		}
+
+		List<Filter.Operand> parts = new ArrayList<>(ranges.size() + 1);
+		if (!discreteIds.isEmpty()) {
+			parts.add(b.in(key, discreteIds.toArray()).build());
+		}
+		parts.addAll(ranges);
+		if (parts.size() == 1) {
+			return parts.get(0);
+		}
+
+		Filter.Expression result = new Filter.Expression(Filter.ExpressionType.OR, parts.get(0), parts.get(1));
+		for (int p = 2; p < parts.size(); p++) {
+			result = new Filter.Expression(Filter.ExpressionType.OR, result, parts.get(p));
+		}
+		// 与 agentId 等条件 AND 组合时需要保留括号
+		return new Filter.Group(result);
 	}
 
 	/**
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore;
+
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.event.KnowledgeRecallChangedEvent;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.mapper.BusinessKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 智能体召回知识ID集合的本地缓存。
+ *
+ * <p>
+ * 按 (智能体, 向量类型) 缓存 is_recall = 1 且未删除的知识ID，存储为升序的 long 数组，避免每次向量检索都查询管理库。
+ * 知识新增、删除或召回状态变化时通过 {@link KnowledgeRecallChangedEvent} 在事务提交后失效，TTL 仅作兜底。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecalledKnowledgeIdCache {
+
+	private final AgentKnowledgeMapper agentKnowledgeMapper;
+
+	private final BusinessKnowledgeMapper businessKnowledgeMapper;
+
+	private final DataAgentProperties dataAgentProperties;
+
+	private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * 每次失效递增，加载期间发生过失效的结果不写入缓存，避免旧数据覆盖
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * 获取召回ID，返回升序且去重的数组；不支持的向量类型返回null
+	 */
+	public long[] getRecalledIds(String agentId, String vectorType) {
+		if (!isSupported(vectorType)) {
+			return null;
+		}
+		long ttlSeconds = dataAgentProperties.getVectorStore().getRecalledIdCacheTtlSeconds();
+		CacheKey key = new CacheKey(agentId, vectorType);
+		CacheEntry entry = entries.get(key);
+		if (entry != null && !entry.isExpired(ttlSeconds)) {
+			return entry.ids();
+		}
+
+		long loadGeneration = generation.get();
+		long[] ids = load(agentId, vectorType);
+		if (ttlSeconds > 0 && generation.get() == loadGeneration) {
+			entries.put(key, new CacheEntry(ids, System.currentTimeMillis()));
+		}
+		return ids;
+	}
+
+	public void invalidate(String agentId, String vectorType) {
+		generation.incrementAndGet();
+		entries.remove(new CacheKey(agentId, vectorType));
+	}
+
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+
+	/**
+	 * 事务提交后再失效，避免并发检索在提交前把旧ID重新加载进缓存；非事务调用时立即失效
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onRecallChanged(KnowledgeRecallChangedEvent event) {
+		invalidate(event.getAgentId(), event.getVectorType());
+		log.debug("Invalidated recalled id cache for agent {}, vectorType {}", event.getAgentId(),
+				event.getVectorType());
+	}
+
+	private long[] load(String agentId, String vectorType) {
+		Collection<? extends Number> ids = switch (vectorType) {
+			case DocumentMetadataConstant.AGENT_KNOWLEDGE ->
+				agentKnowledgeMapper.selectRecalledKnowledgeIds(Integer.valueOf(agentId));
+			case DocumentMetadataConstant.BUSINESS_TERM ->
+				businessKnowledgeMapper.selectRecalledKnowledgeIds(Long.valueOf(agentId));
+			default -> throw new IllegalArgumentException("Unsupported vector type: " + vectorType);
+		};
+		return ids.stream()
+			.filter(Objects::nonNull)
+			.mapToLong(Number::longValue)
+			.sorted()
+			.distinct()
+			.toArray();
+	}
+
+	private static boolean isSupported(String vectorType) {
+		return DocumentMetadataConstant.AGENT_KNOWLEDGE.equals(vectorType)
+				|| DocumentMetadataConstant.BUSINESS_TERM.equals(vectorType);
+	}
+
+	private record CacheKey(String agentId, String vectorType) {
+	}
+
+	private record CacheEntry(long[] ids, long createdAt) {
+
+		boolean isExpired(long ttlSeconds) {
+			return ttlSeconds <= 0 || System.currentTimeMillis() - createdAt > ttlSeconds * 1000L;
+		}
+
+	}
+
+}
@@ -16,17 +16,27 @@
 package com.alibaba.cloud.ai.dataagent.service.vectorstore;
 
 import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author David Yu
@@ -39,11 +49,14 @@ public class SimpleVectorStoreInitialization implements ApplicationRunner, Dispo
 
 	private final DataAgentProperties properties;
 
+	private final DocumentMetadataIndex metadataIndex;
+
 	public void load() {
 		File file = new File(properties.getVectorStore().getFilePath());
 
 		if (!file.exists()) {
 			log.info("No locally serialized vector database file was found.");
+			metadataIndex.rebuild(List.of());
 			return;
 		}
 
@@ -52,7 +65,54 @@ public class SimpleVectorStoreInitialization implements ApplicationRunner, Dispo
 		}
 		catch (Throwable throwable) {
 			log.error("Failed to load the locally serialized vector database file.", throwable);
+			return;
+		}
+
+		if (metadataIndex.isEnabled()) {
+			try {
+				metadataIndex.rebuild(readDocuments(file));
+			}
+			catch (Throwable throwable) {
+				// 索引保持未就绪状态，按元数据的删除和查询回退到向量检索
+				log.error("Failed to build the metadata index from the vector database file.", throwable);
+			}
+		}
+	}
+
+	/**
+	 * 流式读取序列化文件中的文档id、文本和元数据，跳过向量数组
+	 */
+	private static List<Document> readDocuments(File file) throws IOException {
+		List<Document> documents = new ArrayList<>();
+		try (JsonParser parser = JsonUtil.getObjectMapper().getFactory().createParser(file)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return documents;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					parser.skipChildren();
+					continue;
+				}
+				String id = null;
+				String text = "";
+				Map<String, Object> metadata = new HashMap<>();
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.currentName();
+					parser.nextToken();
+					switch (field) {
+						case "id" -> id = parser.getValueAsString();
+						case "text", "content" -> text = parser.getValueAsString("");
+						case "metadata" -> metadata = parser.readValueAs(new TypeReference<HashMap<String, Object>>() {
+						});
+						default -> parser.skipChildren();
+					}
+				}
+				if (id != null) {
+					documents.add(new Document(id, text, metadata == null ? new HashMap<>() : metadata));
+				}
+			}
 		}
+		return documents;
 	}
 
 	public void save() {
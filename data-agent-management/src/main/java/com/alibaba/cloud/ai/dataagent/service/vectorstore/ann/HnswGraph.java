@@ -0,0 +1,445 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore.ann;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * 分层可导航小世界图（HNSW），节点号即向量槽位号，相似度越大越近。
+ *
+ * <p>
+ * 图本身不支持删除：被删除的节点仍参与导航，只是不会进入结果（由调用方的 accept 条件排除），
+ * 删除比例过高时由向量库整体重建。结构修改须在写锁下进行，{@link #search} 可在读锁下并发调用。
+ */
+final class HnswGraph {
+
+	private static final int MAGIC = 0x484E5357;
+
+	/**
+	 * 节点相似度的来源
+	 */
+	interface Similarity {
+
+		float toQuery(int node, float[] query);
+
+		float[] vector(int node);
+
+	}
+
+	/**
+	 * 检索结果：节点号与相似度
+	 */
+	record Candidate(int node, float score) {
+	}
+
+	private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::score)
+		.reversed();
+
+	private final int m;
+
+	private final int maxM0;
+
+	private final int efConstruction;
+
+	private final double levelMultiplier;
+
+	private final SplittableRandom random;
+
+	/**
+	 * links[node][level] 为该节点在该层的邻居，首元素为邻居数量；未插入的节点为 null
+	 */
+	private int[][][] links = new int[0][][];
+
+	private int size;
+
+	private int entryPoint = -1;
+
+	private int maxLevel = -1;
+
+	HnswGraph(int m, int efConstruction, long seed) {
+		this.m = Math.max(2, m);
+		this.maxM0 = this.m * 2;
+		this.efConstruction = Math.max(this.m, efConstruction);
+		this.levelMultiplier = 1 / Math.log(this.m);
+		this.random = new SplittableRandom(seed);
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean contains(int node) {
+		return node < links.length && links[node] != null;
+	}
+
+	/**
+	 * 是否包含节点号不小于 from 的节点
+	 */
+	boolean containsFrom(int from) {
+		for (int node = from; node < links.length; node++) {
+			if (links[node] != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	void insert(int node, float[] vector, Similarity similarity) {
+		if (contains(node)) {
+			return;
+		}
+		int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+		ensureCapacity(node + 1);
+		int[][] nodeLinks = new int[level + 1][];
+		for (int l = 0; l <= level; l++) {
+			nodeLinks[l] = new int[maxConnections(l) + 1];
+		}
+		links[node] = nodeLinks;
+		size++;
+
+		if (entryPoint < 0) {
+			entryPoint = node;
+			maxLevel = level;
+			return;
+		}
+
+		Candidate current = new Candidate(entryPoint, similarity.toQuery(entryPoint, vector));
+		for (int l = maxLevel; l > level; l--) {
+			current = greedyClosest(vector, current, l, similarity);
+		}
+		List<Candidate> entryPoints = List.of(current);
+		for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+			List<Candidate> candidates = searchLayer(vector, entryPoints, efConstruction, l, similarity, n -> true,
+					n -> n != node);
+			int[] selected = selectNeighbors(candidates, m, similarity);
+			for (int neighbor : selected) {
+				addLink(node, neighbor, l, similarity);
+				addLink(neighbor, node, l, similarity);
+			}
+			if (!candidates.isEmpty()) {
+				entryPoints = candidates;
+			}
+		}
+		if (level > maxLevel) {
+			entryPoint = node;
+			maxLevel = level;
+		}
+	}
+
+	/**
+	 * 检索与查询向量最相似的节点，只有满足 accept 的节点进入结果
+	 * @param ef 候选队列大小，不小于 k
+	 * @return 按相似度降序排列的结果，最多 k 个
+	 */
+	List<Candidate> search(float[] query, int k, int ef, IntPredicate accept, Similarity similarity) {
+		if (entryPoint < 0 || k <= 0) {
+			return List.of();
+		}
+		Candidate current = new Candidate(entryPoint, similarity.toQuery(entryPoint, query));
+		for (int l = maxLevel; l > 0; l--) {
+			current = greedyClosest(query, current, l, similarity);
+		}
+		List<Candidate> results = searchLayer(query, List.of(current), Math.max(ef, k), 0, similarity, accept,
+				n -> true);
+		return results.size() > k ? results.subList(0, k) : results;
+	}
+
+	private Candidate greedyClosest(float[] query, Candidate start, int level, Similarity similarity) {
+		Candidate best = start;
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			int[] neighbors = links[best.node()][level];
+			for (int i = 1; i <= neighbors[0]; i++) {
+				float score = similarity.toQuery(neighbors[i], query);
+				if (score > best.score()) {
+					best = new Candidate(neighbors[i], score);
+					improved = true;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * 单层 best-first 搜索。traverse 决定节点能否被展开（构建时排除自身），accept 决定能否进入结果；
+	 * 不满足 accept 的节点仍用于导航，保证过滤条件较严时图依然连通
+	 * @return 按相似度降序排列的结果
+	 */
+	private List<Candidate> searchLayer(float[] query, List<Candidate> entryPoints, int ef, int level,
+			Similarity similarity, IntPredicate accept, IntPredicate traverse) {
+		BitSet visited = new BitSet(links.length);
+		NodeHeap candidates = new NodeHeap(ef, true);
+		NodeHeap results = new NodeHeap(ef + 1, false);
+		for (Candidate entry : entryPoints) {
+			if (visited.get(entry.node())) {
+				continue;
+			}
+			visited.set(entry.node());
+			candidates.push(entry.node(), entry.score());
+			if (accept.test(entry.node()) && traverse.test(entry.node())) {
+				results.push(entry.node(), entry.score());
+				if (results.size() > ef) {
+					results.pop();
+				}
+			}
+		}
+
+		while (candidates.size() > 0) {
+			float score = candidates.topScore();
+			if (results.size() >= ef && score < results.topScore()) {
+				break;
+			}
+			int[] neighbors = links[candidates.pop()][level];
+			for (int i = 1; i <= neighbors[0]; i++) {
+				int neighbor = neighbors[i];
+				if (visited.get(neighbor)) {
+					continue;
+				}
+				visited.set(neighbor);
+				if (!traverse.test(neighbor)) {
+					continue;
+				}
+				float neighborScore = similarity.toQuery(neighbor, query);
+				if (results.size() < ef || neighborScore > results.topScore()) {
+					candidates.push(neighbor, neighborScore);
+					if (accept.test(neighbor)) {
+						results.push(neighbor, neighborScore);
+						if (results.size() > ef) {
+							results.pop();
+						}
+					}
+				}
+			}
+		}
+
+		Candidate[] sorted = new Candidate[results.size()];
+		for (int i = sorted.length - 1; i >= 0; i--) {
+			float score = results.topScore();
+			sorted[i] = new Candidate(results.pop(), score);
+		}
+		return Arrays.asList(sorted);
+	}
+
+	/**
+	 * 启发式邻居选择：候选只有在比所有已选邻居更接近目标时才入选，使邻居分布在不同方向上
+	 */
+	private int[] selectNeighbors(List<Candidate> nearestFirst, int max, Similarity similarity) {
+		int[] selected = new int[Math.min(max, nearestFirst.size())];
+		int count = 0;
+		for (Candidate candidate : nearestFirst) {
+			if (count >= selected.length) {
+				break;
+			}
+			float[] vector = similarity.vector(candidate.node());
+			boolean diverse = true;
+			for (int i = 0; i < count; i++) {
+				if (similarity.toQuery(selected[i], vector) > candidate.score()) {
+					diverse = false;
+					break;
+				}
+			}
+			if (diverse) {
+				selected[count++] = candidate.node();
+			}
+		}
+		return Arrays.copyOf(selected, count);
+	}
+
+	private void addLink(int from, int to, int level, Similarity similarity) {
+		int[] neighbors = links[from][level];
+		int count = neighbors[0];
+		for (int i = 1; i <= count; i++) {
+			if (neighbors[i] == to) {
+				return;
+			}
+		}
+		if (count < neighbors.length - 1) {
+			neighbors[count + 1] = to;
+			neighbors[0] = count + 1;
+			return;
+		}
+		// 邻居已满：把新邻居加入后按启发式重新筛选
+		float[] vector = similarity.vector(from);
+		List<Candidate> candidates = new ArrayList<>(count + 1);
+		candidates.add(new Candidate(to, similarity.toQuery(to, vector)));
+		for (int i = 1; i <= count; i++) {
+			candidates.add(new Candidate(neighbors[i], similarity.toQuery(neighbors[i], vector)));
+		}
+		candidates.sort(NEAREST_FIRST);
+		int[] selected = selectNeighbors(candidates, neighbors.length - 1, similarity);
+		System.arraycopy(selected, 0, neighbors, 1, selected.length);
+		neighbors[0] = selected.length;
+	}
+
+	private int maxConnections(int level) {
+		return level == 0 ? maxM0 : m;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > links.length) {
+			links = Arrays.copyOf(links, Math.max(capacity, links.length + (links.length >> 1) + 16));
+		}
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(m);
+		out.writeInt(links.length);
+		out.writeInt(entryPoint);
+		out.writeInt(maxLevel);
+		for (int[][] nodeLinks : links) {
+			if (nodeLinks == null) {
+				out.writeInt(-1);
+				continue;
+			}
+			out.writeInt(nodeLinks.length);
+			for (int[] neighbors : nodeLinks) {
+				out.writeInt(neighbors[0]);
+				for (int i = 1; i <= neighbors[0]; i++) {
+					out.writeInt(neighbors[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 从快照恢复图结构；快照的 M 与当前配置不一致时抛出异常，由调用方重建
+	 */
+	void read(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Unrecognized HNSW graph snapshot");
+		}
+		if (in.readInt() != m) {
+			throw new IOException("HNSW graph snapshot was built with a different M");
+		}
+		int nodes = in.readInt();
+		int[][][] loaded = new int[nodes][][];
+		int loadedSize = 0;
+		int loadedEntryPoint = in.readInt();
+		int loadedMaxLevel = in.readInt();
+		for (int node = 0; node < nodes; node++) {
+			int levels = in.readInt();
+			if (levels < 0) {
+				continue;
+			}
+			int[][] nodeLinks = new int[levels][];
+			for (int l = 0; l < levels; l++) {
+				int count = in.readInt();
+				int[] neighbors = new int[maxConnections(l) + 1];
+				if (count > neighbors.length - 1) {
+					throw new IOException("Corrupted HNSW graph snapshot");
+				}
+				neighbors[0] = count;
+				for (int i = 1; i <= count; i++) {
+					neighbors[i] = in.readInt();
+				}
+				nodeLinks[l] = neighbors;
+			}
+			loaded[node] = nodeLinks;
+			loadedSize++;
+		}
+		this.links = loaded;
+		this.size = loadedSize;
+		this.entryPoint = loadedEntryPoint;
+		this.maxLevel = loadedMaxLevel;
+	}
+
+	/**
+	 * (相似度, 节点) 二叉堆，编码为 long 避免装箱：高 32 位为保序变换后的相似度，低 32 位为节点号。
+	 * 最小堆存储编码的按位取反，从而复用同一套最大堆逻辑
+	 */
+	private static final class NodeHeap {
+
+		private final boolean maxHeap;
+
+		private long[] heap;
+
+		private int size;
+
+		NodeHeap(int capacity, boolean maxHeap) {
+			this.heap = new long[Math.max(16, capacity)];
+			this.maxHeap = maxHeap;
+		}
+
+		int size() {
+			return size;
+		}
+
+		void push(int node, float score) {
+			int bits = Float.floatToIntBits(score);
+			long encoded = ((long) (bits ^ ((bits >> 31) & 0x7fffffff)) << 32) | (node & 0xffffffffL);
+			if (size == heap.length) {
+				heap = Arrays.copyOf(heap, size * 2);
+			}
+			int i = size++;
+			long value = maxHeap ? encoded : ~encoded;
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (heap[parent] >= value) {
+					break;
+				}
+				heap[i] = heap[parent];
+				i = parent;
+			}
+			heap[i] = value;
+		}
+
+		float topScore() {
+			long encoded = maxHeap ? heap[0] : ~heap[0];
+			int sortable = (int) (encoded >> 32);
+			return Float.intBitsToFloat(sortable ^ ((sortable >> 31) & 0x7fffffff));
+		}
+
+		/**
+		 * 弹出堆顶并返回其节点号
+		 */
+		int pop() {
+			long top = heap[0];
+			long last = heap[--size];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && heap[child + 1] > heap[child]) {
+					child++;
+				}
+				if (last >= heap[child]) {
+					break;
+				}
+				heap[i] = heap[child];
+				i = child;
+			}
+			if (size > 0) {
+				heap[i] = last;
+			}
+			return (int) (maxHeap ? top : ~top);
+		}
+
+	}
+
+}
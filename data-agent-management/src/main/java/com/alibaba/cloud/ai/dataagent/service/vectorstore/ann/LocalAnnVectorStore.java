@@ -0,0 +1,787 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore.ann;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.hybrid.keyword.MetadataFilterEvaluator;
+import com.alibaba.cloud.ai.dataagent.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * 本地持久化的近似最近邻向量库，作为 {@link org.springframework.ai.vectorstore.SimpleVectorStore} 的替代。
+ *
+ * <p>
+ * 存储按代（generation）组织在 {@code localAnnPath} 目录下：
+ * <ul>
+ * <li>{@code vectors-<gen>.bin}：归一化后的 float 向量，内存映射读取，启动时无需反序列化；</li>
+ * <li>{@code wal-<gen>.log}：文档新增/删除的追加写日志，每次写操作落盘后才返回，崩溃不丢已确认的数据；</li>
+ * <li>{@code graph-<gen>.hnsw}：HNSW 图快照，启动时加载后只需补插快照之后新增的向量；</li>
+ * <li>{@code CURRENT}：当前代号。删除的文档超过存活文档时压缩为新的一代；</li>
+ * <li>{@code IMPORTED}：已导入（或无需导入）旧版 SimpleVectorStore 文件的标记。</li>
+ * </ul>
+ * 检索支持原生元数据过滤：先由 {@link MetadataPostings} 按 agentId、vectorType、datasourceId 缩小候选，
+ * 过滤后的候选较少时精确计算，否则在图上检索并只收集满足过滤条件的节点。
+ */
+@Slf4j
+public class LocalAnnVectorStore implements VectorStore, DisposableBean {
+
+	private static final String CURRENT_FILE = "CURRENT";
+
+	private static final String IMPORTED_MARKER = "IMPORTED";
+
+	/**
+	 * 删除的槽位至少达到此数量且多于存活文档时才压缩，避免小库频繁重建
+	 */
+	private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+
+	private static final long GRAPH_SEED = 42L;
+
+	private final EmbeddingModel embeddingModel;
+
+	private final BatchingStrategy batchingStrategy;
+
+	private final Path directory;
+
+	private final int m;
+
+	private final int efConstruction;
+
+	private final int efSearch;
+
+	private final int exactSearchThreshold;
+
+	private final int snapshotInterval;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * 槽位 -> 文档，已删除的槽位为 null
+	 */
+	private final List<StoredDocument> documents = new ArrayList<>();
+
+	private final Map<String, Integer> slotById = new HashMap<>();
+
+	private final MetadataPostings postings = new MetadataPostings();
+
+	private long generation;
+
+	private MappedVectorFile vectors;
+
+	private VectorWal wal;
+
+	private HnswGraph graph;
+
+	private int insertedSinceSnapshot;
+
+	private record StoredDocument(String id, String text, Map<String, Object> metadata) {
+	}
+
+	public LocalAnnVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy,
+			DataAgentProperties properties) {
+		DataAgentProperties.VectorStoreProperties config = properties.getVectorStore();
+		this.embeddingModel = embeddingModel;
+		this.batchingStrategy = batchingStrategy;
+		this.directory = Paths.get(config.getLocalAnnPath());
+		this.m = config.getLocalAnnM();
+		this.efConstruction = config.getLocalAnnEfConstruction();
+		this.efSearch = config.getLocalAnnEfSearch();
+		this.exactSearchThreshold = config.getLocalAnnExactSearchThreshold();
+		this.snapshotInterval = config.getLocalAnnSnapshotInterval();
+		try {
+			open();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to open local ANN vector store at " + directory, e);
+		}
+	}
+
+	@Override
+	public void add(List<Document> documents) {
+		Assert.notNull(documents, "Documents must not be null");
+		if (documents.isEmpty()) {
+			return;
+		}
+		List<float[]> embeddings = embeddingModel.embed(documents, EmbeddingOptions.builder().build(),
+				batchingStrategy);
+		write(documents, embeddings);
+	}
+
+	@Override
+	public void delete(List<String> idList) {
+		Assert.notNull(idList, "Document ids must not be null");
+		lock.writeLock().lock();
+		try {
+			deleteIds(new LinkedHashSet<>(idList));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void delete(Filter.Expression filterExpression) {
+		Assert.notNull(filterExpression, "Filter expression must not be null");
+		lock.writeLock().lock();
+		try {
+			BitSet matching = matchingSlots(filterExpression);
+			List<String> ids = new ArrayList<>(matching.cardinality());
+			for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+				ids.add(documents.get(slot).id());
+			}
+			deleteIds(ids);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Document> similaritySearch(SearchRequest request) {
+		float[] query = normalize(embeddingModel.embed(request.getQuery()));
+		lock.readLock().lock();
+		try {
+			if (vectors == null || slotById.isEmpty()) {
+				return List.of();
+			}
+			if (query.length != vectors.dimensions()) {
+				throw new IllegalStateException("Query embedding dimension " + query.length
+						+ " does not match store dimension " + vectors.dimensions());
+			}
+			Filter.Expression filter = request.hasFilterExpression() ? request.getFilterExpression() : null;
+			List<Document> results = new ArrayList<>();
+			for (HnswGraph.Candidate candidate : nearest(query, request.getTopK(), filter)) {
+				if (candidate.score() >= request.getSimilarityThreshold()) {
+					results.add(toDocument(candidate));
+				}
+			}
+			return results;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 存活文档数量
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotById.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 全部存活文档（不含向量与相似度），按写入顺序
+	 */
+	public List<Document> listDocuments() {
+		lock.readLock().lock();
+		try {
+			List<Document> results = new ArrayList<>(slotById.size());
+			for (StoredDocument stored : documents) {
+				if (stored != null) {
+					results.add(Document.builder()
+						.id(stored.id())
+						.text(stored.text())
+						.metadata(new HashMap<>(stored.metadata()))
+						.build());
+				}
+			}
+			return results;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 导入 {@link org.springframework.ai.vectorstore.SimpleVectorStore} 序列化的 JSON 文件，沿用其中的向量而不重新嵌入。
+	 *
+	 * <p>
+	 * 只导入一次：完成后写入 {@code IMPORTED} 标记，此后即使文档被全部删除也不会再导入旧文件。
+	 * 没有标记但库已经写入过数据（升级前的目录）时同样视为已导入。
+	 * @return 导入的文档数量
+	 */
+	public int importSimpleVectorStoreFile(Path file) {
+		Path marker = directory.resolve(IMPORTED_MARKER);
+		if (!Files.exists(file) || Files.exists(marker)) {
+			return 0;
+		}
+		if (hasHistory()) {
+			markImported(marker);
+			return 0;
+		}
+		List<Document> imported = new ArrayList<>();
+		List<float[]> embeddings = new ArrayList<>();
+		try {
+			JsonNode root = JsonUtil.getObjectMapper().readTree(file.toFile());
+			for (JsonNode node : root) {
+				JsonNode embedding = node.path("embedding");
+				if (!embedding.isArray() || embedding.isEmpty()) {
+					continue;
+				}
+				float[] vector = new float[embedding.size()];
+				for (int i = 0; i < vector.length; i++) {
+					vector[i] = (float) embedding.get(i).asDouble();
+				}
+				Map<String, Object> metadata = new HashMap<>();
+				if (node.path("metadata").isObject()) {
+					metadata = JsonUtil.getObjectMapper()
+						.convertValue(node.get("metadata"), new TypeReference<HashMap<String, Object>>() {
+						});
+				}
+				String text = node.hasNonNull("text") ? node.get("text").asText() : node.path("content").asText();
+				imported.add(Document.builder().id(node.path("id").asText()).text(text).metadata(metadata).build());
+				embeddings.add(vector);
+			}
+		}
+		catch (IOException e) {
+			log.error("Failed to read SimpleVectorStore file {} for import", file, e);
+			return 0;
+		}
+		if (!imported.isEmpty()) {
+			write(imported, embeddings);
+			log.info("Imported {} documents from SimpleVectorStore file {}", imported.size(), file);
+		}
+		markImported(marker);
+		return imported.size();
+	}
+
+	/**
+	 * 是否写入过数据：删除的槽位在压缩前仍占位，压缩后代号大于 0
+	 */
+	private boolean hasHistory() {
+		lock.readLock().lock();
+		try {
+			return !documents.isEmpty() || generation > 0;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void markImported(Path marker) {
+		try {
+			Files.writeString(marker, Long.toString(System.currentTimeMillis()), StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			log.warn("Failed to write import marker {}", marker, e);
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		lock.writeLock().lock();
+		try {
+			if (wal == null) {
+				return;
+			}
+			if (insertedSinceSnapshot > 0) {
+				writeGraphSnapshot(graph, generation);
+			}
+			if (vectors != null) {
+				vectors.close();
+				vectors = null;
+			}
+			wal.close();
+			wal = null;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void open() throws IOException {
+		Files.createDirectories(directory);
+		generation = readGeneration();
+		deleteStaleGenerations();
+		wal = VectorWal.open(walPath(generation));
+		long records = wal.replay(new VectorWal.Replayer() {
+			@Override
+			public void add(int slot, String id, String text, String metadataJson) {
+				while (documents.size() <= slot) {
+					documents.add(null);
+				}
+				StoredDocument overwritten = documents.get(slot);
+				if (overwritten != null) {
+					slotById.remove(overwritten.id(), slot);
+				}
+				Integer previous = slotById.put(id, slot);
+				if (previous != null && previous != slot) {
+					documents.set(previous, null);
+				}
+				documents.set(slot, new StoredDocument(id, text, fromJson(metadataJson)));
+			}
+
+			@Override
+			public void delete(String id) {
+				Integer slot = slotById.remove(id);
+				if (slot != null) {
+					documents.set(slot, null);
+				}
+			}
+		});
+
+		vectors = MappedVectorFile.openExisting(vectorPath(generation));
+		int capacity = vectors == null ? 0 : vectors.capacity();
+		if (documents.size() > capacity) {
+			// 向量先于 WAL 落盘，正常情况下不会出现；向量文件损坏或丢失时这些文档只能重新导入
+			log.warn("Vector file is missing {} slots referenced by the WAL, dropping those documents",
+					documents.size() - capacity);
+			for (int slot = capacity; slot < documents.size(); slot++) {
+				StoredDocument document = documents.get(slot);
+				if (document != null) {
+					slotById.remove(document.id(), slot);
+				}
+			}
+			documents.subList(capacity, documents.size()).clear();
+		}
+
+		for (int slot = 0; slot < documents.size(); slot++) {
+			StoredDocument document = documents.get(slot);
+			if (document != null) {
+				postings.add(slot, document.metadata());
+			}
+		}
+
+		graph = loadGraphSnapshot();
+		for (int slot = 0; slot < documents.size(); slot++) {
+			if (documents.get(slot) != null && !graph.contains(slot)) {
+				graph.insert(slot, vectors.read(slot), similarity(vectors));
+				insertedSinceSnapshot++;
+			}
+		}
+		log.info("Local ANN vector store opened at {}: {} documents, {} WAL records, generation {}", directory,
+				slotById.size(), records, generation);
+	}
+
+	private void write(List<Document> batch, List<float[]> embeddings) {
+		if (embeddings.size() != batch.size()) {
+			throw new IllegalStateException(
+					"Embedding result size " + embeddings.size() + " does not match document size " + batch.size());
+		}
+		lock.writeLock().lock();
+		try {
+			int dimensions = embeddings.get(0).length;
+			if (vectors == null) {
+				vectors = MappedVectorFile.create(vectorPath(generation), dimensions);
+			}
+			int firstSlot = documents.size();
+			List<float[]> normalized = new ArrayList<>(embeddings.size());
+			for (int i = 0; i < embeddings.size(); i++) {
+				float[] vector = normalize(embeddings.get(i));
+				if (vector.length != vectors.dimensions()) {
+					throw new IllegalStateException("Embedding dimension " + vector.length
+							+ " does not match store dimension " + vectors.dimensions()
+							+ ", clear the local ANN directory after switching embedding models");
+				}
+				vectors.write(firstSlot + i, vector);
+				normalized.add(vector);
+			}
+			// 先让向量落盘，再写 WAL：WAL 中出现的槽位一定能在向量文件中读到
+			vectors.force();
+			for (int i = 0; i < batch.size(); i++) {
+				Document document = batch.get(i);
+				wal.appendAdd(firstSlot + i, document.getId(), document.getText(), toJson(document.getMetadata()));
+			}
+			wal.sync();
+
+			HnswGraph.Similarity similarity = similarity(vectors);
+			for (int i = 0; i < batch.size(); i++) {
+				Document document = batch.get(i);
+				int slot = firstSlot + i;
+				Integer previous = slotById.put(document.getId(), slot);
+				if (previous != null) {
+					postings.remove(previous, documents.get(previous).metadata());
+					documents.set(previous, null);
+				}
+				StoredDocument stored = new StoredDocument(document.getId(), document.getText(),
+						new HashMap<>(document.getMetadata()));
+				documents.add(stored);
+				postings.add(slot, stored.metadata());
+				graph.insert(slot, normalized.get(i), similarity);
+			}
+			insertedSinceSnapshot += batch.size();
+			maintain();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to write local ANN vector store", e);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void deleteIds(Iterable<String> ids) {
+		try {
+			List<String> existing = new ArrayList<>();
+			for (String id : ids) {
+				if (slotById.containsKey(id)) {
+					wal.appendDelete(id);
+					existing.add(id);
+				}
+			}
+			if (existing.isEmpty()) {
+				return;
+			}
+			wal.sync();
+			for (String id : existing) {
+				int slot = slotById.remove(id);
+				postings.remove(slot, documents.get(slot).metadata());
+				documents.set(slot, null);
+			}
+			maintain();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to delete from local ANN vector store", e);
+		}
+	}
+
+	/**
+	 * 写操作之后调用：删除过多时压缩，否则按间隔写图快照
+	 */
+	private void maintain() throws IOException {
+		int deleted = documents.size() - slotById.size();
+		if (deleted >= MIN_DELETED_FOR_COMPACTION && deleted > slotById.size()) {
+			compact();
+		}
+		else if (insertedSinceSnapshot >= snapshotInterval) {
+			writeGraphSnapshot(graph, generation);
+			insertedSinceSnapshot = 0;
+		}
+	}
+
+	/**
+	 * 只保留存活文档写出新的一代（向量、WAL、图），切换 CURRENT 后删除旧文件
+	 */
+	private void compact() throws IOException {
+		long next = generation + 1;
+		Files.deleteIfExists(walPath(next));
+		MappedVectorFile nextVectors = MappedVectorFile.create(vectorPath(next), vectors.dimensions());
+		VectorWal nextWal = VectorWal.open(walPath(next));
+		try {
+			List<StoredDocument> nextDocuments = new ArrayList<>(slotById.size());
+			Map<String, Integer> nextSlots = new HashMap<>();
+			for (int slot = 0; slot < documents.size(); slot++) {
+				StoredDocument document = documents.get(slot);
+				if (document != null) {
+					nextVectors.write(nextDocuments.size(), vectors.read(slot));
+					nextSlots.put(document.id(), nextDocuments.size());
+					nextDocuments.add(document);
+				}
+			}
+			nextVectors.force();
+			for (int slot = 0; slot < nextDocuments.size(); slot++) {
+				StoredDocument document = nextDocuments.get(slot);
+				nextWal.appendAdd(slot, document.id(), document.text(), toJson(document.metadata()));
+			}
+			nextWal.sync();
+
+			HnswGraph nextGraph = newGraph();
+			HnswGraph.Similarity similarity = similarity(nextVectors);
+			for (int slot = 0; slot < nextDocuments.size(); slot++) {
+				nextGraph.insert(slot, nextVectors.read(slot), similarity);
+			}
+			writeGraphSnapshot(nextGraph, next);
+			writeGeneration(next);
+
+			vectors.close();
+			wal.close();
+			deleteGeneration(generation);
+			log.info("Compacted local ANN vector store from {} slots to {} documents", documents.size(),
+					nextDocuments.size());
+			generation = next;
+			vectors = nextVectors;
+			wal = nextWal;
+			graph = nextGraph;
+			documents.clear();
+			documents.addAll(nextDocuments);
+			slotById.clear();
+			slotById.putAll(nextSlots);
+			postings.clear();
+			for (int slot = 0; slot < documents.size(); slot++) {
+				postings.add(slot, documents.get(slot).metadata());
+			}
+			insertedSinceSnapshot = 0;
+		}
+		catch (IOException | RuntimeException e) {
+			nextVectors.close();
+			nextWal.close();
+			deleteGeneration(next);
+			throw e;
+		}
+	}
+
+	private List<HnswGraph.Candidate> nearest(float[] query, int topK, Filter.Expression filter) {
+		if (topK <= 0) {
+			return List.of();
+		}
+		if (filter == null) {
+			if (slotById.size() <= Math.max(exactSearchThreshold, topK)) {
+				return exactSearch(query, topK, this::isLive);
+			}
+			return graph.search(query, topK, Math.max(efSearch, topK), this::isLive, similarity(vectors));
+		}
+		BitSet matching = matchingSlots(filter);
+		int matched = matching.cardinality();
+		if (matched == 0) {
+			return List.of();
+		}
+		if (matched <= Math.max(exactSearchThreshold, topK)) {
+			return exactSearch(query, topK, matching::get);
+		}
+		// 过滤条件越严，图上满足条件的邻居越稀疏，按选择率放大候选队列
+		long ef = (long) Math.max(efSearch, topK) * slotById.size() / matched;
+		return graph.search(query, topK, (int) Math.min(ef, matched), matching::get, similarity(vectors));
+	}
+
+	/**
+	 * 满足过滤条件的存活槽位：能由倒排表收窄时只对候选求值，否则遍历全部文档
+	 */
+	private BitSet matchingSlots(Filter.Expression filter) {
+		BitSet candidates = postings.candidates(filter);
+		BitSet matching = new BitSet(documents.size());
+		if (candidates == null) {
+			candidates = new BitSet(documents.size());
+			candidates.set(0, documents.size());
+		}
+		for (int slot = candidates.nextSetBit(0); slot >= 0 && slot < documents.size(); slot = candidates
+			.nextSetBit(slot + 1)) {
+			StoredDocument document = documents.get(slot);
+			if (document != null && MetadataFilterEvaluator.matches(filter, document.metadata())) {
+				matching.set(slot);
+			}
+		}
+		return matching;
+	}
+
+	private List<HnswGraph.Candidate> exactSearch(float[] query, int topK, IntPredicate accept) {
+		PriorityQueue<HnswGraph.Candidate> best = new PriorityQueue<>(
+				(a, b) -> Float.compare(a.score(), b.score()));
+		for (int slot = 0; slot < documents.size(); slot++) {
+			if (!accept.test(slot)) {
+				continue;
+			}
+			float score = vectors.dot(slot, query);
+			if (best.size() < topK) {
+				best.add(new HnswGraph.Candidate(slot, score));
+			}
+			else if (score > best.peek().score()) {
+				best.poll();
+				best.add(new HnswGraph.Candidate(slot, score));
+			}
+		}
+		List<HnswGraph.Candidate> results = new ArrayList<>(best);
+		results.sort((a, b) -> Float.compare(b.score(), a.score()));
+		return results;
+	}
+
+	private boolean isLive(int slot) {
+		return slot < documents.size() && documents.get(slot) != null;
+	}
+
+	private Document toDocument(HnswGraph.Candidate candidate) {
+		StoredDocument stored = documents.get(candidate.node());
+		Map<String, Object> metadata = new HashMap<>(stored.metadata());
+		metadata.put(DocumentMetadata.DISTANCE.value(), 1 - candidate.score());
+		return Document.builder()
+			.id(stored.id())
+			.text(stored.text())
+			.metadata(metadata)
+			.score((double) candidate.score())
+			.build();
+	}
+
+	private static HnswGraph.Similarity similarity(MappedVectorFile file) {
+		return new HnswGraph.Similarity() {
+			@Override
+			public float toQuery(int node, float[] query) {
+				return file.dot(node, query);
+			}
+
+			@Override
+			public float[] vector(int node) {
+				return file.read(node);
+			}
+		};
+	}
+
+	private static float[] normalize(float[] vector) {
+		double norm = 0;
+		for (float v : vector) {
+			norm += v * v;
+		}
+		float[] normalized = vector.clone();
+		if (norm > 0) {
+			float scale = (float) (1 / Math.sqrt(norm));
+			for (int i = 0; i < normalized.length; i++) {
+				normalized[i] *= scale;
+			}
+		}
+		return normalized;
+	}
+
+	private HnswGraph newGraph() {
+		return new HnswGraph(m, efConstruction, GRAPH_SEED);
+	}
+
+	/**
+	 * 加载图快照；快照缺失、损坏或包含 WAL 中不存在的槽位时从空图开始，由调用方补插
+	 */
+	private HnswGraph loadGraphSnapshot() {
+		Path path = graphPath(generation);
+		HnswGraph loaded = newGraph();
+		if (!Files.exists(path)) {
+			return loaded;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+			loaded.read(in);
+			if (loaded.containsFrom(documents.size())) {
+				log.warn("HNSW graph snapshot is ahead of the WAL, rebuilding the graph");
+				return newGraph();
+			}
+			return loaded;
+		}
+		catch (IOException e) {
+			log.warn("Failed to load HNSW graph snapshot {}, rebuilding the graph", path, e);
+			return newGraph();
+		}
+	}
+
+	private void writeGraphSnapshot(HnswGraph target, long targetGeneration) throws IOException {
+		Path path = graphPath(targetGeneration);
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+			target.write(out);
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private long readGeneration() throws IOException {
+		Path current = directory.resolve(CURRENT_FILE);
+		if (!Files.exists(current)) {
+			return 0;
+		}
+		return Long.parseLong(Files.readString(current, StandardCharsets.UTF_8).trim());
+	}
+
+	private void writeGeneration(long next) throws IOException {
+		Path current = directory.resolve(CURRENT_FILE);
+		Path temp = directory.resolve(CURRENT_FILE + ".tmp");
+		Files.writeString(temp, Long.toString(next), StandardCharsets.UTF_8);
+		Files.move(temp, current, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void deleteGeneration(long target) {
+		for (Path path : List.of(vectorPath(target), walPath(target), graphPath(target))) {
+			try {
+				Files.deleteIfExists(path);
+			}
+			catch (IOException e) {
+				// 内存映射的文件在部分平台上要等映射被回收后才能删除，留给下次启动时清理
+				log.debug("Failed to delete stale vector store file {}", path, e);
+			}
+		}
+	}
+
+	/**
+	 * 清理压缩时未能删除的旧代文件
+	 */
+	private void deleteStaleGenerations() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			files.map(path -> path.getFileName().toString())
+				.filter(name -> name.matches("(vectors|wal|graph)-\\d+\\..+"))
+				.map(name -> Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.'))))
+				.filter(target -> target != generation)
+				.distinct()
+				.forEach(this::deleteGeneration);
+		}
+	}
+
+	private Path vectorPath(long target) {
+		return directory.resolve("vectors-" + target + ".bin");
+	}
+
+	private Path walPath(long target) {
+		return directory.resolve("wal-" + target + ".log");
+	}
+
+	private Path graphPath(long target) {
+		return directory.resolve("graph-" + target + ".hnsw");
+	}
+
+	private static String toJson(Map<String, Object> metadata) {
+		try {
+			return JsonUtil.getObjectMapper().writeValueAsString(metadata);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Document metadata is not serializable", e);
+		}
+	}
+
+	private static Map<String, Object> fromJson(String json) {
+		if (json == null) {
+			return new HashMap<>();
+		}
+		try {
+			return JsonUtil.getObjectMapper().readValue(json, new TypeReference<HashMap<String, Object>>() {
+			});
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Corrupted document metadata in vector store WAL", e);
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore.ann;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 定长 float 向量的内存映射文件，槽位号即向量在文件中的下标。
+ *
+ * <p>
+ * 文件头 16 字节：magic、版本、维度、保留；之后按槽位顺序存放小端 float。文件按固定大小分段映射，
+ * 避免单个 {@link MappedByteBuffer} 2GB 的上限，扩容时只追加新段而不重新映射已有数据。
+ *
+ * <p>
+ * 读取只使用绝对下标且不会映射新段，可在读锁下并发调用；写入（可能追加新段）由调用方保证互斥。
+ */
+final class MappedVectorFile implements Closeable {
+
+	private static final int MAGIC = 0x44415643;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_BYTES = 16;
+
+	private static final long SEGMENT_BYTES = 64L << 20;
+
+	/**
+	 * 读取向量的线程本地缓冲，批量拷贝出映射区后再计算点积，比逐个 get 快得多
+	 */
+	private static final ThreadLocal<float[]> SCRATCH = ThreadLocal.withInitial(() -> new float[0]);
+
+	private final FileChannel channel;
+
+	private final int dimensions;
+
+	private final int slotsPerSegment;
+
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+	private final List<FloatBuffer> floatSegments = new ArrayList<>();
+
+	private MappedVectorFile(FileChannel channel, int dimensions) {
+		this.channel = channel;
+		this.dimensions = dimensions;
+		this.slotsPerSegment = (int) Math.max(1, SEGMENT_BYTES / ((long) dimensions * Float.BYTES));
+	}
+
+	/**
+	 * 打开已有向量文件，文件不存在时返回 null
+	 */
+	static MappedVectorFile openExisting(Path path) throws IOException {
+		if (!path.toFile().exists()) {
+			return null;
+		}
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			if (channel.read(header, 0) < HEADER_BYTES) {
+				channel.close();
+				return null;
+			}
+			header.flip();
+			int magic = header.getInt();
+			int version = header.getInt();
+			int dimensions = header.getInt();
+			if (magic != MAGIC || version != VERSION || dimensions <= 0) {
+				throw new IOException("Unrecognized vector file: " + path);
+			}
+			MappedVectorFile file = new MappedVectorFile(channel, dimensions);
+			int existing = file.capacity();
+			if (existing > 0) {
+				file.mapSegmentsUpTo(existing - 1);
+			}
+			return file;
+		}
+		catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 创建新的向量文件（已存在则覆盖）
+	 */
+	static MappedVectorFile create(Path path, int dimensions) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(0).flip();
+		channel.write(header, 0);
+		channel.force(true);
+		return new MappedVectorFile(channel, dimensions);
+	}
+
+	int dimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * 文件中已分配的槽位数（可能包含未被 WAL 引用的尾部槽位）
+	 */
+	int capacity() throws IOException {
+		return (int) Math.max(0, (channel.size() - HEADER_BYTES) / ((long) dimensions * Float.BYTES));
+	}
+
+	void write(int slot, float[] vector) throws IOException {
+		if (vector.length != dimensions) {
+			throw new IllegalArgumentException(
+					"Vector dimension " + vector.length + " does not match store dimension " + dimensions);
+		}
+		if (slot / slotsPerSegment >= floatSegments.size()) {
+			mapSegmentsUpTo(slot);
+		}
+		floatSegments.get(slot / slotsPerSegment).put(offsetInSegment(slot), vector);
+	}
+
+	float[] read(int slot) {
+		float[] vector = new float[dimensions];
+		segmentFor(slot).get(offsetInSegment(slot), vector);
+		return vector;
+	}
+
+	/**
+	 * 指定槽位与查询向量的点积（向量写入前已归一化，点积即余弦相似度）
+	 */
+	float dot(int slot, float[] query) {
+		float[] scratch = SCRATCH.get();
+		if (scratch.length < dimensions) {
+			scratch = new float[dimensions];
+			SCRATCH.set(scratch);
+		}
+		segmentFor(slot).get(offsetInSegment(slot), scratch, 0, dimensions);
+		return dot(scratch, query, dimensions);
+	}
+
+	/**
+	 * 四路累加打破浮点加法的依赖链，便于 JIT 流水化
+	 */
+	static float dot(float[] a, float[] b, int length) {
+		float s0 = 0f;
+		float s1 = 0f;
+		float s2 = 0f;
+		float s3 = 0f;
+		int i = 0;
+		for (; i + 3 < length; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for (; i < length; i++) {
+			s0 += a[i] * b[i];
+		}
+		return s0 + s1 + s2 + s3;
+	}
+
+	/**
+	 * 将已写入的向量刷到磁盘，须在对应的 WAL 记录落盘之前调用
+	 */
+	void force() {
+		for (MappedByteBuffer segment : segments) {
+			segment.force();
+		}
+	}
+
+	private int offsetInSegment(int slot) {
+		return (slot % slotsPerSegment) * dimensions;
+	}
+
+	/**
+	 * 槽位所在的已映射段，越界时抛出异常而不映射新段
+	 */
+	private FloatBuffer segmentFor(int slot) {
+		int index = slot / slotsPerSegment;
+		if (index >= floatSegments.size()) {
+			throw new IndexOutOfBoundsException("Vector slot " + slot + " has not been written");
+		}
+		return floatSegments.get(index);
+	}
+
+	private void mapSegmentsUpTo(int slot) throws IOException {
+		long segmentBytes = (long) slotsPerSegment * dimensions * Float.BYTES;
+		while (floatSegments.size() <= slot / slotsPerSegment) {
+			long position = HEADER_BYTES + floatSegments.size() * segmentBytes;
+			MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentBytes);
+			segment.order(ByteOrder.LITTLE_ENDIAN);
+			segments.add(segment);
+			floatSegments.add(segment.asFloatBuffer());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		force();
+		segments.clear();
+		floatSegments.clear();
+		channel.close();
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore.ann;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 常用元数据字段（agentId、vectorType、datasourceId）的倒排表：字段值 -> 槽位集合。
+ *
+ * <p>
+ * 带过滤条件的检索先用倒排表把候选缩小到可能匹配的槽位，再对候选逐个求值完整的过滤条件，避免对全部文档求值。
+ * 倒排表只需给出候选的超集：数值按规范形式归一，使 Integer 与 Long、数值与数字字符串落在同一个倒排项上。
+ */
+final class MetadataPostings {
+
+	private static final List<String> INDEXED_KEYS = List.of(Constant.AGENT_ID, DocumentMetadataConstant.VECTOR_TYPE,
+			Constant.DATASOURCE_ID);
+
+	private final Map<String, Map<String, BitSet>> postings = new HashMap<>();
+
+	void add(int slot, Map<String, Object> metadata) {
+		for (String key : INDEXED_KEYS) {
+			Object value = metadata.get(key);
+			if (value != null) {
+				postings.computeIfAbsent(key, k -> new HashMap<>())
+					.computeIfAbsent(normalize(value), v -> new BitSet())
+					.set(slot);
+			}
+		}
+	}
+
+	void remove(int slot, Map<String, Object> metadata) {
+		for (String key : INDEXED_KEYS) {
+			Object value = metadata.get(key);
+			Map<String, BitSet> values = value == null ? null : postings.get(key);
+			if (values == null) {
+				continue;
+			}
+			String normalized = normalize(value);
+			BitSet slots = values.get(normalized);
+			if (slots != null) {
+				slots.clear(slot);
+				if (slots.isEmpty()) {
+					values.remove(normalized);
+				}
+			}
+		}
+	}
+
+	void clear() {
+		postings.clear();
+	}
+
+	/**
+	 * 由过滤条件推出候选槽位
+	 * @return 可能匹配的槽位集合；过滤条件无法用倒排表收窄时返回 null，调用方需遍历全部文档
+	 */
+	BitSet candidates(Filter.Operand operand) {
+		if (operand instanceof Filter.Group group) {
+			return candidates(group.content());
+		}
+		if (!(operand instanceof Filter.Expression expression)) {
+			return null;
+		}
+		return switch (expression.type()) {
+			case AND -> {
+				BitSet left = candidates(expression.left());
+				BitSet right = candidates(expression.right());
+				if (left == null || right == null) {
+					yield left == null ? right : left;
+				}
+				left.and(right);
+				yield left;
+			}
+			case OR -> {
+				BitSet left = candidates(expression.left());
+				BitSet right = left == null ? null : candidates(expression.right());
+				if (right == null) {
+					yield null;
+				}
+				left.or(right);
+				yield left;
+			}
+			case EQ -> lookup(expression, Collections.singletonList(value(expression)));
+			case IN -> value(expression) instanceof Collection<?> values ? lookup(expression, values) : null;
+			default -> null;
+		};
+	}
+
+	private BitSet lookup(Filter.Expression expression, Collection<?> values) {
+		if (!(expression.left() instanceof Filter.Key key)) {
+			return null;
+		}
+		String name = unquote(key.key());
+		if (!INDEXED_KEYS.contains(name)) {
+			return null;
+		}
+		Map<String, BitSet> indexed = postings.getOrDefault(name, Map.of());
+		BitSet result = new BitSet();
+		for (Object value : values) {
+			if (value == null) {
+				return null;
+			}
+			BitSet slots = indexed.get(normalize(value));
+			if (slots != null) {
+				result.or(slots);
+			}
+		}
+		return result;
+	}
+
+	private static Object value(Filter.Expression expression) {
+		return expression.right() instanceof Filter.Value value ? value.value() : null;
+	}
+
+	/**
+	 * 过滤表达式中的 key 可能带引号
+	 */
+	private static String unquote(String name) {
+		if (name.length() > 1
+				&& (name.startsWith("\"") && name.endsWith("\"") || name.startsWith("'") && name.endsWith("'"))) {
+			return name.substring(1, name.length() - 1);
+		}
+		return name;
+	}
+
+	private static String normalize(Object value) {
+		String text = String.valueOf(value);
+		double number;
+		if (value instanceof Number n) {
+			number = n.doubleValue();
+		}
+		else {
+			try {
+				number = Double.parseDouble(text);
+			}
+			catch (NumberFormatException e) {
+				return text;
+			}
+		}
+		if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+			return Long.toString((long) number);
+		}
+		return Double.toString(number);
+	}
+
+}
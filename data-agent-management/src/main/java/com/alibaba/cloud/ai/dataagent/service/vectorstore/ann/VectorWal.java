@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore.ann;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 向量库的追加写日志（WAL），记录文档的新增与删除。
+ *
+ * <p>
+ * 每条记录为 {@code [长度 int][CRC32 int][负载]}，负载首字节为操作类型。进程崩溃可能留下不完整的尾部记录，
+ * 回放时遇到长度或校验和不符即停止，并把文件截断到最后一条完整记录处。
+ */
+@Slf4j
+final class VectorWal implements Closeable {
+
+	static final byte OP_ADD = 1;
+
+	static final byte OP_DELETE = 2;
+
+	private static final int RECORD_HEADER_BYTES = 8;
+
+	private static final int MAX_RECORD_BYTES = 64 << 20;
+
+	/**
+	 * 回放回调
+	 */
+	interface Replayer {
+
+		void add(int slot, String id, String text, String metadataJson);
+
+		void delete(String id);
+
+	}
+
+	private final FileChannel channel;
+
+	private VectorWal(FileChannel channel) {
+		this.channel = channel;
+	}
+
+	static VectorWal open(Path path) throws IOException {
+		return new VectorWal(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE));
+	}
+
+	/**
+	 * 从头回放全部完整记录，返回回放的记录数；不完整的尾部会被截断，之后的写入从截断处追加
+	 */
+	long replay(Replayer replayer) throws IOException {
+		long records = 0;
+		long validEnd = 0;
+		channel.position(0);
+		InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+		DataInputStream in = new DataInputStream(stream);
+		while (true) {
+			byte[] payload;
+			try {
+				int length = in.readInt();
+				int crc = in.readInt();
+				if (length <= 0 || length > MAX_RECORD_BYTES) {
+					break;
+				}
+				payload = in.readNBytes(length);
+				if (payload.length < length || crc != crc(payload)) {
+					break;
+				}
+			}
+			catch (EOFException e) {
+				break;
+			}
+			apply(payload, replayer);
+			validEnd += RECORD_HEADER_BYTES + payload.length;
+			records++;
+		}
+		if (channel.size() > validEnd) {
+			log.warn("Truncating {} trailing bytes of incomplete vector store WAL records",
+					channel.size() - validEnd);
+			channel.truncate(validEnd);
+		}
+		channel.position(validEnd);
+		return records;
+	}
+
+	void appendAdd(int slot, String id, String text, String metadataJson) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(OP_ADD);
+		out.writeInt(slot);
+		writeString(out, id);
+		writeString(out, text);
+		writeString(out, metadataJson);
+		append(bytes.toByteArray());
+	}
+
+	void appendDelete(String id) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(OP_DELETE);
+		writeString(out, id);
+		append(bytes.toByteArray());
+	}
+
+	/**
+	 * 将已追加的记录刷到磁盘
+	 */
+	void sync() throws IOException {
+		channel.force(false);
+	}
+
+	long size() throws IOException {
+		return channel.size();
+	}
+
+	private void append(byte[] payload) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+		buffer.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static void apply(byte[] payload, Replayer replayer) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		byte op = in.readByte();
+		if (op == OP_ADD) {
+			int slot = in.readInt();
+			replayer.add(slot, readString(in), readString(in), readString(in));
+		}
+		else if (op == OP_DELETE) {
+			replayer.delete(readString(in));
+		}
+		else {
+			throw new IOException("Unknown vector store WAL operation: " + op);
+		}
+	}
+
+	private static int crc(byte[] payload) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(payload);
+		return (int) crc32.getValue();
+	}
+
+	/**
+	 * 文本可能超过 {@link DataOutputStream#writeUTF} 的 64KB 限制，使用 int 长度前缀
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length < length) {
+			throw new EOFException();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.force(false);
+		channel.close();
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.dataagent.splitter;
 
+import com.alibaba.cloud.ai.dataagent.service.knowledge.EmbeddingRateLimiter;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingModel;
@@ -22,7 +23,13 @@ import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.transformer.splitter.TextSplitter;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -51,6 +58,28 @@ public class SemanticTextSplitter extends TextSplitter {
 	@Builder.Default
 	private int embeddingBatchSize = 10;
 
+	/**
+	 * 同时在途的 Embedding 批次数上限，1 表示逐批串行
+	 */
+	@Builder.Default
+	private int maxConcurrentBatches = 1;
+
+	/**
+	 * 并发发送 Embedding 批次的线程池，为空时在调用线程中串行发送
+	 */
+	private final Executor embeddingExecutor;
+
+	/**
+	 * 与知识向量化共享的嵌入请求限速器，每个批次占用一个许可，为空时不限速
+	 */
+	private final EmbeddingRateLimiter embeddingRateLimiter;
+
+	/**
+	 * 所有调用共享的在途批次许可，数量即整个分块器的并发上限（虚拟线程执行器本身不限制线程数）。
+	 * 批次先取得该许可再等待限速，限速配额只分给能立即发送的请求；为空时每次调用各自限制 maxConcurrentBatches
+	 */
+	private final Semaphore inFlightPermits;
+
 	/**
 	 * 句子正则：匹配标点或换行
 	 */
@@ -90,6 +119,8 @@ public class SemanticTextSplitter extends TextSplitter {
 	private List<String> combineSentences(List<String> sentences, List<float[]> embeddings) {
 		List<String> chunks = new ArrayList<>();
 		StringBuilder currentChunk = new StringBuilder();
+		// 每个向量参与前后两次相似度计算，模长只算一次
+		double[] inverseNorms = inverseNorms(embeddings);
 
 		for (int i = 0; i < sentences.size(); i++) {
 			String sentence = sentences.get(i);
@@ -119,7 +150,8 @@ public class SemanticTextSplitter extends TextSplitter {
 				}
 				// 2. 语义检查：语义突变？
 				else if (i < embeddings.size()) {
-					double similarity = cosineSimilarity(embeddings.get(i - 1), embeddings.get(i));
+					double similarity = cosineSimilarity(embeddings.get(i - 1), inverseNorms[i - 1], embeddings.get(i),
+							inverseNorms[i]);
 					// 只有当当前块已经达到最小长度时，才允许按语义切分
 					// 否则即使语义变了，为了保证块不太碎，也强行合并
 					if (similarity < similarityThreshold && currentChunk.length() >= minChunkSize) {
@@ -202,46 +234,147 @@ public class SemanticTextSplitter extends TextSplitter {
 	}
 
 	/**
-	 * 批量 Embedding (带容错)
+	 * 批量 Embedding (带容错)：相同的上下文文本只嵌入一次（重复的页眉页脚、表头等），
+	 * 批次在 maxConcurrentBatches 限制内并发发送，结果按原顺序返回。跨文档的重复文本由嵌入模型代理上的 EmbeddingCache 命中。
 	 */
 	private List<float[]> batchEmbed(List<String> texts) {
-		// 获取向量维度的占位符
-		int dimensions = embeddingModel.dimensions();
-		List<float[]> allEmbeddings = new ArrayList<>();
-		// 这里为了安全，建议 catch 异常时填入 new float[0]，计算相似度时做空检查
-
-		for (int i = 0; i < texts.size(); i += embeddingBatchSize) {
-			int endIdx = Math.min(i + embeddingBatchSize, texts.size());
-			List<String> batch = texts.subList(i, endIdx);
+		Map<String, Integer> uniqueIndexes = new LinkedHashMap<>();
+		int[] slots = new int[texts.size()];
+		for (int i = 0; i < texts.size(); i++) {
+			Integer index = uniqueIndexes.get(texts.get(i));
+			if (index == null) {
+				index = uniqueIndexes.size();
+				uniqueIndexes.put(texts.get(i), index);
+			}
+			slots[i] = index;
+		}
+		List<String> uniqueTexts = new ArrayList<>(uniqueIndexes.keySet());
+		if (uniqueTexts.size() < texts.size()) {
+			log.debug("Deduplicated {} context sentences to {} embedding inputs", texts.size(), uniqueTexts.size());
+		}
+
+		List<float[]> uniqueEmbeddings = embedInBatches(uniqueTexts);
+		List<float[]> allEmbeddings = new ArrayList<>(texts.size());
+		for (int slot : slots) {
+			allEmbeddings.add(uniqueEmbeddings.get(slot));
+		}
+		return allEmbeddings;
+	}
+
+	private List<float[]> embedInBatches(List<String> texts) {
+		int batchSize = Math.max(1, embeddingBatchSize);
+		List<List<String>> batches = new ArrayList<>();
+		for (int i = 0; i < texts.size(); i += batchSize) {
+			batches.add(texts.subList(i, Math.min(i + batchSize, texts.size())));
+		}
+
+		List<float[]> allEmbeddings = new ArrayList<>(texts.size());
+		if (embeddingExecutor == null || maxConcurrentBatches <= 1 || batches.size() == 1) {
+			for (int i = 0; i < batches.size(); i++) {
+				allEmbeddings.addAll(embedBatchWithPermit(inFlightPermits, batches.get(i), i * batchSize));
+			}
+			return allEmbeddings;
+		}
+
+		// 信号量限制在途批次数，避免长文档一次性压垮嵌入服务的限流
+		Semaphore inFlight = inFlightPermits != null ? inFlightPermits : new Semaphore(maxConcurrentBatches);
+		List<CompletableFuture<List<float[]>>> futures = new ArrayList<>(batches.size());
+		for (int i = 0; i < batches.size(); i++) {
+			List<String> batch = batches.get(i);
+			int offset = i * batchSize;
+			inFlight.acquireUninterruptibly();
 			try {
-				EmbeddingResponse response = embeddingModel.embedForResponse(batch);
-				// 假设 Spring AI 的 EmbeddingResponse 结构
-				for (var result : response.getResults()) {
-					allEmbeddings.add(result.getOutput());
-				}
+				futures.add(CompletableFuture.supplyAsync(() -> embedBatch(batch, offset), embeddingExecutor)
+					.whenComplete((result, e) -> inFlight.release()));
 			}
-			catch (Exception e) {
-				log.error("Embedding failed for batch {}-{}", i, endIdx, e);
-				// 填充零向量
-				for (int k = 0; k < batch.size(); k++)
-					allEmbeddings.add(new float[dimensions]);
+			catch (RejectedExecutionException e) {
+				try {
+					futures.add(CompletableFuture.completedFuture(embedBatch(batch, offset)));
+				}
+				finally {
+					inFlight.release();
+				}
 			}
 		}
+		for (CompletableFuture<List<float[]>> future : futures) {
+			allEmbeddings.addAll(future.join());
+		}
 		return allEmbeddings;
 	}
 
-	private double cosineSimilarity(float[] vec1, float[] vec2) {
-		if (vec1 == null || vec2 == null || vec1.length != vec2.length)
-			return 0.0;
-		double dot = 0.0, norm1 = 0.0, norm2 = 0.0;
-		for (int i = 0; i < vec1.length; i++) {
-			dot += vec1[i] * vec2[i];
-			norm1 += vec1[i] * vec1[i];
-			norm2 += vec2[i] * vec2[i];
+	private List<float[]> embedBatchWithPermit(Semaphore permits, List<String> batch, int offset) {
+		if (permits == null) {
+			return embedBatch(batch, offset);
+		}
+		permits.acquireUninterruptibly();
+		try {
+			return embedBatch(batch, offset);
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	private List<float[]> embedBatch(List<String> batch, int offset) {
+		try {
+			if (embeddingRateLimiter != null) {
+				embeddingRateLimiter.acquire();
+			}
+			EmbeddingResponse response = embeddingModel.embedForResponse(batch);
+			List<float[]> embeddings = new ArrayList<>(batch.size());
+			for (var result : response.getResults()) {
+				embeddings.add(result.getOutput());
+			}
+			if (embeddings.size() == batch.size()) {
+				return embeddings;
+			}
+			log.error("Embedding result size {} does not match batch size {} for batch {}-{}", embeddings.size(),
+					batch.size(), offset, offset + batch.size());
+		}
+		catch (Exception e) {
+			log.error("Embedding failed for batch {}-{}", offset, offset + batch.size(), e);
 		}
-		if (norm1 == 0 || norm2 == 0)
+		// 失败时填充空向量，相似度按 0 处理，等同于原先的零向量
+		List<float[]> empty = new ArrayList<>(batch.size());
+		for (int k = 0; k < batch.size(); k++) {
+			empty.add(new float[0]);
+		}
+		return empty;
+	}
+
+	private static double[] inverseNorms(List<float[]> embeddings) {
+		double[] inverseNorms = new double[embeddings.size()];
+		for (int i = 0; i < embeddings.size(); i++) {
+			float[] vector = embeddings.get(i);
+			double norm = vector == null ? 0.0 : Math.sqrt(dot(vector, vector));
+			inverseNorms[i] = norm == 0 ? 0.0 : 1.0 / norm;
+		}
+		return inverseNorms;
+	}
+
+	static double cosineSimilarity(float[] vec1, double inverseNorm1, float[] vec2, double inverseNorm2) {
+		if (vec1 == null || vec2 == null || vec1.length != vec2.length || inverseNorm1 == 0 || inverseNorm2 == 0)
 			return 0.0; // 零向量处理
-		return dot / (Math.sqrt(norm1) * Math.sqrt(norm2));
+		return dot(vec1, vec2) * inverseNorm1 * inverseNorm2;
+	}
+
+	/**
+	 * 点积：四路独立累加器展开，打断单累加器的加法依赖链，便于 JIT 流水线化和向量化
+	 */
+	static double dot(float[] a, float[] b) {
+		double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+		int i = 0;
+		int bound = a.length & ~3;
+		for (; i < bound; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for (; i < a.length; i++) {
+			s0 += a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
 	}
 
 	/**
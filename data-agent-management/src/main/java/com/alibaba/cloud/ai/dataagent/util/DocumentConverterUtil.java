@@ -25,6 +25,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.ai.document.Document;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,6 +38,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DocumentConverterUtil {
 
+	/**
+	 * 列文档中样本数据的元数据key
+	 */
+	private static final String SAMPLES = "samples";
+
 	public static List<Document> convertColumnsToDocuments(Integer datasourceId, List<TableInfoBO> tables) {
 		List<Document> documents = new ArrayList<>();
 		for (TableInfoBO table : tables) {
@@ -71,8 +79,9 @@ public class DocumentConverterUtil {
 		metadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
 
 		if (columnInfoBO.getSamples() != null) {
-			metadata.put("samples", columnInfoBO.getSamples());
+			metadata.put(SAMPLES, columnInfoBO.getSamples());
 		}
+		metadata.put(DocumentMetadataConstant.FINGERPRINT, fingerprint(text, metadata));
 
 		return new Document(text, metadata);
 	}
@@ -94,6 +103,7 @@ public class DocumentConverterUtil {
 		metadata.put("primaryKey", Optional.ofNullable(tableInfoBO.getPrimaryKeys()).orElse(new ArrayList<>()));
 		metadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.TABLE);
 		metadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
+		metadata.put(DocumentMetadataConstant.FINGERPRINT, fingerprint(text, metadata));
 		return new Document(text, metadata);
 	}
 
@@ -103,6 +113,29 @@ public class DocumentConverterUtil {
 			.collect(Collectors.toList());
 	}
 
+	/**
+	 * 计算表/列文档的内容指纹：嵌入文本 + 按key排序的元数据（名称、类型、注释、主键、外键等）的 SHA-256。
+	 * 样本数据每次采样都可能不同且不参与嵌入，不计入指纹，否则每次重新初始化都会把所有列判定为变更
+	 * @param text 嵌入文本
+	 * @param metadata 文档元数据（不含指纹本身）
+	 * @return 十六进制指纹
+	 */
+	public static String fingerprint(String text, Map<String, Object> metadata) {
+		StringBuilder sb = new StringBuilder(text);
+		new TreeMap<>(metadata).forEach((key, value) -> {
+			if (!DocumentMetadataConstant.FINGERPRINT.equals(key) && !SAMPLES.equals(key)) {
+				sb.append('\u0001').append(key).append('=').append(value);
+			}
+		});
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not supported", e);
+		}
+	}
+
 	public static Document convertBusinessKnowledgeToDocument(BusinessKnowledge businessKnowledge) {
 
 		// 构建文档内容，包含业务名词、说明和同义词
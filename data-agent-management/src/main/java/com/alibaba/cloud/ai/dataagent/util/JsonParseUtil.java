@@ -20,6 +20,9 @@ import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -28,21 +31,50 @@ import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * JSON解析工具类，支持自动修复格式错误的JSON
+ * JSON解析工具类，支持自动修复格式错误的JSON。各修复层级的命中次数注册为 Micrometer 指标 {@code dataagent.json.parse}
  */
 @Slf4j
 @Component
 @AllArgsConstructor
-public class JsonParseUtil {
+public class JsonParseUtil implements MeterBinder {
 
 	private LlmService llmService;
 
 	private static final int MAX_RETRY_COUNT = 3;
 
+	private static final int MAX_REPAIR_CANDIDATES = 3;
+
+	private final LongAdder strictHits = new LongAdder();
+
+	private final LongAdder lenientHits = new LongAdder();
+
+	private final LongAdder repairHits = new LongAdder();
+
+	private final LongAdder llmHits = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
 	private static final String THINK_END_TAG = "</think>";
 
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		registerOutcome(registry, "strict", strictHits);
+		registerOutcome(registry, "lenient", lenientHits);
+		registerOutcome(registry, "local_repair", repairHits);
+		registerOutcome(registry, "llm", llmHits);
+		registerOutcome(registry, "failed", failures);
+	}
+
+	private static void registerOutcome(MeterRegistry registry, String outcome, LongAdder counter) {
+		FunctionCounter.builder("dataagent.json.parse", counter, LongAdder::sum)
+			.tag("outcome", outcome)
+			.description("LLM JSON outputs by the repair stage that parsed them")
+			.register(registry);
+	}
+
 	public <T> T tryConvertToObject(String json, Class<T> clazz) {
 		Assert.hasText(json, "Input JSON string cannot be null or empty");
 		Assert.notNull(clazz, "Target class cannot be null");
@@ -64,7 +96,7 @@ public class JsonParseUtil {
 	}
 
 	/**
-	 * 内部通用方法，用于JSON解析和修复
+	 * 内部通用方法，用于JSON解析和修复。依次尝试：严格解析 -> 去掉包装后宽松解析 -> 本地修复 -> 大模型修复
 	 * @param json JSON字符串
 	 * @param parser 解析器函数
 	 * @return 转换后的对象
@@ -72,22 +104,49 @@ public class JsonParseUtil {
 	private <T> T tryConvertToObjectInternal(String json, JsonParserFunction<T> parser) {
 		log.info("Trying to convert JSON to object: {}", json);
 		String currentJson = removeThinkTags(json);
-		Exception lastException = null;
 		ObjectMapper objectMapper = JsonUtil.getObjectMapper();
 
 		try {
-			return parser.parse(objectMapper, currentJson);
+			T result = parser.parse(objectMapper, currentJson);
+			strictHits.increment();
+			return result;
 		}
 		catch (JsonProcessingException e) {
-			log.warn("Initial parsing failed, preparing to call LLM: {}", e.getMessage());
+			log.debug("Strict parsing failed, trying local repair: {}", e.getMessage());
+		}
+
+		currentJson = JsonRepairUtil.stripWrappers(currentJson);
+		Exception lastException;
+		try {
+			T result = parser.parse(JsonRepairUtil.getLenientMapper(), currentJson);
+			lenientHits.increment();
+			log.info("JSON parsed after stripping wrappers with lenient parser");
+			return result;
+		}
+		catch (JsonProcessingException e) {
+			lastException = e;
+		}
+
+		for (String candidate : JsonRepairUtil.repairCandidates(currentJson, MAX_REPAIR_CANDIDATES)) {
+			try {
+				T result = parser.parse(JsonRepairUtil.getLenientMapper(), candidate);
+				repairHits.increment();
+				log.info("JSON repaired locally: {}", candidate);
+				return result;
+			}
+			catch (JsonProcessingException e) {
+				log.debug("Locally repaired candidate still invalid: {}", e.getMessage());
+			}
 		}
+		log.warn("Local repair failed, preparing to call LLM: {}", lastException.getMessage());
 
 		for (int i = 0; i < MAX_RETRY_COUNT; i++) {
 			try {
-				currentJson = callLlmToFix(currentJson,
-						lastException != null ? lastException.getMessage() : "Unknown error");
+				currentJson = callLlmToFix(currentJson, lastException.getMessage());
 
-				return parser.parse(objectMapper, currentJson);
+				T result = parseLocally(parser, currentJson);
+				llmHits.increment();
+				return result;
 			}
 			catch (JsonProcessingException e) {
 				lastException = e;
@@ -100,10 +159,49 @@ public class JsonParseUtil {
 			}
 		}
 
+		failures.increment();
 		throw new IllegalArgumentException(
 				String.format("Failed to parse JSON after %d LLM fix attempts", MAX_RETRY_COUNT), lastException);
 	}
 
+	/**
+	 * 大模型修复结果仍可能有尾随逗号等小问题，先宽松解析，再尝试本地修复
+	 */
+	private <T> T parseLocally(JsonParserFunction<T> parser, String json) throws JsonProcessingException {
+		try {
+			return parser.parse(JsonRepairUtil.getLenientMapper(), json);
+		}
+		catch (JsonProcessingException e) {
+			for (String candidate : JsonRepairUtil.repairCandidates(json, MAX_REPAIR_CANDIDATES)) {
+				try {
+					return parser.parse(JsonRepairUtil.getLenientMapper(), candidate);
+				}
+				catch (JsonProcessingException ignored) {
+					// 继续尝试下一个候选
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * 各修复层级的命中次数，用于观察大模型修复的调用比例
+	 */
+	public RepairStats getStats() {
+		return new RepairStats(strictHits.sum(), lenientHits.sum(), repairHits.sum(), llmHits.sum(), failures.sum());
+	}
+
+	/**
+	 * @param strict 直接解析成功
+	 * @param lenient 去掉思考过程/代码块后宽松解析成功
+	 * @param localRepair 本地修复后解析成功
+	 * @param llm 大模型修复后解析成功
+	 * @param failed 全部失败
+	 */
+	public record RepairStats(long strict, long lenient, long localRepair, long llm, long failed) {
+
+	}
+
 	/**
 	 * 函数式接口，用于JSON解析
 	 */
@@ -172,7 +270,8 @@ public class JsonParseUtil {
 
 			log.debug("Content after truncating think tags: {}", finalResult);
 
-			return finalResult;
+			// 结束标签之后没有内容时保留原文本，避免把空串交给后续的修复
+			return finalResult.isEmpty() ? text.trim() : finalResult;
 		}
 
 		// 如果没找到结束标签，说明可能没有思考过程，直接返回原文本（去除首尾空格）
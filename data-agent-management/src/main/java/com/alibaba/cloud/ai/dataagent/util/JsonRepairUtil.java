@@ -0,0 +1,374 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.util;
+
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 大模型输出JSON的本地修复工具，在调用大模型修复之前使用，覆盖常见的格式问题：
+ * <ul>
+ * <li>{@code <think>} 思考过程、Markdown 代码块、JSON 前后的说明文字</li>
+ * <li>尾随逗号、注释、单引号字符串、未加引号的 key 与 Python 风格的 True/False/None</li>
+ * <li>字符串中未转义的双引号和换行等控制字符</li>
+ * <li>输出被截断导致的未闭合字符串、括号以及悬空的 key</li>
+ * </ul>
+ */
+public final class JsonRepairUtil {
+
+	private static final String THINK_START_TAG = "<think>";
+
+	private static final String THINK_END_TAG = "</think>";
+
+	private static final Pattern NUMBER = Pattern.compile("-?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+	private static final String VALID_ESCAPES = "\"\\/bfnrtu";
+
+	/**
+	 * 容忍注释、单引号、未加引号的 key、尾随逗号、未转义控制字符等非标准写法的 ObjectMapper
+	 */
+	private static final ObjectMapper LENIENT_MAPPER = JsonMapper.builder()
+		.enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES, JsonReadFeature.ALLOW_SINGLE_QUOTES,
+				JsonReadFeature.ALLOW_JAVA_COMMENTS, JsonReadFeature.ALLOW_TRAILING_COMMA,
+				JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS, JsonReadFeature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER,
+				JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS, JsonReadFeature.ALLOW_LEADING_DECIMAL_POINT_FOR_NUMBERS)
+		.build();
+
+	public static ObjectMapper getLenientMapper() {
+		return LENIENT_MAPPER;
+	}
+
+	/**
+	 * 去掉思考过程和 Markdown 代码块，只保留可能的 JSON 正文。去掉后什么都不剩时（如思考过程未结束就被截断）返回原文本，
+	 * 交给后续的本地修复和大模型修复处理，而不是把空串交给它们
+	 */
+	public static String stripWrappers(String text) {
+		if (text == null) {
+			return null;
+		}
+		String result = text;
+		int thinkEnd = result.lastIndexOf(THINK_END_TAG);
+		if (thinkEnd >= 0) {
+			result = MarkdownParserUtil.extractRawText(result.substring(thinkEnd + THINK_END_TAG.length())).trim();
+		}
+		else if (result.stripLeading().startsWith(THINK_START_TAG)) {
+			result = "";
+		}
+		else {
+			result = MarkdownParserUtil.extractRawText(result).trim();
+		}
+		return result.isEmpty() ? text.trim() : result;
+	}
+
+	/**
+	 * 从文本中依次以前几个 '{' / '[' 为起点生成修复后的 JSON 候选，前面的候选更可能是真正的结果
+	 * @param text 已去掉思考过程和代码块的文本
+	 * @param maxCandidates 最多生成的候选数量
+	 * @return 修复后的候选 JSON 列表
+	 */
+	public static List<String> repairCandidates(String text, int maxCandidates) {
+		List<String> candidates = new ArrayList<>();
+		if (text == null) {
+			return candidates;
+		}
+		for (int i = 0; i < text.length() && candidates.size() < maxCandidates; i++) {
+			char c = text.charAt(i);
+			if (c == '{' || c == '[') {
+				String candidate = repair(text, i);
+				if (!candidates.contains(candidate)) {
+					candidates.add(candidate);
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * 从文本中第一个 '{' 或 '[' 开始修复出一个完整的 JSON 值
+	 */
+	public static String repair(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '{' || c == '[') {
+				return repair(text, i);
+			}
+		}
+		return text.trim();
+	}
+
+	/**
+	 * 从指定位置开始逐字符扫描并修复，顶层对象/数组闭合后忽略后面的内容
+	 */
+	static String repair(String text, int start) {
+		StringBuilder out = new StringBuilder(text.length() + 16);
+		Deque<Character> closers = new ArrayDeque<>();
+		boolean inString = false;
+		char quote = '"';
+		// 最近一个字符串在 out 中的起始位置，用于识别截断时悬空的 key
+		int lastStringStart = -1;
+		int i = start;
+		scan: while (i < text.length()) {
+			char c = text.charAt(i);
+			if (inString) {
+				if (c == '\\') {
+					if (i + 1 >= text.length()) {
+						break;
+					}
+					char next = text.charAt(i + 1);
+					if (VALID_ESCAPES.indexOf(next) >= 0 && !(next == 'u' && !isUnicodeEscape(text, i + 2))) {
+						out.append(c).append(next);
+						i += 2;
+					}
+					else if (next == '\'') {
+						out.append(next);
+						i += 2;
+					}
+					else {
+						out.append("\\\\");
+						i++;
+					}
+					continue;
+				}
+				if (c == quote && closesString(text, i + 1)) {
+					out.append('"');
+					inString = false;
+				}
+				else if (c == '"') {
+					out.append("\\\"");
+				}
+				else if (c < 0x20) {
+					appendControlChar(out, c);
+				}
+				else {
+					out.append(c);
+				}
+				i++;
+				continue;
+			}
+			switch (c) {
+				case '"', '\'' -> {
+					inString = true;
+					quote = c;
+					lastStringStart = out.length();
+					out.append('"');
+					i++;
+				}
+				case '{' -> {
+					closers.push('}');
+					out.append(c);
+					i++;
+				}
+				case '[' -> {
+					closers.push(']');
+					out.append(c);
+					i++;
+				}
+				case '}', ']' -> {
+					if (!closers.contains(c)) {
+						// 多余的右括号直接丢弃
+						i++;
+						continue;
+					}
+					// 括号不匹配时先补齐内层缺失的右括号
+					while (!closers.isEmpty()) {
+						char closer = closers.pop();
+						removeTrailingComma(out);
+						out.append(closer);
+						if (closer == c) {
+							break;
+						}
+					}
+					i++;
+					if (closers.isEmpty()) {
+						break scan;
+					}
+				}
+				case '/' -> {
+					if (i + 1 < text.length() && text.charAt(i + 1) == '/') {
+						int end = text.indexOf('\n', i);
+						i = end < 0 ? text.length() : end;
+					}
+					else if (i + 1 < text.length() && text.charAt(i + 1) == '*') {
+						int end = text.indexOf("*/", i + 2);
+						i = end < 0 ? text.length() : end + 2;
+					}
+					else {
+						i++;
+					}
+				}
+				case ',', ':' -> {
+					out.append(c);
+					i++;
+				}
+				default -> {
+					if (Character.isWhitespace(c)) {
+						out.append(c);
+						i++;
+					}
+					else {
+						int end = i;
+						while (end < text.length() && !isDelimiter(text.charAt(end))) {
+							end++;
+						}
+						int wordStart = out.length();
+						if (appendBareWord(out, text.substring(i, end), nextNonWhitespace(text, end) == ':')) {
+							lastStringStart = wordStart;
+						}
+						i = end;
+					}
+				}
+			}
+		}
+
+		if (inString) {
+			out.append('"');
+		}
+		trimTrailingWhitespace(out);
+		removeTrailingComma(out);
+		if (!out.isEmpty() && out.charAt(out.length() - 1) == ':') {
+			out.append("null");
+		}
+		else if (!closers.isEmpty() && closers.peek() == '}' && isDanglingKey(out, lastStringStart)) {
+			out.append(":null");
+		}
+		while (!closers.isEmpty()) {
+			removeTrailingComma(out);
+			out.append(closers.pop());
+		}
+		return out.toString();
+	}
+
+	/**
+	 * 字符串中的引号只有在其后紧跟结构符号（或文本结束）时才视为字符串结束，否则视为内容中未转义的引号
+	 */
+	private static boolean closesString(String text, int from) {
+		char next = nextNonWhitespace(text, from);
+		return next == 0 || next == ',' || next == ':' || next == '}' || next == ']';
+	}
+
+	private static char nextNonWhitespace(String text, int from) {
+		for (int j = from; j < text.length(); j++) {
+			char c = text.charAt(j);
+			if (!Character.isWhitespace(c)) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	private static boolean isUnicodeEscape(String text, int from) {
+		if (from + 4 > text.length()) {
+			return false;
+		}
+		for (int j = from; j < from + 4; j++) {
+			if (Character.digit(text.charAt(j), 16) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDelimiter(char c) {
+		return Character.isWhitespace(c) || c == ',' || c == ':' || c == '{' || c == '}' || c == '[' || c == ']'
+				|| c == '"' || c == '\'';
+	}
+
+	/**
+	 * 输出未加引号的单词：key 和无法识别的值加上引号，Python/JavaScript 风格的字面量转换为 JSON 字面量
+	 * @return 是否作为字符串输出
+	 */
+	private static boolean appendBareWord(StringBuilder out, String word, boolean isKey) {
+		if (!isKey) {
+			switch (word) {
+				case "true", "True", "TRUE" -> {
+					out.append("true");
+					return false;
+				}
+				case "false", "False", "FALSE" -> {
+					out.append("false");
+					return false;
+				}
+				case "null", "None", "NULL", "undefined", "NaN", "Infinity", "-Infinity" -> {
+					out.append("null");
+					return false;
+				}
+				default -> {
+					if (NUMBER.matcher(word).matches()) {
+						out.append(word);
+						return false;
+					}
+				}
+			}
+		}
+		out.append('"').append(word.replace("\\", "\\\\")).append('"');
+		return true;
+	}
+
+	private static void appendControlChar(StringBuilder out, char c) {
+		switch (c) {
+			case '\n' -> out.append("\\n");
+			case '\r' -> out.append("\\r");
+			case '\t' -> out.append("\\t");
+			case '\b' -> out.append("\\b");
+			case '\f' -> out.append("\\f");
+			default -> out.append(String.format("\\u%04x", (int) c));
+		}
+	}
+
+	private static void trimTrailingWhitespace(StringBuilder out) {
+		int length = out.length();
+		while (length > 0 && Character.isWhitespace(out.charAt(length - 1))) {
+			length--;
+		}
+		out.setLength(length);
+	}
+
+	private static void removeTrailingComma(StringBuilder out) {
+		int j = out.length() - 1;
+		while (j >= 0 && Character.isWhitespace(out.charAt(j))) {
+			j--;
+		}
+		if (j >= 0 && out.charAt(j) == ',') {
+			out.setLength(j);
+		}
+	}
+
+	/**
+	 * 对象中最后一个字符串前面是 '{' 或 ','，说明它是没有值的 key
+	 */
+	private static boolean isDanglingKey(StringBuilder out, int stringStart) {
+		if (stringStart < 0 || out.charAt(out.length() - 1) != '"') {
+			return false;
+		}
+		int j = stringStart - 1;
+		while (j >= 0 && Character.isWhitespace(out.charAt(j))) {
+			j--;
+		}
+		return j >= 0 && (out.charAt(j) == '{' || out.charAt(j) == ',');
+	}
+
+	private JsonRepairUtil() {
+		throw new AssertionError("Cannot instantiate utility class");
+	}
+
+}
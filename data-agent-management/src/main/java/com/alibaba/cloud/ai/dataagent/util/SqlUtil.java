@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.dataagent.util;
 import com.alibaba.cloud.ai.dataagent.enums.BizDataSourceTypeEnum;
 import lombok.experimental.UtilityClass;
 
+import java.math.BigDecimal;
+
 /**
  * SQL 工具类
  *
@@ -36,25 +38,78 @@ public class SqlUtil {
 	 * @return SELECT SQL语句
 	 */
 	public static String buildSelectSql(String typeName, String tableName, String columnNames, int limit) {
+		return buildSelectSql(typeName, tableName, columnNames, null, limit);
+	}
+
+	/**
+	 * 构建带过滤条件的SELECT SQL语句
+	 * @param typeName 数据源类型
+	 * @param tableName 表名
+	 * @param columnNames 列名
+	 * @param whereClause 过滤条件（不含WHERE关键字），为空时不过滤
+	 * @param limit 查询数量限制
+	 * @return SELECT SQL语句
+	 */
+	public static String buildSelectSql(String typeName, String tableName, String columnNames, String whereClause,
+			int limit) {
 		if (tableName == null || tableName.isEmpty()) {
 			throw new IllegalArgumentException("Table name cannot be empty");
 		}
 		if (columnNames == null || columnNames.isEmpty()) {
 			columnNames = "*";
 		}
+		String where = whereClause == null || whereClause.isBlank() ? "" : " WHERE " + whereClause;
 
 		if (BizDataSourceTypeEnum.isSqlServerDialect(typeName)) {
 			// SQL Server 使用 TOP
-			return String.format("SELECT TOP %d %s FROM %s", limit, columnNames, tableName);
+			return String.format("SELECT TOP %d %s FROM %s%s", limit, columnNames, tableName, where);
 		}
 		else if (BizDataSourceTypeEnum.isOracleDialect(typeName)) {
 			// Oracle 使用 FETCH FIRST (Oracle 12c+)
-			return String.format("SELECT %s FROM %s FETCH FIRST %d ROWS ONLY", columnNames, tableName, limit);
+			return String.format("SELECT %s FROM %s%s FETCH FIRST %d ROWS ONLY", columnNames, tableName, where,
+					limit);
 		}
 		else {
 			// MySQL, PostgreSQL, H2, SQLite 通用 LIMIT
-			return String.format("SELECT %s FROM %s LIMIT %d", columnNames, tableName, limit);
+			return String.format("SELECT %s FROM %s%s LIMIT %d", columnNames, tableName, where, limit);
+		}
+	}
+
+	/**
+	 * 构建使用数据库原生采样的SELECT SQL语句，按数据块随机读取，配合行数限制可提前结束扫描
+	 * @param typeName 数据源类型
+	 * @param tableName 表名
+	 * @param columnNames 列名
+	 * @param limit 查询数量限制
+	 * @param samplePercent 采样百分比，取值 (0, 100)
+	 * @return 采样SQL；数据源不支持原生采样时返回null
+	 */
+	public static String buildSampleSql(String typeName, String tableName, String columnNames, int limit,
+			double samplePercent) {
+		if (tableName == null || tableName.isEmpty()) {
+			throw new IllegalArgumentException("Table name cannot be empty");
+		}
+		if (samplePercent <= 0 || samplePercent >= 100) {
+			return null;
+		}
+		if (columnNames == null || columnNames.isEmpty()) {
+			columnNames = "*";
+		}
+		String percent = BigDecimal.valueOf(samplePercent).stripTrailingZeros().toPlainString();
+
+		if (BizDataSourceTypeEnum.isSqlServerDialect(typeName)) {
+			return String.format("SELECT TOP %d %s FROM %s TABLESAMPLE (%s PERCENT)", limit, columnNames, tableName,
+					percent);
+		}
+		else if (BizDataSourceTypeEnum.isOracleDialect(typeName)) {
+			return String.format("SELECT %s FROM %s SAMPLE BLOCK (%s) WHERE ROWNUM <= %d", columnNames, tableName,
+					percent, limit);
+		}
+		else if (BizDataSourceTypeEnum.isPgDialect(typeName) && !BizDataSourceTypeEnum.isAdbPg(typeName)) {
+			return String.format("SELECT %s FROM %s TABLESAMPLE SYSTEM (%s) LIMIT %d", columnNames, tableName,
+					percent, limit);
 		}
+		return null;
 	}
 
 }
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.util;
+
+import com.alibaba.cloud.ai.dataagent.dto.schema.ColumnDTO;
+import com.alibaba.cloud.ai.dataagent.dto.schema.SchemaDTO;
+import com.alibaba.cloud.ai.dataagent.dto.schema.TableDTO;
+import com.alibaba.cloud.ai.dataagent.enums.BizDataSourceTypeEnum;
+import com.alibaba.cloud.ai.dataagent.enums.DatabaseDialectEnum;
+import com.alibaba.druid.DbType;
+import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.ast.statement.SQLSelectItem;
+import com.alibaba.druid.sql.ast.statement.SQLSelectStatement;
+import com.alibaba.druid.sql.ast.statement.SQLSubqueryTableSource;
+import com.alibaba.druid.sql.ast.statement.SQLWithSubqueryClause;
+import com.alibaba.druid.sql.parser.ParserException;
+import com.alibaba.druid.sql.visitor.SQLASTVisitorAdapter;
+import com.alibaba.druid.sql.visitor.SchemaStatVisitor;
+import com.alibaba.druid.stat.TableStat;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SQL执行前的本地预校验：用Druid按数据源方言解析SQL，只允许单条SELECT语句，并按召回的Schema校验引用的表和列，
+ * 不访问数据库。
+ *
+ * <p>
+ * 校验以不误判为先：CTE名称、子查询别名、SELECT别名以及无法确定归属表的列都不会单独判为错误；Druid不支持的方言按通用SQL解析，
+ * 仍校验语句数量和类型，但不报告语法错误，也不校验表名和列名。
+ */
+@Slf4j
+public final class SqlValidationUtil {
+
+	/**
+	 * Druid无法确定列归属表时使用的表名
+	 */
+	private static final String UNKNOWN_TABLE = "unknown";
+
+	/**
+	 * 错误信息中最多列出的表名、列名数量
+	 */
+	private static final int MAX_LISTED_NAMES = 30;
+
+	/**
+	 * 不带括号的函数和伪列，Druid可能将其解析为列名
+	 */
+	private static final Set<String> PSEUDO_COLUMNS = Set.of("current_date", "current_time", "current_timestamp",
+			"localtime", "localtimestamp", "sysdate", "systimestamp", "rownum", "rowid", "level", "current_user",
+			"session_user", "user");
+
+	private static final Set<String> DUMMY_TABLES = Set.of("dual");
+
+	/**
+	 * 校验SQL
+	 * @param sql 待执行的SQL
+	 * @param schema 召回的Schema，为空时只校验语法和语句类型
+	 * @param dialect 数据源方言（{@link DatabaseDialectEnum} 的code，或 {@link BizDataSourceTypeEnum} 的typeName）
+	 * @param checkColumns 是否校验列名
+	 * @return 错误信息，为空表示校验通过
+	 */
+	public static List<String> validate(String sql, SchemaDTO schema, String dialect, boolean checkColumns) {
+		DbType dbType = toDbType(dialect);
+		boolean genericDialect = dbType == DbType.other;
+		if (StringUtils.isBlank(sql)) {
+			return List.of("生成的SQL为空");
+		}
+
+		List<SQLStatement> statements;
+		try {
+			statements = SQLUtils.parseStatements(sql, dbType);
+		}
+		catch (ParserException e) {
+			if (genericDialect) {
+				// 通用解析器不认识方言特有的语法，交给数据库判断
+				log.debug("SQL validation skipped for unsupported dialect {}: {}", dialect, e.getMessage());
+				return List.of();
+			}
+			return List.of("SQL语法错误：" + e.getMessage());
+		}
+		catch (RuntimeException e) {
+			// 解析器自身的异常不代表SQL有误，交给数据库判断
+			log.warn("Druid failed to parse SQL, validation skipped: {}", e.getMessage());
+			return List.of();
+		}
+		if (statements.isEmpty()) {
+			return List.of("生成的SQL为空");
+		}
+		if (statements.size() > 1) {
+			return List.of(String.format("只允许执行单条SELECT查询，当前SQL包含%d条语句", statements.size()));
+		}
+		SQLStatement statement = statements.get(0);
+		if (!(statement instanceof SQLSelectStatement)) {
+			return List.of("只允许执行SELECT查询，不支持" + statementType(statement) + "语句");
+		}
+		if (genericDialect || schema == null || schema.getTable() == null || schema.getTable().isEmpty()) {
+			// 不支持的方言无法可靠地解析标识符的引号和大小写规则，只校验语句数量和类型
+			return List.of();
+		}
+		return validateIdentifiers(statement, dbType, schema, checkColumns);
+	}
+
+	private static List<String> validateIdentifiers(SQLStatement statement, DbType dbType, SchemaDTO schema,
+			boolean checkColumns) {
+		// 归一化表名 -> 召回的表
+		Map<String, TableDTO> tables = new LinkedHashMap<>();
+		for (TableDTO table : schema.getTable()) {
+			String name = normalize(table.getName());
+			if (name != null) {
+				tables.putIfAbsent(name, table);
+			}
+		}
+
+		DerivedNameCollector derivedNames = new DerivedNameCollector();
+		statement.accept(derivedNames);
+		SchemaStatVisitor visitor = SQLUtils.createSchemaStatVisitor(dbType);
+		statement.accept(visitor);
+
+		List<String> errors = new ArrayList<>();
+		Set<String> referencedTables = new LinkedHashSet<>();
+		for (TableStat.Name name : visitor.getTables().keySet()) {
+			String table = tableName(name.getName());
+			if (table == null || derivedNames.isRelation(table) || DUMMY_TABLES.contains(table)) {
+				continue;
+			}
+			if (tables.containsKey(table)) {
+				referencedTables.add(table);
+			}
+			else {
+				errors.add(String.format("表 %s 不在召回的Schema中，可用的表：%s", name.getName(),
+						listNames(tables.values().stream().map(TableDTO::getName).toList())));
+			}
+		}
+		if (!checkColumns) {
+			return errors;
+		}
+
+		Set<String> reported = new HashSet<>();
+		for (TableStat.Column column : visitor.getColumns()) {
+			String columnName = normalize(column.getName());
+			if (columnName == null || "*".equals(columnName) || PSEUDO_COLUMNS.contains(columnName)
+					|| derivedNames.isColumn(columnName)) {
+				continue;
+			}
+			String table = tableName(column.getTable());
+			if (table == null || UNKNOWN_TABLE.equals(table)) {
+				// 无法确定归属表的列：只有涉及的表都不包含该列时才报错
+				if (!referencedTables.isEmpty() && referencedTables.stream()
+					.allMatch(t -> hasColumns(tables.get(t)) && !columnNames(tables.get(t)).contains(columnName))
+						&& reported.add(columnName)) {
+					errors.add(String.format("列 %s 不存在于查询涉及的表 %s 中", column.getName(),
+							listNames(referencedTables.stream().map(t -> tables.get(t).getName()).toList())));
+				}
+			}
+			else if (tables.containsKey(table) && !derivedNames.isRelation(table)) {
+				TableDTO tableDTO = tables.get(table);
+				if (hasColumns(tableDTO) && !columnNames(tableDTO).contains(columnName)
+						&& reported.add(table + "." + columnName)) {
+					errors.add(String.format("表 %s 中不存在列 %s，该表的列：%s", tableDTO.getName(), column.getName(),
+							listNames(tableDTO.getColumn().stream().map(ColumnDTO::getName).toList())));
+				}
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * 将数据源方言转换为Druid的DbType，为空或不支持时返回 {@link DbType#other}
+	 */
+	static DbType toDbType(String dialect) {
+		if (StringUtils.isBlank(dialect)) {
+			return DbType.other;
+		}
+		DatabaseDialectEnum dialectEnum = null;
+		for (DatabaseDialectEnum value : DatabaseDialectEnum.values()) {
+			if (value.getCode().equalsIgnoreCase(dialect)) {
+				dialectEnum = value;
+			}
+		}
+		if (dialectEnum == null) {
+			BizDataSourceTypeEnum typeEnum = BizDataSourceTypeEnum.fromTypeName(dialect);
+			if (typeEnum == null) {
+				return DbType.other;
+			}
+			dialectEnum = DatabaseDialectEnum.getByCode(typeEnum.getDialect()).orElse(null);
+			if (dialectEnum == null) {
+				return DbType.other;
+			}
+		}
+		return switch (dialectEnum) {
+			case MYSQL -> DbType.mysql;
+			case SQLite -> DbType.sqlite;
+			case POSTGRESQL -> DbType.postgresql;
+			case H2 -> DbType.h2;
+			case DAMENG -> DbType.dm;
+			case SQL_SERVER -> DbType.sqlserver;
+			case ORACLE -> DbType.oracle;
+			case HIVE -> DbType.hive;
+		};
+	}
+
+	private static String statementType(SQLStatement statement) {
+		String text = statement.toString().trim();
+		int end = 0;
+		while (end < text.length() && Character.isLetter(text.charAt(end))) {
+			end++;
+		}
+		return end == 0 ? statement.getClass().getSimpleName() : text.substring(0, end).toUpperCase(Locale.ROOT);
+	}
+
+	private static boolean hasColumns(TableDTO table) {
+		return table.getColumn() != null && !table.getColumn().isEmpty();
+	}
+
+	private static Set<String> columnNames(TableDTO table) {
+		Set<String> names = new HashSet<>();
+		for (ColumnDTO column : table.getColumn()) {
+			String name = normalize(column.getName());
+			if (name != null) {
+				names.add(name);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * 去掉库名/模式名前缀后的归一化表名
+	 */
+	private static String tableName(String name) {
+		if (name == null) {
+			return null;
+		}
+		int dot = name.lastIndexOf('.');
+		return normalize(dot >= 0 ? name.substring(dot + 1) : name);
+	}
+
+	/**
+	 * 去掉标识符两侧的引号并转为小写
+	 */
+	static String normalize(String identifier) {
+		if (identifier == null) {
+			return null;
+		}
+		String name = identifier.trim();
+		if (name.length() >= 2) {
+			char first = name.charAt(0);
+			char last = name.charAt(name.length() - 1);
+			if ((first == '`' && last == '`') || (first == '"' && last == '"') || (first == '[' && last == ']')) {
+				name = name.substring(1, name.length() - 1);
+			}
+		}
+		return name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+	}
+
+	private static String listNames(Collection<String> names) {
+		if (names.size() <= MAX_LISTED_NAMES) {
+			return String.join(", ", names);
+		}
+		return String.join(", ", names.stream().limit(MAX_LISTED_NAMES).toList()) + " 等" + names.size() + "个";
+	}
+
+	/**
+	 * 收集SQL中自行定义的名称：CTE名称、子查询别名（可作为表引用）和SELECT别名（可作为列引用）
+	 */
+	private static final class DerivedNameCollector extends SQLASTVisitorAdapter {
+
+		private final Set<String> relations = new HashSet<>();
+
+		private final Set<String> columns = new HashSet<>();
+
+		@Override
+		public boolean visit(SQLWithSubqueryClause.Entry x) {
+			add(relations, x.getAlias());
+			return true;
+		}
+
+		@Override
+		public boolean visit(SQLSubqueryTableSource x) {
+			add(relations, x.getAlias());
+			return true;
+		}
+
+		@Override
+		public boolean visit(SQLSelectItem x) {
+			add(columns, x.getAlias());
+			return true;
+		}
+
+		boolean isRelation(String name) {
+			return relations.contains(name);
+		}
+
+		boolean isColumn(String name) {
+			return columns.contains(name);
+		}
+
+		private static void add(Set<String> names, String alias) {
+			String name = normalize(alias);
+			if (name != null) {
+				names.add(name);
+			}
+		}
+
+	}
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SqlValidationUtil() {
+		throw new AssertionError("Cannot instantiate utility class");
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.util;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程工具类。
+ *
+ * <p>
+ * 项目以JDK 17为编译目标，不能直接使用 {@code Executors.newVirtualThreadPerTaskExecutor()}，这里借助 Spring 的
+ * {@link VirtualThreadTaskExecutor} 获取虚拟线程工厂，运行在JDK 21及以上版本时才可用。
+ */
+public final class VirtualThreadUtil {
+
+	private static final int VIRTUAL_THREAD_MIN_JAVA_VERSION = 21;
+
+	private VirtualThreadUtil() {
+	}
+
+	/**
+	 * 当前运行时是否支持虚拟线程
+	 */
+	public static boolean isSupported() {
+		return Runtime.version().feature() >= VIRTUAL_THREAD_MIN_JAVA_VERSION;
+	}
+
+	/**
+	 * 创建每个任务一个虚拟线程的执行器，空闲线程不复用等待，任务数不受线程池大小限制
+	 * @param threadNamePrefix 线程名前缀
+	 * @return 基于虚拟线程的执行器
+	 * @throws UnsupportedOperationException 运行时不支持虚拟线程
+	 */
+	public static ExecutorService newVirtualThreadExecutor(String threadNamePrefix) {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException("Virtual threads require JDK " + VIRTUAL_THREAD_MIN_JAVA_VERSION
+					+ "+, current: " + Runtime.version().feature());
+		}
+		ThreadFactory threadFactory = new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+		return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				threadFactory);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.vo;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 文档类知识向量化进度快照，供前端轮询展示
+ */
+@Value
+@Builder
+public class KnowledgeIngestionProgressVO {
+
+	public static final String STATUS_RUNNING = "running";
+
+	public static final String STATUS_SUCCESS = "success";
+
+	public static final String STATUS_FAILED = "failed";
+
+	Integer knowledgeId;
+
+	String status;
+
+	/**
+	 * 已解析的文本段数量
+	 */
+	int parsedSegments;
+
+	/**
+	 * 已解析的字符数
+	 */
+	long parsedChars;
+
+	/**
+	 * 已切分出的分块数量
+	 */
+	int splitChunks;
+
+	/**
+	 * 已完成嵌入并写入向量库的分块数量
+	 */
+	int storedChunks;
+
+	/**
+	 * 已写入向量库的批次数，每个批次对应一次嵌入请求
+	 */
+	int storedBatches;
+
+	String message;
+
+	long startTime;
+
+	Long endTime;
+
+}
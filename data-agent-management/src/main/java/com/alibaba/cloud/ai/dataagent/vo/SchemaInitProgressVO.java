@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.vo;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Schema初始化进度快照，供前端轮询展示
+ */
+@Value
+@Builder
+public class SchemaInitProgressVO {
+
+	public static final String STATUS_RUNNING = "running";
+
+	public static final String STATUS_SUCCESS = "success";
+
+	public static final String STATUS_PARTIAL = "partial";
+
+	public static final String STATUS_FAILED = "failed";
+
+	Integer datasourceId;
+
+	String status;
+
+	int totalTables;
+
+	/**
+	 * 已取回列信息的表数量
+	 */
+	int fetchedTables;
+
+	/**
+	 * 已完成样本采集的表数量
+	 */
+	int sampledTables;
+
+	/**
+	 * 已完成嵌入并写入向量库的表数量
+	 */
+	int storedTables;
+
+	List<String> failedTables;
+
+	String message;
+
+	long startTime;
+
+	Long endTime;
+
+}
@@ -23,6 +23,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.QUERY_ENHANCE_NODE_OUTPUT;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.SCHEMA_RECALL_NODE;
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.SEMANTIC_CACHE_HIT;
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_EXECUTE_NODE;
 import static com.alibaba.cloud.ai.graph.StateGraph.END;
 
 /**
@@ -54,6 +56,10 @@ public class QueryEnhanceDispatcher implements EdgeAction {
 					isCanonicalQueryEmpty, isExpandedQueriesEmpty);
 			return END;
 		}
+		else if (StateUtil.hasValue(state, SEMANTIC_CACHE_HIT)) {
+			log.info("Semantic cache hit, proceeding to sql execute");
+			return SQL_EXECUTE_NODE;
+		}
 		else {
 			log.info("Query process output is valid, proceeding to schema recall");
 			return SCHEMA_RECALL_NODE;
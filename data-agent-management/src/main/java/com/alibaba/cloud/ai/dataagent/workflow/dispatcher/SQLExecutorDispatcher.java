@@ -32,6 +32,12 @@ public class SQLExecutorDispatcher implements EdgeAction {
 	@Override
 	public String apply(OverAllState state) {
 		SqlRetryDto retryDto = StateUtil.getObjectValue(state, SQL_REGENERATE_REASON, SqlRetryDto.class);
+		if (retryDto.sqlExecuteFail() && StateUtil.hasValue(state, SEMANTIC_CACHE_HIT)
+				&& !StateUtil.hasValue(state, TABLE_RELATION_OUTPUT)) {
+			// 缓存的SQL执行失败时还没有召回过Schema，回到完整流程
+			log.warn("语义缓存中的SQL运行失败，回到Schema召回！");
+			return SCHEMA_RECALL_NODE;
+		}
 		if (retryDto.sqlExecuteFail()) {
 			log.warn("SQL运行失败，需要重新生成！");
 			return SQL_GENERATE_NODE;
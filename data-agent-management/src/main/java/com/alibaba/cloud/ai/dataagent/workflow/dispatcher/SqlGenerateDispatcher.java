@@ -58,8 +58,8 @@ public class SqlGenerateDispatcher implements EdgeAction {
 			return END;
 		}
 		else {
-			log.info("SQL生成成功，进入语义一致性检查节点: {}", SEMANTIC_CONSISTENCY_NODE);
-			return SEMANTIC_CONSISTENCY_NODE;
+			log.info("SQL生成成功，进入SQL预校验节点: {}", SQL_VALIDATE_NODE);
+			return SQL_VALIDATE_NODE;
 		}
 	}
 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.workflow.dispatcher;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.EdgeAction;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.*;
+
+/**
+ * SQL预校验通过后进入语义一致性校验，未通过时带着错误信息回到SQL生成节点
+ */
+@Slf4j
+public class SqlValidateDispatcher implements EdgeAction {
+
+	@Override
+	public String apply(OverAllState state) {
+		Boolean validate = (Boolean) state.value(SQL_VALIDATE_NODE_OUTPUT).orElse(false);
+		if (validate) {
+			log.info("SQL预校验通过，跳转到语义一致性校验节点。");
+			return SEMANTIC_CONSISTENCY_NODE;
+		}
+		else {
+			log.info("SQL预校验未通过，跳转到SQL生成节点。");
+			return SQL_GENERATE_NODE;
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
 import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
 import com.alibaba.cloud.ai.dataagent.prompt.PromptHelper;
 import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
+import com.alibaba.cloud.ai.dataagent.service.schema.SchemaRecallPrefetcher;
 import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
 import com.alibaba.cloud.ai.dataagent.util.*;
 import com.alibaba.cloud.ai.graph.GraphResponse;
@@ -33,6 +34,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
@@ -42,6 +44,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.*;
 
@@ -58,6 +62,11 @@ public class EvidenceRecallNode implements NodeAction {
 
 	private final AgentKnowledgeMapper agentKnowledgeMapper;
 
+	private final SchemaRecallPrefetcher schemaRecallPrefetcher;
+
+	@Qualifier("retrievalExecutor")
+	private final ExecutorService executorService;
+
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
@@ -66,6 +75,9 @@ public class EvidenceRecallNode implements NodeAction {
 		String agentId = StateUtil.getStringValue(state, AGENT_ID);
 		Assert.hasText(agentId, "Agent ID cannot be empty.");
 
+		// 以原始问题推测召回Schema，与证据召回和查询增强并行
+		schemaRecallPrefetcher.prefetch(agentId, question);
+
 		log.info("Rewriting query before getting evidence in question: {}", question);
 		log.debug("Agent ID: {}", agentId);
 
@@ -149,17 +161,19 @@ public class EvidenceRecallNode implements NodeAction {
 	}
 
 	private DocumentRetrievalResult retrieveDocuments(String agentId, String standaloneQuery) {
-		// 获取业务知识文档
-		List<Document> businessTermDocuments = vectorStoreService
-			.getDocumentsForAgent(agentId, standaloneQuery, DocumentMetadataConstant.BUSINESS_TERM)
-			.stream()
-			.toList();
+		// 业务知识与智能体知识的检索互不依赖：业务知识在专用的检索线程池中检索（不能用运行图节点的线程池，否则会互相等待），
+		// 智能体知识在当前线程检索，相同问题的嵌入请求由嵌入模型代理合并为一次
+		CompletableFuture<List<Document>> businessTermFuture = CompletableFuture.supplyAsync(
+				() -> vectorStoreService.getDocumentsForAgent(agentId, standaloneQuery,
+						DocumentMetadataConstant.BUSINESS_TERM),
+				executorService);
 
 		// 获取智能体知识文档
-		List<Document> agentKnowledgeDocuments = vectorStoreService
-			.getDocumentsForAgent(agentId, standaloneQuery, DocumentMetadataConstant.AGENT_KNOWLEDGE)
-			.stream()
-			.toList();
+		List<Document> agentKnowledgeDocuments = vectorStoreService.getDocumentsForAgent(agentId, standaloneQuery,
+				DocumentMetadataConstant.AGENT_KNOWLEDGE);
+
+		// 获取业务知识文档
+		List<Document> businessTermDocuments = businessTermFuture.join();
 
 		// 合并所有证据文档
 		List<Document> allDocuments = new ArrayList<>();
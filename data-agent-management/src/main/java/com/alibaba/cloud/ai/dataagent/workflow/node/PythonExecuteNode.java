@@ -77,8 +77,15 @@ public class PythonExecuteNode implements NodeAction {
 			// 检查重试次数
 			int triesCount = StateUtil.getObjectValue(state, PYTHON_TRIES_COUNT, Integer.class, 0);
 
-			CodePoolExecutorService.TaskRequest taskRequest = new CodePoolExecutorService.TaskRequest(pythonCode,
-					objectMapper.writeValueAsString(sqlResults), null);
+			// 列式交换时查询结果由执行器直接写成带类型的CSV文件，不再序列化为JSON写入标准输入
+			CodePoolExecutorService.TaskRequest taskRequest;
+			if (Boolean.TRUE.equals(codeExecutorProperties.getColumnarDataExchange())) {
+				taskRequest = new CodePoolExecutorService.TaskRequest(pythonCode, "", null, sqlResults);
+			}
+			else {
+				taskRequest = new CodePoolExecutorService.TaskRequest(pythonCode,
+						objectMapper.writeValueAsString(sqlResults), null);
+			}
 
 			// Run Python code
 			CodePoolExecutorService.TaskResponse taskResponse = this.codePoolExecutor.runTask(taskRequest);
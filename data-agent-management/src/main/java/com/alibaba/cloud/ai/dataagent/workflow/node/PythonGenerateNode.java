@@ -24,6 +24,8 @@ import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.alibaba.cloud.ai.dataagent.dto.planner.ExecutionStep;
 import com.alibaba.cloud.ai.dataagent.prompt.PromptConstant;
+import com.alibaba.cloud.ai.dataagent.prompt.PythonDataExchangePrompt;
+import com.alibaba.cloud.ai.dataagent.service.code.ColumnarInputWriter;
 import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
 import com.alibaba.cloud.ai.dataagent.util.ChatResponseUtil;
 import com.alibaba.cloud.ai.dataagent.util.FluxUtil;
@@ -34,10 +36,12 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -101,12 +105,17 @@ public class PythonGenerateNode implements NodeAction {
 		ExecutionStep.ToolParameters toolParameters = executionStep.getToolParameters();
 
 		// Load Python code generation template
-		String systemPrompt = PromptConstant.getPythonGeneratorPromptTemplate()
-			.render(Map.of("python_memory", codeExecutorProperties.getLimitMemory().toString(), "python_timeout",
-					codeExecutorProperties.getCodeTimeout(), "database_schema",
-					objectMapper.writeValueAsString(schemaDTO), "sample_input",
-					objectMapper.writeValueAsString(sqlResults.stream().limit(SAMPLE_DATA_NUMBER).toList()),
-					"plan_description", objectMapper.writeValueAsString(toolParameters)));
+		Map<String, Object> params = new HashMap<>(Map.of("python_memory",
+				codeExecutorProperties.getLimitMemory().toString(), "python_timeout",
+				codeExecutorProperties.getCodeTimeout(), "database_schema", objectMapper.writeValueAsString(schemaDTO),
+				"sample_input", objectMapper.writeValueAsString(sqlResults.stream().limit(SAMPLE_DATA_NUMBER).toList()),
+				"plan_description", objectMapper.writeValueAsString(toolParameters)));
+		// 列式交换时告知模型每列已推断好的类型，与执行时 read_input() 得到的 DataFrame 一致
+		PythonDataExchangePrompt exchange = PythonDataExchangePrompt.of(codeExecutorProperties.getColumnarDataExchange());
+		params.putAll(exchange.params(exchange == PythonDataExchangePrompt.COLUMNAR
+				? objectMapper.writeValueAsString(ColumnarInputWriter.inferSchema(sqlResults)) : null));
+		PromptTemplate template = PromptConstant.getPythonGeneratorPromptTemplate();
+		String systemPrompt = template.render(params);
 
 		Flux<ChatResponse> pythonGenerateFlux = llmService.call(systemPrompt, userPrompt);
 
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.dataagent.workflow.node;
 
+import com.alibaba.cloud.ai.dataagent.dto.planner.Plan;
 import com.alibaba.cloud.ai.dataagent.dto.prompt.QueryEnhanceOutputDTO;
 import com.alibaba.cloud.ai.dataagent.enums.TextType;
 import com.alibaba.cloud.ai.dataagent.util.*;
@@ -24,6 +25,7 @@ import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.alibaba.cloud.ai.dataagent.prompt.PromptHelper;
 import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
+import com.alibaba.cloud.ai.dataagent.service.nl2sql.SemanticAnswerCacheService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -31,6 +33,7 @@ import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.*;
 
@@ -46,6 +49,8 @@ public class QueryEnhanceNode implements NodeAction {
 
 	private final JsonParseUtil jsonParseUtil;
 
+	private final SemanticAnswerCacheService semanticAnswerCacheService;
+
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
@@ -69,12 +74,12 @@ public class QueryEnhanceNode implements NodeAction {
 						ChatResponseUtil.createPureResponse(TextType.JSON.getStartSign())),
 				Flux.just(ChatResponseUtil.createPureResponse(TextType.JSON.getEndSign()),
 						ChatResponseUtil.createResponse("\n问题增强完成！")),
-				this::handleQueryEnhance);
+				llmOutput -> handleQueryEnhance(state, llmOutput));
 
 		return Map.of(QUERY_ENHANCE_NODE_OUTPUT, generator);
 	}
 
-	private Map<String, Object> handleQueryEnhance(String llmOutput) {
+	private Map<String, Object> handleQueryEnhance(OverAllState state, String llmOutput) {
 		// 获取处理结果
 		String enhanceResult = MarkdownParserUtil.extractRawText(llmOutput.trim());
 		log.info("Query enhance result: {}", enhanceResult);
@@ -91,8 +96,30 @@ public class QueryEnhanceNode implements NodeAction {
 
 		if (queryEnhanceOutputDTO == null)
 			return Map.of();
+
+		Optional<SemanticAnswerCacheService.CachedAnswer> cachedAnswer = lookupCachedAnswer(state,
+				queryEnhanceOutputDTO);
+		if (cachedAnswer.isPresent()) {
+			// 命中语义缓存，直接带着缓存的计划和SQL进入SQL执行节点
+			SemanticAnswerCacheService.CachedAnswer answer = cachedAnswer.get();
+			boolean isOnlyNl2Sql = state.value(IS_ONLY_NL2SQL, false);
+			return Map.of(QUERY_ENHANCE_NODE_OUTPUT, queryEnhanceOutputDTO, SEMANTIC_CACHE_HIT, answer.id(),
+					PLANNER_NODE_OUTPUT, isOnlyNl2Sql ? Plan.nl2SqlPlan() : answer.plan(), SQL_GENERATE_OUTPUT,
+					answer.sql(), PLAN_CURRENT_STEP, 1);
+		}
 		// 返回处理结果
 		return Map.of(QUERY_ENHANCE_NODE_OUTPUT, queryEnhanceOutputDTO);
 	}
 
+	private Optional<SemanticAnswerCacheService.CachedAnswer> lookupCachedAnswer(OverAllState state,
+			QueryEnhanceOutputDTO queryEnhanceOutputDTO) {
+		// 开启人工复核时需要用户确认计划，不能跳过规划
+		Boolean humanReviewEnabled = state.value(HUMAN_REVIEW_ENABLED, false);
+		if (!semanticAnswerCacheService.isEnabled() || Boolean.TRUE.equals(humanReviewEnabled)) {
+			return Optional.empty();
+		}
+		String agentId = StateUtil.getStringValue(state, AGENT_ID, null);
+		return semanticAnswerCacheService.lookup(agentId, queryEnhanceOutputDTO.getCanonicalQuery());
+	}
+
 }
@@ -21,12 +21,14 @@ import com.alibaba.cloud.ai.graph.GraphResponse;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.cloud.ai.dataagent.service.schema.SchemaRecallPrefetcher;
 import com.alibaba.cloud.ai.dataagent.service.schema.SchemaService;
 import com.alibaba.cloud.ai.dataagent.util.ChatResponseUtil;
 import com.alibaba.cloud.ai.dataagent.util.FluxUtil;
 import com.alibaba.cloud.ai.dataagent.util.StateUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.document.Document;
 import org.springframework.stereotype.Component;
@@ -36,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.*;
 
@@ -58,6 +61,8 @@ public class SchemaRecallNode implements NodeAction {
 
 	private final AgentDatasourceMapper agentDatasourceMapper;
 
+	private final SchemaRecallPrefetcher schemaRecallPrefetcher;
+
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
@@ -97,12 +102,31 @@ public class SchemaRecallNode implements NodeAction {
 			return Map.of(SCHEMA_RECALL_NODE_OUTPUT, generator);
 		}
 
-		// Execute business logic first - recall schema information immediately
-		List<Document> tableDocuments = new ArrayList<>(
-				schemaService.getTableDocumentsByDatasource(datasourceId, input));
+		List<Document> tableDocuments;
+		List<Document> columnDocuments;
+		String rawInput = StateUtil.getStringValue(state, INPUT_KEY, null);
+		Optional<SchemaRecallPrefetcher.RecallResult> speculative = schemaRecallPrefetcher.take(agentId, rawInput,
+				datasourceId);
+		if (speculative.isPresent() && StringUtils.equals(StringUtils.trim(input), StringUtils.trim(rawInput))) {
+			// 增强后的问题与原始问题一致，推测召回的结果即为本次召回结果，不再同步召回
+			tableDocuments = speculative.get().tableDocuments();
+			columnDocuments = speculative.get().columnDocuments();
+		}
+		else if (speculative.isPresent()) {
+			// 多轮对话或查询改写后问题已变化，以增强后的问题召回为准，推测结果只用于补齐表和复用已召回的列文档
+			SchemaRecallPrefetcher.RecallResult refined = schemaRecallPrefetcher.refine(speculative.get(),
+					schemaService.getTableDocumentsByDatasource(datasourceId, input));
+			tableDocuments = refined.tableDocuments();
+			columnDocuments = refined.columnDocuments();
+		}
+		else {
+			// Execute business logic first - recall schema information immediately
+			tableDocuments = new ArrayList<>(schemaService.getTableDocumentsByDatasource(datasourceId, input));
+			columnDocuments = schemaService.getColumnDocumentsByTableName(datasourceId,
+					extractTableName(tableDocuments));
+		}
 		// extract table names
 		List<String> recalledTableNames = extractTableName(tableDocuments);
-		List<Document> columnDocuments = schemaService.getColumnDocumentsByTableName(datasourceId, recalledTableNames);
 
 		String failMessage = """
 				\n 未检索到相关数据表
@@ -15,18 +15,23 @@
  */
 package com.alibaba.cloud.ai.dataagent.workflow.node;
 
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.PLANNER_NODE_OUTPUT;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.PLAN_CURRENT_STEP;
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.SEMANTIC_CACHE_HIT;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_EXECUTE_NODE_OUTPUT;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_GENERATE_COUNT;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_GENERATE_OUTPUT;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_REGENERATE_REASON;
 import static com.alibaba.cloud.ai.dataagent.constant.Constant.SQL_RESULT_LIST_MEMORY;
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.TABLE_RELATION_OUTPUT;
 
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnarResultSet;
 import com.alibaba.cloud.ai.dataagent.bo.schema.DisplayStyleBO;
-import com.alibaba.cloud.ai.dataagent.bo.schema.ResultBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.connector.AsyncSqlExecutor;
 import com.alibaba.cloud.ai.dataagent.connector.DbQueryParameter;
+import com.alibaba.cloud.ai.dataagent.connector.SqlResultCache;
 import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
 import com.alibaba.cloud.ai.dataagent.constant.Constant;
 import com.alibaba.cloud.ai.dataagent.dto.datasource.SqlRetryDto;
@@ -36,6 +41,7 @@ import com.alibaba.cloud.ai.dataagent.prompt.PromptHelper;
 import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
 import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
 import com.alibaba.cloud.ai.dataagent.service.nl2sql.Nl2SqlService;
+import com.alibaba.cloud.ai.dataagent.service.nl2sql.SemanticAnswerCacheService;
 import com.alibaba.cloud.ai.dataagent.util.ChatResponseUtil;
 import com.alibaba.cloud.ai.dataagent.util.DatabaseUtil;
 import com.alibaba.cloud.ai.dataagent.util.FluxUtil;
@@ -48,8 +54,10 @@ import com.alibaba.cloud.ai.graph.GraphResponse;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -57,6 +65,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * SQL execution node that executes SQL queries against the database.
@@ -83,6 +93,12 @@ public class SqlExecuteNode implements NodeAction {
 
 	private final JsonParseUtil jsonParseUtil;
 
+	private final SqlResultCache sqlResultCache;
+
+	private final SemanticAnswerCacheService semanticAnswerCacheService;
+
+	private final AsyncSqlExecutor asyncSqlExecutor;
+
 	private static final int SAMPLE_DATA_NUMBER = 20;
 
 	@Override
@@ -113,9 +129,9 @@ public class SqlExecuteNode implements NodeAction {
 	 * Executes the SQL query against the database and handles the results.
 	 *
 	 * <p>
-	 * This method follows the business-logic-first pattern: 1. Execute the actual SQL
-	 * query immediately 2. Process and store the results 3. Create streaming output for
-	 * user experience only
+	 * The query is submitted to the dedicated SQL executor when the streaming output is
+	 * subscribed, results are processed and stored once it completes, and cancelling the
+	 * stream cancels the running statement on the database.
 	 * @param state The overall state containing execution context
 	 * @param currentStep The current step number in the execution plan
 	 * @param sqlQuery The SQL query to execute
@@ -123,76 +139,50 @@ public class SqlExecuteNode implements NodeAction {
 	 * @param agentId The agent ID
 	 * @return Map containing the generator for streaming output
 	 */
-	@SuppressWarnings("unchecked")
 	private Map<String, Object> executeSqlQuery(OverAllState state, Integer currentStep, String sqlQuery,
 			DbConfigBO dbConfig, Long agentId) {
 		// Execute business logic first - actual SQL execution
 		DbQueryParameter dbQueryParameter = new DbQueryParameter();
 		dbQueryParameter.setSql(sqlQuery);
 		dbQueryParameter.setSchema(dbConfig.getSchema());
+		dbQueryParameter.setFetchSize(properties.getSqlResultFetchSize());
 
 		Accessor dbAccessor = databaseUtil.getAgentAccessor(agentId);
 		final Map<String, Object> result = new HashMap<>();
 
 		// 先返回流式数据，在执行数据库查询
-		Flux<ChatResponse> displayFlux = Flux.create(emitter -> {
-			emitter.next(ChatResponseUtil.createResponse("开始执行SQL..."));
-			emitter.next(ChatResponseUtil.createResponse("执行SQL查询："));
-			emitter.next(ChatResponseUtil.createPureResponse(TextType.SQL.getStartSign()));
-			emitter.next(ChatResponseUtil.createResponse(sqlQuery));
-			emitter.next(ChatResponseUtil.createPureResponse(TextType.SQL.getEndSign()));
-			ResultBO resultBO = ResultBO.builder().build();
-
-			try {
-				// Execute SQL query and get results immediately
-				ResultSetBO resultSetBO = dbAccessor.executeSqlAndReturnObject(dbConfig, dbQueryParameter);
-				// 调用大模型获取图表配置信息并填充到ResultSetBO中
-				DisplayStyleBO displayStyleBO = enrichResultSetWithChartConfig(state, resultSetBO);
-				resultBO.setResultSet(resultSetBO);
-				resultBO.setDisplayStyle(displayStyleBO);
-
-				String strResultSetJson = JsonUtil.getObjectMapper().writeValueAsString(resultSetBO);
-				String strResultJson = JsonUtil.getObjectMapper().writeValueAsString(resultBO);
-
-				// 数据执行成功
-				emitter.next(ChatResponseUtil.createResponse("执行SQL完成"));
-				emitter.next(ChatResponseUtil.createResponse("SQL查询结果："));
-				emitter.next(ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getStartSign()));
-				emitter.next(ChatResponseUtil.createPureResponse(strResultJson));
-				emitter.next(ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getEndSign()));
-
-				// Update step results with the query output
-				Map<String, String> existingResults = StateUtil.getObjectValue(state, SQL_EXECUTE_NODE_OUTPUT,
-						Map.class, new HashMap<>());
-				Map<String, String> updatedResults = PlanProcessUtil.addStepResult(existingResults, currentStep,
-						strResultSetJson);
-
-				log.info("SQL execution successful, result count: {}",
-						resultSetBO.getData() != null ? resultSetBO.getData().size() : 0);
-
-				// 回写最终执行的sql，报告节点需要使用
-				ExecutionStep.ToolParameters currentStepParams = PlanProcessUtil.getCurrentExecutionStep(state)
-					.getToolParameters();
-				currentStepParams.setSqlQuery(sqlQuery);
-
-				// Prepare the final result object
-				// Store List of SQL query results for use by code execution node
-				// Reset sql generate count retry times when sql execute success
-				result.putAll(Map.of(SQL_EXECUTE_NODE_OUTPUT, updatedResults, SQL_REGENERATE_REASON,
-						SqlRetryDto.empty(), SQL_RESULT_LIST_MEMORY, resultSetBO.getData(), PLAN_CURRENT_STEP,
-						currentStep + 1, SQL_GENERATE_COUNT, 0));
-			}
-			catch (Exception e) {
-				String errorMessage = e.getMessage();
-				log.error("SQL execution failed - SQL as follows: \n {} \n ", sqlQuery, e);
-				result.put(SQL_REGENERATE_REASON, SqlRetryDto.sqlExecute(errorMessage));
-				emitter.next(ChatResponseUtil.createResponse("SQL执行失败: " + errorMessage));
-			}
-			finally {
-				emitter.complete();
+		Flux<ChatResponse> preFlux = Flux.just(ChatResponseUtil.createResponse("开始执行SQL..."),
+				ChatResponseUtil.createResponse("执行SQL查询："),
+				ChatResponseUtil.createPureResponse(TextType.SQL.getStartSign()),
+				ChatResponseUtil.createResponse(sqlQuery),
+				ChatResponseUtil.createPureResponse(TextType.SQL.getEndSign()));
+
+		// SQL在专用线程池上执行，流被取消（停止对话、连接断开）时同时取消数据库上的查询
+		Mono<ResultSetBO> resultSetMono = Mono.defer(() -> {
+			// Reuse cached results for repeated queries
+			ResultSetBO cached = sqlResultCache.get(agentId, dbConfig, sqlQuery);
+			if (cached != null) {
+				return Mono.just(cached);
 			}
+			return asyncSqlExecutor.execute(agentId, dbAccessor, dbConfig, dbQueryParameter)
+				.doOnNext(resultSetBO -> sqlResultCache.put(agentId, dbConfig, sqlQuery, resultSetBO));
 		});
 
+		Flux<ChatResponse> executeFlux = resultSetMono
+			// 结果处理需要调用大模型生成图表配置，切换线程以免占用SQL执行线程
+			.publishOn(Schedulers.boundedElastic())
+			.flatMapIterable(resultSetBO -> {
+				try {
+					return handleExecuteSuccess(state, currentStep, sqlQuery, agentId, resultSetBO, result);
+				}
+				catch (JsonProcessingException e) {
+					throw new IllegalStateException("Failed to serialize SQL result: " + e.getMessage(), e);
+				}
+			})
+			.onErrorResume(e -> Flux.just(handleExecuteFailure(state, sqlQuery, agentId, e, result)));
+
+		Flux<ChatResponse> displayFlux = preFlux.concatWith(executeFlux);
+
 		// Create generator using utility class, returning pre-computed business logic
 		// result
 		Flux<GraphResponse<StreamingOutput>> generator = FluxUtil.createStreamingGeneratorWithMessages(this.getClass(),
@@ -200,6 +190,109 @@ public class SqlExecuteNode implements NodeAction {
 		return Map.of(SQL_EXECUTE_NODE_OUTPUT, generator);
 	}
 
+	/**
+	 * 处理SQL执行成功的结果，写入节点输出并返回展示消息
+	 */
+	@SuppressWarnings("unchecked")
+	private List<ChatResponse> handleExecuteSuccess(OverAllState state, Integer currentStep, String sqlQuery,
+			Long agentId, ResultSetBO resultSetBO, Map<String, Object> result) throws JsonProcessingException {
+		// 调用大模型获取图表配置信息并填充到ResultSetBO中
+		DisplayStyleBO displayStyleBO = enrichResultSetWithChartConfig(state, resultSetBO);
+
+		// 结果集只序列化一次，完整结果在此基础上拼接展示样式
+		String strResultSetJson = JsonUtil.getObjectMapper().writeValueAsString(resultSetBO);
+		String strResultJson = buildResultJson(strResultSetJson, displayStyleBO);
+
+		// Update step results with the query output
+		Map<String, String> existingResults = StateUtil.getObjectValue(state, SQL_EXECUTE_NODE_OUTPUT, Map.class,
+				new HashMap<>());
+		Map<String, String> updatedResults = PlanProcessUtil.addStepResult(existingResults, currentStep,
+				strResultSetJson);
+
+		log.info("SQL execution successful, result count: {}",
+				resultSetBO.getData() != null ? resultSetBO.getData().size() : 0);
+
+		// 回写最终执行的sql，报告节点需要使用
+		ExecutionStep.ToolParameters currentStepParams = PlanProcessUtil.getCurrentExecutionStep(state)
+			.getToolParameters();
+		currentStepParams.setSqlQuery(sqlQuery);
+		cacheAnswer(state, agentId, sqlQuery);
+
+		// Prepare the final result object
+		// Store List of SQL query results for use by code execution node
+		// Reset sql generate count retry times when sql execute success
+		result.putAll(Map.of(SQL_EXECUTE_NODE_OUTPUT, updatedResults, SQL_REGENERATE_REASON, SqlRetryDto.empty(),
+				SQL_RESULT_LIST_MEMORY, toStateRows(resultSetBO), PLAN_CURRENT_STEP, currentStep + 1,
+				SQL_GENERATE_COUNT, 0));
+
+		// 数据执行成功
+		return List.of(ChatResponseUtil.createResponse("执行SQL完成"), ChatResponseUtil.createResponse("SQL查询结果："),
+				ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getStartSign()),
+				ChatResponseUtil.createPureResponse(strResultJson),
+				ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getEndSign()));
+	}
+
+	/**
+	 * 处理SQL执行失败，记录重新生成SQL的原因并返回展示消息
+	 */
+	private ChatResponse handleExecuteFailure(OverAllState state, String sqlQuery, Long agentId, Throwable e,
+			Map<String, Object> result) {
+		String errorMessage = e.getMessage();
+		log.error("SQL execution failed - SQL as follows: \n {} \n ", sqlQuery, e);
+		result.put(SQL_REGENERATE_REASON, SqlRetryDto.sqlExecute(errorMessage));
+		if (isSemanticCacheHit(state)) {
+			// 缓存的SQL已不可用，删除后回到完整流程
+			semanticAnswerCacheService.evict(agentId.toString(), StateUtil.getStringValue(state, SEMANTIC_CACHE_HIT));
+		}
+		return ChatResponseUtil.createResponse("SQL执行失败: " + errorMessage);
+	}
+
+	/**
+	 * 本轮执行的SQL来自语义缓存，即未经过Schema召回和SQL生成
+	 */
+	private boolean isSemanticCacheHit(OverAllState state) {
+		return StateUtil.hasValue(state, SEMANTIC_CACHE_HIT) && !StateUtil.hasValue(state, TABLE_RELATION_OUTPUT);
+	}
+
+	/**
+	 * 将完整流程生成并执行成功的SQL写入语义缓存，写入失败不影响本次执行
+	 */
+	private void cacheAnswer(OverAllState state, Long agentId, String sqlQuery) {
+		if (!semanticAnswerCacheService.isEnabled() || isSemanticCacheHit(state)) {
+			return;
+		}
+		try {
+			if (!semanticAnswerCacheService.isCacheablePlan(PlanProcessUtil.getPlan(state))) {
+				return;
+			}
+			semanticAnswerCacheService.store(agentId.toString(), StateUtil.getCanonicalQuery(state), sqlQuery,
+					StateUtil.getStringValue(state, PLANNER_NODE_OUTPUT));
+		}
+		catch (Exception e) {
+			log.warn("Failed to cache semantic answer for agent {}", agentId, e);
+		}
+	}
+
+	/**
+	 * 基于已序列化的结果集拼接 ResultBO 的 JSON，字段顺序与直接序列化 ResultBO 一致
+	 */
+	private String buildResultJson(String strResultSetJson, DisplayStyleBO displayStyleBO)
+			throws JsonProcessingException {
+		return "{\"resultSet\":" + strResultSetJson + ",\"displayStyle\":"
+				+ JsonUtil.getObjectMapper().writeValueAsString(displayStyleBO) + "}";
+	}
+
+	/**
+	 * 图状态中只存放普通集合，列式结果集在此转换为行Map列表
+	 */
+	private List<Map<String, String>> toStateRows(ResultSetBO resultSetBO) {
+		List<Map<String, String>> data = resultSetBO.getData();
+		if (data instanceof ColumnarResultSet columnar) {
+			return columnar.toRowMaps();
+		}
+		return data;
+	}
+
 	/**
 	 * 调用大模型获取图表配置信息并填充到ResultSetBO中
 	 * @param state 整体状态
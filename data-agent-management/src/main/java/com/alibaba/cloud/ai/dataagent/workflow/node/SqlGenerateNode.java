@@ -95,6 +95,11 @@ public class SqlGenerateNode implements NodeAction {
 			sqlFlux = handleRetryGenerateSql(state, StateUtil.getStringValue(state, SQL_GENERATE_OUTPUT, ""),
 					retryDto.reason(), promptForSql);
 		}
+		else if (retryDto.validationFail()) {
+			displayMessage = "SQL预校验未通过，开始重新生成SQL...";
+			sqlFlux = handleRetryGenerateSql(state, StateUtil.getStringValue(state, SQL_GENERATE_OUTPUT, ""),
+					retryDto.reason(), promptForSql);
+		}
 		else if (retryDto.semanticFail()) {
 			displayMessage = "语义一致性校验未通过，开始重新生成SQL...";
 			sqlFlux = handleRetryGenerateSql(state, StateUtil.getStringValue(state, SQL_GENERATE_OUTPUT, ""),
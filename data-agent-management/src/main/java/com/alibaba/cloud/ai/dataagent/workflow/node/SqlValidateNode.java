@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.workflow.node;
+
+import com.alibaba.cloud.ai.dataagent.dto.datasource.SqlRetryDto;
+import com.alibaba.cloud.ai.dataagent.dto.schema.SchemaDTO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.util.ChatResponseUtil;
+import com.alibaba.cloud.ai.dataagent.util.FluxUtil;
+import com.alibaba.cloud.ai.dataagent.util.SqlValidationUtil;
+import com.alibaba.cloud.ai.dataagent.util.StateUtil;
+import com.alibaba.cloud.ai.graph.GraphResponse;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.alibaba.cloud.ai.dataagent.constant.Constant.*;
+
+/**
+ * SQL pre-validation node that checks the generated SQL locally before it reaches the
+ * database.
+ *
+ * This node is responsible for: - Parsing the SQL with the Druid parser of the datasource
+ * dialect - Rejecting multiple or non-SELECT statements - Resolving tables and columns
+ * against the recalled schema - Sending precise errors back to SQL regeneration without a
+ * database round trip
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class SqlValidateNode implements NodeAction {
+
+	private final DataAgentProperties properties;
+
+	@Override
+	public Map<String, Object> apply(OverAllState state) throws Exception {
+		DataAgentProperties.SqlValidation config = properties.getSqlValidation();
+		if (!config.isEnabled()) {
+			return Map.of(SQL_VALIDATE_NODE_OUTPUT, true);
+		}
+
+		String sql = StateUtil.getStringValue(state, SQL_GENERATE_OUTPUT, "");
+		SchemaDTO schemaDTO = StateUtil.hasValue(state, TABLE_RELATION_OUTPUT)
+				? StateUtil.getObjectValue(state, TABLE_RELATION_OUTPUT, SchemaDTO.class) : null;
+		String dialect = StateUtil.getStringValue(state, DB_DIALECT_TYPE, "");
+
+		long start = System.nanoTime();
+		List<String> errors = SqlValidationUtil.validate(sql, schemaDTO, dialect, config.isCheckColumns());
+		log.info("SQL pre-validation finished in {} us, errors: {}", (System.nanoTime() - start) / 1000, errors);
+
+		Map<String, Object> result;
+		String message;
+		if (errors.isEmpty()) {
+			result = Map.of(SQL_VALIDATE_NODE_OUTPUT, true);
+			message = "SQL预校验通过";
+		}
+		else {
+			StringBuilder reason = new StringBuilder("SQL预校验未通过：");
+			for (int i = 0; i < errors.size(); i++) {
+				reason.append('\n').append(i + 1).append(". ").append(errors.get(i));
+			}
+			message = reason.toString();
+			result = Map.of(SQL_VALIDATE_NODE_OUTPUT, false, SQL_REGENERATE_REASON, SqlRetryDto.validation(message));
+		}
+
+		Flux<GraphResponse<StreamingOutput>> generator = FluxUtil.createStreamingGeneratorWithMessages(this.getClass(),
+				state, "开始SQL预校验", "SQL预校验完成", v -> result,
+				Flux.just(ChatResponseUtil.createResponse(message)));
+		return Map.of(SQL_VALIDATE_NODE_OUTPUT, generator);
+	}
+
+}
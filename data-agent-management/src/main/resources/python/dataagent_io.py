@@ -0,0 +1,205 @@
+#
+# Copyright 2024-2026 the original author or authors.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+"""
+SQL 查询结果的列式输入与结构化输出。
+
+后端将 SQL 结果按列类型写入脚本同目录下的 input_data.csv（首行为列名），列类型写在 input_schema.json 中，
+因此这里可以直接按类型读取，无需解析 JSON 再逐列做类型推断：
+
+    from dataagent_io import read_input, write_result
+    df = read_input()          # pandas.DataFrame，int64/float64/datetime 列已是对应类型
+    write_result(result)       # 以 JSON 输出结果，自动处理 numpy / pandas 类型与 NaN
+
+不依赖 pandas 时可使用 read_records()，返回按类型转换后的 List[Dict]。
+日期时间列中无法解析的值在 DataFrame 中为 NaT、在 read_records() 中保留原字符串，各列的数量由 parse_failures() 返回，
+并在标准错误中提示。
+"""
+import csv
+import datetime
+import decimal
+import json
+import math
+import os
+import sys
+
+DATA_FILE = "input_data.csv"
+SCHEMA_FILE = "input_schema.json"
+
+_BASE_DIR = os.path.dirname(os.path.abspath(__file__))
+
+# 最近一次读取中各列无法按声明类型解析的值的数量
+_parse_failures = {}
+
+
+def _path(name):
+    return os.path.join(_BASE_DIR, name)
+
+
+def read_schema():
+    """返回 [{"name": 列名, "type": "int64" | "float64" | "datetime" | "string"}, ...]"""
+    try:
+        with open(_path(SCHEMA_FILE), encoding="utf-8") as f:
+            return json.load(f).get("columns", [])
+    except FileNotFoundError:
+        return []
+
+
+def read_input():
+    """以 pandas.DataFrame 读取输入数据，空值在数值/日期列中为缺失值，在字符串列中为空字符串"""
+    import pandas as pd
+
+    columns = read_schema()
+    if not columns:
+        return pd.DataFrame()
+    dtypes, na_values, dates = {}, {}, []
+    for column in columns:
+        name, kind = column["name"], column["type"]
+        if kind == "int64":
+            dtypes[name] = "Int64"
+            na_values[name] = [""]
+        elif kind == "float64":
+            dtypes[name] = "float64"
+            na_values[name] = [""]
+        elif kind == "datetime":
+            dtypes[name] = "string"
+            na_values[name] = [""]
+            dates.append(name)
+        else:
+            dtypes[name] = "object"
+    df = pd.read_csv(_path(DATA_FILE), dtype=dtypes, keep_default_na=False, na_values=na_values,
+                     encoding="utf-8")
+    failures = {}
+    for name in dates:
+        parsed = pd.to_datetime(df[name], errors="coerce")
+        # 原值非空而解析结果为 NaT 的即为解析失败
+        failed = int((parsed.isna() & df[name].notna()).sum())
+        if failed:
+            failures[name] = failed
+        df[name] = parsed
+    _record_failures(failures)
+    # 没有缺失值的整数列使用普通 int64，与常见的 numpy 运算保持一致
+    for column in columns:
+        name = column["name"]
+        if column["type"] == "int64" and not df[name].isna().any():
+            df[name] = df[name].astype("int64")
+    return df
+
+
+def read_records():
+    """不依赖 pandas 读取输入数据，返回 List[Dict]，空值在数值/日期列中为 None"""
+    columns = read_schema()
+    if not columns:
+        return []
+    converters = {column["name"]: _CONVERTERS.get(column["type"], str) for column in columns}
+    dates = {column["name"] for column in columns if column["type"] == "datetime"}
+    failures = {}
+    records = []
+    with open(_path(DATA_FILE), encoding="utf-8", newline="") as f:
+        for row in csv.DictReader(f):
+            record = {name: _convert(converters[name], value) for name, value in row.items()}
+            for name in dates:
+                # 无法解析的日期时间保留原字符串
+                if isinstance(record.get(name), str):
+                    failures[name] = failures.get(name, 0) + 1
+            records.append(record)
+    _record_failures(failures)
+    return records
+
+
+def parse_failures():
+    """返回最近一次 read_input() / read_records() 中各列无法按声明类型解析的值的数量，{列名: 数量}，全部成功时为空"""
+    return dict(_parse_failures)
+
+
+def _record_failures(failures):
+    global _parse_failures
+    _parse_failures = failures
+    for name, count in failures.items():
+        sys.stderr.write("dataagent_io: %d value(s) in column '%s' could not be parsed as datetime\n" % (count, name))
+
+
+def write_result(result, file=None):
+    """将分析结果以一行 JSON 输出到标准输出"""
+    out = file or sys.stdout
+    out.write(json.dumps(_to_json(result), ensure_ascii=False, allow_nan=False))
+    out.write("\n")
+    out.flush()
+
+
+def _parse_datetime(value):
+    try:
+        return datetime.datetime.fromisoformat(value)
+    except ValueError:
+        return value
+
+
+_CONVERTERS = {"int64": int, "float64": float, "datetime": _parse_datetime}
+
+
+def _convert(converter, value):
+    if converter is str:
+        return value
+    return None if value == "" else converter(value)
+
+
+def _to_json(value):
+    if value is None or isinstance(value, (str, bool, int)):
+        return value
+    if isinstance(value, float):
+        return value if math.isfinite(value) else None
+    if isinstance(value, dict):
+        return {_key(k): _to_json(v) for k, v in value.items()}
+    if isinstance(value, (list, tuple, set)):
+        return [_to_json(v) for v in value]
+    if isinstance(value, (datetime.date, datetime.time)):
+        return value.isoformat()
+    if isinstance(value, decimal.Decimal):
+        return _to_json(float(value))
+    module = type(value).__module__
+    if module.startswith("pandas"):
+        if hasattr(value, "to_dict") and hasattr(value, "columns"):
+            return _to_json(value.to_dict(orient="records"))
+        if hasattr(value, "to_dict"):
+            return _to_json(value.to_dict())
+        if value is getattr(sys.modules.get("pandas"), "NaT", object()) or _is_na(value):
+            return None
+        if hasattr(value, "isoformat"):
+            return value.isoformat()
+        if hasattr(value, "tolist"):
+            return _to_json(value.tolist())
+    if module.startswith("numpy"):
+        if hasattr(value, "tolist"):
+            return _to_json(value.tolist())
+    if _is_na(value):
+        return None
+    return str(value)
+
+
+def _key(key):
+    if isinstance(key, str):
+        return key
+    converted = _to_json(key)
+    return converted if isinstance(converted, str) else json.dumps(converted, ensure_ascii=False)
+
+
+def _is_na(value):
+    pandas = sys.modules.get("pandas")
+    if pandas is None:
+        return False
+    try:
+        return bool(pandas.isna(value))
+    except (TypeError, ValueError):
+        return False
@@ -0,0 +1,146 @@
+#
+# Copyright 2024-2026 the original author or authors.
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+"""
+常驻的 Python 执行进程（warm worker）。
+
+协议：标准输入每行一个 JSON 任务 {"code", "input", "cwd", "timeout_ms"}，
+标准输出每行一个 JSON 结果 {"exit_code", "stdout", "stderr", "timed_out"}，启动完成后先输出 {"ready": true}。
+
+启动时预先导入 pandas 等常用库；每个任务 fork 出子进程执行，子进程继承已导入的模块（写时复制），
+任务之间互不影响，超时直接 SIGKILL 子进程。不支持 fork 的平台退化为每个任务启动一个新解释器。
+"""
+import io
+import json
+import os
+import signal
+import subprocess
+import sys
+import tempfile
+import time
+import traceback
+
+MAX_OUTPUT_BYTES = 5 * 1024 * 1024
+TRUNCATED_NOTICE = "\n...[Output truncated due to size limit]..."
+
+
+def emit(message):
+    sys.stdout.write(json.dumps(message) + "\n")
+    sys.stdout.flush()
+
+
+def preload(modules):
+    for name in modules:
+        try:
+            __import__(name)
+        except Exception:
+            pass
+
+
+def read_output(stream):
+    stream.seek(0)
+    data = stream.read(MAX_OUTPUT_BYTES + 1)
+    text = data[:MAX_OUTPUT_BYTES].decode("utf-8", errors="replace")
+    if len(data) > MAX_OUTPUT_BYTES:
+        text += TRUNCATED_NOTICE
+    return text
+
+
+def run_child(task, out_fd, err_fd):
+    status = 0
+    try:
+        devnull = os.open(os.devnull, os.O_RDONLY)
+        os.dup2(devnull, 0)
+        os.dup2(out_fd, 1)
+        os.dup2(err_fd, 2)
+        sys.stdin = io.StringIO(task.get("input") or "")
+        if task.get("cwd"):
+            os.chdir(task["cwd"])
+            # 与直接运行 script.py 一致，脚本所在目录中的辅助模块（dataagent_io）可以直接导入
+            sys.path.insert(0, task["cwd"])
+        code = compile(task.get("code") or "", "script.py", "exec")
+        exec(code, {"__name__": "__main__", "__file__": "script.py", "__builtins__": __builtins__})
+    except SystemExit as e:
+        if isinstance(e.code, int):
+            status = e.code
+        elif e.code is not None:
+            print(e.code, file=sys.stderr)
+            status = 1
+    except BaseException:
+        # 跳过 worker 自身的栈帧，只保留用户代码的调用栈
+        etype, value, tb = sys.exc_info()
+        traceback.print_exception(etype, value, tb.tb_next)
+        status = 1
+    finally:
+        try:
+            sys.stdout.flush()
+            sys.stderr.flush()
+        except Exception:
+            pass
+    os._exit(status & 0xFF)
+
+
+def run_forked(task, timeout):
+    with tempfile.TemporaryFile() as out, tempfile.TemporaryFile() as err:
+        sys.stdout.flush()
+        sys.stderr.flush()
+        pid = os.fork()
+        if pid == 0:
+            run_child(task, out.fileno(), err.fileno())
+        deadline = time.monotonic() + timeout
+        while True:
+            done, status = os.waitpid(pid, os.WNOHANG)
+            if done:
+                break
+            if time.monotonic() >= deadline:
+                os.kill(pid, signal.SIGKILL)
+                os.waitpid(pid, 0)
+                return {"exit_code": -1, "stdout": read_output(out), "stderr": read_output(err), "timed_out": True}
+            time.sleep(0.005)
+        exit_code = os.WEXITSTATUS(status) if os.WIFEXITED(status) else -os.WTERMSIG(status)
+        return {"exit_code": exit_code, "stdout": read_output(out), "stderr": read_output(err), "timed_out": False}
+
+
+def run_subprocess(task, timeout):
+    try:
+        completed = subprocess.run([sys.executable, "-u", "-c", task.get("code") or ""],
+                                   input=(task.get("input") or "").encode("utf-8"), capture_output=True,
+                                   timeout=timeout, cwd=task.get("cwd") or None)
+    except subprocess.TimeoutExpired:
+        return {"exit_code": -1, "stdout": "", "stderr": "", "timed_out": True}
+    return {"exit_code": completed.returncode,
+            "stdout": completed.stdout[:MAX_OUTPUT_BYTES].decode("utf-8", errors="replace"),
+            "stderr": completed.stderr[:MAX_OUTPUT_BYTES].decode("utf-8", errors="replace"), "timed_out": False}
+
+
+def main():
+    modules = sys.argv[1].split(",") if len(sys.argv) > 1 else []
+    preload([name.strip() for name in modules if name.strip()])
+    emit({"ready": True})
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+        try:
+            task = json.loads(line)
+            timeout = max(task.get("timeout_ms") or 60000, 1) / 1000.0
+            result = run_forked(task, timeout) if hasattr(os, "fork") else run_subprocess(task, timeout)
+        except Exception as e:
+            result = {"exit_code": -1, "stdout": "", "stderr": "", "timed_out": False, "error": "worker error: %s" % e}
+        emit(result)
+
+
+if __name__ == "__main__":
+    main()
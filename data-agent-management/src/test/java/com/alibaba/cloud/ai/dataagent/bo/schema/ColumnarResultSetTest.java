@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.bo.schema;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 列式结果集的行、列访问与行视图语义（H2 内存库）
+ */
+class ColumnarResultSetTest {
+
+	private Connection connection;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		connection = DriverManager.getConnection("jdbc:h2:mem:columnar_result_set;DB_CLOSE_DELAY=-1");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE ORDERS (ID INT, QTY SMALLINT, TOTAL BIGINT, NAME VARCHAR(64))");
+			statement.execute("INSERT INTO ORDERS VALUES (1, 2, 9223372036854775807, 'apple'), "
+					+ "(2, NULL, NULL, NULL), (-3, 0, 0, '')");
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		connection.close();
+	}
+
+	@Test
+	void rowAndColumnAccess_readValuesOfEachType() throws Exception {
+		ColumnarResultSet result = query("SELECT ID, QTY, TOTAL, NAME FROM ORDERS ORDER BY ID DESC");
+
+		assertEquals(List.of("ID", "QTY", "TOTAL", "NAME"), result.getHeader());
+		assertEquals(3, result.size());
+		assertEquals("2", result.getValue(0, 0));
+		assertEquals("9223372036854775807", result.getValue(1, 2));
+		assertEquals("apple", result.get(1).get("NAME"));
+		assertEquals("-3", result.get(2).get("ID"));
+		assertNull(result.get(0).get("MISSING"));
+		assertFalse(result.get(0).containsKey("MISSING"));
+		assertThrows(IndexOutOfBoundsException.class, () -> result.get(3));
+		assertThrows(IndexOutOfBoundsException.class, () -> result.getValue(-1, 0));
+	}
+
+	@Test
+	void nulls_readAsEmptyStringsInIntegralAndStringColumns() throws Exception {
+		ColumnarResultSet result = query("SELECT ID, QTY, TOTAL, NAME FROM ORDERS WHERE ID = 2");
+
+		assertEquals(Map.of("ID", "2", "QTY", "", "TOTAL", "", "NAME", ""), result.get(0));
+		// 0 与 NULL 不能混淆
+		ColumnarResultSet zeros = query("SELECT QTY, TOTAL FROM ORDERS WHERE ID = -3");
+		assertEquals("0", zeros.getValue(0, 0));
+		assertEquals("0", zeros.getValue(0, 1));
+	}
+
+	@Test
+	void duplicateColumnNames_keepFirstOccurrence() throws Exception {
+		ColumnarResultSet result = query("SELECT ID AS X, NAME AS X, QTY FROM ORDERS WHERE ID = 1");
+
+		assertEquals(List.of("X", "X", "QTY"), result.getHeader());
+		assertEquals(2, result.get(0).size());
+		assertEquals("1", result.get(0).get("X"));
+		assertEquals("apple", result.getValue(0, 1));
+		assertEquals(List.of("X", "QTY"), List.copyOf(result.get(0).keySet()));
+	}
+
+	@Test
+	void toRowMaps_copiesRowsInColumnOrder() throws Exception {
+		ColumnarResultSet result = query("SELECT NAME, ID FROM ORDERS ORDER BY ID");
+
+		List<Map<String, String>> rows = result.toRowMaps();
+
+		assertEquals(result, rows);
+		assertInstanceOf(LinkedHashMap.class, rows.get(0));
+		assertEquals(List.of("NAME", "ID"), List.copyOf(rows.get(0).keySet()));
+		rows.get(1).put("NAME", "changed");
+		assertEquals("apple", result.get(1).get("NAME"));
+	}
+
+	@Test
+	void appendRow_growsBeyondInitialCapacity() throws Exception {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE NUMS AS SELECT X AS N, CAST(X AS VARCHAR) AS S FROM SYSTEM_RANGE(1, 200)");
+		}
+		ColumnarResultSet result = query("SELECT N, S FROM NUMS ORDER BY N");
+
+		assertEquals(200, result.size());
+		assertEquals("200", result.get(199).get("N"));
+		assertEquals("65", result.getValue(64, 1));
+	}
+
+	private ColumnarResultSet query(String sql) throws Exception {
+		try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+			ResultSetMetaData metaData = rs.getMetaData();
+			String[] header = new String[metaData.getColumnCount()];
+			int[] sqlTypes = new int[header.length];
+			for (int i = 0; i < header.length; i++) {
+				header[i] = metaData.getColumnLabel(i + 1);
+				sqlTypes[i] = metaData.getColumnType(i + 1);
+			}
+			ColumnarResultSet result = new ColumnarResultSet(header, sqlTypes);
+			while (rs.next()) {
+				result.appendRow(rs);
+			}
+			return result;
+		}
+	}
+
+}
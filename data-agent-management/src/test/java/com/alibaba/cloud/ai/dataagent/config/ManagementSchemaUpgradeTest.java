@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ManagementSchemaUpgradeTest {
+
+	private SingleConnectionDataSource dataSource;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new SingleConnectionDataSource(
+				"jdbc:h2:mem:schema_upgrade_" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=true", "sa", "",
+				true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dataSource.destroy();
+	}
+
+	@Test
+	void afterPropertiesSet_existingTableWithoutColumn_addsColumnOnce() throws SQLException {
+		execute("CREATE TABLE datasource (id INT PRIMARY KEY, name VARCHAR(255))");
+		execute("INSERT INTO datasource (id, name) VALUES (1, 'orders')");
+
+		new ManagementSchemaUpgrade(dataSource).afterPropertiesSet();
+		new ManagementSchemaUpgrade(dataSource).afterPropertiesSet();
+
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT name, pool_profile FROM datasource")) {
+			assertTrue(resultSet.next());
+			assertEquals("orders", resultSet.getString("name"));
+			assertNull(resultSet.getString("pool_profile"));
+		}
+	}
+
+	@Test
+	void afterPropertiesSet_missingTable_isSkipped() {
+		assertDoesNotThrow(() -> new ManagementSchemaUpgrade(dataSource).afterPropertiesSet());
+	}
+
+	private void execute(String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+}
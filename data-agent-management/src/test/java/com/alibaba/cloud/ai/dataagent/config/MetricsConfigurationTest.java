@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.config;
+
+import com.alibaba.cloud.ai.dataagent.connector.SqlResultCache;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.aimodelconfig.EmbeddingCache;
+import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
+import com.alibaba.cloud.ai.dataagent.util.JsonParseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MetricsConfigurationTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+
+	private SqlResultCache sqlResultCache;
+
+	private EmbeddingCache embeddingCache;
+
+	private JsonParseUtil jsonParseUtil;
+
+	@BeforeEach
+	void setUp() {
+		DataAgentProperties properties = new DataAgentProperties();
+		properties.getEmbeddingCache().setDiskPath(tempDir.toString());
+		sqlResultCache = new SqlResultCache(properties);
+		embeddingCache = new EmbeddingCache(properties);
+		jsonParseUtil = new JsonParseUtil(mock(LlmService.class));
+		beanFactory.addBean("sqlResultCache", sqlResultCache);
+		beanFactory.addBean("embeddingCache", embeddingCache);
+		beanFactory.addBean("jsonParseUtil", jsonParseUtil);
+	}
+
+	private MetricsConfiguration configuration() {
+		return new MetricsConfiguration(beanFactory.getBeanProvider(MeterRegistry.class),
+				beanFactory.getBeanProvider(MeterBinder.class), sqlResultCache, embeddingCache, jsonParseUtil);
+	}
+
+	@Test
+	void afterSingletonsInstantiated_bindsEveryMeterBinderOnceToRegistryBean() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		beanFactory.addBean("meterRegistry", registry);
+		MetricsConfiguration configuration = configuration();
+
+		configuration.afterSingletonsInstantiated();
+		int meterCount = registry.getMeters().size();
+		configuration.afterSingletonsInstantiated();
+
+		assertNotNull(registry.find("dataagent.sql.result.cache.hit.rate").gauge());
+		assertNotNull(registry.find("dataagent.embedding.cache.hit.rate").gauge());
+		assertNotNull(registry.find("dataagent.json.parse").tag("outcome", "llm").functionCounter());
+		assertEquals(meterCount, registry.getMeters().size());
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
+import com.alibaba.cloud.ai.dataagent.connector.pool.DataSourcePoolRegistry;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AsyncSqlExecutorTest {
+
+	private final DbConfigBO dbConfig = DbConfigBO.builder().url("jdbc:h2:mem:test").username("sa").build();
+
+	private DataAgentProperties properties;
+
+	private ExecutorService executorService;
+
+	private Accessor accessor;
+
+	private AsyncSqlExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		properties = new DataAgentProperties();
+		executorService = Executors.newFixedThreadPool(4);
+		accessor = mock(Accessor.class);
+		executor = new AsyncSqlExecutor(executorService, properties, new DataSourcePoolRegistry(properties));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	void execute_appliesDefaultTimeoutAndReturnsResult() throws Exception {
+		ResultSetBO resultSet = ResultSetBO.builder().build();
+		when(accessor.executeSqlAndReturnObject(any(), any())).thenReturn(resultSet);
+		DbQueryParameter param = new DbQueryParameter().setSql("SELECT 1");
+
+		assertSame(resultSet, executor.execute(1L, accessor, dbConfig, param).block(Duration.ofSeconds(5)));
+		assertEquals(properties.getSqlExecution().getQueryTimeoutSeconds(), param.getQueryTimeout());
+		assertNotNull(param.getCanceller());
+	}
+
+	@Test
+	void execute_timeoutPrecedence_callerThenPoolProfileThenGlobal() throws Exception {
+		DataAgentProperties.PoolProfile reporting = new DataAgentProperties.PoolProfile();
+		reporting.setQueryTimeoutSeconds(120);
+		properties.getConnectionPool().getProfiles().put("reporting", reporting);
+		DbConfigBO reportingConfig = DbConfigBO.builder().url("jdbc:h2:mem:reporting").poolProfile("reporting").build();
+		when(accessor.executeSqlAndReturnObject(any(), any())).thenReturn(ResultSetBO.builder().build());
+
+		DbQueryParameter profileDefault = new DbQueryParameter().setSql("SELECT 1");
+		executor.execute(1L, accessor, reportingConfig, profileDefault).block(Duration.ofSeconds(5));
+		DbQueryParameter explicit = new DbQueryParameter().setSql("SELECT 1").setQueryTimeout(5);
+		executor.execute(1L, accessor, reportingConfig, explicit).block(Duration.ofSeconds(5));
+
+		assertEquals(120, profileDefault.getQueryTimeout());
+		assertEquals(5, explicit.getQueryTimeout());
+	}
+
+	@Test
+	void dispose_cancelsRunningStatement() throws Exception {
+		Statement statement = mock(Statement.class);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			cancelled.countDown();
+			return null;
+		}).when(statement).cancel();
+		when(accessor.executeSqlAndReturnObject(any(), any())).thenAnswer(invocation -> {
+			DbQueryParameter param = invocation.getArgument(1);
+			param.getCanceller().bind(statement);
+			started.countDown();
+			cancelled.await(5, TimeUnit.SECONDS);
+			throw new SQLException("canceled");
+		});
+
+		Disposable subscription = executor.execute(1L, accessor, dbConfig, new DbQueryParameter().setSql("SELECT 1"))
+			.subscribe();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		subscription.dispose();
+
+		assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+		verify(statement).cancel();
+	}
+
+	@Test
+	void execute_overAgentConcurrencyLimit_failsAfterAcquireTimeout() throws Exception {
+		properties.getSqlExecution().setMaxConcurrentPerAgent(1);
+		properties.getSqlExecution().setAcquireTimeoutMillis(50);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(accessor.executeSqlAndReturnObject(any(), any())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return ResultSetBO.builder().build();
+		});
+
+		executor.execute(1L, accessor, dbConfig, new DbQueryParameter()).subscribe();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		assertThrows(IllegalStateException.class,
+				() -> executor.execute(1L, accessor, dbConfig, new DbQueryParameter()).block(Duration.ofSeconds(5)));
+		// 其他智能体不受影响
+		release.countDown();
+		assertNotNull(executor.execute(2L, accessor, dbConfig, new DbQueryParameter()).block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void execute_queuedOverLimit_doesNotHoldWorkerThreads() throws Exception {
+		executorService.shutdownNow();
+		executorService = Executors.newFixedThreadPool(2);
+		executor = new AsyncSqlExecutor(executorService, properties, new DataSourcePoolRegistry(properties));
+		properties.getSqlExecution().setMaxConcurrentPerAgent(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ResultSetBO blockedResult = ResultSetBO.builder().build();
+		ResultSetBO otherResult = ResultSetBO.builder().build();
+		when(accessor.executeSqlAndReturnObject(eq(dbConfig), any())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return blockedResult;
+		});
+		DbConfigBO otherConfig = DbConfigBO.builder().url("jdbc:h2:mem:other").build();
+		when(accessor.executeSqlAndReturnObject(eq(otherConfig), any())).thenReturn(otherResult);
+
+		var first = executor.execute(1L, accessor, dbConfig, new DbQueryParameter()).toFuture();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		var queued = executor.execute(1L, accessor, dbConfig, new DbQueryParameter()).toFuture();
+
+		// 排队的任务不占用工作线程，另一个智能体的查询可以立即使用剩余的线程
+		assertSame(otherResult,
+				executor.execute(2L, accessor, otherConfig, new DbQueryParameter()).block(Duration.ofSeconds(5)));
+		assertFalse(queued.isDone());
+
+		release.countDown();
+		assertSame(blockedResult, first.get(5, TimeUnit.SECONDS));
+		assertSame(blockedResult, queued.get(5, TimeUnit.SECONDS));
+	}
+
+}
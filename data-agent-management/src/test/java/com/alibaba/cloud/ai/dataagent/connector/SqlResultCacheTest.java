@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnarResultSet;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlResultCacheTest {
+
+	private DataAgentProperties properties;
+
+	private SqlResultCache cache;
+
+	private final DbConfigBO dbConfig = DbConfigBO.builder()
+		.url("jdbc:mysql://localhost:3306/test")
+		.username("root")
+		.schema("test")
+		.build();
+
+	@BeforeEach
+	void setUp() {
+		properties = new DataAgentProperties();
+		properties.getSqlResultCache().setEnabled(true);
+		cache = new SqlResultCache(properties);
+	}
+
+	private ResultSetBO result(String value) {
+		return ResultSetBO.builder().column(List.of("name")).data(List.of(Map.of("name", value))).build();
+	}
+
+	@Test
+	void get_afterPut_returnsCachedResultAndCountsHit() {
+		ResultSetBO result = result("alice");
+		cache.put(1L, dbConfig, "SELECT name FROM users", result);
+
+		assertEquals(result, cache.get(1L, dbConfig, "SELECT name FROM users;"));
+		assertNull(cache.get(2L, dbConfig, "SELECT name FROM users"));
+
+		SqlResultCache.CacheStats stats = cache.getStats();
+		assertEquals(1, stats.hits());
+		assertEquals(1, stats.misses());
+	}
+
+	@Test
+	void get_returnsReadOnlyViewThatCallersCannotCorrupt() {
+		cache.put(1L, dbConfig, "SELECT name FROM users", result("alice"));
+
+		ResultSetBO first = cache.get(1L, dbConfig, "SELECT name FROM users");
+		assertThrows(UnsupportedOperationException.class, () -> first.getData().get(0).put("name", "mallory"));
+		assertThrows(UnsupportedOperationException.class, () -> first.getColumn().clear());
+		first.setData(null);
+
+		ResultSetBO second = cache.get(1L, dbConfig, "SELECT name FROM users");
+		assertNotSame(first, second);
+		assertEquals(List.of("name"), second.getColumn());
+		assertEquals("alice", second.getData().get(0).get("name"));
+	}
+
+	@Test
+	void get_columnarResult_sharesCachedRowsWithoutCopying() {
+		ColumnarResultSet rows = new ColumnarResultSet(new String[] { "name" }, new int[] { Types.VARCHAR });
+		ResultSetBO columnar = ResultSetBO.builder().column(List.of("name")).data(rows).build();
+		cache.put(1L, dbConfig, "SELECT name FROM users", columnar);
+
+		assertSame(rows, cache.get(1L, dbConfig, "SELECT name FROM users").getData());
+		assertSame(rows, cache.get(1L, dbConfig, "SELECT name FROM users").getData());
+	}
+
+	@Test
+	void bindTo_exposesHitRate() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+		cache.put(1L, dbConfig, "SELECT 1", result("1"));
+		cache.get(1L, dbConfig, "SELECT 1");
+		cache.get(1L, dbConfig, "SELECT 2");
+
+		assertEquals(0.5, registry.get("dataagent.sql.result.cache.hit.rate").gauge().value());
+		assertEquals(1, registry.get("dataagent.sql.result.cache.requests")
+			.tag("result", "hit")
+			.functionCounter()
+			.count());
+	}
+
+	@Test
+	void put_nonSelectStatement_isNotCached() {
+		cache.put(1L, dbConfig, "DELETE FROM users", result("alice"));
+		assertNull(cache.get(1L, dbConfig, "DELETE FROM users"));
+	}
+
+	@Test
+	void put_overEntryLimit_evictsLeastRecentlyUsed() {
+		properties.getSqlResultCache().setMaxEntries(2);
+		cache.put(1L, dbConfig, "SELECT 1", result("1"));
+		cache.put(1L, dbConfig, "SELECT 2", result("2"));
+		// touch the first entry so the second becomes eldest
+		assertNotNull(cache.get(1L, dbConfig, "SELECT 1"));
+		cache.put(1L, dbConfig, "SELECT 3", result("3"));
+
+		assertNotNull(cache.get(1L, dbConfig, "SELECT 1"));
+		assertNull(cache.get(1L, dbConfig, "SELECT 2"));
+		assertNotNull(cache.get(1L, dbConfig, "SELECT 3"));
+		assertEquals(1, cache.getStats().evictions());
+	}
+
+	@Test
+	void invalidateAgent_removesOnlyThatAgentsEntries() {
+		cache.put(1L, dbConfig, "SELECT 1", result("1"));
+		cache.put(2L, dbConfig, "SELECT 1", result("1"));
+
+		cache.invalidateAgent(1L);
+
+		assertNull(cache.get(1L, dbConfig, "SELECT 1"));
+		assertNotNull(cache.get(2L, dbConfig, "SELECT 1"));
+	}
+
+	@Test
+	void invalidateDatasource_removesEntriesOfThatConnection() {
+		cache.put(1L, dbConfig, "SELECT 1", result("1"));
+
+		cache.invalidateDatasource(DbConfigBO.builder().url(dbConfig.getUrl()).username("root").build());
+
+		assertNull(cache.get(1L, dbConfig, "SELECT 1"));
+		assertEquals(0, cache.getStats().bytes());
+	}
+
+	@Test
+	void get_whenDisabled_returnsNull() {
+		cache.put(1L, dbConfig, "SELECT 1", result("1"));
+		properties.getSqlResultCache().setEnabled(false);
+		assertNull(cache.get(1L, dbConfig, "SELECT 1"));
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector.ddl;
+
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import com.alibaba.cloud.ai.dataagent.connector.impls.h2.H2JdbcDdl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 对比逐表查询与批量查询列元数据的结果和耗时（H2 内存库）
+ */
+@Slf4j
+class BulkColumnMetadataTest {
+
+	private static final int TABLE_COUNT = 300;
+
+	private Connection connection;
+
+	private final H2JdbcDdl ddl = new H2JdbcDdl();
+
+	private List<String> tables;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		connection = DriverManager.getConnection("jdbc:h2:mem:bulk_columns;DB_CLOSE_DELAY=-1");
+		tables = IntStream.range(0, TABLE_COUNT).mapToObj(i -> "T_" + i).toList();
+		try (Statement statement = connection.createStatement()) {
+			for (String table : tables) {
+				statement.execute("CREATE TABLE " + table
+						+ " (ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(64) NOT NULL, AMOUNT DECIMAL(10,2), "
+						+ "CREATED_AT TIMESTAMP, REMARK VARCHAR(255))");
+			}
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+		}
+		connection.close();
+	}
+
+	@Test
+	void showColumnsBatch_matchesPerTableQueries() {
+		Map<String, List<ColumnInfoBO>> batch = ddl.showColumnsBatch(connection, "PUBLIC", tables);
+
+		assertEquals(tables, new ArrayList<>(batch.keySet()));
+		for (String table : List.of("T_0", "T_150", "T_299")) {
+			List<ColumnInfoBO> single = ddl.showColumns(connection, "PUBLIC", table);
+			assertEquals(single.stream().map(ColumnInfoBO::getName).sorted().toList(),
+					batch.get(table).stream().map(ColumnInfoBO::getName).sorted().toList());
+			assertEquals(single.stream().filter(ColumnInfoBO::isPrimary).count(),
+					batch.get(table).stream().filter(ColumnInfoBO::isPrimary).count());
+			assertEquals(single.stream().filter(ColumnInfoBO::isNotnull).count(),
+					batch.get(table).stream().filter(ColumnInfoBO::isNotnull).count());
+		}
+	}
+
+	@Test
+	void showColumnsBatch_unknownTable_returnsEmptyList() {
+		Map<String, List<ColumnInfoBO>> batch = ddl.showColumnsBatch(connection, "PUBLIC", List.of("T_1", "MISSING"));
+
+		assertEquals(5, batch.get("T_1").size());
+		assertTrue(batch.get("MISSING").isEmpty());
+	}
+
+	@Test
+	void benchmark_batchVersusPerTable() {
+		// 预热
+		ddl.showColumnsBatch(connection, "PUBLIC", tables);
+		tables.forEach(table -> ddl.showColumns(connection, "PUBLIC", table));
+
+		long start = System.nanoTime();
+		tables.forEach(table -> ddl.showColumns(connection, "PUBLIC", table));
+		long perTableNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		Map<String, List<ColumnInfoBO>> batch = ddl.showColumnsBatch(connection, "PUBLIC", tables);
+		long batchNanos = System.nanoTime() - start;
+
+		log.info("Column metadata for {} tables: per-table {} ms ({} queries), batch {} ms ({} queries)", TABLE_COUNT,
+				perTableNanos / 1_000_000, TABLE_COUNT, batchNanos / 1_000_000,
+				(TABLE_COUNT + AbstractJdbcDdl.BULK_METADATA_BATCH_SIZE - 1) / AbstractJdbcDdl.BULK_METADATA_BATCH_SIZE);
+		assertEquals(TABLE_COUNT, batch.size());
+	}
+
+}
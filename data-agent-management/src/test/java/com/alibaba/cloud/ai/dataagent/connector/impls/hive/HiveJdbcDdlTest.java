@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector.impls.hive;
+
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HiveJdbcDdlTest {
+
+	private final HiveJdbcDdl ddl = new HiveJdbcDdl();
+
+	private static ResultSet columns(String table, String... names) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		Boolean[] more = new Boolean[names.length];
+		Arrays.fill(more, true);
+		more[names.length - 1] = false;
+		when(rs.next()).thenReturn(true, more);
+		when(rs.getString("TABLE_NAME")).thenReturn(table);
+		String[] rest = Arrays.copyOfRange(names, 1, names.length);
+		when(rs.getString("COLUMN_NAME")).thenReturn(names[0], rest);
+		when(rs.getString("TYPE_NAME")).thenReturn("STRING");
+		return rs;
+	}
+
+	@Test
+	void showColumnsBatch_queriesOnlyRequestedTablesInCurrentDatabase() throws Exception {
+		Connection connection = mock(Connection.class);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		when(connection.getMetaData()).thenReturn(metaData);
+		when(connection.getSchema()).thenReturn("sales");
+		ResultSet orders = columns("orders", "id", "amount");
+		ResultSet users = columns("users", "id");
+		when(metaData.getColumns(null, "sales", "orders", "%")).thenReturn(orders);
+		when(metaData.getColumns(null, "sales", "users", "%")).thenReturn(users);
+
+		Map<String, List<ColumnInfoBO>> result = ddl.showColumnsBatch(connection, null, List.of("orders", "users"));
+
+		assertEquals(List.of("id", "amount"), result.get("orders").stream().map(ColumnInfoBO::getName).toList());
+		assertEquals(List.of("id"), result.get("users").stream().map(ColumnInfoBO::getName).toList());
+		verify(metaData, never()).getColumns(any(), any(), eq("%"), anyString());
+		verify(orders).close();
+		verify(users).close();
+	}
+
+	@Test
+	void showColumnsBatch_similarTableNames_keepsOnlyOwnColumns() throws Exception {
+		Connection connection = mock(Connection.class);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		when(connection.getMetaData()).thenReturn(metaData);
+		when(connection.getSchema()).thenReturn("sales");
+		when(metaData.getSearchStringEscape()).thenReturn("\\");
+		// 驱动忽略转义时，a_b 的模式同时匹配到 axb
+		ResultSet underscore = mock(ResultSet.class);
+		when(underscore.next()).thenReturn(true, true, false);
+		when(underscore.getString("TABLE_NAME")).thenReturn("a_b", "axb");
+		when(underscore.getString("COLUMN_NAME")).thenReturn("k", "v");
+		when(underscore.getString("TYPE_NAME")).thenReturn("STRING");
+		ResultSet plain = columns("axb", "v");
+		when(metaData.getColumns(null, "sales", "a\\_b", "%")).thenReturn(underscore);
+		when(metaData.getColumns(null, "sales", "axb", "%")).thenReturn(plain);
+
+		Map<String, List<ColumnInfoBO>> result = ddl.showColumnsBatch(connection, null, List.of("a_b", "axb"));
+
+		assertEquals(List.of("k"), result.get("a_b").stream().map(ColumnInfoBO::getName).toList());
+		assertEquals(List.of("v"), result.get("axb").stream().map(ColumnInfoBO::getName).toList());
+	}
+
+	@Test
+	void escapePattern_escapesWildcardsAndEscapeCharacter() {
+		assertEquals("a\\_b\\%c\\\\d", HiveJdbcDdl.escapePattern("a_b%c\\d", "\\"));
+		assertEquals("a_b", HiveJdbcDdl.escapePattern("a_b", ""));
+		assertEquals("a_b", HiveJdbcDdl.escapePattern("a_b", null));
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.connector.pool;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.druid.pool.DruidDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourcePoolRegistryTest {
+
+	private DataAgentProperties properties;
+
+	private DataSourcePoolRegistry registry;
+
+	private final AtomicInteger created = new AtomicInteger();
+
+	private final AtomicReference<DruidDataSource> lastCreated = new AtomicReference<>();
+
+	private final DataSourcePoolRegistry.DataSourceFactory factory = (config, profile) -> {
+		created.incrementAndGet();
+		DruidDataSource dataSource = new DruidDataSource();
+		dataSource.setUrl(config.getUrl());
+		dataSource.setUsername(config.getUsername());
+		dataSource.setPassword(config.getPassword());
+		dataSource.setInitialSize(profile.getInitialSize());
+		dataSource.setMinIdle(profile.getMinIdle());
+		dataSource.setMaxActive(profile.getMaxActive());
+		lastCreated.set(dataSource);
+		return dataSource;
+	};
+
+	@BeforeEach
+	void setUp() {
+		properties = new DataAgentProperties();
+		registry = new DataSourcePoolRegistry(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		registry.closeAll();
+	}
+
+	private DbConfigBO config(String db, String profile) {
+		return DbConfigBO.builder()
+			.url("jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1")
+			.username("sa")
+			.password("")
+			.poolProfile(profile)
+			.build();
+	}
+
+	@Test
+	void getConnection_sameConfig_reusesPool() throws Exception {
+		try (Connection first = registry.getConnection(config("reuse", null), factory);
+				Connection second = registry.getConnection(config("reuse", null), factory)) {
+			assertNotNull(first);
+			assertNotNull(second);
+		}
+		assertEquals(1, created.get());
+
+		List<DataSourcePoolRegistry.PoolStats> stats = registry.getStats();
+		assertEquals(1, stats.size());
+		assertEquals(0, stats.get(0).active());
+	}
+
+	@Test
+	void resolveProfile_unknownName_fallsBackToDefault() {
+		DataAgentProperties.PoolProfile reporting = new DataAgentProperties.PoolProfile();
+		reporting.setMaxActive(50);
+		properties.getConnectionPool().getProfiles().put("reporting", reporting);
+
+		assertSame(reporting, registry.resolveProfile("reporting"));
+		assertSame(properties.getConnectionPool().getDefaultProfile(), registry.resolveProfile("missing"));
+		assertSame(properties.getConnectionPool().getDefaultProfile(), registry.resolveProfile(null));
+	}
+
+	@Test
+	void evict_closesPoolAndNextCallRecreatesIt() throws Exception {
+		DbConfigBO config = config("evict", null);
+		registry.getConnection(config, factory).close();
+
+		registry.evict(config.getUrl(), config.getUsername());
+		assertTrue(registry.getStats().isEmpty());
+
+		registry.getConnection(config, factory).close();
+		assertEquals(2, created.get());
+	}
+
+	@Test
+	void evictIdlePools_closesOnlyPoolsWithoutBorrowedConnections() throws Exception {
+		properties.getConnectionPool().setIdleTimeoutSeconds(1);
+		DbConfigBO config = config("idle", null);
+		Connection borrowed = registry.getConnection(config, factory);
+		Thread.sleep(1100);
+
+		registry.evictIdlePools();
+		assertEquals(1, registry.getStats().size());
+
+		borrowed.close();
+		registry.evictIdlePools();
+		assertTrue(registry.getStats().isEmpty());
+	}
+
+	@Test
+	void evict_withBorrowedConnection_closesPoolOnlyAfterConnectionIsReturned() throws Exception {
+		DbConfigBO config = config("evict_borrowed", null);
+		Connection borrowed = registry.getConnection(config, factory);
+		DruidDataSource pool = lastCreated.get();
+
+		registry.evict(config.getUrl(), config.getUsername());
+
+		// 回收后正在使用的连接仍可继续执行查询，连接池保持打开
+		assertFalse(pool.isClosed());
+		try (var statement = borrowed.createStatement(); var resultSet = statement.executeQuery("SELECT 1")) {
+			assertTrue(resultSet.next());
+		}
+		borrowed.close();
+		borrowed.close();
+		assertTrue(pool.isClosed());
+
+		registry.getConnection(config, factory).close();
+		assertEquals(2, created.get());
+	}
+
+}
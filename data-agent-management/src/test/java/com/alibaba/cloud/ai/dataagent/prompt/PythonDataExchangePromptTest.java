@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.prompt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PythonDataExchangePromptTest {
+
+	@Test
+	void render_jsonStdin_readsStdinWithoutSchemaSection() {
+		String prompt = render(PythonDataExchangePrompt.JSON_STDIN, null);
+
+		assertTrue(prompt.contains("    input_data = json.load(sys.stdin)\n"), prompt);
+		assertTrue(prompt.contains("    print(json.dumps(result, ensure_ascii=False))\n"), prompt);
+		assertFalse(prompt.contains("dataagent_io"), prompt);
+		assertFalse(prompt.contains("【输入列类型】"), prompt);
+	}
+
+	@Test
+	void render_columnar_usesHelperModuleAndSchema() {
+		String prompt = render(PythonDataExchangePrompt.COLUMNAR, "{\"columns\":[]}");
+
+		assertTrue(prompt.contains("from dataagent_io import read_input, write_result\n"), prompt);
+		assertTrue(prompt.contains("    df = read_input()\n"), prompt);
+		assertTrue(prompt.contains("    write_result(result)\n"), prompt);
+		assertTrue(prompt.contains("【输入列类型】\n\n```json\n{\"columns\":[]}\n```"), prompt);
+		assertFalse(prompt.contains("json.load(sys.stdin)\n"), prompt);
+	}
+
+	@Test
+	void of_selectsModeFromProperty() {
+		assertEquals(PythonDataExchangePrompt.COLUMNAR, PythonDataExchangePrompt.of(true));
+		assertEquals(PythonDataExchangePrompt.JSON_STDIN, PythonDataExchangePrompt.of(false));
+		assertEquals(PythonDataExchangePrompt.JSON_STDIN, PythonDataExchangePrompt.of(null));
+	}
+
+	private static String render(PythonDataExchangePrompt exchange, String inputSchema) {
+		Map<String, Object> params = new HashMap<>(Map.of("python_memory", "500", "python_timeout", "60s",
+				"database_schema", "{}", "sample_input", "[]", "plan_description", "{}"));
+		params.putAll(exchange.params(inputSchema));
+		return PromptConstant.getPythonGeneratorPromptTemplate().render(params);
+	}
+
+}
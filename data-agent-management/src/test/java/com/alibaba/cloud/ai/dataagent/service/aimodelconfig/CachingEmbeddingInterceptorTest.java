@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.aimodelconfig;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingEmbeddingInterceptorTest {
+
+	private EmbeddingModel target;
+
+	private AiModelRegistry registry;
+
+	private EmbeddingCache cache;
+
+	private EmbeddingModel model;
+
+	@BeforeEach
+	void setUp() {
+		target = mock(EmbeddingModel.class);
+		registry = mock(AiModelRegistry.class);
+		when(registry.getEmbeddingCacheNamespace(any())).thenReturn("1-abc");
+		cache = new EmbeddingCache(new DataAgentProperties());
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addInterface(EmbeddingModel.class);
+		proxyFactory.addAdvice(new CachingEmbeddingInterceptor(cache, registry));
+		model = (EmbeddingModel) proxyFactory.getProxy();
+	}
+
+	@Test
+	void embed_repeatedText_callsModelOnce() {
+		when(target.embed(anyString())).thenReturn(new float[] { 1f, 2f });
+
+		model.embed("query");
+		float[] second = model.embed("query");
+
+		assertArrayEquals(new float[] { 1f, 2f }, second);
+		verify(target, times(1)).embed("query");
+	}
+
+	@Test
+	void embedList_onlyMissingTextsAreSent() {
+		when(target.embed("a")).thenReturn(new float[] { 1f });
+		model.embed("a");
+		when(target.embed(anyList())).thenReturn(List.of(new float[] { 2f }, new float[] { 3f }));
+
+		List<float[]> result = model.embed(List.of("a", "b", "c", "b"));
+
+		verify(target).embed(List.of("b", "c"));
+		assertArrayEquals(new float[] { 1f }, result.get(0));
+		assertArrayEquals(new float[] { 2f }, result.get(1));
+		assertArrayEquals(new float[] { 3f }, result.get(2));
+		assertArrayEquals(new float[] { 2f }, result.get(3));
+	}
+
+	@Test
+	void embedForResponse_allCached_doesNotCallModel() {
+		when(target.embed(anyList())).thenReturn(List.of(new float[] { 1f }, new float[] { 2f }));
+		model.embed(List.of("a", "b"));
+
+		EmbeddingResponse response = model.embedForResponse(List.of("b", "a"));
+
+		assertEquals(2, response.getResults().size());
+		assertArrayEquals(new float[] { 2f }, response.getResults().get(0).getOutput());
+		verify(target, times(1)).embed(anyList());
+		verify(target, never()).embedForResponse(anyList());
+	}
+
+	@Test
+	void embed_inactiveModel_bypassesCache() {
+		when(registry.getEmbeddingCacheNamespace(any())).thenReturn(null);
+		when(target.embed(anyString())).thenReturn(new float[] { 1f });
+
+		model.embed("query");
+		model.embed("query");
+
+		verify(target, times(2)).embed("query");
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.aimodelconfig;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	private DataAgentProperties properties;
+
+	private EmbeddingCache cache;
+
+	@BeforeEach
+	void setUp() {
+		properties = new DataAgentProperties();
+		properties.getEmbeddingCache().setDiskPath(tempDir.toString());
+		cache = new EmbeddingCache(properties);
+	}
+
+	@Test
+	void get_afterPut_returnsVectorOnlyForSameNamespace() {
+		cache.put("1-abc", "query", new float[] { 1f, 2f });
+
+		assertArrayEquals(new float[] { 1f, 2f }, cache.get("1-abc", "query"));
+		assertNull(cache.get("2-abc", "query"));
+		assertEquals(1, cache.getStats().hits());
+		assertEquals(1, cache.getStats().misses());
+	}
+
+	@Test
+	void put_overEntryLimit_evictsLeastRecentlyUsed() {
+		properties.getEmbeddingCache().setMaxEntries(2);
+		cache.put("ns", "a", new float[] { 1f });
+		cache.put("ns", "b", new float[] { 2f });
+		assertNotNull(cache.get("ns", "a"));
+		cache.put("ns", "c", new float[] { 3f });
+
+		assertNotNull(cache.get("ns", "a"));
+		assertNull(cache.get("ns", "b"));
+		assertEquals(1, cache.getStats().evictions());
+	}
+
+	@Test
+	void get_afterRestartWithDiskTier_readsFromDisk() {
+		properties.getEmbeddingCache().setDiskEnabled(true);
+		cache.put("ns", "query", new float[] { 0.5f, -1.25f, 3f });
+
+		EmbeddingCache restarted = new EmbeddingCache(properties);
+
+		assertArrayEquals(new float[] { 0.5f, -1.25f, 3f }, restarted.get("ns", "query"));
+		assertEquals(1, restarted.getStats().diskHits());
+		// 回填内存后不再读磁盘
+		restarted.get("ns", "query");
+		assertEquals(1, restarted.getStats().hits());
+	}
+
+	@Test
+	void invalidate_removesMemoryAndDiskEntriesOfNamespace() {
+		properties.getEmbeddingCache().setDiskEnabled(true);
+		cache.put("old", "query", new float[] { 1f });
+		cache.put("other", "query", new float[] { 2f });
+
+		cache.invalidate("old");
+
+		assertNull(cache.get("old", "query"));
+		assertNull(new EmbeddingCache(properties).get("old", "query"));
+		assertNotNull(cache.get("other", "query"));
+	}
+
+	@Test
+	void put_overDiskByteBudget_evictsLeastRecentlyUsedFiles() {
+		properties.getEmbeddingCache().setDiskEnabled(true);
+		// 每条 4 字节头 + 2 个 float = 12 字节，预算只够两条
+		properties.getEmbeddingCache().setDiskMaxBytes(24);
+		cache.put("ns", "a", new float[] { 1f, 1f });
+		cache.put("ns", "b", new float[] { 2f, 2f });
+		cache.clear();
+		assertNotNull(cache.get("ns", "a"));
+		cache.put("ns", "c", new float[] { 3f, 3f });
+
+		EmbeddingCache restarted = new EmbeddingCache(properties);
+		assertNotNull(restarted.get("ns", "a"));
+		assertNull(restarted.get("ns", "b"));
+		assertNotNull(restarted.get("ns", "c"));
+		assertEquals(1, cache.getStats().diskEvictions());
+		assertEquals(24, cache.getStats().diskBytes());
+	}
+
+	@Test
+	void bindTo_exposesHitRateAndRequestCounters() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+		cache.put("ns", "query", new float[] { 1f });
+		cache.get("ns", "query");
+		cache.get("ns", "other");
+
+		assertEquals(0.5, registry.get("dataagent.embedding.cache.hit.rate").gauge().value());
+		assertEquals(1, registry.get("dataagent.embedding.cache.requests")
+			.tag("result", "miss")
+			.functionCounter()
+			.count());
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.aimodelconfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class InFlightEmbeddingInterceptorTest {
+
+	private static EmbeddingModel proxy(EmbeddingModel target) {
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addInterface(EmbeddingModel.class);
+		proxyFactory.addAdvice(new InFlightEmbeddingInterceptor());
+		return (EmbeddingModel) proxyFactory.getProxy();
+	}
+
+	@Test
+	void embed_concurrentIdenticalText_callsModelOnce() throws Exception {
+		EmbeddingModel target = mock(EmbeddingModel.class);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		float[] vector = new float[] { 1f, 2f };
+		when(target.embed(anyString())).thenAnswer(invocation -> {
+			entered.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return vector;
+		});
+		EmbeddingModel model = proxy(target);
+
+		CompletableFuture<float[]> first = CompletableFuture.supplyAsync(() -> model.embed("query"));
+		assertTrue(entered.await(5, TimeUnit.SECONDS));
+		CompletableFuture<float[]> second = CompletableFuture.supplyAsync(() -> model.embed("query"));
+		// 等待第二个调用进入等待状态后再放行
+		Thread.sleep(100);
+		release.countDown();
+
+		assertSame(vector, first.get(5, TimeUnit.SECONDS));
+		assertSame(vector, second.get(5, TimeUnit.SECONDS));
+		verify(target, times(1)).embed("query");
+	}
+
+	@Test
+	void embed_sequentialCalls_areNotCached() {
+		EmbeddingModel target = mock(EmbeddingModel.class);
+		when(target.embed(anyString())).thenReturn(new float[] { 1f });
+		EmbeddingModel model = proxy(target);
+
+		model.embed("query");
+		model.embed("query");
+
+		verify(target, times(2)).embed("query");
+	}
+
+	@Test
+	void embed_failure_isPropagatedAndNotRetained() {
+		EmbeddingModel target = mock(EmbeddingModel.class);
+		when(target.embed(anyString())).thenThrow(new IllegalStateException("model down"))
+			.thenReturn(new float[] { 1f });
+		EmbeddingModel model = proxy(target);
+
+		assertThrows(IllegalStateException.class, () -> model.embed("query"));
+		assertEquals(1, model.embed("query").length);
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.code;
+
+import com.alibaba.cloud.ai.dataagent.service.code.ColumnarInputWriter.ColumnSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ColumnarInputWriterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void inferSchema_detectsColumnTypes() {
+		List<Map<String, String>> rows = List.of(
+				row("id", "1", "price", "9.5", "day", "2025-01-01", "zip", "01234", "name", "a", "big",
+						"18446744073709551615"),
+				row("id", "", "price", "10", "day", "2025-01-02 10:00:00", "zip", "10001", "name", "3", "big", "1"));
+
+		List<ColumnSpec> schema = ColumnarInputWriter.inferSchema(rows);
+
+		assertEquals(List.of(new ColumnSpec("id", "int64"), new ColumnSpec("price", "float64"),
+				new ColumnSpec("day", "datetime"), new ColumnSpec("zip", "string"), new ColumnSpec("name", "string"),
+				new ColumnSpec("big", "string")), schema);
+	}
+
+	@Test
+	void inferSchema_emptyColumnIsString() {
+		assertEquals(List.of(new ColumnSpec("c", "string")),
+				ColumnarInputWriter.inferSchema(List.of(row("c", ""), row("c", ""))));
+		assertTrue(ColumnarInputWriter.inferSchema(List.of()).isEmpty());
+	}
+
+	@Test
+	void write_quotesSpecialCharactersAndWritesSchema() throws Exception {
+		ColumnarInputWriter.write(List.of(row("k", "a,b", "v", "1"), row("k", "say \"hi\"\n", "v", "")), dir);
+
+		assertEquals("k,v\n\"a,b\",1\n\"say \"\"hi\"\"\n\",\n",
+				Files.readString(dir.resolve(ColumnarInputWriter.DATA_FILE)));
+		String schema = Files.readString(dir.resolve(ColumnarInputWriter.SCHEMA_FILE));
+		assertTrue(schema.contains("{\"name\":\"v\",\"type\":\"int64\"}"), schema);
+		assertTrue(schema.contains("\"rows\":2"), schema);
+		assertTrue(Files.exists(dir.resolve(ColumnarInputWriter.HELPER_MODULE)));
+	}
+
+	@Test
+	void write_nullTable_writesEmptyInput() throws Exception {
+		ColumnarInputWriter.write(null, dir);
+
+		assertEquals("", Files.readString(dir.resolve(ColumnarInputWriter.DATA_FILE)));
+		assertTrue(Files.readString(dir.resolve(ColumnarInputWriter.SCHEMA_FILE)).contains("\"rows\":0"));
+	}
+
+	@Test
+	void helperModule_readsTypedRecordsAndWritesResult() throws Exception {
+		assumeTrue(pythonAvailable(), "python3 is not installed");
+		ColumnarInputWriter.write(List.of(row("id", "1", "price", "2.5", "name", "中文,名"),
+				row("id", "", "price", "3", "name", "")), dir);
+		Files.writeString(dir.resolve("script.py"), """
+				from dataagent_io import read_records, write_result
+				rows = read_records()
+				write_result({"rows": rows, "types": [type(r["id"]).__name__ for r in rows], "nan": float("nan")})
+				""");
+
+		Process process = new ProcessBuilder("python3", "script.py").directory(dir.toFile())
+			.redirectErrorStream(true)
+			.start();
+		String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+		assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+
+		assertEquals(0, process.exitValue(), output);
+		assertEquals("{\"rows\": [{\"id\": 1, \"price\": 2.5, \"name\": \"中文,名\"}, "
+				+ "{\"id\": null, \"price\": 3.0, \"name\": \"\"}], \"types\": [\"int\", \"NoneType\"], \"nan\": null}\n",
+				output);
+	}
+
+	@Test
+	void helperModule_reportsUnparsedDatetimeValues() throws Exception {
+		assumeTrue(pythonAvailable(), "python3 is not installed");
+		ColumnarInputWriter.write(List.of(row("day", "2025-01-01", "v", "1"), row("day", "n/a", "v", "2"),
+				row("day", "", "v", "3")), dir);
+		Files.writeString(dir.resolve(ColumnarInputWriter.SCHEMA_FILE),
+				"{\"columns\":[{\"name\":\"day\",\"type\":\"datetime\"},{\"name\":\"v\",\"type\":\"int64\"}],\"rows\":3}");
+		Files.writeString(dir.resolve("script.py"), """
+				from dataagent_io import read_records, parse_failures, write_result
+				rows = read_records()
+				write_result({"days": [r["day"] for r in rows], "failures": parse_failures()})
+				""");
+
+		Process process = new ProcessBuilder("python3", "script.py").directory(dir.toFile()).start();
+		String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+		String error = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+		assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+
+		assertEquals(0, process.exitValue(), error);
+		assertEquals("{\"days\": [\"2025-01-01T00:00:00\", \"n/a\", null], \"failures\": {\"day\": 1}}\n", output);
+		assertTrue(error.contains("1 value(s) in column 'day' could not be parsed as datetime"), error);
+	}
+
+	private static Map<String, String> row(String... keyValues) {
+		Map<String, String> row = new LinkedHashMap<>();
+		for (int i = 0; i < keyValues.length; i += 2) {
+			row.put(keyValues[i], keyValues[i + 1]);
+		}
+		return row;
+	}
+
+	private static boolean pythonAvailable() {
+		String path = System.getenv("PATH");
+		if (path == null) {
+			return false;
+		}
+		for (String entry : path.split(File.pathSeparator)) {
+			if (!entry.isBlank() && Files.isExecutable(Path.of(entry, "python3"))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
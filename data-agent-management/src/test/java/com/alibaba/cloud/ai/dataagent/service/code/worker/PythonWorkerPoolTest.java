@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.code.worker;
+
+import com.alibaba.cloud.ai.dataagent.properties.CodeExecutorProperties;
+import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService.TaskRequest;
+import com.alibaba.cloud.ai.dataagent.service.code.CodePoolExecutorService.TaskResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PythonWorkerPoolTest {
+
+	@TempDir
+	Path workDir;
+
+	private PythonWorkerPool pool;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		assumeTrue(pythonAvailable(), "python3 is not installed");
+		CodeExecutorProperties properties = new CodeExecutorProperties();
+		properties.setPreloadModules(List.of());
+		properties.setWarmWorkersPerEnvironment(1);
+		pool = new PythonWorkerPool(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (pool != null) {
+			pool.close();
+		}
+	}
+
+	@Test
+	void execute_runsCodeWithStdinInWorkDir() {
+		TaskResponse response = pool.execute("python3",
+				new TaskRequest("import os, sys\nprint(sys.stdin.read().upper())\nprint(os.getcwd())", "中文 input", null),
+				workDir, 10_000);
+
+		assertTrue(response.isSuccess(), response.toString());
+		assertTrue(response.stdOut().startsWith("中文 INPUT\n"), response.stdOut());
+		assertTrue(response.stdOut().contains(workDir.toAbsolutePath().toString()), response.stdOut());
+	}
+
+	@Test
+	void execute_reusedWorker_doesNotLeakStateBetweenTasks() {
+		TaskResponse first = pool.execute("python3", new TaskRequest("leaked = 42\nprint('set')", "", null), workDir,
+				10_000);
+		TaskResponse second = pool.execute("python3", new TaskRequest("print('leaked' in globals())", "", null),
+				workDir, 10_000);
+
+		assertEquals("set\n", first.stdOut());
+		assertEquals("False\n", second.stdOut());
+	}
+
+	@Test
+	void execute_errorsAndTimeouts_reportedAsFailures() {
+		TaskResponse error = pool.execute("python3", new TaskRequest("raise ValueError('boom')", "", null), workDir,
+				10_000);
+		TaskResponse timeout = pool.execute("python3", new TaskRequest("import time\ntime.sleep(5)", "", null),
+				workDir, 300);
+		TaskResponse afterTimeout = pool.execute("python3", new TaskRequest("print('alive')", "", null), workDir,
+				10_000);
+
+		assertTrue(error.executionSuccessButResultFailed());
+		assertTrue(error.stdErr().contains("ValueError: boom"), error.stdErr());
+		assertTrue(timeout.executionSuccessButResultFailed());
+		assertEquals("python code timeout, Killed.", timeout.stdErr());
+		assertEquals("alive\n", afterTimeout.stdOut());
+	}
+
+	@Test
+	void execute_beyondMaxActiveWorkers_waitsThenRejects() throws Exception {
+		CodeExecutorProperties properties = new CodeExecutorProperties();
+		properties.setPreloadModules(List.of());
+		properties.setMaxActiveWorkers(1);
+		properties.setWorkerAcquireTimeoutMillis(50L);
+		try (PythonWorkerPool bounded = new PythonWorkerPool(properties)) {
+			Path release = workDir.resolve("release");
+			CompletableFuture<TaskResponse> running = CompletableFuture.supplyAsync(() -> bounded.execute("python3",
+					new TaskRequest("import os, time\nwhile not os.path.exists('release'):\n    time.sleep(0.01)\nprint('done')",
+							"", null),
+					workDir, 10_000));
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (bounded.activeWorkers() == 0 && System.currentTimeMillis() < deadline) {
+				Thread.onSpinWait();
+			}
+
+			TaskResponse rejected = bounded.execute("python3", new TaskRequest("print('x')", "", null), workDir,
+					10_000);
+			Files.createFile(release);
+
+			assertFalse(rejected.isSuccess());
+			assertEquals("done\n", running.get(10, TimeUnit.SECONDS).stdOut());
+			assertEquals(0, bounded.activeWorkers());
+		}
+	}
+
+	@Test
+	void normalizeRequirements_ignoresOrderCommentsAndDuplicates() {
+		String a = PythonEnvironmentManager.normalizeRequirements("pandas==2.2\n# comment\n\nnumpy  \npandas==2.2\n");
+		String b = PythonEnvironmentManager.normalizeRequirements("numpy\r\npandas==2.2 # pinned");
+
+		assertEquals("numpy\npandas==2.2", a);
+		assertEquals(a, b);
+		assertEquals(PythonEnvironmentManager.environmentKey(a), PythonEnvironmentManager.environmentKey(b));
+		assertEquals("", PythonEnvironmentManager.normalizeRequirements("  \n# only comments"));
+	}
+
+	private static boolean pythonAvailable() {
+		String path = System.getenv("PATH");
+		if (path == null) {
+			return false;
+		}
+		for (String dir : path.split(File.pathSeparator)) {
+			if (!dir.isBlank() && Files.isExecutable(Path.of(dir, "python3"))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
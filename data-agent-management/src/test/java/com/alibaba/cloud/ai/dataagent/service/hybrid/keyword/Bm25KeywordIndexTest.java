@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.hybrid.keyword;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.DocumentMetadataIndex;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.DynamicFilterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class Bm25KeywordIndexTest {
+
+	private static final String TERM = DocumentMetadataConstant.BUSINESS_TERM;
+
+	private SimpleVectorStore vectorStore;
+
+	private DataAgentProperties properties;
+
+	private Bm25KeywordIndex index;
+
+	@BeforeEach
+	void setUp() {
+		vectorStore = mock(SimpleVectorStore.class);
+		when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+		properties = new DataAgentProperties();
+		properties.getVectorStore().setEnableHybridSearch(true);
+		index = new Bm25KeywordIndex(vectorStore, properties, new DocumentMetadataIndex(vectorStore, properties));
+	}
+
+	@Test
+	void search_exactIdentifierAndChineseTerms_rankMatchingDocumentFirst() {
+		index.addDocuments(List.of(doc("1", "1", TERM, 1, "业务名词: GMV, 说明: 商品交易总额"),
+				doc("2", "1", TERM, 2, "业务名词: 复购率, 说明: 重复购买用户占比"),
+				doc("3", "1", TERM, 3, "业务名词: order_status, 说明: 订单状态字段")));
+
+		assertEquals("1", ids(index.search("上月gmv是多少", 3, filter("1", TERM))).get(0));
+		assertEquals(List.of("3"), ids(index.search("orderStatus", 3, filter("1", TERM))));
+		assertEquals("2", ids(index.search("用户复购", 3, filter("1", TERM))).get(0));
+		assertNotNull(index.search("复购率", 1, filter("1", TERM)).get(0).getScore());
+	}
+
+	@Test
+	void search_honorsFullFilterExpression() {
+		index.addDocuments(List.of(doc("1", "1", TERM, 1, "GMV 商品交易总额"), doc("2", "1", TERM, 2, "GMV 口径说明"),
+				doc("3", "2", TERM, 3, "GMV 其他智能体")));
+
+		Filter.Expression onlyTwo = new Filter.Expression(Filter.ExpressionType.AND, filter("1", TERM),
+				DynamicFilterService.buildIdFilter(DocumentMetadataConstant.DB_BUSINESS_TERM_ID, new long[] { 2 }, 4,
+						id -> id));
+
+		assertEquals(List.of("2"), ids(index.search("GMV", 5, onlyTwo)));
+		assertEquals(2, index.search("GMV", 5, filter("1", TERM)).size());
+	}
+
+	@Test
+	void removeByIdsAndMetadata_dropDocumentsFromResults() {
+		index.addDocuments(List.of(doc("1", "1", TERM, 1, "GMV"), doc("2", "1", TERM, 2, "GMV 口径"),
+				doc("3", "1", TERM, 3, "GMV 统计")));
+
+		index.removeByIds(List.of("1"));
+		index.removeByMetadata(Map.of(Constant.AGENT_ID, "1", DocumentMetadataConstant.DB_BUSINESS_TERM_ID, 2));
+
+		assertEquals(List.of("3"), ids(index.search("GMV", 5, filter("1", TERM))));
+	}
+
+	@Test
+	void addDocuments_sameId_replacesPreviousText() {
+		index.addDocuments(List.of(doc("1", "1", TERM, 1, "GMV")));
+		index.addDocuments(List.of(doc("1", "1", TERM, 1, "复购率")));
+
+		assertTrue(index.search("GMV", 5, filter("1", TERM)).isEmpty());
+		assertEquals(List.of("1"), ids(index.search("复购率", 5, filter("1", TERM))));
+	}
+
+	@Test
+	void search_unloadedPartition_bootstrapsFromVectorStoreOnce() {
+		when(vectorStore.similaritySearch(any(SearchRequest.class)))
+			.thenReturn(List.of(doc("9", "7", TERM, 9, "DAU 日活跃用户数")));
+
+		assertEquals(List.of("9"), ids(index.search("dau", 5, filter("7", TERM))));
+		assertEquals(List.of("9"), ids(index.search("日活", 5, filter("7", TERM))));
+		verify(vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+	}
+
+	@Test
+	void search_bootstrapBeyondPageSize_loadsWholePartition() {
+		properties.getVectorStore().setKeywordIndexBootstrapPageSize(2);
+		List<Document> all = List.of(doc("1", "7", TERM, 1, "DAU 日活"), doc("2", "7", TERM, 2, "DAU 口径"),
+				doc("3", "7", TERM, 3, "DAU 统计"));
+		when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+			int topK = invocation.<SearchRequest>getArgument(0).getTopK();
+			return all.subList(0, Math.min(topK, all.size()));
+		});
+
+		assertEquals(3, index.search("dau", 5, filter("7", TERM)).size());
+		// topK 2 取满后扩大到 4，返回 3 条即取完
+		verify(vectorStore, times(2)).similaritySearch(any(SearchRequest.class));
+	}
+
+	@Test
+	void search_metadataIndexReady_bootstrapsWithoutVectorSearch() {
+		DocumentMetadataIndex metadataIndex = new DocumentMetadataIndex(vectorStore, properties);
+		metadataIndex.rebuild(List.of(doc("9", "7", TERM, 9, "DAU 日活跃用户数"), doc("8", "6", TERM, 8, "DAU")));
+		Bm25KeywordIndex indexed = new Bm25KeywordIndex(vectorStore, properties, metadataIndex);
+
+		assertEquals(List.of("9"), ids(indexed.search("dau", 5, filter("7", TERM))));
+		verify(vectorStore, never()).similaritySearch(any(SearchRequest.class));
+	}
+
+	@Test
+	void disabled_forExternalVectorStore() {
+		VectorStore external = mock(VectorStore.class);
+		Bm25KeywordIndex disabled = new Bm25KeywordIndex(external, properties,
+				new DocumentMetadataIndex(external, properties));
+		disabled.addDocuments(List.of(doc("1", "1", TERM, 1, "GMV")));
+
+		assertFalse(disabled.isEnabled());
+		assertTrue(disabled.search("GMV", 5, filter("1", TERM)).isEmpty());
+		verifyNoInteractions(external);
+	}
+
+	@Test
+	void disabled_whenHybridSearchOff() {
+		DataAgentProperties defaults = new DataAgentProperties();
+		Bm25KeywordIndex disabled = new Bm25KeywordIndex(vectorStore, defaults,
+				new DocumentMetadataIndex(vectorStore, defaults));
+		disabled.addDocuments(List.of(doc("1", "1", TERM, 1, "GMV")));
+
+		assertFalse(disabled.isEnabled());
+		assertTrue(disabled.search("GMV", 5, filter("1", TERM)).isEmpty());
+	}
+
+	@Test
+	void tokenize_splitsIdentifiersAndChineseBigrams() {
+		assertEquals(List.of("order_status", "order", "status", "订", "订单", "单"),
+				KeywordTokenizer.tokenize("order_status 订单"));
+		assertEquals(List.of("userid", "user", "id"), KeywordTokenizer.tokenize("userId"));
+	}
+
+	private static Filter.Expression filter(String agentId, String vectorType) {
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+		return b.and(b.eq(Constant.AGENT_ID, agentId), b.eq(DocumentMetadataConstant.VECTOR_TYPE, vectorType)).build();
+	}
+
+	private static Document doc(String id, String agentId, String vectorType, long termId, String text) {
+		return new Document(id, text, Map.of(Constant.AGENT_ID, agentId, DocumentMetadataConstant.VECTOR_TYPE,
+				vectorType, DocumentMetadataConstant.DB_BUSINESS_TERM_ID, termId));
+	}
+
+	private static List<String> ids(List<Document> documents) {
+		return documents.stream().map(Document::getId).toList();
+	}
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
+import com.alibaba.cloud.ai.dataagent.enums.EmbeddingStatus;
+import com.alibaba.cloud.ai.dataagent.enums.KnowledgeType;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class KnowledgeEmbeddingSchedulerTest {
+
+	private AgentKnowledgeMapper mapper;
+
+	private AgentKnowledgeResourceManager resourceManager;
+
+	private DataAgentProperties properties;
+
+	private KnowledgeEmbeddingScheduler scheduler;
+
+	private final ExecutorService workers = Executors.newCachedThreadPool();
+
+	private final Map<Integer, AgentKnowledge> knowledgeById = new ConcurrentHashMap<>();
+
+	private final List<String> statusUpdates = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		mapper = mock(AgentKnowledgeMapper.class);
+		when(mapper.selectById(any())).thenAnswer(invocation -> knowledgeById.get(invocation.<Integer>getArgument(0)));
+		when(mapper.update(any())).thenAnswer(invocation -> {
+			AgentKnowledge knowledge = invocation.getArgument(0);
+			statusUpdates.add(knowledge.getId() + ":" + knowledge.getEmbeddingStatus());
+			return 1;
+		});
+		when(mapper.claimPending(any())).thenAnswer(invocation -> {
+			statusUpdates.add(invocation.getArgument(0) + ":" + EmbeddingStatus.PROCESSING);
+			return 1;
+		});
+		resourceManager = mock(AgentKnowledgeResourceManager.class);
+
+		properties = new DataAgentProperties();
+		properties.getKnowledgeEmbedding().setMaxConcurrentJobs(1);
+		properties.getKnowledgeEmbedding().setMaxConcurrentJobsPerAgent(1);
+		properties.getKnowledgeEmbedding().setRetryBackoffMillis(10);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (scheduler != null) {
+			scheduler.destroy();
+		}
+		workers.shutdownNow();
+	}
+
+	@Test
+	void submit_runsQaBeforeDocumentsAndRotatesAcrossAgents() throws Exception {
+		CountDownLatch firstJobBlocked = new CountDownLatch(1);
+		CountDownLatch releaseFirstJob = new CountDownLatch(1);
+		CountDownLatch allDone = new CountDownLatch(5);
+		List<Integer> executionOrder = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			AgentKnowledge knowledge = invocation.getArgument(0);
+			executionOrder.add(knowledge.getId());
+			if (knowledge.getId() == 1) {
+				firstJobBlocked.countDown();
+				releaseFirstJob.await(5, TimeUnit.SECONDS);
+			}
+			allDone.countDown();
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		scheduler.submit(knowledge(1, 100, KnowledgeType.DOCUMENT, 1000L));
+		assertTrue(firstJobBlocked.await(5, TimeUnit.SECONDS));
+		scheduler.submit(knowledge(2, 100, KnowledgeType.DOCUMENT, 5000L));
+		scheduler.submit(knowledge(3, 100, KnowledgeType.QA, null));
+		scheduler.submit(knowledge(4, 200, KnowledgeType.DOCUMENT, 10L));
+		scheduler.submit(knowledge(5, 200, KnowledgeType.FAQ, null));
+		releaseFirstJob.countDown();
+
+		assertTrue(allDone.await(5, TimeUnit.SECONDS));
+		// 智能体100与200轮流出队，同一智能体内QA/FAQ优先
+		assertEquals(List.of(1, 3, 5, 2, 4), executionOrder);
+	}
+
+	@Test
+	void submit_queueFull_leavesJobPending() throws Exception {
+		properties.getKnowledgeEmbedding().setMaxQueuedJobs(0);
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		// 队列容量为0时拒绝入队，任务保持PENDING
+		assertFalse(scheduler.submit(knowledge(1, 100, KnowledgeType.QA, null)));
+		verify(resourceManager, never()).doEmbedingToVectorStore(any());
+	}
+
+	@Test
+	void failedJob_retriesWithBackoffThenCompletes() throws Exception {
+		CountDownLatch done = new CountDownLatch(2);
+		doAnswer(invocation -> {
+			done.countDown();
+			throw new IllegalStateException("rate limited");
+		}).doAnswer(invocation -> {
+			done.countDown();
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		scheduler.submit(knowledge(1, 100, KnowledgeType.QA, null));
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		awaitStatus("1:COMPLETED");
+		assertEquals(List.of("1:PROCESSING", "1:PENDING", "1:PROCESSING", "1:COMPLETED"), statusUpdates);
+	}
+
+	@Test
+	void failedJob_marksFailedWhenAttemptsExhausted() throws Exception {
+		properties.getKnowledgeEmbedding().setMaxAttempts(2);
+		doThrow(new IllegalStateException("bad file")).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		AgentKnowledge knowledge = knowledge(1, 100, KnowledgeType.DOCUMENT, 10L);
+		scheduler.submit(knowledge);
+
+		awaitStatus("1:FAILED");
+		verify(resourceManager, times(2)).doEmbedingToVectorStore(any());
+		assertEquals("bad file", knowledge.getErrorMsg());
+	}
+
+	@Test
+	void recoverOnStartup_resetsInterruptedJobsAndEnqueuesPending() throws Exception {
+		CountDownLatch done = new CountDownLatch(2);
+		doAnswer(invocation -> {
+			done.countDown();
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		when(mapper.resetStaleProcessingToPending(any())).thenReturn(1);
+		when(mapper.selectByEmbeddingStatus(eq(EmbeddingStatus.PENDING), any(), anyInt()))
+			.thenReturn(List.of(knowledge(1, 100, KnowledgeType.QA, null), knowledge(2, 200, KnowledgeType.QA, null)));
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		scheduler.recoverOnStartup();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		verify(mapper).resetStaleProcessingToPending(any());
+	}
+
+	@Test
+	void execute_claimedByAnotherInstance_skipsEmbedding() throws Exception {
+		when(mapper.claimPending(1)).thenReturn(0);
+		CountDownLatch secondDone = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			secondDone.countDown();
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		scheduler.submit(knowledge(1, 100, KnowledgeType.QA, null));
+		scheduler.submit(knowledge(2, 100, KnowledgeType.QA, null));
+
+		// 单线程按顺序执行，任务2完成时任务1已被跳过
+		assertTrue(secondDone.await(5, TimeUnit.SECONDS));
+		verify(resourceManager, times(1)).doEmbedingToVectorStore(any());
+		verify(mapper, never()).update(argThat(knowledge -> knowledge.getId() == 1));
+	}
+
+	@Test
+	void cancel_interruptsRunningJobWithoutRetry() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			started.countDown();
+			try {
+				new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+				throw new IllegalStateException("interrupted", e);
+			}
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		scheduler.submit(knowledge(1, 100, KnowledgeType.QA, null));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		scheduler.cancel(1);
+
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+		CountDownLatch nextDone = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			nextDone.countDown();
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler.submit(knowledge(2, 100, KnowledgeType.QA, null));
+
+		// 单线程执行，任务2开始时被取消的任务1已结束
+		assertTrue(nextDone.await(5, TimeUnit.SECONDS));
+		verify(resourceManager, times(2)).doEmbedingToVectorStore(any());
+		assertFalse(statusUpdates.contains("1:PENDING"));
+		assertFalse(statusUpdates.contains("1:FAILED"));
+	}
+
+	@Test
+	void cancel_jobIgnoringInterrupt_doesNotMarkCompleted() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			started.countDown();
+			// 不响应中断的向量化调用，取消后仍会正常返回
+			while (true) {
+				try {
+					release.await();
+					return null;
+				}
+				catch (InterruptedException ignored) {
+				}
+			}
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler = new KnowledgeEmbeddingScheduler(mapper, resourceManager, properties, workers);
+
+		scheduler.submit(knowledge(1, 100, KnowledgeType.QA, null));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		scheduler.cancel(1);
+		release.countDown();
+
+		CountDownLatch nextDone = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			nextDone.countDown();
+			return null;
+		}).when(resourceManager).doEmbedingToVectorStore(any());
+		scheduler.submit(knowledge(2, 100, KnowledgeType.QA, null));
+
+		assertTrue(nextDone.await(5, TimeUnit.SECONDS));
+		awaitStatus("2:COMPLETED");
+		assertFalse(statusUpdates.contains("1:COMPLETED"), statusUpdates.toString());
+	}
+
+	private AgentKnowledge knowledge(int id, int agentId, KnowledgeType type, Long fileSize) {
+		AgentKnowledge knowledge = new AgentKnowledge();
+		knowledge.setId(id);
+		knowledge.setAgentId(agentId);
+		knowledge.setType(type);
+		knowledge.setFileSize(fileSize);
+		knowledge.setEmbeddingStatus(EmbeddingStatus.PENDING);
+		knowledgeById.put(id, knowledge);
+		return knowledge;
+	}
+
+	private void awaitStatus(String expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!statusUpdates.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(statusUpdates.contains(expected), "missing status update " + expected + " in " + statusUpdates);
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.knowledge;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.entity.AgentKnowledge;
+import com.alibaba.cloud.ai.dataagent.enums.KnowledgeType;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
+import com.alibaba.cloud.ai.dataagent.strategy.EnhancedTokenCountBatchingStrategy;
+import com.alibaba.cloud.ai.dataagent.vo.KnowledgeIngestionProgressVO;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TextSplitter;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class KnowledgeIngestionPipelineTest {
+
+	private static final int MAX_TEXT_COUNT = 10;
+
+	private AgentVectorStoreService agentVectorStoreService;
+
+	private KnowledgeIngestionProgressTracker progressTracker;
+
+	private KnowledgeIngestionPipeline pipeline;
+
+	private final List<List<Document>> storedBatches = new ArrayList<>();
+
+	private final AgentKnowledge knowledge = new AgentKnowledge();
+
+	@BeforeEach
+	void setUp() {
+		// 按行切分，便于断言分块数量
+		TextSplitter lineSplitter = new TextSplitter() {
+			@Override
+			protected List<String> splitText(String text) {
+				return Arrays.stream(text.split("\n")).filter(line -> !line.isBlank()).collect(Collectors.toList());
+			}
+		};
+		TextSplitterFactory textSplitterFactory = mock(TextSplitterFactory.class);
+		when(textSplitterFactory.getSplitter(any())).thenReturn(lineSplitter);
+
+		agentVectorStoreService = mock(AgentVectorStoreService.class);
+		doAnswer(invocation -> {
+			storedBatches.add(invocation.getArgument(1));
+			return null;
+		}).when(agentVectorStoreService).addDocuments(eq("7"), anyList());
+
+		DataAgentProperties properties = new DataAgentProperties();
+		properties.getKnowledgeIngestion().setSegmentChars(1000);
+		properties.getKnowledgeIngestion().setFlushChunkCount(25);
+		properties.getKnowledgeEmbedding().setEmbeddingRequestsPerSecond(0);
+		progressTracker = new KnowledgeIngestionProgressTracker(properties);
+		pipeline = new KnowledgeIngestionPipeline(textSplitterFactory, agentVectorStoreService,
+				new EnhancedTokenCountBatchingStrategy(EncodingType.CL100K_BASE, 8000, 0.1, MAX_TEXT_COUNT),
+				properties, progressTracker, new EmbeddingRateLimiter(properties));
+
+		knowledge.setId(42);
+		knowledge.setAgentId(7);
+		knowledge.setType(KnowledgeType.DOCUMENT);
+		knowledge.setSplitterType("token");
+	}
+
+	@Test
+	void ingest_streamsSegmentsAndWritesTokenBoundedBatches() throws Exception {
+		String text = IntStream.range(0, 200)
+			.mapToObj(i -> "line " + i + " of the knowledge document")
+			.collect(Collectors.joining("\n"));
+
+		int stored = pipeline.ingest(knowledge, textResource(text));
+
+		assertEquals(200, stored);
+		assertTrue(storedBatches.size() >= 200 / MAX_TEXT_COUNT);
+		assertTrue(storedBatches.stream().allMatch(batch -> batch.size() <= MAX_TEXT_COUNT));
+		List<String> storedTexts = storedBatches.stream().flatMap(List::stream).map(Document::getText).toList();
+		assertEquals("line 0 of the knowledge document", storedTexts.get(0));
+		assertEquals("line 199 of the knowledge document", storedTexts.get(199));
+
+		Document first = storedBatches.get(0).get(0);
+		assertEquals("7", first.getMetadata().get(Constant.AGENT_ID));
+		assertEquals(42, first.getMetadata().get(DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID));
+		assertEquals("doc.txt", first.getMetadata().get("source"));
+
+		KnowledgeIngestionProgressVO progress = progressTracker.getProgress(42).orElseThrow();
+		assertEquals(KnowledgeIngestionProgressVO.STATUS_SUCCESS, progress.getStatus());
+		assertTrue(progress.getParsedSegments() > 1, "text should be parsed in several segments");
+		assertEquals(200, progress.getSplitChunks());
+		assertEquals(200, progress.getStoredChunks());
+		assertEquals(storedBatches.size(), progress.getStoredBatches());
+	}
+
+	@Test
+	void ingest_vectorStoreFailure_propagatesAndMarksProgressFailed() {
+		doThrow(new IllegalStateException("embedding quota exceeded")).when(agentVectorStoreService)
+			.addDocuments(any(), anyList());
+		String text = IntStream.range(0, 50).mapToObj(i -> "row " + i).collect(Collectors.joining("\n"));
+
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+				() -> pipeline.ingest(knowledge, textResource(text)));
+
+		assertEquals("embedding quota exceeded", e.getMessage());
+		KnowledgeIngestionProgressVO progress = progressTracker.getProgress(42).orElseThrow();
+		assertEquals(KnowledgeIngestionProgressVO.STATUS_FAILED, progress.getStatus());
+		assertEquals("embedding quota exceeded", progress.getMessage());
+	}
+
+	@Test
+	void ingest_failureAfterPartialWrite_deletesStoredChunks() {
+		doAnswer(invocation -> {
+			storedBatches.add(invocation.getArgument(1));
+			return null;
+		}).doThrow(new IllegalStateException("embedding quota exceeded"))
+			.when(agentVectorStoreService)
+			.addDocuments(eq("7"), anyList());
+		String text = IntStream.range(0, 200).mapToObj(i -> "row " + i).collect(Collectors.joining("\n"));
+
+		assertThrows(IllegalStateException.class, () -> pipeline.ingest(knowledge, textResource(text)));
+
+		assertEquals(1, storedBatches.size());
+		verify(agentVectorStoreService).deleteDocumentsByMetedata("7",
+				Map.of(Constant.AGENT_ID, "7", DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID, 42));
+	}
+
+	@Test
+	void ingest_blankFile_failsWithoutWriting() {
+		assertThrows(RuntimeException.class, () -> pipeline.ingest(knowledge, textResource("\n\n   \n")));
+
+		verify(agentVectorStoreService, never()).addDocuments(any(), anyList());
+		assertEquals(KnowledgeIngestionProgressVO.STATUS_FAILED,
+				progressTracker.getProgress(42).orElseThrow().getStatus());
+	}
+
+	@Test
+	void ingest_html_skipsHeadContent() throws Exception {
+		String html = "<html><head><title>Page Title</title><style>p { color: red; }</style></head>"
+				+ "<body><p>first paragraph</p><p>second paragraph</p></body></html>";
+		Resource resource = new ByteArrayResource(html.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public String getFilename() {
+				return "page.html";
+			}
+		};
+
+		pipeline.ingest(knowledge, resource);
+
+		List<String> storedTexts = storedBatches.stream()
+			.flatMap(List::stream)
+			.map(Document::getText)
+			.map(String::trim)
+			.toList();
+		assertEquals(List.of("first paragraph", "second paragraph"), storedTexts);
+	}
+
+	@Test
+	void progressTracker_evictsFinishedProgressOnly() {
+		List<Runnable> evictions = new ArrayList<>();
+		KnowledgeIngestionProgressTracker tracker = new KnowledgeIngestionProgressTracker(evictions::add);
+
+		tracker.start(1).complete();
+		tracker.start(2).fail("boom");
+		tracker.start(2);
+		evictions.forEach(Runnable::run);
+
+		assertTrue(tracker.getProgress(1).isEmpty());
+		assertEquals(KnowledgeIngestionProgressVO.STATUS_RUNNING, tracker.getProgress(2).orElseThrow().getStatus());
+	}
+
+	private static Resource textResource(String text) {
+		return new ByteArrayResource(text.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public String getFilename() {
+				return "doc.txt";
+			}
+		};
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.nl2sql;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentDatasourceMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.service.vectorstore.AgentVectorStoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SemanticAnswerCacheServiceImplTest {
+
+	private AgentVectorStoreService agentVectorStoreService;
+
+	private SemanticAnswerCacheServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		agentVectorStoreService = mock(AgentVectorStoreService.class);
+		AgentDatasourceMapper agentDatasourceMapper = mock(AgentDatasourceMapper.class);
+		when(agentDatasourceMapper.selectActiveDatasourceIdByAgentId(1L)).thenReturn(10);
+		DataAgentProperties properties = new DataAgentProperties();
+		properties.getSemanticCache().setEnabled(true);
+		service = new SemanticAnswerCacheServiceImpl(agentVectorStoreService, agentDatasourceMapper, properties);
+	}
+
+	private void cached(String query, String sql) {
+		Document document = new Document("entry-1", query,
+				Map.of(Constant.DATASOURCE_ID, "10", DocumentMetadataConstant.CACHED_SQL, sql,
+						DocumentMetadataConstant.CACHED_PLAN, "{}"));
+		when(agentVectorStoreService.vectorSearch(any())).thenReturn(List.of(document));
+	}
+
+	@Test
+	void lookup_sameLiterals_hits() {
+		cached("2024年北京的销售额", "SELECT SUM(amount) FROM orders WHERE city = '北京' AND year = 2024");
+
+		Optional<SemanticAnswerCacheService.CachedAnswer> answer = service.lookup("1", "北京2024年的销售额是多少");
+
+		assertTrue(answer.isPresent());
+	}
+
+	@Test
+	void lookup_differentNumber_misses() {
+		cached("2024年北京的销售额", "SELECT SUM(amount) FROM orders WHERE city = '北京' AND year = 2024");
+
+		assertTrue(service.lookup("1", "2023年北京的销售额").isEmpty());
+	}
+
+	@Test
+	void lookup_differentUnquotedEntity_misses() {
+		cached("2024年北京的销售额", "SELECT SUM(amount) FROM orders WHERE city = '北京' AND year = 2024");
+
+		assertTrue(service.lookup("1", "2024年上海的销售额").isEmpty());
+	}
+
+	@Test
+	void extractLiterals_keepsOrderOfQuotedTextNumbersAndWords() {
+		assertEquals(List.of("iphone", "2024-01-01", "华东 区", "15%"),
+				SemanticAnswerCacheServiceImpl.extractLiterals("iPhone 在 2024-01-01 “华东 区” 增长 15%"));
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.connector.DbQueryParameter;
+import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ColumnSamplerTest {
+
+	private Accessor accessor;
+
+	private DataAgentProperties properties;
+
+	private ColumnSampler sampler;
+
+	@BeforeEach
+	void setUp() {
+		accessor = mock(Accessor.class);
+		properties = new DataAgentProperties();
+		properties.getColumnSampling().setSampleRows(2);
+		sampler = new ColumnSampler(properties);
+	}
+
+	private static DbConfigBO dbConfig(String dialectType) {
+		return DbConfigBO.builder().url("jdbc:test").username("u").schema("s").dialectType(dialectType).build();
+	}
+
+	private static ResultSetBO rows(List<Map<String, String>> data) {
+		return ResultSetBO.builder().column(List.copyOf(data.get(0).keySet())).data(data).build();
+	}
+
+	private static List<ColumnInfoBO> columns(String idType) {
+		return List.of(ColumnInfoBO.builder().name("id").type(idType).build(),
+				ColumnInfoBO.builder().name("payload").type("bytea").build());
+	}
+
+	private List<String> executedSql() throws Exception {
+		ArgumentCaptor<DbQueryParameter> captor = ArgumentCaptor.forClass(DbQueryParameter.class);
+		verify(accessor, atLeastOnce()).executeSqlAndReturnObject(any(), captor.capture());
+		return captor.getAllValues().stream().map(DbQueryParameter::getSql).toList();
+	}
+
+	@Test
+	void sample_postgres_usesNativeSamplingAndProjectsProfiledColumns() throws Exception {
+		when(accessor.executeSqlAndReturnObject(any(), any()))
+			.thenReturn(rows(List.of(Map.of("id", "1"), Map.of("id", "2"), Map.of("id", "2"))));
+
+		Map<String, List<String>> samples = sampler.sample(dbConfig("postgresql"), accessor, "orders",
+				columns("int4"));
+
+		assertEquals(List.of("1", "2"), samples.get("id"));
+		assertEquals(List.of("SELECT id FROM orders TABLESAMPLE SYSTEM (1) LIMIT 2"), executedSql());
+	}
+
+	@Test
+	void sample_nativeSamplingFailsOrTooFewRows_fallsBackToLimitedRead() throws Exception {
+		when(accessor.executeSqlAndReturnObject(any(), argThat(p -> p != null && p.getSql().contains("TABLESAMPLE"))))
+			.thenThrow(new SQLException("TABLESAMPLE is not supported for views"));
+		when(accessor.executeSqlAndReturnObject(any(), argThat(p -> p != null && !p.getSql().contains("TABLESAMPLE"))))
+			.thenReturn(rows(List.of(Map.of("id", "7"))));
+
+		Map<String, List<String>> samples = sampler.sample(dbConfig("postgresql"), accessor, "order_view",
+				columns("int4"));
+
+		assertEquals(List.of("7"), samples.get("id"));
+		assertEquals("SELECT id FROM order_view LIMIT 2", executedSql().get(1));
+	}
+
+	@Test
+	void sample_sameTableStructure_isServedFromCache() throws Exception {
+		when(accessor.executeSqlAndReturnObject(any(), any()))
+			.thenReturn(rows(List.of(Map.of("id", "1"), Map.of("id", "2"))));
+
+		sampler.sample(dbConfig("mysql"), accessor, "orders", columns("int"));
+		sampler.sample(dbConfig("mysql"), accessor, "orders", columns("int"));
+		verify(accessor, times(1)).executeSqlAndReturnObject(any(), any());
+
+		// 列类型变化后重新采样
+		sampler.sample(dbConfig("mysql"), accessor, "orders", columns("bigint"));
+		verify(accessor, times(2)).executeSqlAndReturnObject(any(), any());
+	}
+
+	@Test
+	void sample_hivePartitionedTable_readsLatestPartitionOnly() throws Exception {
+		when(accessor.executeSqlAndReturnObject(any(), argThat(p -> p != null && p.getSql().startsWith("SHOW"))))
+			.thenReturn(rows(List.of(Map.of("partition", "dt=2024-01-02/hr=08"),
+					Map.of("partition", "dt=2024-01-03/hr=00"), Map.of("partition", "dt=2024-01-01/hr=23"))));
+		when(accessor.executeSqlAndReturnObject(any(), argThat(p -> p != null && p.getSql().startsWith("SELECT"))))
+			.thenReturn(rows(List.of(Map.of("id", "1"), Map.of("id", "2"))));
+
+		sampler.sample(dbConfig("hive"), accessor, "events", columns("bigint"));
+
+		assertEquals("SELECT id FROM events WHERE dt='2024-01-03' AND hr='00' LIMIT 2", executedSql().get(1));
+	}
+
+	@Test
+	void comparePartitionSpecs_comparesLevelByLevelWithTypedValues() {
+		assertTrue(ColumnSampler.comparePartitionSpecs("dt=2024-01-01/hr=10", "dt=2024-01-01/hr=8") > 0);
+		assertTrue(ColumnSampler.comparePartitionSpecs("dt=2024-1-10/hr=0", "dt=2024-01-9/hr=23") > 0);
+		assertTrue(ColumnSampler.comparePartitionSpecs("dt=20240110", "dt=20240109") > 0);
+		assertTrue(ColumnSampler.comparePartitionSpecs("region=us/dt=2024-01-01", "region=eu/dt=2024-02-01") > 0);
+		assertTrue(ColumnSampler.comparePartitionSpecs("dt=__HIVE_DEFAULT_PARTITION__", "dt=2024-01-01") < 0);
+		assertEquals(0, ColumnSampler.comparePartitionSpecs("hr=08", "hr=8"));
+	}
+
+	@Test
+	void toPartitionFilter_unescapesAndQuotesValues() {
+		assertEquals("city='New York' AND tag='it''s'", ColumnSampler.toPartitionFilter("city=New%20York/tag=it's"));
+		assertNull(ColumnSampler.toPartitionFilter("not-a-partition"));
+	}
+
+}
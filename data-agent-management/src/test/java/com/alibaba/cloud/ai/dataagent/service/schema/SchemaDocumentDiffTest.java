@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.util.DocumentConverterUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaDocumentDiffTest {
+
+	private static Document column(String table, String name, String type, String description) {
+		ColumnInfoBO column = ColumnInfoBO.builder()
+			.tableName(table)
+			.name(name)
+			.type(type)
+			.description(description)
+			.build();
+		return DocumentConverterUtil.convertColumnToDocument(1, TableInfoBO.builder().name(table).build(), column);
+	}
+
+	private static String key(Document document) {
+		return document.getMetadata().get(DocumentMetadataConstant.TABLE_NAME) + "."
+				+ document.getMetadata().get(DocumentMetadataConstant.NAME);
+	}
+
+	@Test
+	void fingerprint_isStableAndSensitiveToDefinition() {
+		Document first = column("orders", "amount", "decimal", "订单金额");
+		assertEquals(first.getMetadata().get(DocumentMetadataConstant.FINGERPRINT),
+				column("orders", "amount", "decimal", "订单金额").getMetadata()
+					.get(DocumentMetadataConstant.FINGERPRINT));
+		assertNotEquals(first.getMetadata().get(DocumentMetadataConstant.FINGERPRINT),
+				column("orders", "amount", "bigint", "订单金额").getMetadata()
+					.get(DocumentMetadataConstant.FINGERPRINT));
+	}
+
+	@Test
+	void fingerprint_ignoresSamples() {
+		ColumnInfoBO column = ColumnInfoBO.builder().name("city").type("varchar").samples("[\"北京\"]").build();
+		ColumnInfoBO resampled = ColumnInfoBO.builder().name("city").type("varchar").samples("[\"上海\"]").build();
+		TableInfoBO table = TableInfoBO.builder().name("orders").build();
+
+		assertEquals(
+				DocumentConverterUtil.convertColumnToDocument(1, table, column)
+					.getMetadata()
+					.get(DocumentMetadataConstant.FINGERPRINT),
+				DocumentConverterUtil.convertColumnToDocument(1, table, resampled)
+					.getMetadata()
+					.get(DocumentMetadataConstant.FINGERPRINT));
+	}
+
+	@Test
+	void diff_onlyReEmbedsAddedAndChangedDocuments() {
+		Document unchanged = column("orders", "id", "bigint", "订单ID");
+		Document changedOld = column("orders", "amount", "decimal", "金额");
+		Document removedOld = column("orders", "legacy", "varchar", "废弃字段");
+		Document duplicate = column("orders", "id", "bigint", "订单ID");
+
+		Document changedNew = column("orders", "amount", "decimal", "订单金额");
+		Document addedNew = column("orders", "status", "int", "订单状态");
+
+		List<String> idsToDelete = new ArrayList<>();
+		List<String> added = new ArrayList<>();
+		List<String> changed = new ArrayList<>();
+		List<String> removed = new ArrayList<>();
+		List<Document> toAdd = SchemaServiceImpl.diffSchemaDocuments(
+				List.of(unchanged, changedOld, removedOld, duplicate),
+				List.of(column("orders", "id", "bigint", "订单ID"), changedNew, addedNew),
+				SchemaDocumentDiffTest::key, idsToDelete, added, changed, removed);
+
+		assertEquals(List.of(changedNew, addedNew), toAdd);
+		assertEquals(List.of("orders.status"), added);
+		assertEquals(List.of("orders.amount"), changed);
+		assertEquals(List.of("orders.legacy"), removed);
+		assertTrue(idsToDelete.containsAll(List.of(changedOld.getId(), removedOld.getId(), duplicate.getId())));
+		assertFalse(idsToDelete.contains(unchanged.getId()));
+	}
+
+	@Test
+	void diff_documentWithoutFingerprint_isTreatedAsChanged() {
+		Document fresh = column("orders", "id", "bigint", "订单ID");
+		Map<String, Object> legacyMetadata = new HashMap<>(fresh.getMetadata());
+		legacyMetadata.remove(DocumentMetadataConstant.FINGERPRINT);
+		Document legacy = new Document(fresh.getText(), legacyMetadata);
+
+		List<String> idsToDelete = new ArrayList<>();
+		List<String> changed = new ArrayList<>();
+		List<Document> toAdd = SchemaServiceImpl.diffSchemaDocuments(List.of(legacy), List.of(fresh),
+				SchemaDocumentDiffTest::key, idsToDelete, new ArrayList<>(), changed, new ArrayList<>());
+
+		assertEquals(List.of(fresh), toAdd);
+		assertEquals(List.of("orders.id"), changed);
+		assertEquals(List.of(legacy.getId()), idsToDelete);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.ColumnInfoBO;
+import com.alibaba.cloud.ai.dataagent.bo.schema.TableInfoBO;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import com.alibaba.cloud.ai.dataagent.vo.SchemaInitProgressVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SchemaIngestionPipelineTest {
+
+	private final DbConfigBO dbConfig = DbConfigBO.builder().url("jdbc:h2:mem:test").schema("PUBLIC").build();
+
+	private TableMetadataService tableMetadataService;
+
+	private DataAgentProperties properties;
+
+	private ExecutorService executorService;
+
+	private SchemaIngestionPipeline pipeline;
+
+	private SchemaInitProgressTracker.Progress progress;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tableMetadataService = mock(TableMetadataService.class);
+		when(tableMetadataService.fetchTableColumns(anyList(), any())).thenAnswer(invocation -> {
+			List<TableInfoBO> tables = invocation.getArgument(0);
+			Map<String, List<ColumnInfoBO>> columns = new HashMap<>();
+			tables.forEach(table -> columns.put(table.getName(),
+					List.of(ColumnInfoBO.builder().name("id").type("int").primary(true).build())));
+			return columns;
+		});
+		doAnswer(invocation -> {
+			List<TableInfoBO> tables = invocation.getArgument(0);
+			Map<String, List<ColumnInfoBO>> columns = invocation.getArgument(2);
+			tables.forEach(table -> table.setColumns(columns.get(table.getName())));
+			return null;
+		}).when(tableMetadataService).enrichTablesWithSamples(anyList(), any(), any(), any());
+
+		properties = new DataAgentProperties();
+		properties.getSchemaIngestion().setTablesPerBatch(3);
+		properties.getSchemaIngestion().setRetryBackoffMillis(1);
+		executorService = Executors.newFixedThreadPool(4);
+		pipeline = new SchemaIngestionPipeline(tableMetadataService, properties, executorService);
+		progress = new SchemaInitProgressTracker(properties).start(1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	private static List<TableInfoBO> tables(int count) {
+		return IntStream.range(0, count)
+			.mapToObj(i -> TableInfoBO.builder().name("t_" + i).build())
+			.collect(Collectors.toList());
+	}
+
+	@Test
+	void run_writesEveryBatchAndReportsProgress() {
+		List<String> written = Collections.synchronizedList(new ArrayList<>());
+		List<String> failed = pipeline.run(1, tables(7), dbConfig, Map.of(), (batch, columnDocs, tableDocs) -> {
+			assertEquals(batch.size(), tableDocs.size());
+			assertEquals(batch.size(), columnDocs.size());
+			batch.forEach(table -> written.add(table.getName()));
+		}, progress);
+
+		assertTrue(failed.isEmpty());
+		assertEquals(7, written.size());
+		assertTrue(written.containsAll(tables(7).stream().map(TableInfoBO::getName).toList()));
+		SchemaInitProgressVO snapshot = progress.snapshot();
+		assertEquals(7, snapshot.getFetchedTables());
+		assertEquals(7, snapshot.getSampledTables());
+		assertEquals(7, snapshot.getStoredTables());
+	}
+
+	@Test
+	void run_failingBatch_isRetriedThenSkippedWithoutAffectingOthers() throws Exception {
+		properties.getSchemaIngestion().setMaxBatchRetries(2);
+		AtomicInteger attempts = new AtomicInteger();
+		List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+		List<String> failed = pipeline.run(1, tables(7), dbConfig, Map.of(), (batch, columnDocs, tableDocs) -> {
+			if (batch.stream().anyMatch(table -> table.getName().equals("t_4"))) {
+				attempts.incrementAndGet();
+				throw new IllegalStateException("embedding service unavailable");
+			}
+			batch.forEach(table -> written.add(table.getName()));
+		}, progress);
+
+		assertEquals(List.of("t_3", "t_4", "t_5"), failed);
+		assertEquals(3, attempts.get());
+		assertEquals(4, written.size());
+		assertEquals(failed, progress.snapshot().getFailedTables());
+	}
+
+	@Test
+	void run_storeStage_respectsConfiguredParallelism() {
+		properties.getSchemaIngestion().setTablesPerBatch(1);
+		properties.getSchemaIngestion().setEmbeddingParallelism(2);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+
+		pipeline.run(1, tables(10), dbConfig, Map.of(), (batch, columnDocs, tableDocs) -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			inFlight.decrementAndGet();
+		}, progress);
+
+		assertTrue(maxInFlight.get() <= 2, "max in-flight writes: " + maxInFlight.get());
+		assertEquals(10, progress.snapshot().getStoredTables());
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.bo.schema.SchemaSyncReport;
+import com.alibaba.cloud.ai.dataagent.vo.SchemaInitProgressVO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaInitProgressTrackerTest {
+
+	private final List<Runnable> pendingEvictions = new ArrayList<>();
+
+	private final SchemaInitProgressTracker tracker = new SchemaInitProgressTracker(pendingEvictions::add);
+
+	@Test
+	void complete_keepsFinalStateUntilRetentionElapses() {
+		SchemaInitProgressTracker.Progress progress = tracker.start(1);
+		progress.complete(new SchemaSyncReport(1, false));
+
+		assertEquals(SchemaInitProgressVO.STATUS_SUCCESS, tracker.getProgress(1).orElseThrow().getStatus());
+
+		pendingEvictions.forEach(Runnable::run);
+		assertTrue(tracker.getProgress(1).isEmpty());
+	}
+
+	@Test
+	void eviction_doesNotRemoveNewerRun() {
+		tracker.start(1).fail("boom");
+		tracker.start(1);
+
+		pendingEvictions.forEach(Runnable::run);
+
+		assertEquals(SchemaInitProgressVO.STATUS_RUNNING, tracker.getProgress(1).orElseThrow().getStatus());
+	}
+
+	@Test
+	void resumableTables_onlyForSameTableScope() {
+		tracker.recordFailedTables(1, List.of("a", "b", "c"), List.of("b"));
+
+		assertEquals(Set.of("b"), tracker.resumableTables(1, List.of("c", "b", "a")));
+		assertEquals(Set.of(), tracker.resumableTables(1, List.of("a", "b")));
+		assertEquals(Set.of(), tracker.resumableTables(1, null));
+		assertEquals(Set.of(), tracker.resumableTables(2, List.of("a", "b", "c")));
+
+		tracker.recordFailedTables(1, List.of("a", "b", "c"), List.of());
+		assertEquals(Set.of(), tracker.resumableTables(1, List.of("a", "b", "c")));
+	}
+
+}
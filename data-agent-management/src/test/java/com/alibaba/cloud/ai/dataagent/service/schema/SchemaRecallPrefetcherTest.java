@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.schema;
+
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentDatasourceMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SchemaRecallPrefetcherTest {
+
+	private SchemaService schemaService;
+
+	private AgentDatasourceMapper agentDatasourceMapper;
+
+	private DataAgentProperties properties;
+
+	private ExecutorService executorService;
+
+	private SchemaRecallPrefetcher prefetcher;
+
+	@BeforeEach
+	void setUp() {
+		schemaService = mock(SchemaService.class);
+		agentDatasourceMapper = mock(AgentDatasourceMapper.class);
+		properties = new DataAgentProperties();
+		properties.getSpeculativeSchemaRecall().setEnabled(true);
+		executorService = Executors.newSingleThreadExecutor();
+		prefetcher = new SchemaRecallPrefetcher(schemaService, agentDatasourceMapper, properties, executorService);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	private static Document table(String name) {
+		return new Document("table-" + name, name, Map.of("name", name));
+	}
+
+	private static Document column(String table, String name) {
+		return new Document("column-" + table + "-" + name, name,
+				Map.of(DocumentMetadataConstant.TABLE_NAME, table, "name", name));
+	}
+
+	@Test
+	void take_afterPrefetch_returnsResultOnlyOnce() {
+		when(agentDatasourceMapper.selectActiveDatasourceIdByAgentId(1L)).thenReturn(10);
+		when(schemaService.getTableDocumentsByDatasource(10, "question")).thenReturn(List.of(table("orders")));
+		when(schemaService.getColumnDocumentsByTableName(10, List.of("orders")))
+			.thenReturn(List.of(column("orders", "id")));
+
+		prefetcher.prefetch("1", "question");
+
+		Optional<SchemaRecallPrefetcher.RecallResult> result = prefetcher.take("1", "question", 10);
+		assertTrue(result.isPresent());
+		assertEquals(1, result.get().tableDocuments().size());
+		assertEquals(1, result.get().columnDocuments().size());
+		assertTrue(prefetcher.take("1", "question", 10).isEmpty());
+	}
+
+	@Test
+	void take_whenDatasourceChanged_returnsEmpty() {
+		when(agentDatasourceMapper.selectActiveDatasourceIdByAgentId(1L)).thenReturn(10);
+		when(schemaService.getTableDocumentsByDatasource(anyInt(), anyString())).thenReturn(List.of());
+
+		prefetcher.prefetch("1", "question");
+
+		assertTrue(prefetcher.take("1", "question", 11).isEmpty());
+	}
+
+	@Test
+	void take_whenDisabled_doesNotRecall() {
+		properties.getSpeculativeSchemaRecall().setEnabled(false);
+
+		prefetcher.prefetch("1", "question");
+
+		assertTrue(prefetcher.take("1", "question", 10).isEmpty());
+		verifyNoInteractions(schemaService, agentDatasourceMapper);
+	}
+
+	@Test
+	void refine_fetchesColumnsOnlyForTablesMissingFromPrefetch() {
+		SchemaRecallPrefetcher.RecallResult speculative = new SchemaRecallPrefetcher.RecallResult(10,
+				List.of(table("orders"), table("users")), List.of(column("orders", "id"), column("users", "id")));
+		when(schemaService.getColumnDocumentsByTableName(eq(10), any()))
+			.thenReturn(List.of(column("products", "id")));
+
+		SchemaRecallPrefetcher.RecallResult refined = prefetcher.refine(speculative,
+				List.of(table("products"), table("orders")));
+
+		assertEquals(List.of("products", "orders", "users"),
+				refined.tableDocuments().stream().map(Document::getText).toList());
+		assertEquals(3, refined.columnDocuments().size());
+		verify(schemaService).getColumnDocumentsByTableName(10, List.of("products"));
+	}
+
+	@Test
+	void prefetch_beyondMaxEntries_evictsEarliest() {
+		properties.getSpeculativeSchemaRecall().setMaxEntries(2);
+		when(agentDatasourceMapper.selectActiveDatasourceIdByAgentId(1L)).thenReturn(10);
+		when(schemaService.getTableDocumentsByDatasource(anyInt(), anyString())).thenReturn(List.of(table("orders")));
+		when(schemaService.getColumnDocumentsByTableName(eq(10), any())).thenReturn(List.of());
+
+		prefetcher.prefetch("1", "q1");
+		prefetcher.prefetch("1", "q2");
+		prefetcher.prefetch("1", "q3");
+
+		assertEquals(2, prefetcher.size());
+		assertTrue(prefetcher.take("1", "q1", 10).isEmpty());
+		assertTrue(prefetcher.take("1", "q3", 10).isPresent());
+	}
+
+	@Test
+	void take_afterExpiry_returnsEmpty() {
+		properties.getSpeculativeSchemaRecall().setExpireAfterWriteSeconds(0);
+		when(agentDatasourceMapper.selectActiveDatasourceIdByAgentId(1L)).thenReturn(10);
+		when(schemaService.getTableDocumentsByDatasource(anyInt(), anyString())).thenReturn(List.of());
+
+		prefetcher.prefetch("1", "question");
+
+		assertTrue(prefetcher.take("1", "question", 10).isEmpty());
+		assertEquals(0, prefetcher.size());
+	}
+
+}
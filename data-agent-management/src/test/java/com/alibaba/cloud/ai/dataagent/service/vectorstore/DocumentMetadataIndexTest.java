@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore;
+
+import com.alibaba.cloud.ai.dataagent.constant.Constant;
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DocumentMetadataIndexTest {
+
+	private static final FilterExpressionBuilder FILTER = new FilterExpressionBuilder();
+
+	private DocumentMetadataIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new DocumentMetadataIndex(mock(SimpleVectorStore.class), new DataAgentProperties());
+	}
+
+	@Test
+	void find_beforeRebuild_isNotReady() {
+		index.addDocuments(List.of(knowledge("k1", "1", 5)));
+
+		assertFalse(index.isReady());
+		assertTrue(index.find(null, 10).isEmpty());
+	}
+
+	@Test
+	void findIds_matchesIndexedAndNonIndexedConditions() {
+		index.rebuild(List.of(knowledge("k1", "1", 5), knowledge("k2", "1", 6), column("c1", "3", "orders"),
+				column("c2", "3", "users")));
+
+		assertTrue(index.isReady());
+		// 元数据中的 Integer 与过滤条件中的 Long 按数值相等
+		assertEquals(List.of("k1"), index.findIds(FILTER
+			.and(FILTER.eq(Constant.AGENT_ID, "1"), FILTER.eq(DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID, 5L))
+			.build()));
+		assertEquals(List.of("c2"),
+				index.findIds(FILTER
+					.and(FILTER.eq(Constant.DATASOURCE_ID, "3"),
+							FILTER.in(DocumentMetadataConstant.TABLE_NAME, "users"))
+					.build()));
+		assertEquals(2, index.find(FILTER.eq(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.COLUMN)
+			.build(), 10).size());
+		assertEquals(1, index.find(FILTER.eq(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.COLUMN)
+			.build(), 1).size());
+	}
+
+	@Test
+	void removeAndReAdd_keepPostingsConsistent() {
+		index.rebuild(List.of(knowledge("k1", "1", 5), knowledge("k2", "1", 6)));
+
+		index.removeByIds(List.of("k1", "missing"));
+		index.addDocuments(List.of(knowledge("k2", "2", 6)));
+
+		assertTrue(index.findIds(FILTER.eq(Constant.AGENT_ID, "1").build()).isEmpty());
+		assertEquals(List.of("k2"), index.findIds(FILTER.eq(Constant.AGENT_ID, "2").build()));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void rebuild_doesNotRestoreDocumentsRemovedBeforeReady() {
+		index.addDocuments(List.of(knowledge("k3", "1", 7), knowledge("k4", "2", 8)));
+		index.removeByFilter(FILTER.eq(Constant.AGENT_ID, "1").build());
+		index.removeByIds(List.of("c1"));
+
+		index.rebuild(List.of(knowledge("k1", "1", 5), knowledge("k2", "2", 6), column("c1", "3", "orders"),
+				column("c2", "3", "users")));
+
+		assertEquals(List.of("k4", "k2", "c2"), index.findIds(null));
+		index.addDocuments(List.of(knowledge("k5", "1", 9)));
+		assertEquals(List.of("k5"), index.findIds(FILTER.eq(Constant.AGENT_ID, "1").build()));
+	}
+
+	@Test
+	void rebuild_keepsDocumentsUpdatedBeforeReady() {
+		index.addDocuments(List.of(knowledge("k1", "2", 5)));
+
+		index.rebuild(List.of(knowledge("k1", "1", 5)));
+
+		assertEquals(List.of("k1"), index.findIds(FILTER.eq(Constant.AGENT_ID, "2").build()));
+	}
+
+	@Test
+	void removeByFilter_afterReady_removesMatchingDocuments() {
+		index.rebuild(List.of(column("c1", "3", "orders"), column("c2", "4", "orders")));
+
+		index.removeByFilter(FILTER.eq(Constant.DATASOURCE_ID, "3").build());
+
+		assertEquals(List.of("c2"), index.findIds(null));
+	}
+
+	@Test
+	void find_returnsCopies() {
+		index.rebuild(List.of(knowledge("k1", "1", 5)));
+
+		index.find(null, 1).get(0).getMetadata().put(Constant.AGENT_ID, "9");
+
+		assertEquals(List.of("k1"), index.findIds(FILTER.eq(Constant.AGENT_ID, "1").build()));
+	}
+
+	@Test
+	void externalVectorStore_isNeverReady() {
+		DocumentMetadataIndex external = new DocumentMetadataIndex(mock(VectorStore.class), new DataAgentProperties());
+
+		external.rebuild(List.of(knowledge("k1", "1", 5)));
+
+		assertFalse(external.isReady());
+	}
+
+	private static Document knowledge(String id, String agentId, int knowledgeId) {
+		return new Document(id, "question " + id,
+				Map.of(Constant.AGENT_ID, agentId, DocumentMetadataConstant.VECTOR_TYPE,
+						DocumentMetadataConstant.AGENT_KNOWLEDGE, DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID,
+						knowledgeId));
+	}
+
+	private static Document column(String id, String datasourceId, String tableName) {
+		return new Document(id, "column " + id, Map.of(Constant.DATASOURCE_ID, datasourceId,
+				DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.COLUMN,
+				DocumentMetadataConstant.TABLE_NAME, tableName));
+	}
+
+}
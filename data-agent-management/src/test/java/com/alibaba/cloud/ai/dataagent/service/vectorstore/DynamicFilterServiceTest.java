@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore;
+
+import com.alibaba.cloud.ai.dataagent.constant.DocumentMetadataConstant;
+import com.alibaba.cloud.ai.dataagent.event.KnowledgeRecallChangedEvent;
+import com.alibaba.cloud.ai.dataagent.mapper.AgentKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.mapper.BusinessKnowledgeMapper;
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DynamicFilterServiceTest {
+
+	private AgentKnowledgeMapper agentKnowledgeMapper;
+
+	private BusinessKnowledgeMapper businessKnowledgeMapper;
+
+	private DataAgentProperties properties;
+
+	private RecalledKnowledgeIdCache cache;
+
+	private DynamicFilterService service;
+
+	@BeforeEach
+	void setUp() {
+		agentKnowledgeMapper = mock(AgentKnowledgeMapper.class);
+		businessKnowledgeMapper = mock(BusinessKnowledgeMapper.class);
+		properties = new DataAgentProperties();
+		cache = new RecalledKnowledgeIdCache(agentKnowledgeMapper, businessKnowledgeMapper, properties);
+		service = new DynamicFilterService(cache, properties);
+	}
+
+	@Test
+	void buildDynamicFilter_cachesIdsUntilRecallChanged() {
+		when(agentKnowledgeMapper.selectRecalledKnowledgeIds(1)).thenReturn(List.of(3, 1, 2));
+
+		assertNotNull(service.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE));
+		assertNotNull(service.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE));
+		verify(agentKnowledgeMapper, times(1)).selectRecalledKnowledgeIds(1);
+
+		cache.onRecallChanged(new KnowledgeRecallChangedEvent(this, "1", DocumentMetadataConstant.AGENT_KNOWLEDGE));
+		when(agentKnowledgeMapper.selectRecalledKnowledgeIds(1)).thenReturn(List.of());
+
+		assertNull(service.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE));
+		verify(agentKnowledgeMapper, times(2)).selectRecalledKnowledgeIds(1);
+	}
+
+	@Test
+	void buildDynamicFilter_zeroTtl_alwaysQueriesDatabase() {
+		properties.getVectorStore().setRecalledIdCacheTtlSeconds(0);
+		when(businessKnowledgeMapper.selectRecalledKnowledgeIds(2L)).thenReturn(List.of(7L));
+
+		service.buildDynamicFilter("2", DocumentMetadataConstant.BUSINESS_TERM);
+		service.buildDynamicFilter("2", DocumentMetadataConstant.BUSINESS_TERM);
+
+		verify(businessKnowledgeMapper, times(2)).selectRecalledKnowledgeIds(2L);
+	}
+
+	@Test
+	void buildIdFilter_shortRuns_useSingleInCondition() {
+		Filter.Operand operand = DynamicFilterService.buildIdFilter("id", new long[] { 1, 2, 5, 9 }, 4, id -> id);
+
+		Filter.Expression in = assertInstanceOf(Filter.Expression.class, operand);
+		assertEquals(Filter.ExpressionType.IN, in.type());
+		assertEquals(List.of(1L, 2L, 5L, 9L), ((Filter.Value) in.right()).value());
+	}
+
+	@Test
+	void buildIdFilter_consecutiveRuns_compressToGroupedRanges() {
+		long[] ids = { 1, 2, 3, 4, 5, 8, 100, 101, 102, 103 };
+
+		Filter.Operand operand = DynamicFilterService.buildIdFilter("id", ids, 4, id -> (int) id);
+
+		Filter.Group group = assertInstanceOf(Filter.Group.class, operand);
+		Filter.Expression or = group.content();
+		assertEquals(Filter.ExpressionType.OR, or.type());
+		// ((id IN [8]) OR (1..5)) OR (100..103)
+		Filter.Expression left = assertInstanceOf(Filter.Expression.class, or.left());
+		Filter.Expression in = assertInstanceOf(Filter.Expression.class, left.left());
+		assertEquals(List.of(8), ((Filter.Value) in.right()).value());
+		Filter.Expression firstRange = ((Filter.Group) left.right()).content();
+		assertEquals(Filter.ExpressionType.AND, firstRange.type());
+		assertEquals(1, ((Filter.Value) ((Filter.Expression) firstRange.left()).right()).value());
+		assertEquals(5, ((Filter.Value) ((Filter.Expression) firstRange.right()).right()).value());
+		Filter.Expression secondRange = ((Filter.Group) or.right()).content();
+		assertEquals(100, ((Filter.Value) ((Filter.Expression) secondRange.left()).right()).value());
+		assertEquals(103, ((Filter.Value) ((Filter.Expression) secondRange.right()).right()).value());
+	}
+
+}
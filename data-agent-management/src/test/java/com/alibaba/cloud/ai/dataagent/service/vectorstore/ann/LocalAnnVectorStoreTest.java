@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.service.vectorstore.ann;
+
+import com.alibaba.cloud.ai.dataagent.properties.DataAgentProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LocalAnnVectorStoreTest {
+
+	private static final FilterExpressionBuilder FILTER = new FilterExpressionBuilder();
+
+	@TempDir
+	Path directory;
+
+	private EmbeddingModel embeddingModel;
+
+	private DataAgentProperties properties;
+
+	private final List<LocalAnnVectorStore> opened = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		embeddingModel = mock(EmbeddingModel.class);
+		when(embeddingModel.embed(anyString())).thenAnswer(invocation -> embed(invocation.getArgument(0)));
+		when(embeddingModel.embed(anyList(), any(EmbeddingOptions.class), any(BatchingStrategy.class)))
+			.thenAnswer(invocation -> {
+				List<Document> documents = invocation.getArgument(0);
+				return documents.stream().map(document -> embed(document.getText())).toList();
+			});
+		properties = new DataAgentProperties();
+		properties.getVectorStore().setLocalAnnPath(directory.resolve("ann").toString());
+		// 调小阈值，让过滤后的较大候选集走图检索
+		properties.getVectorStore().setLocalAnnExactSearchThreshold(50);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (LocalAnnVectorStore store : opened) {
+			store.destroy();
+		}
+	}
+
+	@Test
+	void similaritySearch_findsNearestDocumentAndHonorsFilter() {
+		LocalAnnVectorStore store = open();
+		store.add(documents(1000));
+
+		List<Document> nearest = store.similaritySearch(SearchRequest.builder().query(text(42)).topK(3).build());
+		assertEquals("d42", nearest.get(0).getId());
+		assertNotNull(nearest.get(0).getScore());
+		assertTrue(nearest.get(0).getMetadata().containsKey("distance"));
+
+		List<Document> filtered = store.similaritySearch(SearchRequest.builder()
+			.query(text(42))
+			.topK(10)
+			.similarityThreshold(0.0)
+			.filterExpression(FILTER.eq("agentId", "1").build())
+			.build());
+		assertEquals(10, filtered.size());
+		assertTrue(filtered.stream().allMatch(document -> "1".equals(document.getMetadata().get("agentId"))));
+
+		List<Document> exact = store.similaritySearch(SearchRequest.builder()
+			.query(text(42))
+			.topK(100)
+			.similarityThreshold(0.0)
+			.filterExpression(FILTER.lt("n", 20).build())
+			.build());
+		assertEquals(20, exact.size());
+	}
+
+	@Test
+	void reopen_withoutShutdown_recoversEveryAcknowledgedWrite() {
+		LocalAnnVectorStore store = open();
+		store.add(documents(300));
+		store.delete(List.of("d7"));
+		store.delete(FILTER.eq("agentId", "2").build());
+		store.add(List.of(document("d1", "replaced", Map.of("agentId", "9"))));
+
+		// 不调用 destroy，模拟进程崩溃
+		LocalAnnVectorStore recovered = open();
+
+		assertEquals(store.size(), recovered.size());
+		assertEquals(199, recovered.size());
+		List<Document> replaced = recovered.similaritySearch(SearchRequest.builder()
+			.query("replaced")
+			.topK(1)
+			.filterExpression(FILTER.eq("agentId", "9").build())
+			.build());
+		assertEquals("replaced", replaced.get(0).getText());
+		List<Document> all = recovered
+			.similaritySearch(SearchRequest.builder().query(text(7)).topK(300).similarityThreshold(0.0).build());
+		assertEquals(199, all.size());
+		assertTrue(all.stream()
+			.noneMatch(document -> document.getId().equals("d7") || "2".equals(document.getMetadata().get("agentId"))));
+	}
+
+	@Test
+	void delete_mostDocuments_compactsIntoNewGeneration() throws Exception {
+		LocalAnnVectorStore store = open();
+		store.add(documents(3000));
+
+		store.delete(FILTER.ne("agentId", "0").build());
+
+		assertEquals(1000, store.size());
+		assertTrue(Files.exists(directory.resolve("ann").resolve("vectors-1.bin")));
+		assertFalse(Files.exists(directory.resolve("ann").resolve("vectors-0.bin")));
+		assertEquals("d3", store.similaritySearch(SearchRequest.builder().query(text(3)).topK(1).build())
+			.get(0)
+			.getId());
+
+		store.destroy();
+		opened.remove(store);
+		assertEquals(1000, open().size());
+	}
+
+	@Test
+	void importSimpleVectorStoreFile_reusesStoredEmbeddingsOnce() throws Exception {
+		Path legacy = directory.resolve("vectorstore.json");
+		Files.writeString(legacy, """
+				{"a":{"id":"a","text":"hello","metadata":{"agentId":"1"},"embedding":[1.0,0.0]},
+				 "b":{"id":"b","text":"bye","metadata":{},"embedding":[0.0,2.0]}}
+				""");
+		LocalAnnVectorStore store = open();
+
+		assertEquals(2, store.importSimpleVectorStoreFile(legacy));
+		assertEquals(0, store.importSimpleVectorStoreFile(legacy));
+		assertEquals(2, store.size());
+		verify(embeddingModel, never()).embed(anyList(), any(EmbeddingOptions.class), any(BatchingStrategy.class));
+	}
+
+	@Test
+	void importSimpleVectorStoreFile_doesNotResurrectDeletedDocumentsAfterRestart() throws Exception {
+		Path legacy = directory.resolve("vectorstore.json");
+		Files.writeString(legacy, """
+				{"a":{"id":"a","text":"hello","metadata":{},"embedding":[1.0,0.0]}}
+				""");
+		LocalAnnVectorStore store = open();
+		assertEquals(1, store.importSimpleVectorStoreFile(legacy));
+		store.delete(List.of("a"));
+		store.destroy();
+		opened.remove(store);
+
+		LocalAnnVectorStore restarted = open();
+
+		assertEquals(0, restarted.importSimpleVectorStoreFile(legacy));
+		assertEquals(0, restarted.size());
+	}
+
+	@Test
+	void similaritySearch_indexedMetadataFilters_matchMixedValueTypes() {
+		LocalAnnVectorStore store = open();
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			documents.add(document("d" + i, text(i),
+					Map.of("agentId", i % 3, "vectorType", i % 2 == 0 ? "table" : "column", "n", i)));
+		}
+		store.add(documents);
+		store.delete(List.of("d0"));
+
+		List<Document> filtered = store.similaritySearch(SearchRequest.builder()
+			.query(text(42))
+			.topK(300)
+			.similarityThreshold(0.0)
+			.filterExpression(FILTER.and(FILTER.eq("agentId", "0"), FILTER.eq("vectorType", "table")).build())
+			.build());
+		assertEquals(49, filtered.size());
+		assertTrue(filtered.stream()
+			.allMatch(document -> ((Number) document.getMetadata().get("n")).intValue() % 6 == 0
+					&& !document.getId().equals("d0")));
+
+		List<Document> union = store.similaritySearch(SearchRequest.builder()
+			.query(text(42))
+			.topK(300)
+			.similarityThreshold(0.0)
+			.filterExpression(FILTER.and(FILTER.in("agentId", 1L, 2L), FILTER.lt("n", 30)).build())
+			.build());
+		assertEquals(20, union.size());
+	}
+
+	private LocalAnnVectorStore open() {
+		LocalAnnVectorStore store = new LocalAnnVectorStore(embeddingModel, mock(BatchingStrategy.class), properties);
+		opened.add(store);
+		return store;
+	}
+
+	private static List<Document> documents(int count) {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			documents.add(document("d" + i, text(i), Map.of("agentId", String.valueOf(i % 3), "n", i)));
+		}
+		return documents;
+	}
+
+	private static Document document(String id, String text, Map<String, Object> metadata) {
+		return Document.builder().id(id).text(text).metadata(new HashMap<>(metadata)).build();
+	}
+
+	private static String text(int i) {
+		return "column_" + i + " order amount " + (i * 7919 % 1000);
+	}
+
+	/**
+	 * 按字符分桶的确定性伪嵌入，相同文本得到相同向量
+	 */
+	private static float[] embed(String text) {
+		float[] vector = new float[32];
+		for (char c : text.toCharArray()) {
+			vector[c % 32] += 1;
+		}
+		vector[text.hashCode() & 31] += 0.5f;
+		return vector;
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.splitter;
+
+import com.alibaba.cloud.ai.dataagent.service.knowledge.EmbeddingRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SemanticTextSplitterTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void splitText_concurrentBatches_matchSequentialResult() {
+		String text = buildText(60);
+
+		List<String> sequential = splitter(mockModel(new AtomicInteger(), new AtomicInteger()), 1, null)
+			.splitText(text);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		List<String> concurrent = splitter(mockModel(inFlight, maxInFlight), 3, executor).splitText(text);
+
+		assertEquals(sequential, concurrent);
+		assertTrue(sequential.size() > 1, "long text should produce several chunks");
+		assertTrue(maxInFlight.get() <= 3, "in-flight batches exceeded limit: " + maxInFlight.get());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void splitText_repeatedContext_embeddedOnce() {
+		EmbeddingModel model = mockModel(new AtomicInteger(), new AtomicInteger());
+		String text = "重复的页眉。".repeat(30);
+
+		splitter(model, 1, null).splitText(text);
+
+		ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+		verify(model, atLeastOnce()).embedForResponse(batches.capture());
+		List<String> sent = batches.getAllValues().stream().flatMap(List::stream).toList();
+		// 首尾句的上下文为两句，中间句为三句，其余全部重复
+		assertEquals(2, sent.size());
+		assertEquals(2, sent.stream().distinct().count());
+	}
+
+	@Test
+	void splitText_acquiresRateLimitPermitPerBatch() {
+		EmbeddingModel model = mockModel(new AtomicInteger(), new AtomicInteger());
+		EmbeddingRateLimiter rateLimiter = mock(EmbeddingRateLimiter.class);
+		SemanticTextSplitter splitter = SemanticTextSplitter.builder()
+			.embeddingModel(model)
+			.minChunkSize(20)
+			.maxChunkSize(400)
+			.similarityThreshold(0.5)
+			.embeddingBatchSize(4)
+			.embeddingRateLimiter(rateLimiter)
+			.build();
+
+		splitter.splitText(buildText(10));
+
+		// 10 个不同的上下文按每批 4 条分为 3 批
+		verify(model, times(3)).embedForResponse(anyList());
+		verify(rateLimiter, times(3)).acquire();
+	}
+
+	@Test
+	void splitText_sharedPermits_boundInFlightBatchesAcrossCalls() throws Exception {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		ExecutorService unbounded = Executors.newCachedThreadPool();
+		try {
+			SemanticTextSplitter splitter = SemanticTextSplitter.builder()
+				.embeddingModel(mockModel(inFlight, maxInFlight))
+				.minChunkSize(20)
+				.maxChunkSize(400)
+				.similarityThreshold(0.5)
+				.embeddingBatchSize(4)
+				.maxConcurrentBatches(3)
+				.embeddingExecutor(unbounded)
+				.inFlightPermits(new Semaphore(2))
+				.build();
+			List<CompletableFuture<List<String>>> calls = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				calls.add(CompletableFuture.supplyAsync(() -> splitter.splitText(buildText(40)), executor));
+			}
+
+			for (CompletableFuture<List<String>> call : calls) {
+				assertFalse(call.get(30, TimeUnit.SECONDS).isEmpty());
+			}
+			assertTrue(maxInFlight.get() <= 2, "in-flight batches exceeded shared limit: " + maxInFlight.get());
+		}
+		finally {
+			unbounded.shutdownNow();
+		}
+	}
+
+	@Test
+	void cosineSimilarity_matchesScalarDefinition() {
+		float[] a = { 1f, 2f, 3f, 4f, 5f, 6f, 7f };
+		float[] b = { 7f, 6f, 5f, 4f, 3f, 2f, 1f };
+		double expected = 84.0 / (Math.sqrt(140.0) * Math.sqrt(140.0));
+
+		double actual = SemanticTextSplitter.cosineSimilarity(a, 1 / Math.sqrt(SemanticTextSplitter.dot(a, a)), b,
+				1 / Math.sqrt(SemanticTextSplitter.dot(b, b)));
+
+		assertEquals(expected, actual, 1e-9);
+		assertEquals(0.0, SemanticTextSplitter.cosineSimilarity(a, 0.0, b, 1.0));
+		assertEquals(0.0, SemanticTextSplitter.cosineSimilarity(new float[0], 1.0, b, 1.0));
+	}
+
+	private static SemanticTextSplitter splitter(EmbeddingModel model, int maxConcurrentBatches,
+			ExecutorService executor) {
+		return SemanticTextSplitter.builder()
+			.embeddingModel(model)
+			.minChunkSize(20)
+			.maxChunkSize(400)
+			.similarityThreshold(0.5)
+			.embeddingBatchSize(4)
+			.maxConcurrentBatches(maxConcurrentBatches)
+			.embeddingExecutor(executor)
+			.build();
+	}
+
+	/**
+	 * 按话题给出正交向量：包含 "topic-k" 的上下文文本落在第 k 维
+	 */
+	private static EmbeddingModel mockModel(AtomicInteger inFlight, AtomicInteger maxInFlight) {
+		EmbeddingModel model = mock(EmbeddingModel.class);
+		when(model.embedForResponse(anyList())).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(5);
+				List<String> batch = invocation.getArgument(0);
+				List<Embedding> results = new ArrayList<>();
+				for (int i = 0; i < batch.size(); i++) {
+					float[] vector = new float[8];
+					String context = batch.get(i);
+					for (int k = 0; k < vector.length; k++) {
+						if (context.contains("topic-" + k + " ")) {
+							vector[k] = 1f;
+						}
+					}
+					results.add(new Embedding(vector, i));
+				}
+				return new EmbeddingResponse(results);
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		});
+		return model;
+	}
+
+	private static String buildText(int sentences) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < sentences; i++) {
+			text.append("Sentence ").append(i).append(" about topic-").append(i / 10).append(" and details. ");
+		}
+		return text.toString();
+	}
+
+}
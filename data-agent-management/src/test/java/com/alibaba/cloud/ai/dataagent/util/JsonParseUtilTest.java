@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.util;
+
+import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JsonParseUtilTest {
+
+	private LlmService llmService;
+
+	private JsonParseUtil jsonParseUtil;
+
+	@BeforeEach
+	void setUp() {
+		llmService = mock(LlmService.class);
+		jsonParseUtil = new JsonParseUtil(llmService);
+	}
+
+	@Test
+	void tryConvertToObject_validJson_parsedStrictly() {
+		Map<?, ?> result = jsonParseUtil.tryConvertToObject("{\"a\": 1}", Map.class);
+
+		assertEquals(Map.of("a", 1), result);
+		assertEquals(new JsonParseUtil.RepairStats(1, 0, 0, 0, 0), jsonParseUtil.getStats());
+	}
+
+	@Test
+	void tryConvertToObject_markdownAndThink_parsedLeniently() {
+		String output = "<think>reasoning {</think>\n```json\n{\"a\": [1, 2,], // note\n 'b': 'x'}\n```";
+
+		Map<?, ?> result = jsonParseUtil.tryConvertToObject(output, Map.class);
+
+		assertEquals(Map.of("a", List.of(1, 2), "b", "x"), result);
+		assertEquals(1, jsonParseUtil.getStats().lenient());
+		verifyNoInteractions(llmService);
+	}
+
+	@Test
+	void tryConvertToObject_brokenJson_repairedWithoutLlm() {
+		String output = "结果如下：\n{\"sql\": \"SELECT \"name\" FROM t\", \"ok\": True, \"steps\": [{\"id\": 1, \"desc\": \"a\nb";
+
+		Map<String, Object> result = jsonParseUtil.tryConvertToObject(output, new TypeReference<>() {
+		});
+
+		assertEquals("SELECT \"name\" FROM t", result.get("sql"));
+		assertEquals(true, result.get("ok"));
+		assertEquals(List.of(Map.of("id", 1, "desc", "a\nb")), result.get("steps"));
+		assertEquals(1, jsonParseUtil.getStats().localRepair());
+		verifyNoInteractions(llmService);
+	}
+
+	@Test
+	void tryConvertToObject_unrepairable_fallsBackToLlm() {
+		when(llmService.callUser(anyString())).thenReturn(Flux.empty());
+		when(llmService.toStringFlux(any())).thenReturn(Flux.just("```json\n{\"name\": \"fixed\"}\n```"));
+
+		Target result = jsonParseUtil.tryConvertToObject("name is fixed", Target.class);
+
+		assertEquals("fixed", result.name);
+		assertEquals(1, jsonParseUtil.getStats().llm());
+		verify(llmService, times(1)).callUser(anyString());
+	}
+
+	@Test
+	void tryConvertToObject_llmCannotFix_throwsAfterRetries() {
+		when(llmService.callUser(anyString())).thenReturn(Flux.empty());
+		when(llmService.toStringFlux(any())).thenReturn(Flux.just("still not json"));
+
+		assertThrows(IllegalArgumentException.class, () -> jsonParseUtil.tryConvertToObject("nope", Target.class));
+		assertEquals(1, jsonParseUtil.getStats().failed());
+		verify(llmService, times(3)).callUser(anyString());
+	}
+
+	@Test
+	void tryConvertToObject_unclosedThink_sendsOriginalTextToLlm() {
+		when(llmService.callUser(anyString())).thenReturn(Flux.empty());
+		when(llmService.toStringFlux(any())).thenReturn(Flux.just("{\"name\": \"fixed\"}"));
+		String output = "<think>the answer should be name=fixed";
+
+		Target result = jsonParseUtil.tryConvertToObject(output, Target.class);
+
+		assertEquals("fixed", result.name);
+		verify(llmService).callUser(argThat(prompt -> prompt.contains("the answer should be name=fixed")));
+	}
+
+	@Test
+	void stripWrappers_nothingLeft_returnsOriginalText() {
+		assertEquals("<think>unfinished", JsonRepairUtil.stripWrappers("<think>unfinished"));
+		assertEquals("{\"a\": 1}", JsonRepairUtil.stripWrappers("<think>x</think>\n```json\n{\"a\": 1}\n```"));
+	}
+
+	@Test
+	void bindTo_exposesOutcomeCounters() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		jsonParseUtil.bindTo(registry);
+
+		jsonParseUtil.tryConvertToObject("{\"a\": 1}", Map.class);
+
+		assertEquals(1, registry.get("dataagent.json.parse").tag("outcome", "strict").functionCounter().count());
+	}
+
+	@Test
+	void repair_closesTruncatedStructuresAndDanglingKeys() {
+		assertEquals("{\"a\":1,\"b\":null}", JsonRepairUtil.repair("{\"a\":1,\"b\""));
+		assertEquals("{\"a\": [1, 2]}", JsonRepairUtil.repair("{\"a\": [1, 2}"));
+		assertEquals("{\"a\":\"x\", \"k\": \"v\"}", JsonRepairUtil.repair("{\"a\":\"x\", \"k\": v"));
+		assertEquals("[\"x\", null]", JsonRepairUtil.repair("['x', None,]"));
+	}
+
+	static class Target {
+
+		public String name;
+
+	}
+
+}
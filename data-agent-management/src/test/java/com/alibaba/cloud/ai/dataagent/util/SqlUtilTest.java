@@ -73,4 +73,28 @@ class SqlUtilTest {
 		assertThrows(IllegalArgumentException.class, () -> SqlUtil.buildSelectSql("mysql", "", "*", 10));
 	}
 
+	@Test
+	void buildSelectSql_withWhereClause_insertsFilterBeforeLimit() {
+		assertEquals("SELECT id FROM logs WHERE dt='2024-01-01' LIMIT 5",
+				SqlUtil.buildSelectSql("hive", "logs", "id", "dt='2024-01-01'", 5));
+		assertEquals("SELECT TOP 5 id FROM logs WHERE dt=1",
+				SqlUtil.buildSelectSql("sqlserver", "logs", "id", "dt=1", 5));
+	}
+
+	@Test
+	void buildSampleSql_usesNativeSamplingPerDialect() {
+		assertEquals("SELECT id FROM users TABLESAMPLE SYSTEM (1) LIMIT 5",
+				SqlUtil.buildSampleSql("postgresql", "users", "id", 5, 1.0));
+		assertEquals("SELECT id FROM users SAMPLE BLOCK (0.5) WHERE ROWNUM <= 5",
+				SqlUtil.buildSampleSql("oracle", "users", "id", 5, 0.5));
+		assertEquals("SELECT TOP 5 id FROM users TABLESAMPLE (1 PERCENT)",
+				SqlUtil.buildSampleSql("sqlserver", "users", "id", 5, 1));
+	}
+
+	@Test
+	void buildSampleSql_unsupportedDialectOrPercent_returnsNull() {
+		assertNull(SqlUtil.buildSampleSql("mysql", "users", "id", 5, 1.0));
+		assertNull(SqlUtil.buildSampleSql("postgresql", "users", "id", 5, 100));
+	}
+
 }
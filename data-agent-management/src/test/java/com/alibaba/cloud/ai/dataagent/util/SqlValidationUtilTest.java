@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.util;
+
+import com.alibaba.cloud.ai.dataagent.dto.schema.ColumnDTO;
+import com.alibaba.cloud.ai.dataagent.dto.schema.SchemaDTO;
+import com.alibaba.cloud.ai.dataagent.dto.schema.TableDTO;
+import com.alibaba.druid.DbType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlValidationUtilTest {
+
+	private static TableDTO table(String name, String... columns) {
+		TableDTO table = new TableDTO();
+		table.setName(name);
+		List<ColumnDTO> columnList = new ArrayList<>();
+		for (String column : columns) {
+			ColumnDTO columnDTO = new ColumnDTO();
+			columnDTO.setName(column);
+			columnList.add(columnDTO);
+		}
+		table.setColumn(columnList);
+		return table;
+	}
+
+	private static SchemaDTO schema() {
+		SchemaDTO schema = new SchemaDTO();
+		schema.setTable(List.of(table("users", "id", "name", "age"),
+				table("orders", "id", "user_id", "amount", "created_at")));
+		return schema;
+	}
+
+	@Test
+	void validate_joinWithAliases_passes() {
+		String sql = "SELECT u.name, SUM(o.amount) AS total FROM users u JOIN orders o ON u.id = o.user_id "
+				+ "WHERE o.created_at >= CURRENT_DATE GROUP BY u.name ORDER BY total DESC LIMIT 10";
+
+		assertEquals(List.of(), SqlValidationUtil.validate(sql, schema(), "MySQL", true));
+	}
+
+	@Test
+	void validate_cteAndSubquery_passes() {
+		String sql = "WITH t AS (SELECT user_id, SUM(amount) AS total FROM orders GROUP BY user_id) "
+				+ "SELECT s.name, t.total FROM (SELECT id, name FROM users) s JOIN t ON s.id = t.user_id";
+
+		assertEquals(List.of(), SqlValidationUtil.validate(sql, schema(), "MySQL", true));
+	}
+
+	@Test
+	void validate_unknownTable_reportsTable() {
+		List<String> errors = SqlValidationUtil.validate("SELECT id FROM customers", schema(), "MySQL", true);
+
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).contains("customers"));
+		assertTrue(errors.get(0).contains("users, orders"));
+	}
+
+	@Test
+	void validate_unknownColumn_reportsColumnAndTableColumns() {
+		List<String> errors = SqlValidationUtil.validate("SELECT u.nme FROM users u", schema(), "MySQL", true);
+
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).contains("nme"));
+		assertTrue(errors.get(0).contains("id, name, age"));
+	}
+
+	@Test
+	void validate_unknownColumn_ignoredWhenColumnCheckDisabled() {
+		assertEquals(List.of(), SqlValidationUtil.validate("SELECT nme FROM users", schema(), "MySQL", false));
+	}
+
+	@Test
+	void validate_postgresQuotedAndQualifiedNames_passes() {
+		String sql = "SELECT u.\"name\" FROM public.users u WHERE u.age > 18";
+
+		assertEquals(List.of(), SqlValidationUtil.validate(sql, schema(), "PostgreSQL", true));
+	}
+
+	@Test
+	void validate_nonSelectStatement_rejected() {
+		List<String> errors = SqlValidationUtil.validate("DELETE FROM users WHERE id = 1", schema(), "MySQL", true);
+
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).contains("DELETE"));
+	}
+
+	@Test
+	void validate_multipleStatements_rejected() {
+		List<String> errors = SqlValidationUtil.validate("SELECT id FROM users; SELECT id FROM orders", schema(),
+				"MySQL", true);
+
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).contains("2"));
+	}
+
+	@Test
+	void validate_syntaxError_reportsParserMessage() {
+		List<String> errors = SqlValidationUtil.validate("SELECT id FROM users WHERE", schema(), "MySQL", true);
+
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).startsWith("SQL语法错误"));
+	}
+
+	@Test
+	void validate_withoutSchema_onlyChecksStatement() {
+		assertEquals(List.of(), SqlValidationUtil.validate("SELECT id FROM customers", null, "MySQL", true));
+	}
+
+	@Test
+	void validate_unsupportedDialect_stillRejectsNonSelect() {
+		List<String> errors = SqlValidationUtil.validate("DELETE FROM users", schema(), "unknown", true);
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0).contains("DELETE"), errors.get(0));
+		assertEquals(1, SqlValidationUtil.validate("SELECT 1; SELECT 2", schema(), null, true).size());
+	}
+
+	@Test
+	void validate_unsupportedDialect_skipsIdentifierChecks() {
+		assertEquals(List.of(),
+				SqlValidationUtil.validate("SELECT missing FROM no_such_table", schema(), "unknown", true));
+	}
+
+	@Test
+	void toDbType_acceptsDialectCodeAndTypeName() {
+		assertNotNull(SqlValidationUtil.toDbType("MySQL"));
+		assertNotNull(SqlValidationUtil.toDbType("postgresql"));
+		assertNotNull(SqlValidationUtil.toDbType("mysql-vpc"));
+		assertEquals(DbType.other, SqlValidationUtil.toDbType(""));
+		assertEquals(DbType.other, SqlValidationUtil.toDbType("unknown"));
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dataagent.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadUtilTest {
+
+	/**
+	 * 模拟阻塞在IO上的并发任务数，远大于平台线程池大小
+	 */
+	private static final int CONCURRENT_TASKS = 1000;
+
+	private static final int PLATFORM_THREADS = 16;
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	void newVirtualThreadExecutor_beforeJdk21_throwsUnsupported() {
+		assertFalse(VirtualThreadUtil.isSupported());
+		assertThrows(UnsupportedOperationException.class, () -> VirtualThreadUtil.newVirtualThreadExecutor("test-"));
+	}
+
+	/**
+	 * 简单的负载对比：所有任务阻塞在同一个闩锁上直到测试放行。16个平台线程的线程池同一时刻只能有16个任务在阻塞，
+	 * 其余任务排队；虚拟线程下所有任务同时阻塞。用闩锁而不是睡眠计时，结果与机器负载无关。
+	 */
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void virtualThreadExecutor_blockingTasks_runConcurrently() throws Exception {
+		ThreadPoolExecutor platform = new ThreadPoolExecutor(PLATFORM_THREADS, PLATFORM_THREADS, 0L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>());
+		ExecutorService virtual = VirtualThreadUtil.newVirtualThreadExecutor("test-");
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			CountDownLatch platformStarted = submitBlockingTasks(platform, release);
+			assertTrue(platformStarted.getCount() >= CONCURRENT_TASKS - PLATFORM_THREADS);
+			// 线程池占满后其余任务都在排队，等待中的任务不会开始执行
+			assertFalse(platformStarted.await(0, TimeUnit.SECONDS));
+			assertEquals(CONCURRENT_TASKS - PLATFORM_THREADS, platform.getQueue().size());
+
+			CountDownLatch virtualStarted = submitBlockingTasks(virtual, release);
+			assertTrue(virtualStarted.await(30, TimeUnit.SECONDS),
+					"virtual tasks not started: " + virtualStarted.getCount());
+		}
+		finally {
+			release.countDown();
+			platform.shutdownNow();
+			virtual.shutdownNow();
+		}
+	}
+
+	private static CountDownLatch submitBlockingTasks(ExecutorService executor, CountDownLatch release) {
+		CountDownLatch started = new CountDownLatch(CONCURRENT_TASKS);
+		for (int i = 0; i < CONCURRENT_TASKS; i++) {
+			executor.submit(() -> {
+				started.countDown();
+				release.await();
+				return null;
+			});
+		}
+		return started;
+	}
+
+}
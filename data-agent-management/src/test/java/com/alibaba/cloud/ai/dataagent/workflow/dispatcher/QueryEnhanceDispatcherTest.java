@@ -48,6 +48,15 @@ class QueryEnhanceDispatcherTest {
 		assertEquals(SCHEMA_RECALL_NODE, dispatcher.apply(state));
 	}
 
+	@Test
+	void apply_semanticCacheHit_routesToSqlExecute() throws Exception {
+		OverAllState state = new OverAllState();
+		QueryEnhanceOutputDTO dto = TestFixtures.createQueryEnhanceDTO("查询用户数据");
+		state.updateState(Map.of(QUERY_ENHANCE_NODE_OUTPUT, dto, SEMANTIC_CACHE_HIT, "cache-1"));
+
+		assertEquals(SQL_EXECUTE_NODE, dispatcher.apply(state));
+	}
+
 	@Test
 	void apply_emptyCanonicalQuery_routesToEnd() throws Exception {
 		OverAllState state = new OverAllState();
@@ -43,6 +43,24 @@ class SQLExecutorDispatcherTest {
 		assertEquals(SQL_GENERATE_NODE, dispatcher.apply(state));
 	}
 
+	@Test
+	void apply_cachedSqlFailed_routesToSchemaRecall() {
+		OverAllState state = new OverAllState();
+		state.updateState(
+				Map.of(SQL_REGENERATE_REASON, SqlRetryDto.sqlExecute("unknown column"), SEMANTIC_CACHE_HIT, "cache-1"));
+
+		assertEquals(SCHEMA_RECALL_NODE, dispatcher.apply(state));
+	}
+
+	@Test
+	void apply_cachedSqlFailedAfterSchemaRecall_routesToSqlGenerate() {
+		OverAllState state = new OverAllState();
+		state.updateState(Map.of(SQL_REGENERATE_REASON, SqlRetryDto.sqlExecute("unknown column"), SEMANTIC_CACHE_HIT,
+				"cache-1", TABLE_RELATION_OUTPUT, "relation"));
+
+		assertEquals(SQL_GENERATE_NODE, dispatcher.apply(state));
+	}
+
 	@Test
 	void apply_noRetryReason_routesToPlanExecutor() {
 		OverAllState state = new OverAllState();
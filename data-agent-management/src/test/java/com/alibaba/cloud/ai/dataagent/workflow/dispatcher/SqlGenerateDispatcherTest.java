@@ -44,11 +44,11 @@ class SqlGenerateDispatcherTest {
 	}
 
 	@Test
-	void apply_validSqlOutput_routesToSemanticConsistency() {
+	void apply_validSqlOutput_routesToSqlValidate() {
 		OverAllState state = new OverAllState();
 		state.updateState(Map.of(SQL_GENERATE_OUTPUT, "SELECT * FROM users"));
 
-		assertEquals(SEMANTIC_CONSISTENCY_NODE, dispatcher.apply(state));
+		assertEquals(SQL_VALIDATE_NODE, dispatcher.apply(state));
 	}
 
 	@Test
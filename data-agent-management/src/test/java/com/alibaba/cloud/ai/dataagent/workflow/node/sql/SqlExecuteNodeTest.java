@@ -33,9 +33,12 @@ import org.mockito.quality.Strictness;
 
 import com.alibaba.cloud.ai.dataagent.bo.DbConfigBO;
 import com.alibaba.cloud.ai.dataagent.bo.schema.ResultSetBO;
+import com.alibaba.cloud.ai.dataagent.connector.AsyncSqlExecutor;
+import com.alibaba.cloud.ai.dataagent.connector.SqlResultCache;
 import com.alibaba.cloud.ai.dataagent.connector.accessor.Accessor;
 import com.alibaba.cloud.ai.dataagent.service.llm.LlmService;
 import com.alibaba.cloud.ai.dataagent.service.nl2sql.Nl2SqlService;
+import com.alibaba.cloud.ai.dataagent.service.nl2sql.SemanticAnswerCacheService;
 import com.alibaba.cloud.ai.dataagent.util.DatabaseUtil;
 import com.alibaba.cloud.ai.dataagent.util.JsonParseUtil;
 import com.alibaba.cloud.ai.dataagent.workflow.node.SqlExecuteNode;
@@ -80,11 +83,21 @@ class SqlExecuteNodeTest {
 	@Mock
 	private Accessor accessor;
 
+	@Mock
+	private SqlResultCache sqlResultCache;
+
+	@Mock
+	private SemanticAnswerCacheService semanticAnswerCacheService;
+
+	@Mock
+	private AsyncSqlExecutor asyncSqlExecutor;
+
 	private SqlExecuteNode sqlExecuteNode;
 
 	@BeforeEach
 	void setUp() {
-		sqlExecuteNode = new SqlExecuteNode(databaseUtil, nl2SqlService, llmService, properties, jsonParseUtil);
+		sqlExecuteNode = new SqlExecuteNode(databaseUtil, nl2SqlService, llmService, properties, jsonParseUtil,
+				sqlResultCache, semanticAnswerCacheService, asyncSqlExecutor);
 	}
 
 	private OverAllState createTestState() {
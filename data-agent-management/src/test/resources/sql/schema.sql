@@ -107,6 +107,7 @@ CREATE TABLE IF NOT EXISTS datasource (
   status VARCHAR(50) DEFAULT 'inactive' COMMENT '状态：active-启用，inactive-禁用',
   test_status VARCHAR(50) DEFAULT 'unknown' COMMENT '连接测试状态：success-成功，failed-失败，unknown-未知',
   description TEXT COMMENT '描述',
+  pool_profile VARCHAR(64) COMMENT '连接池配置名称，为空时使用默认配置',
   creator_id BIGINT COMMENT '创建者ID',
   create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',